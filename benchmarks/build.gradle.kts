@@ -0,0 +1,25 @@
+/*
+ * SPDX-FileCopyrightText: 2025 NewPipe e.V. <https://newpipe-ev.de>
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+
+plugins {
+    alias(libs.plugins.champeau.jmh)
+}
+
+dependencies {
+    jmh(project(":extractor"))
+    jmh(libs.newpipe.nanojson)
+    jmh(libs.google.jsr305)
+    jmh(libs.google.gson)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Benchmarks replay the requests recorded for the extractor tests instead of using the
+    // network, so that their results are reproducible
+    jvmArgsAppend.add(
+        "-Dnewpipe.mocks=" + project(":extractor").file("src/test/resources/mocks/v1").absolutePath
+    )
+    resultFormat = "JSON"
+}
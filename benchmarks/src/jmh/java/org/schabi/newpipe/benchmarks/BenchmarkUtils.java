@@ -0,0 +1,51 @@
+package org.schabi.newpipe.benchmarks;
+
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeJavaScriptPlayerManager;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
+
+import java.io.IOException;
+import java.util.Random;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Utility class for benchmarks.
+ */
+public final class BenchmarkUtils {
+    /**
+     * The directory of the requests recorded for the YouTube tests, relative to the mocks
+     * directory.
+     */
+    public static final String YOUTUBE_MOCKS = "org/schabi/newpipe/extractor/services/youtube/";
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Initialize NewPipe with a downloader replaying the requests recorded for a YouTube test.
+     *
+     * @param mocksPath the path of the recorded requests, relative to {@link #YOUTUBE_MOCKS}
+     * @return the downloader NewPipe has been initialized with
+     * @throws IOException if the recorded requests could not be read
+     */
+    @Nonnull
+    public static ReplayDownloader initYoutube(@Nonnull final String mocksPath)
+            throws IOException {
+        final ReplayDownloader downloader = ReplayDownloader.forMocks(YOUTUBE_MOCKS + mocksPath);
+        NewPipe.init(downloader);
+        resetYoutubeState();
+        return downloader;
+    }
+
+    /**
+     * Clear the static YouTube states, like the tests do before recording requests, so that
+     * each extraction sends the recorded requests again.
+     */
+    public static void resetYoutubeState() {
+        YoutubeParsingHelper.setConsentAccepted(false);
+        YoutubeParsingHelper.resetClientVersion();
+        YoutubeParsingHelper.setNumberGenerator(new Random(1));
+        YoutubeJavaScriptPlayerManager.clearAllCaches();
+    }
+}
@@ -0,0 +1,55 @@
+package org.schabi.newpipe.benchmarks;
+
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.ListExtractor;
+import org.schabi.newpipe.extractor.channel.tabs.ChannelTabExtractor;
+import org.schabi.newpipe.extractor.channel.tabs.ChannelTabs;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the extraction of the first page of the videos tab of a YouTube channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChannelTabBenchmark {
+    private static final String CHANNEL_ID = "user/creativecommons";
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkUtils.initYoutube("youtubechanneltabextractor/videos");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetState() {
+        BenchmarkUtils.resetYoutubeState();
+    }
+
+    @Benchmark
+    public ListExtractor.InfoItemsPage<InfoItem> videosTab()
+            throws IOException, ExtractionException {
+        final ChannelTabExtractor extractor =
+                YouTube.getChannelTabExtractorFromId(CHANNEL_ID, ChannelTabs.VIDEOS);
+        extractor.fetchPage();
+        return extractor.getInitialPage();
+    }
+}
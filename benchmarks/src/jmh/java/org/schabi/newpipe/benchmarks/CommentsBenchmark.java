@@ -0,0 +1,53 @@
+package org.schabi.newpipe.benchmarks;
+
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.schabi.newpipe.extractor.ListExtractor;
+import org.schabi.newpipe.extractor.comments.CommentsExtractor;
+import org.schabi.newpipe.extractor.comments.CommentsInfoItem;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the extraction of the first page of comments of a YouTube video.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CommentsBenchmark {
+    private static final String URL = "https://www.youtube.com/watch?v=D00Au7k3i6o";
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkUtils.initYoutube("youtubecommentsextractor/thomas");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetState() {
+        BenchmarkUtils.resetYoutubeState();
+    }
+
+    @Benchmark
+    public ListExtractor.InfoItemsPage<CommentsInfoItem> comments()
+            throws IOException, ExtractionException {
+        final CommentsExtractor extractor = YouTube.getCommentsExtractor(URL);
+        extractor.fetchPage();
+        return extractor.getInitialPage();
+    }
+}
@@ -0,0 +1,79 @@
+package org.schabi.newpipe.benchmarks;
+
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators.CreationException;
+import org.schabi.newpipe.extractor.services.youtube.dashmanifestcreators.YoutubeProgressiveDashManifestCreator;
+import org.schabi.newpipe.extractor.stream.DeliveryMethod;
+import org.schabi.newpipe.extractor.stream.Stream;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of DASH manifests for the progressive streams of a YouTube video.
+ *
+ * <p>
+ * The video is extracted once; only the creation of the manifests is measured.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DashManifestBenchmark {
+    private static final String URL = "https://www.youtube.com/watch?v=DJ8GQUNUXGM";
+
+    private final List<Stream> streams = new ArrayList<>();
+    private long durationSecs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ExtractionException {
+        BenchmarkUtils.initYoutube("youtubedashmanifestcreators");
+
+        final StreamExtractor extractor = YouTube.getStreamExtractor(URL);
+        extractor.fetchPage();
+        durationSecs = extractor.getLength();
+
+        final List<Stream> allStreams = new ArrayList<>(extractor.getVideoOnlyStreams());
+        allStreams.addAll(extractor.getAudioStreams());
+        for (final Stream stream : allStreams) {
+            if (stream.getDeliveryMethod() == DeliveryMethod.PROGRESSIVE_HTTP
+                    && stream.getItagItem() != null) {
+                streams.add(stream);
+            }
+        }
+        if (streams.isEmpty()) {
+            throw new ExtractionException("No progressive stream found");
+        }
+    }
+
+    @Benchmark
+    public void createManifests(final Blackhole blackhole) throws CreationException {
+        // Created manifests are cached, so that the cache must be cleared to measure their
+        // creation
+        YoutubeProgressiveDashManifestCreator.getCache().clear();
+        for (final Stream stream : streams) {
+            blackhole.consume(YoutubeProgressiveDashManifestCreator.fromProgressiveStreamingUrl(
+                    stream.getContent(), stream.getItagItem(), durationSecs));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.schabi.newpipe.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.schabi.newpipe.extractor.utils.JavaScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the execution of JavaScript functions with {@link JavaScript}, shaped like the
+ * deobfuscation functions of YouTube's player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JavaScriptBenchmark {
+    private static final String FUNCTION = "var h={r:function(a){a.reverse()},"
+            + "s:function(a,b){a.splice(0,b)},"
+            + "w:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}};"
+            + "function f(a){a=a.split(\"\");h.w(a,12);h.r(a);h.s(a,2);h.w(a,41);"
+            + "return a.join(\"\")}";
+    private static final String PARAMETER = "0123456789abcdefghijklmnopqrstuvwxyz"
+            + "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final List<String> PARAMETERS = List.of(PARAMETER, PARAMETER.toLowerCase(),
+            PARAMETER.toUpperCase(), new StringBuilder(PARAMETER).reverse().toString());
+
+    @Benchmark
+    public String run() {
+        return JavaScript.run(FUNCTION, "f", PARAMETER);
+    }
+
+    @Benchmark
+    public List<String> runForEach() {
+        return JavaScript.runForEach(FUNCTION, "f", PARAMETERS);
+    }
+
+    @Benchmark
+    public String compileAndRun() {
+        JavaScript.clearCompiledFunctionsCache();
+        return JavaScript.run(FUNCTION, "f", PARAMETER);
+    }
+}
@@ -0,0 +1,74 @@
+package org.schabi.newpipe.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptExtractor;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the extraction of functions from a recorded YouTube player with
+ * {@link JavaScriptExtractor} and {@link JavaScriptIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JavaScriptExtractorBenchmark {
+    private static final String PLAYER_URL =
+            "https://www.youtube.com/s/player/c9168c90/player_ias.vflset/en_GB/base.js";
+    private static final String FUNCTION_ASSIGNMENT = "=function(";
+    private static final String PLAYER_WRAPPER = "(function(g){";
+
+    private String playerCode;
+    /**
+     * The offset of the last function assigned to a name in the player.
+     */
+    private int lastFunctionOffset;
+    /**
+     * The offset of the function wrapping the whole player.
+     */
+    private int playerOffset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        playerCode = ReplayDownloader.forMocks(
+                BenchmarkUtils.YOUTUBE_MOCKS + "youtubejavascriptextractor/playercode")
+                .getRecordedResponseBody(PLAYER_URL);
+        lastFunctionOffset = playerCode.lastIndexOf(FUNCTION_ASSIGNMENT) + 1;
+        playerOffset = playerCode.indexOf(PLAYER_WRAPPER);
+    }
+
+    @Benchmark
+    public int findClosingBraceOfFunction() throws ParsingException {
+        return JavaScriptExtractor.findClosingBrace(playerCode, lastFunctionOffset);
+    }
+
+    /**
+     * Find the end of the function wrapping the whole player, which is the worst case of
+     * {@link JavaScriptExtractor#findClosingBrace(String, int)}.
+     */
+    @Benchmark
+    public int findClosingBraceOfPlayer() throws ParsingException {
+        return JavaScriptExtractor.findClosingBrace(playerCode, playerOffset);
+    }
+
+    @Benchmark
+    public JavaScriptIndex buildIndex() throws ParsingException {
+        return JavaScriptIndex.build(playerCode);
+    }
+}
@@ -0,0 +1,93 @@
+package org.schabi.newpipe.benchmarks;
+
+import com.grack.nanojson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.JsonPath;
+import org.schabi.newpipe.extractor.utils.JsonUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the access to the values of the related items of a recorded YouTube
+ * {@code next} response, with paths given as strings to {@link JsonUtils} and with compiled
+ * {@link JsonPath}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JsonPathBenchmark {
+    private static final String NEXT_URL =
+            "https://www.youtube.com/youtubei/v1/next?prettyPrint=false";
+    private static final String RESULTS = "contents.twoColumnWatchNextResults.secondaryResults"
+            + ".secondaryResults.results";
+
+    private static final String TITLE = "lockupViewModel.metadata.lockupMetadataViewModel.title"
+            + ".content";
+    private static final String VIDEO_ID = "lockupViewModel.contentId";
+    private static final String THUMBNAIL_URL = "lockupViewModel.contentImage.thumbnailViewModel"
+            + ".image.sources[0].url";
+
+    private static final JsonPath COMPILED_TITLE = JsonPath.compile(TITLE);
+    private static final JsonPath COMPILED_VIDEO_ID = JsonPath.compile(VIDEO_ID);
+    private static final JsonPath COMPILED_THUMBNAIL_URL = JsonPath.compile(THUMBNAIL_URL);
+
+    private final List<JsonObject> items = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ParsingException {
+        final JsonObject nextResponse = JsonUtils.toJsonObject(ReplayDownloader.forMocks(
+                BenchmarkUtils.YOUTUBE_MOCKS
+                        + "stream/youtubestreamextractordefault/descriptionpewdiepie")
+                .getRecordedResponseBody(NEXT_URL));
+
+        for (final Object result : JsonUtils.getArray(nextResponse, RESULTS)) {
+            // Only keep the items having all values, so that no exception is thrown
+            if (result instanceof JsonObject
+                    && COMPILED_TITLE.find((JsonObject) result) != null
+                    && COMPILED_VIDEO_ID.find((JsonObject) result) != null
+                    && COMPILED_THUMBNAIL_URL.find((JsonObject) result) != null) {
+                items.add((JsonObject) result);
+            }
+        }
+        if (items.isEmpty()) {
+            throw new ParsingException("No related item found");
+        }
+    }
+
+    @Benchmark
+    public void stringPaths(final Blackhole blackhole) throws ParsingException {
+        for (final JsonObject item : items) {
+            blackhole.consume(JsonUtils.getString(item, TITLE));
+            blackhole.consume(JsonUtils.getString(item, VIDEO_ID));
+            blackhole.consume(JsonUtils.getString(item, THUMBNAIL_URL));
+        }
+    }
+
+    @Benchmark
+    public void compiledPaths(final Blackhole blackhole) throws ParsingException {
+        for (final JsonObject item : items) {
+            blackhole.consume(COMPILED_TITLE.getString(item));
+            blackhole.consume(COMPILED_VIDEO_ID.getString(item));
+            blackhole.consume(COMPILED_THUMBNAIL_URL.getString(item));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.schabi.newpipe.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link Downloader} replaying the requests recorded for the extractor tests, like the
+ * {@code MockDownloader} of the tests.
+ *
+ * <p>
+ * Recorded requests are read from the directory given by the {@value #MOCKS_PROPERTY} system
+ * property, which is set by the Gradle build.
+ * </p>
+ */
+public final class ReplayDownloader extends Downloader {
+    public static final String MOCKS_PROPERTY = "newpipe.mocks";
+    private static final String FILE_NAME_PREFIX = "generated_mock_";
+
+    @Nonnull
+    private final Path directory;
+    private final Map<Request, Response> responses = new HashMap<>();
+
+    private ReplayDownloader(@Nonnull final Path directory) throws IOException {
+        this.directory = directory;
+        final Gson gson = new Gson();
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory,
+                entry -> entry.getFileName().toString().startsWith(FILE_NAME_PREFIX))) {
+            for (final Path entry : entries) {
+                try (Reader reader = Files.newBufferedReader(entry)) {
+                    final JsonObject recorded = gson.fromJson(reader, JsonObject.class);
+                    responses.put(gson.fromJson(recorded.get("request"), Request.class),
+                            gson.fromJson(recorded.get("response"), Response.class));
+                }
+            }
+        }
+        if (responses.isEmpty()) {
+            throw new IOException("No recorded request found in " + directory);
+        }
+    }
+
+    /**
+     * Create a downloader replaying the requests recorded for a test.
+     *
+     * @param mocksPath the path of the recorded requests, relative to the mocks directory, such
+     *                  as {@code org/schabi/newpipe/extractor/services/youtube/search/...}
+     * @return a downloader replaying the requests recorded in the given directory
+     * @throws IOException if the recorded requests could not be read
+     */
+    @Nonnull
+    public static ReplayDownloader forMocks(@Nonnull final String mocksPath) throws IOException {
+        final String mocksDirectory = System.getProperty(MOCKS_PROPERTY);
+        if (mocksDirectory == null) {
+            throw new IOException("The " + MOCKS_PROPERTY + " system property is not set");
+        }
+        return new ReplayDownloader(Paths.get(mocksDirectory, mocksPath));
+    }
+
+    /**
+     * Get the body of a recorded response.
+     *
+     * @param url the URL of the request
+     * @return the body of the first response recorded for a request to the given URL
+     * @throws IOException if no request to this URL has been recorded
+     */
+    @Nonnull
+    public String getRecordedResponseBody(@Nonnull final String url) throws IOException {
+        for (final Map.Entry<Request, Response> recorded : responses.entrySet()) {
+            if (recorded.getKey().url().equals(url)) {
+                return recorded.getValue().responseBody();
+            }
+        }
+        throw new IOException("No request to " + url + " recorded in " + directory);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request) throws IOException {
+        final Response response = responses.get(request);
+        if (response == null) {
+            // Benchmarks must not measure anything else than the replayed requests
+            throw new IOException("No request to " + request.url() + " recorded in "
+                    + directory);
+        }
+        return response;
+    }
+}
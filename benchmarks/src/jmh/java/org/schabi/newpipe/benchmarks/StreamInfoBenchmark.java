@@ -0,0 +1,51 @@
+package org.schabi.newpipe.benchmarks;
+
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the extraction of a YouTube video with {@link StreamInfo#getInfo}, including the
+ * download and the deobfuscation of its player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StreamInfoBenchmark {
+    private static final String URL = "https://www.youtube.com/watch?v=7PIMiDcwNvc&t=7483s";
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkUtils.initYoutube("stream/youtubestreamextractordefault/descriptionpewdiepie");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetState() {
+        // Each extraction must start from scratch to send the recorded requests; this is cheap
+        // compared to an extraction
+        BenchmarkUtils.resetYoutubeState();
+    }
+
+    @Benchmark
+    public StreamInfo getInfo() throws IOException, ExtractionException {
+        return StreamInfo.getInfo(YouTube, URL, null, null);
+    }
+}
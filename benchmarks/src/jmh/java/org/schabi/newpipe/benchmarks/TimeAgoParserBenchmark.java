@@ -0,0 +1,63 @@
+package org.schabi.newpipe.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.localization.TimeAgoParser;
+import org.schabi.newpipe.extractor.localization.TimeAgoPatternsManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parsing of textual dates with {@link TimeAgoParser#parse(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TimeAgoParserBenchmark {
+    /**
+     * Textual dates of each benchmarked language, covering all units.
+     */
+    private static final Map<String, List<String>> TEXTUAL_DATES = Map.of(
+            "en", List.of("5 seconds ago", "1 minute ago", "3 hours ago", "2 days ago",
+                    "1 week ago", "4 months ago", "10 years ago"),
+            "de", List.of("vor 5 Sekunden", "vor 1 Minute", "vor 3 Stunden", "vor 2 Tagen",
+                    "vor 1 Woche", "vor 4 Monaten", "vor 10 Jahren"),
+            "ja", List.of("5秒前", "1分前", "3時間前", "2日前", "1週間前", "4か月前", "10年前"));
+
+    @Param({"en", "de", "ja"})
+    private String languageCode;
+
+    private TimeAgoParser parser;
+    private List<String> textualDates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = TimeAgoPatternsManager.getTimeAgoParserFor(new Localization(languageCode));
+        textualDates = TEXTUAL_DATES.get(languageCode);
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws ParsingException {
+        for (final String textualDate : textualDates) {
+            blackhole.consume(parser.parse(textualDate));
+        }
+    }
+}
@@ -21,6 +21,8 @@
 package org.schabi.newpipe.extractor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.List;
 
@@ -32,6 +34,13 @@ public abstract class InfoItem implements Serializable {
     @Nonnull
     private List<Image> thumbnails = List.of();
 
+    /**
+     * The optional fields which are extracted when they are first accessed, see
+     * {@link InfoItemsCollector#setLazyExtraction(boolean)}.
+     */
+    @Nullable
+    private transient LazyInfoItemFields<?> lazyFields;
+
     public InfoItem(final InfoType infoType,
                     final int serviceId,
                     final String url,
@@ -67,6 +76,52 @@ public abstract class InfoItem implements Serializable {
         return thumbnails;
     }
 
+    /**
+     * Set the fields which are extracted when they are first accessed.
+     */
+    void setLazyFields(@Nullable final LazyInfoItemFields<?> lazyFields) {
+        this.lazyFields = lazyFields;
+    }
+
+    /**
+     * Extract an optional field if it is extracted on first access and hasn't been extracted or
+     * set yet. Getters of optional fields call this before returning the field.
+     *
+     * @param field the field to extract, of the field enum of the item
+     * @param <F>   the enum of the optional fields of the item
+     */
+    @SuppressWarnings("unchecked")
+    protected <F extends Enum<F>> void extractField(@Nonnull final F field) {
+        if (lazyFields != null) {
+            ((LazyInfoItemFields<F>) lazyFields).extract(field);
+        }
+    }
+
+    /**
+     * Mark an optional field as set, so that it is not extracted later. Setters of optional
+     * fields call this before setting the field.
+     *
+     * @param field the field which is set, of the field enum of the item
+     * @param <F>   the enum of the optional fields of the item
+     */
+    @SuppressWarnings("unchecked")
+    protected <F extends Enum<F>> void markFieldSet(@Nonnull final F field) {
+        if (lazyFields != null) {
+            ((LazyInfoItemFields<F>) lazyFields).markSet(field);
+        }
+    }
+
+    /**
+     * Extract the fields which haven't been extracted yet before serializing the item, as its
+     * extractor is not serialized.
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        if (lazyFields != null) {
+            lazyFields.extractAll();
+        }
+        return this;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "[url=\"" + url + "\", name=\"" + name + "\"]";
@@ -3,11 +3,21 @@ package org.schabi.newpipe.extractor;
 import org.schabi.newpipe.extractor.exceptions.FoundAdException;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * Created by Christian Schabesberger on 12.02.17.
@@ -32,11 +42,150 @@ import java.util.List;
 public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemExtractor>
         implements Collector<I, E> {
 
+    private static volatile boolean lazyExtraction = false;
+    @Nullable
+    private static volatile Executor parallelExtractionExecutor = null;
+    private static volatile int parallelExtractionMinItems = 0;
+    /**
+     * The fields extracted when items are collected in lazy mode, by field enum.
+     */
+    private static final Map<Class<?>, Set<?>> PREFETCHED_FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * The extraction of an item running on the current thread, when items are extracted in
+     * parallel.
+     */
+    private static final ThreadLocal<ExtractionTask> CURRENT_TASK = new ThreadLocal<>();
+
+    /**
+     * The items and errors added while extracting an item in parallel, which are added to their
+     * collectors once the previous items have been added, so that they keep their order.
+     */
+    private static final class ExtractionTask {
+        @Nonnull
+        final InfoItemsCollector<?, ?> collector;
+        final List<Object> items = new ArrayList<>(1);
+        /**
+         * The collectors to which each error of {@link #errors} has been added, which are the
+         * collector of the task and its sub-collectors.
+         */
+        final List<InfoItemsCollector<?, ?>> errorCollectors = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+
+        ExtractionTask(@Nonnull final InfoItemsCollector<?, ?> collector) {
+            this.collector = collector;
+        }
+
+        boolean captures(@Nonnull final InfoItemsCollector<?, ?> otherCollector) {
+            return otherCollector == collector || otherCollector.parentCollector == collector;
+        }
+    }
+
     private final List<I> itemList = new ArrayList<>();
     private final List<Throwable> errors = new ArrayList<>();
     private final int serviceId;
     @Nullable
     private final Comparator<I> comparator;
+    /**
+     * The committed extractors which haven't been extracted yet, if items can be extracted in
+     * parallel.
+     */
+    @Nullable
+    private List<E> deferredExtractors;
+    @Nullable
+    private Executor executor;
+    /**
+     * The collector extracting items with this collector, if this is one of its sub-collectors.
+     */
+    @Nullable
+    private InfoItemsCollector<?, ?> parentCollector;
+
+    /**
+     * Set whether the optional fields of the collected items are extracted when they are first
+     * accessed instead of when the items are collected.
+     *
+     * <p>
+     * In lazy mode, stream, channel and playlist items keep a reference to their extractor, and
+     * thus to the data of the page they come from, until all their fields have been extracted.
+     * Errors happening while a field is lazily extracted are not reported: the field keeps its
+     * default value. The fields which are always needed can be extracted when the items are
+     * collected, see {@link #setPrefetchedFields(Class, Set)}.
+     * </p>
+     *
+     * <p>
+     * This is disabled by default.
+     * </p>
+     *
+     * @param lazy whether the optional fields of items are extracted on first access
+     */
+    @SuppressWarnings("unused")
+    public static void setLazyExtraction(final boolean lazy) {
+        lazyExtraction = lazy;
+    }
+
+    /**
+     * @return whether the optional fields of the collected items are extracted when they are
+     * first accessed, see {@link #setLazyExtraction(boolean)}
+     */
+    public static boolean isLazyExtraction() {
+        return lazyExtraction;
+    }
+
+    /**
+     * Set the optional fields of items which are extracted when the items are collected in lazy
+     * mode, see {@link #setLazyExtraction(boolean)}. The other fields are extracted when they are
+     * first accessed.
+     *
+     * <p>
+     * Errors happening while extracting these fields are reported by the collector, like in eager
+     * mode.
+     * </p>
+     *
+     * @param fieldClass the enum of the optional fields of an item type, e.g.
+     *                   {@link org.schabi.newpipe.extractor.stream.StreamInfoItem.Field}
+     * @param fields     the fields to extract when collecting items, none by default
+     * @param <F>        the enum of the optional fields of the item type
+     */
+    @SuppressWarnings("unused")
+    public static <F extends Enum<F>> void setPrefetchedFields(@Nonnull final Class<F> fieldClass,
+                                                               @Nonnull final Set<F> fields) {
+        final Set<F> copy = EnumSet.noneOf(fieldClass);
+        copy.addAll(fields);
+        PREFETCHED_FIELDS.put(fieldClass, copy);
+    }
+
+    /**
+     * Set the executor on which collectors extract the items of large pages in parallel.
+     *
+     * <p>
+     * Only the collectors of the extractors which allow it, see
+     * {@link #allowParallelExtraction()}, extract their items in parallel, if at least
+     * {@code minItems} items have been committed. Items are added in the order in which they
+     * have been committed, and so are the extraction errors.
+     * </p>
+     *
+     * <p>
+     * The thread requesting the items takes part in their extraction, and only waits for the
+     * items being extracted by other threads, so the executor can be bounded and can be the one
+     * on which this thread runs. Items which are not extracted by the executor, for instance
+     * because it rejected tasks or because all its threads are busy, are extracted on the thread
+     * requesting them.
+     * </p>
+     *
+     * <p>
+     * This is disabled by default.
+     * </p>
+     *
+     * @param executor the executor on which items are extracted, or {@code null} to extract them
+     *                 on the thread committing them
+     * @param minItems the minimum number of committed items to extract them in parallel
+     */
+    @SuppressWarnings("unused")
+    public static void setParallelExtraction(@Nullable final Executor executor,
+                                             final int minItems) {
+        parallelExtractionExecutor = executor;
+        parallelExtractionMinItems = minItems;
+    }
 
     /**
      * Create a new collector with no comparator / sorting function
@@ -55,8 +204,36 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
         this.comparator = comparator;
     }
 
+    /**
+     * Let the items committed to this collector be extracted in parallel, if an executor has been
+     * set with {@link #setParallelExtraction(Executor, int)}.
+     *
+     * <p>
+     * Committed extractors are then only extracted when the items or the errors are first
+     * requested, so they must not depend on each other or on the state of the collector.
+     * </p>
+     */
+    public void allowParallelExtraction() {
+        executor = parallelExtractionExecutor;
+        if (executor != null && deferredExtractors == null) {
+            deferredExtractors = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Set the collector which extracts items with this collector, so that the errors this
+     * collector adds while the items of the parent collector are extracted in parallel are added
+     * in the same order as when extracting them on a single thread.
+     *
+     * @param parentCollector the collector using this one to extract its items
+     */
+    protected void setParentCollector(@Nonnull final InfoItemsCollector<?, ?> parentCollector) {
+        this.parentCollector = parentCollector;
+    }
+
     @Override
     public List<I> getItems() {
+        collectDeferred();
         if (comparator != null) {
             itemList.sort(comparator);
         }
@@ -65,11 +242,15 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
 
     @Override
     public List<Throwable> getErrors() {
+        collectDeferred();
         return Collections.unmodifiableList(errors);
     }
 
     @Override
     public void reset() {
+        if (deferredExtractors != null) {
+            deferredExtractors.clear();
+        }
         itemList.clear();
         errors.clear();
     }
@@ -79,7 +260,13 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
      * @param error the error
      */
     protected void addError(final Exception error) {
-        errors.add(error);
+        final ExtractionTask task = CURRENT_TASK.get();
+        if (task != null && task.captures(this)) {
+            task.errorCollectors.add(this);
+            task.errors.add(error);
+        } else {
+            errors.add(error);
+        }
     }
 
     /**
@@ -87,7 +274,12 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
      * @param item the item
      */
     protected void addItem(final I item) {
-        itemList.add(item);
+        final ExtractionTask task = CURRENT_TASK.get();
+        if (task != null && task.collector == this) {
+            task.items.add(item);
+        } else {
+            itemList.add(item);
+        }
     }
 
     /**
@@ -100,6 +292,18 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
 
     @Override
     public void commit(final E extractor) {
+        if (deferredExtractors != null) {
+            deferredExtractors.add(extractor);
+        } else {
+            collect(extractor);
+        }
+    }
+
+    /**
+     * Extract an item and add it, or add the error which prevented its extraction.
+     * @param extractor the extractor of the item
+     */
+    protected void collect(final E extractor) {
         try {
             addItem(extract(extractor));
         } catch (final FoundAdException ae) {
@@ -108,4 +312,157 @@ public abstract class InfoItemsCollector<I extends InfoItem, E extends InfoItemE
             addError(e);
         }
     }
+
+    /**
+     * Extract the optional fields of an item, or let them be extracted when they are first
+     * accessed in lazy mode, except the ones set with {@link #setPrefetchedFields(Class, Set)}.
+     * Errors happening while the item is collected are added to this collector.
+     *
+     * @param item           the item whose fields are extracted
+     * @param fieldClass     the enum of the optional fields of the item
+     * @param fieldExtractor the function extracting a field and setting it on the item
+     * @param <F>            the enum of the optional fields of the item
+     */
+    @SuppressWarnings("unchecked")
+    protected <F extends Enum<F>> void extractOptionalFields(
+            @Nonnull final I item,
+            @Nonnull final Class<F> fieldClass,
+            @Nonnull final LazyInfoItemFields.FieldExtractor<F> fieldExtractor) {
+        if (!isLazyExtraction()) {
+            for (final F field : fieldClass.getEnumConstants()) {
+                extractFieldOrAddError(fieldExtractor, field);
+            }
+            return;
+        }
+
+        final Set<F> prefetched = (Set<F>) PREFETCHED_FIELDS.getOrDefault(fieldClass, Set.of());
+        for (final F field : prefetched) {
+            extractFieldOrAddError(fieldExtractor, field);
+        }
+        final Set<F> pending = EnumSet.allOf(fieldClass);
+        pending.removeAll(prefetched);
+        item.setLazyFields(new LazyInfoItemFields<>(pending, fieldExtractor));
+    }
+
+    private <F extends Enum<F>> void extractFieldOrAddError(
+            @Nonnull final LazyInfoItemFields.FieldExtractor<F> fieldExtractor,
+            @Nonnull final F field) {
+        try {
+            fieldExtractor.extract(field);
+        } catch (final RuntimeException e) {
+            if (!isErrorOfOptionalField(field, e)) {
+                throw e;
+            }
+            addError(e);
+        } catch (final Exception e) {
+            addError(e);
+        }
+    }
+
+    /**
+     * Whether an exception thrown while extracting an optional field when collecting an item is
+     * added as an error, or fails the extraction of the whole item. Checked exceptions are always
+     * added as errors.
+     *
+     * @param field the optional field which couldn't be extracted
+     * @param e     the runtime exception thrown while extracting the field
+     * @return whether the exception is added as an error, which it is by default
+     */
+    protected boolean isErrorOfOptionalField(@Nonnull final Enum<?> field,
+                                             @Nonnull final RuntimeException e) {
+        return true;
+    }
+
+    /**
+     * Extract the items of the deferred extractors, in parallel if there are enough of them.
+     */
+    @SuppressWarnings("unchecked")
+    private void collectDeferred() {
+        if (deferredExtractors == null || deferredExtractors.isEmpty()) {
+            return;
+        }
+
+        final List<E> extractors = new ArrayList<>(deferredExtractors);
+        deferredExtractors.clear();
+        if (executor == null || extractors.size() < parallelExtractionMinItems) {
+            extractors.forEach(this::collect);
+            return;
+        }
+
+        final List<CompletableFuture<ExtractionTask>> tasks = new ArrayList<>(extractors.size());
+        for (int i = 0; i < extractors.size(); i++) {
+            tasks.add(new CompletableFuture<>());
+        }
+        // Items are claimed in order by the executor's threads and by this one, which extracts
+        // the items no other thread has started: waiting for the others cannot deadlock, even if
+        // this thread is one of the executor's threads
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final Runnable worker = () -> collectClaimed(extractors, tasks, nextIndex);
+        try {
+            for (int i = 1; i < extractors.size(); i++) {
+                executor.execute(worker);
+            }
+        } catch (final RejectedExecutionException ignored) {
+            // The items which are not claimed by the started tasks are extracted on this thread
+        }
+        worker.run();
+
+        for (final CompletableFuture<ExtractionTask> task : tasks) {
+            final ExtractionTask result;
+            try {
+                result = task.join();
+            } catch (final CompletionException e) {
+                // Rethrow what collect would have thrown on this thread
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+            for (int i = 0; i < result.errors.size(); i++) {
+                result.errorCollectors.get(i).errors.add(result.errors.get(i));
+            }
+            for (final Object item : result.items) {
+                itemList.add((I) item);
+            }
+        }
+    }
+
+    /**
+     * Extract the items of the given extractors which have not been claimed yet, one after
+     * another, until all of them have been claimed.
+     */
+    private void collectClaimed(@Nonnull final List<E> extractors,
+                                @Nonnull final List<CompletableFuture<ExtractionTask>> tasks,
+                                @Nonnull final AtomicInteger nextIndex) {
+        while (true) {
+            final int index = nextIndex.getAndIncrement();
+            if (index >= extractors.size()) {
+                return;
+            }
+            try {
+                tasks.get(index).complete(collectInTask(extractors.get(index)));
+            } catch (final RuntimeException | Error e) {
+                tasks.get(index).completeExceptionally(e);
+            }
+        }
+    }
+
+    @Nonnull
+    private ExtractionTask collectInTask(final E extractor) {
+        final ExtractionTask previousTask = CURRENT_TASK.get();
+        final ExtractionTask task = new ExtractionTask(this);
+        CURRENT_TASK.set(task);
+        try {
+            collect(extractor);
+        } finally {
+            if (previousTask == null) {
+                CURRENT_TASK.remove();
+            } else {
+                CURRENT_TASK.set(previousTask);
+            }
+        }
+        return task;
+    }
 }
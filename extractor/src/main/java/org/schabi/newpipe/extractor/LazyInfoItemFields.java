@@ -0,0 +1,101 @@
+package org.schabi.newpipe.extractor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The fields of an {@link InfoItem} which are extracted when they are first accessed, see
+ * {@link InfoItemsCollector#setLazyExtraction(boolean)}.
+ *
+ * <p>
+ * A field is extracted at most once. If its extraction fails, it keeps its default value, like
+ * when the extraction of an optional field fails while collecting items. Once every field has
+ * been extracted or set, the field extractor is released, so that the item extractor and the data
+ * it holds can be garbage collected.
+ * </p>
+ *
+ * @param <F> the enum of the fields of the item
+ */
+public final class LazyInfoItemFields<F extends Enum<F>> {
+
+    /**
+     * Extracts a field of an item from its extractor and sets it on the item.
+     *
+     * @param <F> the enum of the fields of the item
+     */
+    @FunctionalInterface
+    public interface FieldExtractor<F> {
+        void extract(@Nonnull F field) throws Exception;
+    }
+
+    @Nonnull
+    private final Set<F> pendingFields;
+    @Nullable
+    private FieldExtractor<F> fieldExtractor;
+
+    /**
+     * @param pendingFields  the fields which haven't been extracted yet
+     * @param fieldExtractor the function extracting a field and setting it on the item
+     */
+    public LazyInfoItemFields(@Nonnull final Set<F> pendingFields,
+                              @Nonnull final FieldExtractor<F> fieldExtractor) {
+        this.pendingFields = new HashSet<>(pendingFields);
+        this.fieldExtractor = this.pendingFields.isEmpty() ? null : fieldExtractor;
+    }
+
+    /**
+     * Extract a field if it hasn't been extracted or set yet.
+     *
+     * @param field the field to extract
+     */
+    public synchronized void extract(@Nonnull final F field) {
+        if (!pendingFields.remove(field)) {
+            return;
+        }
+
+        try {
+            fieldExtractor.extract(field);
+        } catch (final Exception ignored) {
+            // The field keeps its default value
+        }
+        releaseIfDone();
+    }
+
+    /**
+     * Extract all the fields which haven't been extracted or set yet.
+     */
+    public synchronized void extractAll() {
+        for (final F field : new ArrayList<>(pendingFields)) {
+            extract(field);
+        }
+    }
+
+    /**
+     * Mark a field as set, so that it is never extracted and its value is not overwritten.
+     *
+     * @param field the field which has been set
+     */
+    public synchronized void markSet(@Nonnull final F field) {
+        if (pendingFields.remove(field)) {
+            releaseIfDone();
+        }
+    }
+
+    /**
+     * @param field a field of the item
+     * @return whether the field hasn't been extracted or set yet
+     */
+    public synchronized boolean isPending(@Nonnull final F field) {
+        return pendingFields.contains(field);
+    }
+
+    private void releaseIfDone() {
+        if (pendingFields.isEmpty()) {
+            fieldExtractor = null;
+        }
+    }
+}
@@ -55,6 +55,9 @@ public class MultiInfoItemsCollector extends InfoItemsCollector<InfoItem, InfoIt
         streamCollector = new StreamInfoItemsCollector(serviceId);
         userCollector = new ChannelInfoItemsCollector(serviceId);
         playlistCollector = new PlaylistInfoItemsCollector(serviceId);
+        streamCollector.setParentCollector(this);
+        userCollector.setParentCollector(this);
+        playlistCollector.setParentCollector(this);
     }
 
     @Override
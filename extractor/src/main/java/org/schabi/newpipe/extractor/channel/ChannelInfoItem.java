@@ -1,7 +1,12 @@
 package org.schabi.newpipe.extractor.channel;
 
+import org.schabi.newpipe.extractor.Image;
 import org.schabi.newpipe.extractor.InfoItem;
 
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
 /*
  * Created by Christian Schabesberger on 11.02.17.
  *
@@ -24,6 +29,17 @@ import org.schabi.newpipe.extractor.InfoItem;
 
 public class ChannelInfoItem extends InfoItem {
 
+    /**
+     * The optional fields of a channel item, in the order in which they are extracted.
+     */
+    public enum Field {
+        SUBSCRIBER_COUNT,
+        STREAM_COUNT,
+        THUMBNAILS,
+        DESCRIPTION,
+        VERIFIED
+    }
+
     private String description;
     private long subscriberCount = -1;
     private long streamCount = -1;
@@ -34,34 +50,55 @@ public class ChannelInfoItem extends InfoItem {
     }
 
     public String getDescription() {
+        extractField(Field.DESCRIPTION);
         return description;
     }
 
     public void setDescription(final String description) {
+        markFieldSet(Field.DESCRIPTION);
         this.description = description;
     }
 
     public long getSubscriberCount() {
+        extractField(Field.SUBSCRIBER_COUNT);
         return subscriberCount;
     }
 
     public void setSubscriberCount(final long subscriberCount) {
+        markFieldSet(Field.SUBSCRIBER_COUNT);
         this.subscriberCount = subscriberCount;
     }
 
     public long getStreamCount() {
+        extractField(Field.STREAM_COUNT);
         return streamCount;
     }
 
     public void setStreamCount(final long streamCount) {
+        markFieldSet(Field.STREAM_COUNT);
         this.streamCount = streamCount;
     }
 
     public boolean isVerified() {
+        extractField(Field.VERIFIED);
         return verified;
     }
 
     public void setVerified(final boolean verified) {
+        markFieldSet(Field.VERIFIED);
         this.verified = verified;
     }
+
+    @Nonnull
+    @Override
+    public List<Image> getThumbnails() {
+        extractField(Field.THUMBNAILS);
+        return super.getThumbnails();
+    }
+
+    @Override
+    public void setThumbnails(@Nonnull final List<Image> thumbnails) {
+        markFieldSet(Field.THUMBNAILS);
+        super.setThumbnails(thumbnails);
+    }
 }
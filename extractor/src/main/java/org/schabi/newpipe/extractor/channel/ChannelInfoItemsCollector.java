@@ -23,6 +23,8 @@ package org.schabi.newpipe.extractor.channel;
 import org.schabi.newpipe.extractor.InfoItemsCollector;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import javax.annotation.Nonnull;
+
 public final class ChannelInfoItemsCollector
         extends InfoItemsCollector<ChannelInfoItem, ChannelInfoItemExtractor> {
     public ChannelInfoItemsCollector(final int serviceId) {
@@ -36,32 +38,32 @@ public final class ChannelInfoItemsCollector
                 getServiceId(), extractor.getUrl(), extractor.getName());
 
         // optional information
-        try {
-            resultItem.setSubscriberCount(extractor.getSubscriberCount());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setStreamCount(extractor.getStreamCount());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setThumbnails(extractor.getThumbnails());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setDescription(extractor.getDescription());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setVerified(extractor.isVerified());
-        } catch (final Exception e) {
-            addError(e);
-        }
+        extractOptionalFields(resultItem, ChannelInfoItem.Field.class,
+                field -> extractField(resultItem, extractor, field));
 
         return resultItem;
     }
+
+    private static void extractField(@Nonnull final ChannelInfoItem item,
+                                     @Nonnull final ChannelInfoItemExtractor extractor,
+                                     @Nonnull final ChannelInfoItem.Field field)
+            throws ParsingException {
+        switch (field) {
+            case SUBSCRIBER_COUNT:
+                item.setSubscriberCount(extractor.getSubscriberCount());
+                break;
+            case STREAM_COUNT:
+                item.setStreamCount(extractor.getStreamCount());
+                break;
+            case THUMBNAILS:
+                item.setThumbnails(extractor.getThumbnails());
+                break;
+            case DESCRIPTION:
+                item.setDescription(extractor.getDescription());
+                break;
+            case VERIFIED:
+                item.setVerified(extractor.isVerified());
+                break;
+        }
+    }
 }
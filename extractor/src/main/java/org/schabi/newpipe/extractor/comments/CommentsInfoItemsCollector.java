@@ -119,7 +119,7 @@ public final class CommentsInfoItemsCollector
     }
 
     @Override
-    public void commit(final CommentsInfoItemExtractor extractor) {
+    protected void collect(final CommentsInfoItemExtractor extractor) {
         try {
             addItem(extract(extractor));
         } catch (final Exception e) {
@@ -0,0 +1,129 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} which coalesces concurrent identical requests into a single one.
+ *
+ * <p>
+ * When a request is executed while an {@link Request#equals(Object) equal} request is already in
+ * flight, it is not sent again: the caller waits for the in-flight request instead and gets the
+ * same {@link Response}, or the same exception if it failed. Once a request completes, the next
+ * equal request is sent normally, so responses are never reused after the request completed.
+ * </p>
+ *
+ * <p>
+ * This is useful when many threads extract the same content at the same time, as it reduces the
+ * number of requests made to services.
+ * </p>
+ */
+public final class CoalescingDownloader extends Downloader {
+
+    @Nonnull
+    private final Downloader downloader;
+    @Nonnull
+    private final Predicate<Request> coalescingFilter;
+    private final ConcurrentHashMap<Request, CompletableFuture<Response>> inFlightRequests =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Create a new {@link CoalescingDownloader} which coalesces all requests.
+     *
+     * @param downloader the downloader used to execute requests
+     */
+    public CoalescingDownloader(@Nonnull final Downloader downloader) {
+        this(downloader, request -> true);
+    }
+
+    /**
+     * Create a new {@link CoalescingDownloader} which coalesces only some requests.
+     *
+     * @param downloader       the downloader used to execute requests
+     * @param coalescingFilter a predicate returning whether a request can be coalesced with
+     *                         equal requests; requests not matching it are always executed
+     */
+    public CoalescingDownloader(@Nonnull final Downloader downloader,
+                                @Nonnull final Predicate<Request> coalescingFilter) {
+        this.downloader = Objects.requireNonNull(downloader);
+        this.coalescingFilter = Objects.requireNonNull(coalescingFilter);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        if (!coalescingFilter.test(request)) {
+            return downloader.execute(request);
+        }
+
+        final CompletableFuture<Response> call = new CompletableFuture<>();
+        final CompletableFuture<Response> inFlightCall =
+                inFlightRequests.putIfAbsent(request, call);
+        if (inFlightCall != null) {
+            return awaitResponse(inFlightCall);
+        }
+
+        try {
+            final Response response = downloader.execute(request);
+            call.complete(response);
+            return response;
+        } catch (final IOException | ReCaptchaException | RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(request, call);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(@Nonnull final Request request) {
+        if (!coalescingFilter.test(request)) {
+            return downloader.executeAsync(request);
+        }
+
+        final CompletableFuture<Response> call = new CompletableFuture<>();
+        final CompletableFuture<Response> inFlightCall =
+                inFlightRequests.putIfAbsent(request, call);
+        if (inFlightCall != null) {
+            // Return a copy, so that a caller cancelling its future doesn't affect other callers
+            return inFlightCall.copy();
+        }
+
+        downloader.executeAsync(request).whenComplete((response, throwable) -> {
+            inFlightRequests.remove(request, call);
+            if (throwable == null) {
+                call.complete(response);
+            } else {
+                call.completeExceptionally(throwable);
+            }
+        });
+        return call.copy();
+    }
+
+    @Nonnull
+    @Override
+    public Executor getAsyncExecutor() {
+        return downloader.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        downloader.setAsyncExecutor(asyncExecutor);
+    }
+
+    /**
+     * @return the number of distinct requests currently in flight through this downloader
+     */
+    public int getInFlightRequestCount() {
+        return inFlightRequests.size();
+    }
+}
@@ -3,6 +3,7 @@ package org.schabi.newpipe.extractor.downloader;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 import org.schabi.newpipe.extractor.localization.Localization;
+import org.schabi.newpipe.extractor.utils.FutureUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -11,6 +12,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A base for downloader implementations that NewPipe will use
@@ -18,6 +27,15 @@ import java.util.Map;
  */
 public abstract class Downloader {
 
+    /**
+     * The executor used by {@link #executeAsync(Request)} when no executor has been
+     * {@link #setAsyncExecutor(Executor) set}, created on first use.
+     */
+    private static volatile ExecutorService defaultAsyncExecutor;
+
+    @Nullable
+    private volatile Executor asyncExecutor;
+
     /**
      * Do a GET request to get the resource that the url is pointing to.<br>
      * <br>
@@ -167,12 +185,8 @@ public abstract class Downloader {
                                         final Localization localization,
                                         final String contentType)
             throws IOException, ReCaptchaException {
-        final Map<String, List<String>> actualHeaders = new HashMap<>();
-        if (headers != null) {
-            actualHeaders.putAll(headers);
-        }
-        actualHeaders.put("Content-Type", Collections.singletonList(contentType));
-        return post(url, actualHeaders, dataToSend, localization);
+        return post(url, getHeadersWithContentType(headers, contentType), dataToSend,
+                localization);
     }
 
     /**
@@ -243,4 +257,349 @@ public abstract class Downloader {
      */
     public abstract Response execute(@Nonnull Request request)
             throws IOException, ReCaptchaException;
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Asynchronous requests
+    //////////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * Do a GET request asynchronously.
+     *
+     * @param url the URL that is pointing to the wanted resource
+     * @return a future completed with the result of the GET request
+     * @see #get(String)
+     */
+    public CompletableFuture<Response> getAsync(final String url) {
+        return getAsync(url, null, NewPipe.getPreferredLocalization());
+    }
+
+    /**
+     * Do a GET request asynchronously.
+     *
+     * @param url          the URL that is pointing to the wanted resource
+     * @param localization the source of the value of the {@code Accept-Language} header
+     * @return a future completed with the result of the GET request
+     * @see #get(String, Localization)
+     */
+    public CompletableFuture<Response> getAsync(final String url,
+                                                final Localization localization) {
+        return getAsync(url, null, localization);
+    }
+
+    /**
+     * Do a GET request with the specified headers asynchronously.
+     *
+     * @param url     the URL that is pointing to the wanted resource
+     * @param headers a list of headers that will be used in the request.
+     *                Any default headers <b>should</b> be overridden by these.
+     * @return a future completed with the result of the GET request
+     * @see #get(String, Map)
+     */
+    public CompletableFuture<Response> getAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers) {
+        return getAsync(url, headers, NewPipe.getPreferredLocalization());
+    }
+
+    /**
+     * Do a GET request with the specified headers asynchronously.
+     *
+     * @param url          the URL that is pointing to the wanted resource
+     * @param headers      a list of headers that will be used in the request.
+     *                     Any default headers <b>should</b> be overridden by these.
+     * @param localization the source of the value of the {@code Accept-Language} header
+     * @return a future completed with the result of the GET request
+     * @see #get(String, Map, Localization)
+     */
+    public CompletableFuture<Response> getAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            final Localization localization) {
+        return executeAsync(Request.newBuilder()
+                .get(url)
+                .headers(headers)
+                .localization(localization)
+                .build());
+    }
+
+    /**
+     * Do a HEAD request asynchronously.
+     *
+     * @param url the URL that is pointing to the wanted resource
+     * @return a future completed with the result of the HEAD request
+     * @see #head(String)
+     */
+    public CompletableFuture<Response> headAsync(final String url) {
+        return headAsync(url, null);
+    }
+
+    /**
+     * Do a HEAD request with the specified headers asynchronously.
+     *
+     * @param url     the URL that is pointing to the wanted resource
+     * @param headers a list of headers that will be used in the request.
+     *                Any default headers <b>should</b> be overridden by these.
+     * @return a future completed with the result of the HEAD request
+     * @see #head(String, Map)
+     */
+    public CompletableFuture<Response> headAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers) {
+        return executeAsync(Request.newBuilder()
+                .head(url)
+                .headers(headers)
+                .build());
+    }
+
+    /**
+     * Do a POST request with the specified headers, sending the data array, asynchronously.
+     *
+     * @param url        the URL that is pointing to the wanted resource
+     * @param headers    a list of headers that will be used in the request.
+     *                   Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend byte array that will be sent when doing the request.
+     * @return a future completed with the result of the POST request
+     * @see #post(String, Map, byte[])
+     */
+    public CompletableFuture<Response> postAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend) {
+        return postAsync(url, headers, dataToSend, NewPipe.getPreferredLocalization());
+    }
+
+    /**
+     * Do a POST request with the specified headers, sending the data array, asynchronously.
+     *
+     * @param url          the URL that is pointing to the wanted resource
+     * @param headers      a list of headers that will be used in the request.
+     *                     Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend   byte array that will be sent when doing the request.
+     * @param localization the source of the value of the {@code Accept-Language} header
+     * @return a future completed with the result of the POST request
+     * @see #post(String, Map, byte[], Localization)
+     */
+    public CompletableFuture<Response> postAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend,
+            final Localization localization) {
+        return executeAsync(Request.newBuilder()
+                .post(url, dataToSend)
+                .headers(headers)
+                .localization(localization)
+                .build());
+    }
+
+    /**
+     * Convenient method to send a POST request using the specified value of the
+     * {@code Content-Type} header with a given {@link Localization} asynchronously.
+     *
+     * @param url          the URL that is pointing to the wanted resource
+     * @param headers      a list of headers that will be used in the request.
+     *                     Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend   byte array that will be sent when doing the request.
+     * @param localization the source of the value of the {@code Accept-Language} header
+     * @param contentType  the mime type of the body sent, which will be set as the value of the
+     *                     {@code Content-Type} header
+     * @return a future completed with the result of the POST request
+     * @see #postWithContentType(String, Map, byte[], Localization, String)
+     */
+    public CompletableFuture<Response> postWithContentTypeAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend,
+            final Localization localization,
+            final String contentType) {
+        return postAsync(url, getHeadersWithContentType(headers, contentType), dataToSend,
+                localization);
+    }
+
+    /**
+     * Convenient method to send a POST request using the specified value of the
+     * {@code Content-Type} header asynchronously.
+     *
+     * @param url         the URL that is pointing to the wanted resource
+     * @param headers     a list of headers that will be used in the request.
+     *                    Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend  byte array that will be sent when doing the request.
+     * @param contentType the mime type of the body sent, which will be set as the value of the
+     *                    {@code Content-Type} header
+     * @return a future completed with the result of the POST request
+     * @see #postWithContentType(String, Map, byte[], String)
+     */
+    public CompletableFuture<Response> postWithContentTypeAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend,
+            final String contentType) {
+        return postWithContentTypeAsync(url, headers, dataToSend,
+                NewPipe.getPreferredLocalization(), contentType);
+    }
+
+    /**
+     * Convenient method to send a POST request the JSON mime type as the value of the
+     * {@code Content-Type} header with a given {@link Localization} asynchronously.
+     *
+     * @param url          the URL that is pointing to the wanted resource
+     * @param headers      a list of headers that will be used in the request.
+     *                     Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend   byte array that will be sent when doing the request.
+     * @param localization the source of the value of the {@code Accept-Language} header
+     * @return a future completed with the result of the POST request
+     * @see #postWithContentTypeJson(String, Map, byte[], Localization)
+     */
+    public CompletableFuture<Response> postWithContentTypeJsonAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend,
+            final Localization localization) {
+        return postWithContentTypeAsync(url, headers, dataToSend, localization,
+                "application/json");
+    }
+
+    /**
+     * Convenient method to send a POST request the JSON mime type as the value of the
+     * {@code Content-Type} header asynchronously.
+     *
+     * @param url         the URL that is pointing to the wanted resource
+     * @param headers     a list of headers that will be used in the request.
+     *                    Any default headers <b>should</b> be overridden by these.
+     * @param dataToSend  byte array that will be sent when doing the request.
+     * @return a future completed with the result of the POST request
+     * @see #postWithContentTypeJson(String, Map, byte[])
+     */
+    public CompletableFuture<Response> postWithContentTypeJsonAsync(
+            final String url,
+            @Nullable final Map<String, List<String>> headers,
+            @Nullable final byte[] dataToSend) {
+        return postWithContentTypeJsonAsync(url, headers, dataToSend,
+                NewPipe.getPreferredLocalization());
+    }
+
+    /**
+     * Do a request using the specified {@link Request} object asynchronously.
+     *
+     * <p>
+     * The default implementation runs {@link #execute(Request)} on the
+     * {@link #getAsyncExecutor() async executor}. Implementations backed by an HTTP client with
+     * a non-blocking API should override this method to use it directly.
+     * </p>
+     *
+     * <p>
+     * The returned future is completed exceptionally with the exact exception thrown by
+     * {@link #execute(Request)} (usually an {@link IOException} or a
+     * {@link ReCaptchaException}), which can be rethrown as-is with
+     * {@link #awaitResponse(Future)}. Cancelling the future before the request has been started
+     * prevents it from being sent.
+     * </p>
+     *
+     * @return a future completed with the result of the request
+     */
+    public CompletableFuture<Response> executeAsync(@Nonnull final Request request) {
+        return FutureUtils.callAsync(() -> execute(request), getAsyncExecutor());
+    }
+
+    /**
+     * Get the {@link Executor} on which asynchronous requests are executed by the default
+     * implementation of {@link #executeAsync(Request)}.
+     *
+     * @return the executor set with {@link #setAsyncExecutor(Executor)} or, if there is none, a
+     * shared unbounded pool of daemon threads
+     */
+    @Nonnull
+    public Executor getAsyncExecutor() {
+        final Executor executor = asyncExecutor;
+        return executor == null ? getDefaultAsyncExecutor() : executor;
+    }
+
+    /**
+     * Set the {@link Executor} on which asynchronous requests are executed by the default
+     * implementation of {@link #executeAsync(Request)}.
+     *
+     * <p>
+     * As requests are blocking, this executor should be able to run as many tasks concurrently as
+     * the number of requests which are expected to be in flight at the same time.
+     * </p>
+     *
+     * @param asyncExecutor the executor to use, or {@code null} to use the default one
+     */
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Wait for the completion of a request made asynchronously and get its result.
+     *
+     * <p>
+     * {@link IOException}s and {@link ReCaptchaException}s which made the request fail are
+     * rethrown as-is, so that callers can handle them like with the blocking methods.
+     * </p>
+     *
+     * @param future the future of an asynchronous request
+     * @return the result of the request
+     * @throws IOException if the request failed with an {@link IOException}, has been cancelled
+     *                     or if the current thread has been interrupted while waiting
+     */
+    @Nonnull
+    public static Response awaitResponse(@Nonnull final Future<Response> future)
+            throws IOException, ReCaptchaException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response", e);
+        } catch (final CancellationException e) {
+            throw new IOException("The request has been cancelled", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ReCaptchaException) {
+                throw (ReCaptchaException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Utils
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nonnull
+    private static Map<String, List<String>> getHeadersWithContentType(
+            @Nullable final Map<String, List<String>> headers,
+            final String contentType) {
+        final Map<String, List<String>> actualHeaders = new HashMap<>();
+        if (headers != null) {
+            actualHeaders.putAll(headers);
+        }
+        actualHeaders.put("Content-Type", Collections.singletonList(contentType));
+        return actualHeaders;
+    }
+
+    @Nonnull
+    private static ExecutorService getDefaultAsyncExecutor() {
+        ExecutorService executor = defaultAsyncExecutor;
+        if (executor == null) {
+            synchronized (Downloader.class) {
+                executor = defaultAsyncExecutor;
+                if (executor == null) {
+                    final AtomicInteger threadCount = new AtomicInteger();
+                    executor = Executors.newCachedThreadPool(runnable -> {
+                        final Thread thread = new Thread(runnable,
+                                "NewPipeExtractor-Downloader-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    defaultAsyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
 }
@@ -0,0 +1,359 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.schabi.newpipe.extractor.downloader.metrics.Endpoint;
+import org.schabi.newpipe.extractor.downloader.metrics.EndpointClassifier;
+import org.schabi.newpipe.extractor.downloader.metrics.LatencyHistogram;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} sending a second copy of slow requests, to reduce tail latency.
+ *
+ * <p>
+ * When a request matching the hedging filter hasn't completed after a delay, an identical
+ * request is sent, and the first successful response of the two is returned, the other request
+ * being cancelled. The delay is a percentile of the latencies previously observed for the same
+ * {@link Endpoint}, so that only the slowest requests are hedged. The number of hedged requests
+ * is also capped to a ratio of all hedgeable requests, so that hedging never multiplies the load
+ * on services.
+ * </p>
+ *
+ * <p>
+ * Only idempotent requests, whose duplication has no side effect, must be hedged. By default,
+ * only requests to the player endpoints of YouTube's InnerTube API are.
+ * </p>
+ *
+ * <p>
+ * Requests are sent with {@link Downloader#executeAsync(Request)} of the wrapped downloader, so
+ * its {@link #getAsyncExecutor() asynchronous executor} must be able to run the hedged
+ * requests. Cancelled requests are aborted only if the wrapped downloader supports it.
+ * </p>
+ */
+public final class HedgingDownloader extends Downloader {
+
+    /**
+     * A filter matching requests to the {@code player} and {@code reel/reel_item_watch}
+     * InnerTube endpoints, which only return data.
+     */
+    public static final Predicate<Request> YOUTUBE_PLAYER_REQUESTS = request -> {
+        final Endpoint endpoint = EndpointClassifier.DEFAULT.classify(request);
+        return endpoint.getService().equals("YouTube")
+                && (endpoint.getName().equals("player")
+                || endpoint.getName().equals("reel/reel_item_watch"));
+    };
+
+    @Nonnull
+    private final Downloader downloader;
+    @Nonnull
+    private final Predicate<Request> hedgingFilter;
+    @Nonnull
+    private final EndpointClassifier endpointClassifier;
+    private final double percentile;
+    private final int minSamples;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double maxHedgeRatio;
+
+    private final Map<Endpoint, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong hedgeableRequests = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+
+    private HedgingDownloader(@Nonnull final Builder builder) {
+        this.downloader = builder.downloader;
+        this.hedgingFilter = builder.hedgingFilter;
+        this.endpointClassifier = builder.endpointClassifier;
+        this.percentile = builder.percentile;
+        this.minSamples = builder.minSamples;
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+        this.maxHedgeRatio = builder.maxHedgeRatio;
+    }
+
+    /**
+     * Create a builder of {@link HedgingDownloader}.
+     *
+     * @param downloader the downloader used to execute requests
+     * @return a new builder
+     */
+    @Nonnull
+    public static Builder newBuilder(@Nonnull final Downloader downloader) {
+        return new Builder(downloader);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        if (!hedgingFilter.test(request)) {
+            return downloader.execute(request);
+        }
+
+        hedgeableRequests.incrementAndGet();
+        final LatencyHistogram latency = latencies.computeIfAbsent(
+                endpointClassifier.classify(request), endpoint -> new LatencyHistogram());
+
+        final long primaryStart = System.nanoTime();
+        final CompletableFuture<Response> primary = downloader.executeAsync(request);
+        final AtomicBoolean primaryLatencyRecorded = new AtomicBoolean();
+        primary.whenComplete((response, throwable) -> {
+            if (throwable == null && primaryLatencyRecorded.compareAndSet(false, true)) {
+                latency.record(System.nanoTime() - primaryStart);
+            }
+        });
+
+        try {
+            return primary.get(getHedgeDelayNanos(latency), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            if (!tryAcquireHedge()) {
+                return awaitResponse(primary);
+            }
+        } catch (final ExecutionException e) {
+            return awaitResponse(primary);
+        } catch (final InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response", e);
+        }
+
+        final CompletableFuture<Response> hedge = downloader.executeAsync(request);
+        try {
+            return awaitResponse(firstSuccessful(primary, hedge));
+        } finally {
+            // If the hedge won, the primary request took at least this time
+            if (!primary.isDone() && primaryLatencyRecorded.compareAndSet(false, true)) {
+                latency.record(System.nanoTime() - primaryStart);
+            }
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Executor getAsyncExecutor() {
+        return downloader.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        downloader.setAsyncExecutor(asyncExecutor);
+    }
+
+    /**
+     * @return the number of requests which matched the hedging filter
+     */
+    public long getHedgeableRequestCount() {
+        return hedgeableRequests.get();
+    }
+
+    /**
+     * @return the number of requests for which a second request has been sent
+     */
+    public long getHedgedRequestCount() {
+        return hedgedRequests.get();
+    }
+
+    private long getHedgeDelayNanos(@Nonnull final LatencyHistogram latency) {
+        if (latency.getCount() < minSamples) {
+            return initialDelayNanos;
+        }
+        return Math.max(minDelayNanos,
+                Math.min(maxDelayNanos, latency.getValueAtPercentile(percentile)));
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            final long hedged = hedgedRequests.get();
+            // Allow one hedged request more than the ratio, so that hedging can start
+            if (maxHedgeRatio == 0 || hedged >= maxHedgeRatio * hedgeableRequests.get() + 1) {
+                return false;
+            }
+            if (hedgedRequests.compareAndSet(hedged, hedged + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get a future completed with the first successful result of the given futures, or with the
+     * exception of the primary one if all of them failed.
+     */
+    @Nonnull
+    private static CompletableFuture<Response> firstSuccessful(
+            @Nonnull final CompletableFuture<Response> primary,
+            @Nonnull final CompletableFuture<Response> hedge) {
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        // The result only fails once both futures failed, whichever fails first
+        final AtomicReference<Throwable> primaryFailure = new AtomicReference<>();
+        final AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else {
+                primaryFailure.set(unwrap(throwable));
+                if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(primaryFailure.get());
+                }
+            }
+        });
+        hedge.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(primaryFailure.get());
+            }
+        });
+        return result;
+    }
+
+    @Nonnull
+    private static Throwable unwrap(@Nonnull final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+    }
+
+    /**
+     * A builder of {@link HedgingDownloader}.
+     */
+    public static final class Builder {
+        @Nonnull
+        private final Downloader downloader;
+        @Nonnull
+        private Predicate<Request> hedgingFilter = YOUTUBE_PLAYER_REQUESTS;
+        @Nonnull
+        private EndpointClassifier endpointClassifier = EndpointClassifier.DEFAULT;
+        private double percentile = 95;
+        private int minSamples = 20;
+        @Nonnull
+        private Duration initialDelay = Duration.ofSeconds(1);
+        @Nonnull
+        private Duration minDelay = Duration.ofMillis(50);
+        @Nonnull
+        private Duration maxDelay = Duration.ofSeconds(5);
+        private double maxHedgeRatio = 0.1;
+
+        private Builder(@Nonnull final Downloader downloader) {
+            this.downloader = Objects.requireNonNull(downloader);
+        }
+
+        /**
+         * Set which requests can be hedged. Defaults to {@link #YOUTUBE_PLAYER_REQUESTS}.
+         *
+         * @param filter a predicate returning whether a request is idempotent and can be hedged
+         * @return this builder
+         */
+        @Nonnull
+        public Builder hedgeIf(@Nonnull final Predicate<Request> filter) {
+            this.hedgingFilter = Objects.requireNonNull(filter);
+            return this;
+        }
+
+        /**
+         * Set the classifier grouping requests whose latencies are used to compute the hedging
+         * delay. Defaults to {@link EndpointClassifier#DEFAULT}.
+         *
+         * @param classifier the endpoint classifier
+         * @return this builder
+         */
+        @Nonnull
+        public Builder endpointClassifier(@Nonnull final EndpointClassifier classifier) {
+            this.endpointClassifier = Objects.requireNonNull(classifier);
+            return this;
+        }
+
+        /**
+         * Set the percentile of the latencies of an endpoint after which a request is hedged.
+         * Defaults to 95.
+         *
+         * @param percentileToSet the percentile, between {@code 0} and {@code 100}
+         * @return this builder
+         */
+        @Nonnull
+        public Builder percentile(final double percentileToSet) {
+            if (percentileToSet < 0 || percentileToSet > 100) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentileToSet);
+            }
+            this.percentile = percentileToSet;
+            return this;
+        }
+
+        /**
+         * Set the delay after which requests are hedged while fewer than {@code minSamples}
+         * latencies have been observed for their endpoint. Defaults to 1 second and 20 samples.
+         *
+         * @param delay           the initial hedging delay
+         * @param minSamplesToSet the number of latencies needed to use the percentile delay
+         * @return this builder
+         */
+        @Nonnull
+        public Builder initialDelay(@Nonnull final Duration delay, final int minSamplesToSet) {
+            if (delay.isNegative() || minSamplesToSet < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid initial delay: " + delay + ", " + minSamplesToSet);
+            }
+            this.initialDelay = delay;
+            this.minSamples = minSamplesToSet;
+            return this;
+        }
+
+        /**
+         * Set the bounds of the hedging delay computed from latencies. Defaults to 50
+         * milliseconds and 5 seconds.
+         *
+         * @param min the minimum hedging delay
+         * @param max the maximum hedging delay
+         * @return this builder
+         */
+        @Nonnull
+        public Builder delayBounds(@Nonnull final Duration min, @Nonnull final Duration max) {
+            if (min.isNegative() || max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("Invalid delay bounds: " + min + ", " + max);
+            }
+            this.minDelay = min;
+            this.maxDelay = max;
+            return this;
+        }
+
+        /**
+         * Set the maximum ratio of hedgeable requests which are actually hedged, to bound the
+         * additional load. Defaults to 0.1.
+         *
+         * @param ratio the maximum ratio, between {@code 0} and {@code 1}
+         * @return this builder
+         */
+        @Nonnull
+        public Builder maxHedgeRatio(final double ratio) {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException("Invalid hedge ratio: " + ratio);
+            }
+            this.maxHedgeRatio = ratio;
+            return this;
+        }
+
+        @Nonnull
+        public HedgingDownloader build() {
+            return new HedgingDownloader(this);
+        }
+    }
+}
@@ -2,18 +2,40 @@ package org.schabi.newpipe.extractor.downloader;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * A Data class used to hold the results from requests made by the Downloader implementation.
+ *
+ * <p>
+ * The body can be given either as a {@link String} or as raw bytes. In the latter case, it is
+ * only decoded when {@link #responseBody()} is first called, so that consumers able to work on
+ * bytes, such as {@link org.schabi.newpipe.extractor.utils.JsonUtils#toJsonObject(Response)
+ * JSON parsing}, never need a decoded copy of the body.
+ * </p>
  */
 public class Response {
     private final int responseCode;
     private final String responseMessage;
     private final Map<String, List<String>> responseHeaders;
-    private final String responseBody;
+    // Not serialized, e.g. by Gson in recorded mocks, which only contain the decoded body:
+    // Charset fields can't be accessed by reflection on recent Java versions
+    @Nullable
+    private final transient byte[] responseBodyBytes;
+    @Nullable
+    private final transient Charset responseBodyCharset;
+    @Nullable
+    private volatile String responseBody;
 
     private final String latestUrl;
 
@@ -26,10 +48,40 @@ public class Response {
         this.responseMessage = responseMessage;
         this.responseHeaders = responseHeaders == null ? Collections.emptyMap() : responseHeaders;
 
+        this.responseBodyBytes = null;
+        this.responseBodyCharset = null;
         this.responseBody = responseBody == null ? "" : responseBody;
         this.latestUrl = latestUrl;
     }
 
+    /**
+     * Create a response whose body is decoded lazily from bytes.
+     *
+     * @param responseCode        the HTTP status code
+     * @param responseMessage     the HTTP status message
+     * @param responseHeaders     the response headers
+     * @param responseBodyBytes   the raw body, which must not be modified afterwards
+     * @param responseBodyCharset the charset of the body, or {@code null} to use the one of the
+     *                            {@code Content-Type} header, defaulting to UTF-8
+     * @param latestUrl           the URL of the response, after redirections
+     */
+    public Response(final int responseCode,
+                    final String responseMessage,
+                    @Nullable final Map<String, List<String>> responseHeaders,
+                    @Nullable final byte[] responseBodyBytes,
+                    @Nullable final Charset responseBodyCharset,
+                    @Nullable final String latestUrl) {
+        this.responseCode = responseCode;
+        this.responseMessage = responseMessage;
+        this.responseHeaders = responseHeaders == null ? Collections.emptyMap() : responseHeaders;
+
+        this.responseBodyBytes = responseBodyBytes == null ? new byte[0] : responseBodyBytes;
+        this.responseBodyCharset = responseBodyCharset == null
+                ? getCharsetFromContentType(getHeader("Content-Type"))
+                : responseBodyCharset;
+        this.latestUrl = latestUrl;
+    }
+
     public int responseCode() {
         return responseCode;
     }
@@ -42,9 +94,81 @@ public class Response {
         return responseHeaders;
     }
 
+    /**
+     * Get the body of the response as a string, decoding it if it has been given as bytes and
+     * hasn't been decoded yet.
+     *
+     * @return the body of the response
+     */
     @Nonnull
     public String responseBody() {
-        return responseBody;
+        String body = responseBody;
+        if (body == null) {
+            // Concurrent callers may decode the body twice, which is harmless
+            body = new String(responseBodyBytes, responseBodyCharset);
+            responseBody = body;
+        }
+        return body;
+    }
+
+    /**
+     * @return whether the body has been given as bytes, in which case
+     * {@link #responseBodyBytes()} and {@link #responseBodyStream()} don't need to encode it
+     */
+    public boolean hasRawResponseBody() {
+        return responseBodyBytes != null;
+    }
+
+    /**
+     * Get the body of the response as bytes.
+     *
+     * <p>
+     * If the body has been given as bytes, the returned array is the internal one and must not be
+     * modified. Otherwise, the body is encoded in UTF-8 on each call.
+     * </p>
+     *
+     * @return the raw body of the response
+     */
+    @Nonnull
+    public byte[] responseBodyBytes() {
+        if (responseBodyBytes != null) {
+            return responseBodyBytes;
+        }
+        return responseBody().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return a read-only view of the raw body of the response
+     * @see #responseBodyBytes()
+     */
+    @Nonnull
+    public ByteBuffer responseBodyBuffer() {
+        return ByteBuffer.wrap(responseBodyBytes()).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return a new stream reading the raw body of the response
+     * @see #responseBodyBytes()
+     */
+    @Nonnull
+    public InputStream responseBodyStream() {
+        return new ByteArrayInputStream(responseBodyBytes());
+    }
+
+    /**
+     * @return the charset of the bytes returned by {@link #responseBodyBytes()}
+     */
+    @Nonnull
+    public Charset responseBodyCharset() {
+        return responseBodyCharset == null ? StandardCharsets.UTF_8 : responseBodyCharset;
+    }
+
+    /**
+     * @return the length of the raw body in bytes if it has been given as bytes, or the length of
+     * the body string otherwise
+     */
+    public int responseBodyLength() {
+        return responseBodyBytes != null ? responseBodyBytes.length : responseBody().length();
     }
 
     /**
@@ -80,4 +204,24 @@ public class Response {
 
         return null;
     }
+
+    @Nonnull
+    private static Charset getCharsetFromContentType(@Nullable final String contentType) {
+        if (contentType != null) {
+            for (final String parameter : contentType.split(";")) {
+                final String trimmedParameter = parameter.trim();
+                if (trimmedParameter.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                    final String charsetName = trimmedParameter.substring("charset=".length())
+                            .replace("\"", "");
+                    try {
+                        return Charset.forName(charsetName);
+                    } catch (final IllegalCharsetNameException
+                                   | UnsupportedCharsetException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
 }
@@ -0,0 +1,249 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable cached {@link Response}, with the time at which it was stored and the time until
+ * which it is fresh.
+ */
+final class CacheEntry {
+    private static final int SERIALIZATION_VERSION = 2;
+
+    /**
+     * The approximate memory used by an entry, without its strings.
+     */
+    private static final int BASE_WEIGHT = 128;
+
+    private final int responseCode;
+    @Nullable
+    private final String responseMessage;
+    @Nonnull
+    private final Map<String, List<String>> responseHeaders;
+    @Nonnull
+    private final byte[] responseBody;
+    @Nonnull
+    private final Charset responseBodyCharset;
+    @Nullable
+    private final String latestUrl;
+    private final long storedAtMillis;
+    private final long expiresAtMillis;
+    @Nullable
+    private final String eTag;
+    @Nullable
+    private final String lastModified;
+    private final long weight;
+
+    CacheEntry(@Nonnull final Response response,
+               final long storedAtMillis,
+               final long expiresAtMillis) {
+        // Keep the body as bytes, so that it is not decoded if it hasn't been yet, and copy them,
+        // as the response gives access to its own array
+        this(response.responseCode(), response.responseMessage(), response.responseHeaders(),
+                response.responseBodyBytes().clone(), response.responseBodyCharset(),
+                response.latestUrl(), storedAtMillis, expiresAtMillis);
+    }
+
+    private CacheEntry(final int responseCode,
+                       @Nullable final String responseMessage,
+                       @Nonnull final Map<String, List<String>> responseHeaders,
+                       @Nonnull final byte[] responseBody,
+                       @Nonnull final Charset responseBodyCharset,
+                       @Nullable final String latestUrl,
+                       final long storedAtMillis,
+                       final long expiresAtMillis) {
+        this.responseCode = responseCode;
+        this.responseMessage = responseMessage;
+        final Map<String, List<String>> headersCopy = new LinkedHashMap<>();
+        responseHeaders.forEach((name, values) ->
+                headersCopy.put(name, Collections.unmodifiableList(new ArrayList<>(values))));
+        this.responseHeaders = Collections.unmodifiableMap(headersCopy);
+        this.responseBody = responseBody;
+        this.responseBodyCharset = responseBodyCharset;
+        this.latestUrl = latestUrl;
+        this.storedAtMillis = storedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.eTag = getHeader(this.responseHeaders, "ETag");
+        this.lastModified = getHeader(this.responseHeaders, "Last-Modified");
+        this.weight = computeWeight(this.responseHeaders, responseBody);
+    }
+
+    /**
+     * @return a response with a copy of the cached body, so that the entry can't be modified
+     * through the returned response
+     */
+    @Nonnull
+    Response toResponse() {
+        return new Response(responseCode, responseMessage, responseHeaders, responseBody.clone(),
+                responseBodyCharset, latestUrl);
+    }
+
+    /**
+     * Get a copy of this entry with a new freshness lifetime, used after a successful
+     * revalidation.
+     *
+     * @param newStoredAtMillis  the time at which the entry has been revalidated
+     * @param newExpiresAtMillis the time until which the entry is fresh
+     * @return a copy of this entry with the given times
+     */
+    @Nonnull
+    CacheEntry withFreshness(final long newStoredAtMillis, final long newExpiresAtMillis) {
+        return new CacheEntry(responseCode, responseMessage, responseHeaders, responseBody,
+                responseBodyCharset, latestUrl, newStoredAtMillis, newExpiresAtMillis);
+    }
+
+    boolean isFresh(final long nowMillis) {
+        return nowMillis < expiresAtMillis;
+    }
+
+    long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+
+    long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    @Nullable
+    String getETag() {
+        return eTag;
+    }
+
+    @Nullable
+    String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return an approximation of the memory used by this entry, in bytes
+     */
+    long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Get the first value of a header, whose name is case-insensitive, like
+     * {@link Response#getHeader(String)}.
+     */
+    @Nullable
+    private static String getHeader(@Nonnull final Map<String, List<String>> responseHeaders,
+                                    @Nonnull final String name) {
+        for (final Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    private static long computeWeight(@Nonnull final Map<String, List<String>> responseHeaders,
+                                      @Nonnull final byte[] responseBody) {
+        long weight = BASE_WEIGHT + responseBody.length;
+        for (final Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            weight += header.getKey() == null ? 0 : 2L * header.getKey().length();
+            for (final String value : header.getValue()) {
+                weight += 2L * value.length();
+            }
+        }
+        return weight;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Serialization
+    //////////////////////////////////////////////////////////////////////////*/
+
+    void writeTo(@Nonnull final DataOutputStream output) throws IOException {
+        output.writeInt(SERIALIZATION_VERSION);
+        output.writeLong(storedAtMillis);
+        output.writeLong(expiresAtMillis);
+        output.writeInt(responseCode);
+        writeString(output, responseMessage);
+        writeString(output, latestUrl);
+
+        output.writeInt(responseHeaders.size());
+        for (final Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            writeString(output, header.getKey());
+            output.writeInt(header.getValue().size());
+            for (final String value : header.getValue()) {
+                writeString(output, value);
+            }
+        }
+
+        writeString(output, responseBodyCharset.name());
+        output.writeInt(responseBody.length);
+        output.write(responseBody);
+    }
+
+    @Nonnull
+    static CacheEntry readFrom(@Nonnull final DataInputStream input) throws IOException {
+        final int version = input.readInt();
+        if (version != SERIALIZATION_VERSION) {
+            throw new IOException("Unsupported cache entry version: " + version);
+        }
+
+        final long storedAtMillis = input.readLong();
+        final long expiresAtMillis = input.readLong();
+        final int responseCode = input.readInt();
+        final String responseMessage = readString(input);
+        final String latestUrl = readString(input);
+
+        final int headerCount = input.readInt();
+        final Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            final String name = readString(input);
+            final int valueCount = input.readInt();
+            final List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(input));
+            }
+            responseHeaders.put(name, values);
+        }
+
+        final Charset responseBodyCharset;
+        try {
+            responseBodyCharset = Charset.forName(readString(input));
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Unsupported response body charset", e);
+        }
+        final byte[] responseBody = new byte[input.readInt()];
+        input.readFully(responseBody);
+        return new CacheEntry(responseCode, responseMessage, responseHeaders, responseBody,
+                responseBodyCharset, latestUrl, storedAtMillis, expiresAtMillis);
+    }
+
+    private static void writeString(@Nonnull final DataOutputStream output,
+                                    @Nullable final String value) throws IOException {
+        // DataOutputStream.writeUTF is limited to strings of 64 KiB
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(@Nonnull final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
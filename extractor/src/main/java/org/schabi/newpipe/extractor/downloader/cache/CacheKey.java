@@ -0,0 +1,137 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import org.schabi.newpipe.extractor.downloader.Request;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The key of a cached response, which is the SHA-256 digest of the method, the URL, the headers
+ * and the body of the {@link Request} which produced it.
+ */
+final class CacheKey {
+    static final int SIZE = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Nonnull
+    private final byte[] digest;
+    private final int hashCode;
+
+    CacheKey(@Nonnull final byte[] digest) {
+        if (digest.length != SIZE) {
+            throw new IllegalArgumentException("Invalid cache key length: " + digest.length);
+        }
+        this.digest = digest;
+        this.hashCode = Arrays.hashCode(digest);
+    }
+
+    /**
+     * Compute the cache key of a request.
+     *
+     * <p>
+     * Header names are compared case-insensitively and their order doesn't matter, but the order
+     * of the values of each header does.
+     * </p>
+     *
+     * @param request the request for which computing the key
+     * @return the cache key of the request
+     */
+    @Nonnull
+    static CacheKey of(@Nonnull final Request request) {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+
+        update(messageDigest, request.httpMethod());
+        update(messageDigest, request.url());
+
+        final List<String> headerLines = new ArrayList<>();
+        for (final Map.Entry<String, List<String>> header : request.headers().entrySet()) {
+            headerLines.add(header.getKey().toLowerCase(Locale.ROOT) + ":"
+                    + String.join("\n", header.getValue()));
+        }
+        headerLines.sort(null);
+        messageDigest.update(intToBytes(headerLines.size()));
+        for (final String headerLine : headerLines) {
+            update(messageDigest, headerLine);
+        }
+
+        final byte[] dataToSend = request.dataToSend();
+        if (dataToSend == null) {
+            messageDigest.update(intToBytes(-1));
+        } else {
+            messageDigest.update(intToBytes(dataToSend.length));
+            messageDigest.update(dataToSend);
+        }
+
+        return new CacheKey(messageDigest.digest());
+    }
+
+    @Nonnull
+    byte[] getDigest() {
+        return digest.clone();
+    }
+
+    /**
+     * @return the lowercase hexadecimal representation of the key, usable as a file name
+     */
+    @Nonnull
+    String toHexString() {
+        final char[] chars = new char[SIZE * 2];
+        for (int i = 0; i < SIZE; i++) {
+            chars[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private static void update(@Nonnull final MessageDigest messageDigest,
+                               @Nonnull final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Prefix values with their length, so that different splits of the same bytes result
+        // in different keys
+        messageDigest.update(intToBytes(bytes.length));
+        messageDigest.update(bytes);
+    }
+
+    @Nonnull
+    private static byte[] intToBytes(final int value) {
+        return new byte[] {
+                (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(digest, ((CacheKey) o).digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+}
@@ -0,0 +1,507 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} which caches responses in memory and optionally on disk.
+ *
+ * <p>
+ * Only successful responses to {@code GET} and {@code HEAD} requests are cached by default, for
+ * the duration allowed by their {@code Cache-Control} or {@code Expires} headers. Responses
+ * without any of these headers are not cached. Stale responses having an {@code ETag} or a
+ * {@code Last-Modified} header are revalidated with a conditional request, and reused if the
+ * server answers with {@code 304 Not Modified}.
+ * </p>
+ *
+ * <p>
+ * Services often don't send any cache header, or send requests with the {@code POST} method
+ * whose responses can still be reused for a while (such as InnerTube requests). For these
+ * requests, a fixed time to live can be set with {@link Builder#ttlOverride(Predicate, Duration)},
+ * which takes precedence over response headers.
+ * </p>
+ *
+ * <p>
+ * Requests are identified by their method, URL, headers and body, so requests made with
+ * different localizations or cookies are cached separately.
+ * </p>
+ */
+public final class CachingDownloader extends Downloader implements Closeable {
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private static final Pattern CACHE_CONTROL_SEPARATOR = Pattern.compile(",");
+
+    @Nonnull
+    private final Downloader downloader;
+    @Nullable
+    private final MemoryCache memoryCache;
+    @Nullable
+    private final DiskCache diskCache;
+    @Nonnull
+    private final List<TtlOverride> ttlOverrides;
+    @Nonnull
+    private final LongSupplier clock;
+
+    private CachingDownloader(@Nonnull final Builder builder,
+                              @Nullable final DiskCache diskCache) {
+        this.downloader = builder.downloader;
+        this.memoryCache = builder.memoryCacheMaxSize > 0
+                ? new MemoryCache(builder.memoryCacheMaxSize)
+                : null;
+        this.diskCache = diskCache;
+        this.ttlOverrides = Collections.unmodifiableList(new ArrayList<>(builder.ttlOverrides));
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Create a builder of {@link CachingDownloader}.
+     *
+     * @param downloader the downloader used to execute requests which can't be answered from the
+     *                   cache
+     * @return a new builder
+     */
+    @Nonnull
+    public static Builder newBuilder(@Nonnull final Downloader downloader) {
+        return new Builder(downloader);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        final TtlOverride ttlOverride = findTtlOverride(request);
+        if (ttlOverride == null && !isCacheableMethod(request.httpMethod())) {
+            return downloader.execute(request);
+        }
+
+        final CacheKey key = CacheKey.of(request);
+        final long now = clock.getAsLong();
+        final CacheEntry cachedEntry = getEntry(key, now);
+        if (cachedEntry != null && cachedEntry.isFresh(now)) {
+            return cachedEntry.toResponse();
+        }
+
+        final Request conditionalRequest = cachedEntry == null
+                ? null
+                : createConditionalRequest(request, cachedEntry);
+        final Response response = downloader.execute(
+                conditionalRequest == null ? request : conditionalRequest);
+        final long responseTime = clock.getAsLong();
+
+        if (conditionalRequest != null && response.responseCode() == HTTP_NOT_MODIFIED) {
+            final long expiresAt = ttlOverride == null
+                    ? getExpirationTime(response, responseTime, true)
+                    : responseTime + ttlOverride.ttlMillis;
+            putEntry(key, cachedEntry.withFreshness(responseTime,
+                    Math.max(expiresAt, responseTime)), responseTime);
+            return cachedEntry.toResponse();
+        }
+
+        if (!isSuccessful(response)) {
+            return response;
+        }
+
+        final long expiresAt = ttlOverride == null
+                ? getExpirationTime(response, responseTime, hasValidators(response))
+                : responseTime + ttlOverride.ttlMillis;
+        if (expiresAt >= responseTime) {
+            putEntry(key, new CacheEntry(response, responseTime, expiresAt), responseTime);
+        } else {
+            removeEntry(key);
+        }
+        return response;
+    }
+
+    @Nonnull
+    @Override
+    public Executor getAsyncExecutor() {
+        return downloader.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        downloader.setAsyncExecutor(asyncExecutor);
+    }
+
+    /**
+     * Remove all responses from the memory and disk caches.
+     *
+     * @throws IOException if the files of the disk cache couldn't be listed
+     */
+    public void clear() throws IOException {
+        if (memoryCache != null) {
+            memoryCache.clear();
+        }
+        if (diskCache != null) {
+            diskCache.clear();
+        }
+    }
+
+    /**
+     * Flush and close the disk cache, if any. The downloader must not be used afterwards.
+     *
+     * @throws IOException if the index of the disk cache couldn't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (diskCache != null) {
+            diskCache.close();
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Cache tiers
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nullable
+    private CacheEntry getEntry(@Nonnull final CacheKey key, final long now) {
+        if (memoryCache != null) {
+            final CacheEntry entry = memoryCache.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        if (diskCache != null) {
+            final CacheEntry entry = diskCache.get(key, now);
+            if (entry != null && memoryCache != null) {
+                memoryCache.put(key, entry);
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private void putEntry(@Nonnull final CacheKey key,
+                          @Nonnull final CacheEntry entry,
+                          final long now) {
+        if (memoryCache != null) {
+            memoryCache.put(key, entry);
+        }
+        if (diskCache != null) {
+            try {
+                diskCache.put(key, entry, now);
+            } catch (final IOException e) {
+                // The response is still returned, it just won't be available from the disk
+                diskCache.remove(key);
+            }
+        }
+    }
+
+    private void removeEntry(@Nonnull final CacheKey key) {
+        if (memoryCache != null) {
+            memoryCache.remove(key);
+        }
+        if (diskCache != null) {
+            diskCache.remove(key);
+        }
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // HTTP caching rules
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nullable
+    private TtlOverride findTtlOverride(@Nonnull final Request request) {
+        for (final TtlOverride ttlOverride : ttlOverrides) {
+            if (ttlOverride.filter.test(request)) {
+                return ttlOverride;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCacheableMethod(@Nonnull final String httpMethod) {
+        return "GET".equalsIgnoreCase(httpMethod) || "HEAD".equalsIgnoreCase(httpMethod);
+    }
+
+    private static boolean isSuccessful(@Nonnull final Response response) {
+        return response.responseCode() >= 200 && response.responseCode() < 300;
+    }
+
+    private static boolean hasValidators(@Nonnull final Response response) {
+        return response.getHeader("ETag") != null || response.getHeader("Last-Modified") != null;
+    }
+
+    /**
+     * Create a conditional request to revalidate a stale entry, if it has validators and if the
+     * request method allows it.
+     */
+    @Nullable
+    private static Request createConditionalRequest(@Nonnull final Request request,
+                                                    @Nonnull final CacheEntry cachedEntry) {
+        final String eTag = cachedEntry.getETag();
+        final String lastModified = cachedEntry.getLastModified();
+        if (!isCacheableMethod(request.httpMethod()) || (eTag == null && lastModified == null)) {
+            return null;
+        }
+
+        final Map<String, List<String>> headers = new LinkedHashMap<>(request.headers());
+        if (eTag != null) {
+            headers.put("If-None-Match", Collections.singletonList(eTag));
+        }
+        if (lastModified != null) {
+            headers.put("If-Modified-Since", Collections.singletonList(lastModified));
+        }
+        // The localization headers have already been added to the original request
+        return new Request(request.httpMethod(), request.url(), headers, request.dataToSend(),
+                request.localization(), false);
+    }
+
+    /**
+     * Get the time until which a response is fresh according to its cache headers.
+     *
+     * @param response      the response
+     * @param responseTime  the time at which the response has been received
+     * @param hasValidators whether the response can be revalidated once stale, in which case
+     *                      responses which must always be revalidated are still stored
+     * @return the expiration time of the response, or {@link Long#MIN_VALUE} if it must not be
+     * stored
+     */
+    private static long getExpirationTime(@Nonnull final Response response,
+                                          final long responseTime,
+                                          final boolean hasValidators) {
+        final String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null) {
+            long maxAgeSeconds = -1;
+            for (final String rawDirective : CACHE_CONTROL_SEPARATOR.split(cacheControl)) {
+                final String directive = rawDirective.trim().toLowerCase(Locale.ROOT);
+                if (directive.equals("no-store")) {
+                    return Long.MIN_VALUE;
+                } else if (directive.equals("no-cache")) {
+                    return hasValidators ? responseTime : Long.MIN_VALUE;
+                } else if (directive.startsWith("max-age=")) {
+                    maxAgeSeconds = parseSeconds(directive.substring("max-age=".length()));
+                }
+            }
+
+            if (maxAgeSeconds >= 0) {
+                final long ageSeconds = Math.max(0, parseSeconds(response.getHeader("Age")));
+                return responseTime + Math.max(0, maxAgeSeconds - ageSeconds) * 1000;
+            }
+        }
+
+        final String pragma = response.getHeader("Pragma");
+        if (pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache")) {
+            return hasValidators ? responseTime : Long.MIN_VALUE;
+        }
+
+        final ZonedDateTime expires = parseHttpDate(response.getHeader("Expires"));
+        if (expires != null) {
+            // Use the server date if possible, to not depend on the local clock accuracy
+            final ZonedDateTime date = parseHttpDate(response.getHeader("Date"));
+            final long lifetimeMillis = date == null
+                    ? expires.toInstant().toEpochMilli() - responseTime
+                    : Duration.between(date, expires).toMillis();
+            return responseTime + Math.max(0, lifetimeMillis);
+        }
+
+        return Long.MIN_VALUE;
+    }
+
+    private static long parseSeconds(@Nullable final String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("\"", ""));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Nullable
+    private static ZonedDateTime parseHttpDate(@Nullable final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        } catch (final DateTimeParseException e) {
+            // Invalid dates, such as "0" or "-1", mean that the response is already expired
+            return null;
+        }
+    }
+
+    private static final class TtlOverride {
+        @Nonnull
+        private final Predicate<Request> filter;
+        private final long ttlMillis;
+
+        TtlOverride(@Nonnull final Predicate<Request> filter, final long ttlMillis) {
+            this.filter = filter;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+
+    /**
+     * A builder of {@link CachingDownloader}.
+     */
+    public static final class Builder {
+        /**
+         * The default number of entries of the disk cache.
+         */
+        public static final int DEFAULT_DISK_CACHE_CAPACITY = 4096;
+        private static final long DEFAULT_MEMORY_CACHE_MAX_SIZE = 8L * 1024 * 1024;
+
+        @Nonnull
+        private final Downloader downloader;
+        private long memoryCacheMaxSize = DEFAULT_MEMORY_CACHE_MAX_SIZE;
+        @Nullable
+        private Path diskCacheDirectory;
+        private long diskCacheMaxSize;
+        private int diskCacheCapacity = DEFAULT_DISK_CACHE_CAPACITY;
+        private final List<TtlOverride> ttlOverrides = new ArrayList<>();
+        @Nonnull
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder(@Nonnull final Downloader downloader) {
+            this.downloader = Objects.requireNonNull(downloader);
+        }
+
+        /**
+         * Set the maximum size of the memory cache. Defaults to 8 MiB.
+         *
+         * @param maxSize the approximate maximum memory used by cached responses, in bytes, or
+         *                {@code 0} to disable the memory cache
+         * @return this builder
+         */
+        @Nonnull
+        public Builder memoryCacheMaxSize(final long maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Invalid maximum size: " + maxSize);
+            }
+            this.memoryCacheMaxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Enable the disk cache, with {@link #DEFAULT_DISK_CACHE_CAPACITY} entries at most.
+         *
+         * @param directory the directory in which responses are stored, which must not be used
+         *                  by another {@link CachingDownloader} at the same time
+         * @param maxSize   the maximum total size of cached responses, in bytes
+         * @return this builder
+         */
+        @Nonnull
+        public Builder diskCache(@Nonnull final Path directory, final long maxSize) {
+            return diskCache(directory, maxSize, DEFAULT_DISK_CACHE_CAPACITY);
+        }
+
+        /**
+         * Enable the disk cache.
+         *
+         * <p>
+         * Changing the capacity of an existing disk cache clears it.
+         * </p>
+         *
+         * @param directory the directory in which responses are stored, which must not be used
+         *                  by another {@link CachingDownloader} at the same time
+         * @param maxSize   the maximum total size of cached responses, in bytes
+         * @param capacity  the size of the index of the disk cache, which is roughly the maximum
+         *                  number of cached responses
+         * @return this builder
+         */
+        @Nonnull
+        public Builder diskCache(@Nonnull final Path directory,
+                                 final long maxSize,
+                                 final int capacity) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Invalid maximum size: " + maxSize);
+            }
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Invalid capacity: " + capacity);
+            }
+            this.diskCacheDirectory = Objects.requireNonNull(directory);
+            this.diskCacheMaxSize = maxSize;
+            this.diskCacheCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Cache the successful responses of matching requests for a fixed duration, whatever
+         * their method and cache headers are.
+         *
+         * <p>
+         * Overrides are checked in the order in which they have been added, the first matching
+         * one is used.
+         * </p>
+         *
+         * @param filter a predicate returning whether the override applies to a request
+         * @param ttl    the duration for which responses are reused
+         * @return this builder
+         */
+        @Nonnull
+        public Builder ttlOverride(@Nonnull final Predicate<Request> filter,
+                                   @Nonnull final Duration ttl) {
+            if (ttl.isNegative()) {
+                throw new IllegalArgumentException("Invalid TTL: " + ttl);
+            }
+            ttlOverrides.add(new TtlOverride(Objects.requireNonNull(filter), ttl.toMillis()));
+            return this;
+        }
+
+        /**
+         * Cache the successful responses of requests with the given method and a URL matching
+         * the given pattern for a fixed duration.
+         *
+         * @param httpMethod the HTTP method of the requests, such as {@code POST}
+         * @param urlPattern a pattern which must be found in the URL of the requests
+         * @param ttl        the duration for which responses are reused
+         * @return this builder
+         * @see #ttlOverride(Predicate, Duration)
+         */
+        @Nonnull
+        public Builder ttlOverride(@Nonnull final String httpMethod,
+                                   @Nonnull final Pattern urlPattern,
+                                   @Nonnull final Duration ttl) {
+            Objects.requireNonNull(httpMethod);
+            Objects.requireNonNull(urlPattern);
+            return ttlOverride(request -> httpMethod.equalsIgnoreCase(request.httpMethod())
+                    && urlPattern.matcher(request.url()).find(), ttl);
+        }
+
+        @Nonnull
+        Builder clock(@Nonnull final LongSupplier clockToSet) {
+            this.clock = Objects.requireNonNull(clockToSet);
+            return this;
+        }
+
+        /**
+         * Build the {@link CachingDownloader}, opening its disk cache if enabled.
+         *
+         * @return a new {@link CachingDownloader}
+         * @throws IOException if the disk cache couldn't be opened
+         */
+        @Nonnull
+        public CachingDownloader build() throws IOException {
+            final DiskCache diskCache = diskCacheDirectory == null
+                    ? null
+                    : new DiskCache(diskCacheDirectory, diskCacheCapacity, diskCacheMaxSize);
+            return new CachingDownloader(this, diskCache);
+        }
+    }
+}
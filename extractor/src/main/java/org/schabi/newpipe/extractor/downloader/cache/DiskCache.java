@@ -0,0 +1,441 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The on-disk tier of {@link CachingDownloader}.
+ *
+ * <p>
+ * Each entry is stored in its own file, named after the hexadecimal representation of its
+ * {@link CacheKey}. A memory-mapped index file holds an open-addressing hash table of all
+ * entries with their size and their last access time, so that lookups of missing entries don't
+ * touch the file system and least-recently-used entries can be evicted when the cache exceeds its
+ * maximum size.
+ * </p>
+ *
+ * <p>
+ * A cache directory must not be used by several {@link DiskCache} instances at the same time,
+ * including from different processes.
+ * </p>
+ */
+final class DiskCache implements Closeable {
+    private static final String INDEX_FILE_NAME = "index";
+    private static final String ENTRY_FILE_SUFFIX = ".entry";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x4E504443; // "NPDC"
+    private static final int VERSION = 1;
+
+    // Index header: magic, version, capacity, reserved
+    private static final int HEADER_SIZE = 16;
+    private static final int HEADER_MAGIC_OFFSET = 0;
+    private static final int HEADER_VERSION_OFFSET = 4;
+    private static final int HEADER_CAPACITY_OFFSET = 8;
+
+    // Index slot: state, padding, key, expiration time, last access time, entry size
+    private static final int SLOT_SIZE = 64;
+    private static final int SLOT_STATE_OFFSET = 0;
+    private static final int SLOT_KEY_OFFSET = 8;
+    private static final int SLOT_EXPIRES_AT_OFFSET = SLOT_KEY_OFFSET + CacheKey.SIZE;
+    private static final int SLOT_LAST_ACCESS_OFFSET = SLOT_EXPIRES_AT_OFFSET + 8;
+    private static final int SLOT_ENTRY_SIZE_OFFSET = SLOT_LAST_ACCESS_OFFSET + 8;
+
+    private static final byte SLOT_EMPTY = 0;
+    private static final byte SLOT_USED = 1;
+    private static final byte SLOT_DELETED = 2;
+
+    /**
+     * The maximum ratio of used slots before evicting entries.
+     */
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    /**
+     * The maximum ratio of used and deleted slots before rebuilding the hash table.
+     */
+    private static final double MAX_OCCUPANCY_FACTOR = 0.9;
+    /**
+     * The ratio of the maximum size and of the capacity to which the cache is trimmed when one of
+     * them is exceeded, so that evictions are done in batches.
+     */
+    private static final double TRIM_FACTOR = 0.8;
+
+    @Nonnull
+    private final Path directory;
+    private final int capacity;
+    private final long maxSize;
+    @Nonnull
+    private final FileChannel indexChannel;
+    @Nonnull
+    private final MappedByteBuffer index;
+
+    private int usedSlots;
+    private int deletedSlots;
+    private long size;
+
+    /**
+     * Open a disk cache, creating it if it doesn't exist or if it has been created with a
+     * different capacity.
+     *
+     * @param directory the directory of the cache
+     * @param capacity  the maximum number of entries
+     * @param maxSize   the maximum total size of entries, in bytes
+     * @throws IOException if the cache directory or its index couldn't be created or opened
+     */
+    DiskCache(@Nonnull final Path directory,
+              final int capacity,
+              final long maxSize) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maxSize);
+        }
+
+        this.directory = directory;
+        this.capacity = capacity;
+        this.maxSize = maxSize;
+
+        Files.createDirectories(directory);
+        final long indexSize = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        final boolean validIndex = indexChannel.size() == indexSize && isValidIndex();
+        if (!validIndex) {
+            indexChannel.truncate(0);
+        }
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+
+        if (validIndex) {
+            loadIndexStatistics();
+        } else {
+            deleteEntryFiles();
+            index.putInt(HEADER_MAGIC_OFFSET, MAGIC);
+            index.putInt(HEADER_VERSION_OFFSET, VERSION);
+            index.putInt(HEADER_CAPACITY_OFFSET, capacity);
+        }
+    }
+
+    @Nullable
+    synchronized CacheEntry get(@Nonnull final CacheKey key, final long nowMillis) {
+        final int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        try (InputStream inputStream = Files.newInputStream(getEntryFile(key));
+             DataInputStream input = new DataInputStream(
+                     new BufferedInputStream(inputStream))) {
+            final CacheEntry entry = CacheEntry.readFrom(input);
+            index.putLong(slotOffset(slot) + SLOT_LAST_ACCESS_OFFSET, nowMillis);
+            return entry;
+        } catch (final IOException e) {
+            // The entry file is missing or corrupted
+            removeSlot(slot, key);
+            return null;
+        }
+    }
+
+    synchronized void put(@Nonnull final CacheKey key,
+                          @Nonnull final CacheEntry entry,
+                          final long nowMillis) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(byteArrayOutputStream)) {
+            entry.writeTo(output);
+        }
+        final byte[] serializedEntry = byteArrayOutputStream.toByteArray();
+
+        if (serializedEntry.length > maxSize) {
+            remove(key);
+            return;
+        }
+
+        writeEntryFile(key, serializedEntry);
+
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            size -= index.getLong(slotOffset(slot) + SLOT_ENTRY_SIZE_OFFSET);
+        } else {
+            if (usedSlots + 1 > capacity * MAX_LOAD_FACTOR) {
+                trim((int) (capacity * MAX_LOAD_FACTOR * TRIM_FACTOR), maxSize, nowMillis);
+            }
+            if (usedSlots + deletedSlots + 1 > capacity * MAX_OCCUPANCY_FACTOR) {
+                rebuildIndex();
+            }
+            slot = findFreeSlot(key);
+            if (index.get(slotOffset(slot) + SLOT_STATE_OFFSET) == SLOT_DELETED) {
+                --deletedSlots;
+            }
+            ++usedSlots;
+        }
+
+        writeSlot(slot, key.getDigest(), entry.getExpiresAtMillis(), nowMillis,
+                serializedEntry.length);
+        size += serializedEntry.length;
+
+        if (size > maxSize) {
+            trim(capacity, (long) (maxSize * TRIM_FACTOR), nowMillis);
+        }
+    }
+
+    synchronized void remove(@Nonnull final CacheKey key) {
+        final int slot = findSlot(key);
+        if (slot >= 0) {
+            removeSlot(slot, key);
+        }
+    }
+
+    synchronized void clear() throws IOException {
+        for (int slot = 0; slot < capacity; slot++) {
+            index.put(slotOffset(slot) + SLOT_STATE_OFFSET, SLOT_EMPTY);
+        }
+        usedSlots = 0;
+        deletedSlots = 0;
+        size = 0;
+        deleteEntryFiles();
+    }
+
+    synchronized int size() {
+        return usedSlots;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.force();
+        indexChannel.close();
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Index
+    //////////////////////////////////////////////////////////////////////////*/
+
+    private boolean isValidIndex() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        indexChannel.read(header, 0);
+        return header.getInt(HEADER_MAGIC_OFFSET) == MAGIC
+                && header.getInt(HEADER_VERSION_OFFSET) == VERSION
+                && header.getInt(HEADER_CAPACITY_OFFSET) == capacity;
+    }
+
+    private void loadIndexStatistics() {
+        for (int slot = 0; slot < capacity; slot++) {
+            final byte state = index.get(slotOffset(slot) + SLOT_STATE_OFFSET);
+            if (state == SLOT_USED) {
+                ++usedSlots;
+                size += index.getLong(slotOffset(slot) + SLOT_ENTRY_SIZE_OFFSET);
+            } else if (state == SLOT_DELETED) {
+                ++deletedSlots;
+            }
+        }
+    }
+
+    /**
+     * @return the slot of the given key, or {@code -1} if it is not in the index
+     */
+    private int findSlot(@Nonnull final CacheKey key) {
+        int slot = initialSlot(key);
+        for (int i = 0; i < capacity; i++) {
+            final byte state = index.get(slotOffset(slot) + SLOT_STATE_OFFSET);
+            if (state == SLOT_EMPTY) {
+                return -1;
+            } else if (state == SLOT_USED && slotHasKey(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first empty or deleted slot in the probe sequence of the given key, which must
+     * not be in the index
+     */
+    private int findFreeSlot(@Nonnull final CacheKey key) {
+        int slot = initialSlot(key);
+        for (int i = 0; i < capacity; i++) {
+            if (index.get(slotOffset(slot) + SLOT_STATE_OFFSET) != SLOT_USED) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+        // Cannot happen, as the load of the index is kept under MAX_LOAD_FACTOR
+        throw new IllegalStateException("No free slot in disk cache index");
+    }
+
+    private int initialSlot(@Nonnull final CacheKey key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % capacity;
+    }
+
+    private boolean slotHasKey(final int slot, @Nonnull final CacheKey key) {
+        final byte[] digest = key.getDigest();
+        final int keyOffset = slotOffset(slot) + SLOT_KEY_OFFSET;
+        for (int i = 0; i < CacheKey.SIZE; i++) {
+            if (index.get(keyOffset + i) != digest[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nonnull
+    private CacheKey getSlotKey(final int slot) {
+        final byte[] digest = new byte[CacheKey.SIZE];
+        final int keyOffset = slotOffset(slot) + SLOT_KEY_OFFSET;
+        for (int i = 0; i < CacheKey.SIZE; i++) {
+            digest[i] = index.get(keyOffset + i);
+        }
+        return new CacheKey(digest);
+    }
+
+    private void writeSlot(final int slot,
+                           @Nonnull final byte[] digest,
+                           final long expiresAtMillis,
+                           final long lastAccessMillis,
+                           final long entrySize) {
+        final int offset = slotOffset(slot);
+        for (int i = 0; i < CacheKey.SIZE; i++) {
+            index.put(offset + SLOT_KEY_OFFSET + i, digest[i]);
+        }
+        index.putLong(offset + SLOT_EXPIRES_AT_OFFSET, expiresAtMillis);
+        index.putLong(offset + SLOT_LAST_ACCESS_OFFSET, lastAccessMillis);
+        index.putLong(offset + SLOT_ENTRY_SIZE_OFFSET, entrySize);
+        // Write the state last, so that a slot is never marked as used with a partial content
+        index.put(offset + SLOT_STATE_OFFSET, SLOT_USED);
+    }
+
+    private void removeSlot(final int slot, @Nonnull final CacheKey key) {
+        final int offset = slotOffset(slot);
+        size -= index.getLong(offset + SLOT_ENTRY_SIZE_OFFSET);
+        index.put(offset + SLOT_STATE_OFFSET, SLOT_DELETED);
+        --usedSlots;
+        ++deletedSlots;
+        deleteQuietly(getEntryFile(key));
+    }
+
+    /**
+     * Evict entries until there are at most {@code maxEntries} entries and their total size is at
+     * most {@code maxTotalSize}, starting with expired entries, then least recently used ones.
+     */
+    private void trim(final int maxEntries, final long maxTotalSize, final long nowMillis) {
+        final List<Integer> slots = new ArrayList<>(usedSlots);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (index.get(slotOffset(slot) + SLOT_STATE_OFFSET) == SLOT_USED) {
+                slots.add(slot);
+            }
+        }
+
+        slots.sort(Comparator
+                .comparing((Integer slot) -> index.getLong(
+                        slotOffset(slot) + SLOT_EXPIRES_AT_OFFSET) > nowMillis)
+                .thenComparingLong(slot -> index.getLong(
+                        slotOffset(slot) + SLOT_LAST_ACCESS_OFFSET)));
+
+        for (final int slot : slots) {
+            if (usedSlots <= maxEntries && size <= maxTotalSize) {
+                break;
+            }
+            removeSlot(slot, getSlotKey(slot));
+        }
+    }
+
+    /**
+     * Re-insert all entries of the index to get rid of deleted slots, which make probe sequences
+     * longer.
+     */
+    private void rebuildIndex() {
+        final List<byte[]> slotContents = new ArrayList<>(usedSlots);
+        for (int slot = 0; slot < capacity; slot++) {
+            final int offset = slotOffset(slot);
+            if (index.get(offset + SLOT_STATE_OFFSET) == SLOT_USED) {
+                final byte[] content = new byte[SLOT_SIZE];
+                for (int i = 0; i < SLOT_SIZE; i++) {
+                    content[i] = index.get(offset + i);
+                }
+                slotContents.add(content);
+            }
+            index.put(offset + SLOT_STATE_OFFSET, SLOT_EMPTY);
+        }
+        deletedSlots = 0;
+
+        for (final byte[] content : slotContents) {
+            final byte[] digest = new byte[CacheKey.SIZE];
+            System.arraycopy(content, SLOT_KEY_OFFSET, digest, 0, CacheKey.SIZE);
+            final int slot = findFreeSlot(new CacheKey(digest));
+            final int offset = slotOffset(slot);
+            for (int i = SLOT_SIZE - 1; i >= 0; i--) {
+                // Write the state (at offset 0) last
+                index.put(offset + i, content[i]);
+            }
+        }
+    }
+
+    private static int slotOffset(final int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /*//////////////////////////////////////////////////////////////////////////
+    // Entry files
+    //////////////////////////////////////////////////////////////////////////*/
+
+    @Nonnull
+    private Path getEntryFile(@Nonnull final CacheKey key) {
+        return directory.resolve(key.toHexString() + ENTRY_FILE_SUFFIX);
+    }
+
+    private void writeEntryFile(@Nonnull final CacheKey key,
+                                @Nonnull final byte[] serializedEntry) throws IOException {
+        final Path entryFile = getEntryFile(key);
+        final Path temporaryFile = directory.resolve(key.toHexString() + TEMPORARY_FILE_SUFFIX);
+        Files.write(temporaryFile, serializedEntry);
+        try {
+            Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteEntryFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, file -> {
+            final String fileName = file.getFileName().toString();
+            return fileName.endsWith(ENTRY_FILE_SUFFIX)
+                    || fileName.endsWith(TEMPORARY_FILE_SUFFIX);
+        })) {
+            for (final Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(@Nonnull final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException ignored) {
+            // The file will be overwritten or deleted the next time the cache is cleared
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The in-memory tier of {@link CachingDownloader}: a least-recently-used cache bounded by the
+ * approximate memory used by its entries.
+ */
+final class MemoryCache {
+    private final long maxWeight;
+    private final LinkedHashMap<CacheKey, CacheEntry> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    /**
+     * @param maxWeight the maximum approximate memory used by entries, in bytes
+     */
+    MemoryCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    @Nullable
+    synchronized CacheEntry get(@Nonnull final CacheKey key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(@Nonnull final CacheKey key, @Nonnull final CacheEntry entry) {
+        final long entryWeight = entry.getWeight();
+        if (entryWeight > maxWeight) {
+            // The entry would evict everything else, don't store it
+            remove(key);
+            return;
+        }
+
+        final CacheEntry previousEntry = entries.put(key, entry);
+        if (previousEntry != null) {
+            weight -= previousEntry.getWeight();
+        }
+        weight += entryWeight;
+
+        final Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            final Map.Entry<CacheKey, CacheEntry> eldest = iterator.next();
+            weight -= eldest.getValue().getWeight();
+            iterator.remove();
+        }
+    }
+
+    synchronized void remove(@Nonnull final CacheKey key) {
+        final CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.getWeight();
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeight() {
+        return weight;
+    }
+}
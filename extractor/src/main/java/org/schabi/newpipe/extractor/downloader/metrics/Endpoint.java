@@ -0,0 +1,56 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A logical endpoint of a service, such as the {@code player} endpoint of YouTube's InnerTube
+ * API, used to group request metrics.
+ */
+public final class Endpoint {
+    @Nonnull
+    private final String service;
+    @Nonnull
+    private final String name;
+
+    public Endpoint(@Nonnull final String service, @Nonnull final String name) {
+        this.service = Objects.requireNonNull(service);
+        this.name = Objects.requireNonNull(name);
+    }
+
+    /**
+     * @return the name of the service, or the host of the request if it is not known
+     */
+    @Nonnull
+    public String getService() {
+        return service;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Endpoint endpoint = (Endpoint) o;
+        return service.equals(endpoint.service) && name.equals(endpoint.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(service, name);
+    }
+
+    @Override
+    public String toString() {
+        return service + "/" + name;
+    }
+}
@@ -0,0 +1,67 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import org.schabi.newpipe.extractor.downloader.Request;
+
+import java.net.URI;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Maps requests to the {@link Endpoint} they are made to.
+ */
+@FunctionalInterface
+public interface EndpointClassifier {
+
+    /**
+     * The default classifier, which knows the hosts of the supported services and the InnerTube
+     * API of YouTube.
+     *
+     * <p>
+     * InnerTube requests are grouped by the method path after {@code /youtubei/v1/}, such as
+     * {@code player}, {@code next}, {@code browse} or {@code visitor_id}. Other requests are
+     * grouped by the first segment of their path which isn't a number. Requests to unknown hosts
+     * use their host as service name.
+     * </p>
+     */
+    EndpointClassifier DEFAULT = request -> {
+        final URI uri;
+        try {
+            uri = URI.create(request.url());
+        } catch (final IllegalArgumentException e) {
+            return new Endpoint("unknown", "unknown");
+        }
+
+        final String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        final String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        final String service;
+        if (host.endsWith("youtube.com") || host.endsWith("googleapis.com")
+                || host.endsWith("googlevideo.com") || host.endsWith("ytimg.com")) {
+            service = "YouTube";
+        } else if (host.endsWith("soundcloud.com") || host.endsWith("sndcdn.com")) {
+            service = "SoundCloud";
+        } else if (host.endsWith("bandcamp.com") || host.endsWith("bcbits.com")) {
+            service = "Bandcamp";
+        } else if (host.endsWith("media.ccc.de")) {
+            service = "media.ccc.de";
+        } else {
+            service = host;
+        }
+
+        final int innertubeIndex = path.indexOf("/youtubei/v1/");
+        if (innertubeIndex >= 0) {
+            return new Endpoint(service,
+                    path.substring(innertubeIndex + "/youtubei/v1/".length()));
+        }
+
+        for (final String segment : path.split("/")) {
+            if (!segment.isEmpty() && !Character.isDigit(segment.charAt(0))) {
+                return new Endpoint(service, segment);
+            }
+        }
+        return new Endpoint(service, "/");
+    };
+
+    @Nonnull
+    Endpoint classify(@Nonnull Request request);
+}
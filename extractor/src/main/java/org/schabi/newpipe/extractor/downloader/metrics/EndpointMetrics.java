@@ -0,0 +1,111 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The counters and latency histograms of the requests made to an {@link Endpoint}, aggregated by
+ * {@link RequestMetrics}.
+ */
+public final class EndpointMetrics {
+    @Nonnull
+    private final Endpoint endpoint;
+    private final LongAdder inFlightRequests = new LongAdder();
+    private final LongAdder completedRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder errorResponses = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    EndpointMetrics(@Nonnull final Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Nonnull
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public long getInFlightRequestCount() {
+        return inFlightRequests.sum();
+    }
+
+    /**
+     * @return the number of requests which completed with a response, including error responses
+     */
+    public long getCompletedRequestCount() {
+        return completedRequests.sum();
+    }
+
+    /**
+     * @return the number of requests which failed with an exception
+     */
+    public long getFailedRequestCount() {
+        return failedRequests.sum();
+    }
+
+    /**
+     * @return the number of responses with a status code of 400 or more
+     */
+    public long getErrorResponseCount() {
+        return errorResponses.sum();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * @return the histogram of the durations of completed and failed requests, in nanoseconds
+     */
+    @Nonnull
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    void onRequestStart(@Nonnull final RequestEvent event) {
+        inFlightRequests.increment();
+        requestBytes.add(event.getRequestBytes());
+    }
+
+    void onRequestEnd(@Nonnull final RequestEvent event) {
+        inFlightRequests.decrement();
+        completedRequests.increment();
+        if (event.getResponseCode() >= 400) {
+            errorResponses.increment();
+        }
+        responseBytes.add(event.getResponseBytes());
+        latency.record(event.getDurationNanos());
+    }
+
+    void onRequestFailed(@Nonnull final RequestEvent event) {
+        inFlightRequests.decrement();
+        failedRequests.increment();
+        latency.record(event.getDurationNanos());
+    }
+
+    void reset() {
+        completedRequests.reset();
+        failedRequests.reset();
+        errorResponses.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointMetrics{endpoint=" + endpoint
+                + ", completed=" + getCompletedRequestCount()
+                + ", failed=" + getFailedRequestCount()
+                + ", errors=" + getErrorResponseCount()
+                + ", responseBytes=" + getResponseBytes()
+                + ", latency=" + latency + "}";
+    }
+}
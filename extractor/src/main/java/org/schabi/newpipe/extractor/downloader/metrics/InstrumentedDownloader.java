@@ -0,0 +1,117 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} which notifies a {@link RequestListener} around every request it
+ * executes, for instance a {@link RequestMetrics} instance to get latency statistics per
+ * endpoint.
+ */
+public final class InstrumentedDownloader extends Downloader {
+    @Nonnull
+    private final Downloader downloader;
+    @Nonnull
+    private final RequestListener listener;
+    @Nonnull
+    private final EndpointClassifier endpointClassifier;
+
+    /**
+     * Create a new {@link InstrumentedDownloader} using
+     * {@link EndpointClassifier#DEFAULT the default endpoint classifier}.
+     *
+     * @param downloader the downloader used to execute requests
+     * @param listener   the listener notified around requests
+     */
+    public InstrumentedDownloader(@Nonnull final Downloader downloader,
+                                  @Nonnull final RequestListener listener) {
+        this(downloader, listener, EndpointClassifier.DEFAULT);
+    }
+
+    /**
+     * Create a new {@link InstrumentedDownloader}.
+     *
+     * @param downloader         the downloader used to execute requests
+     * @param listener           the listener notified around requests
+     * @param endpointClassifier the classifier used to get the endpoint of requests
+     */
+    public InstrumentedDownloader(@Nonnull final Downloader downloader,
+                                  @Nonnull final RequestListener listener,
+                                  @Nonnull final EndpointClassifier endpointClassifier) {
+        this.downloader = Objects.requireNonNull(downloader);
+        this.listener = Objects.requireNonNull(listener);
+        this.endpointClassifier = Objects.requireNonNull(endpointClassifier);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        final RequestEvent event = new RequestEvent(request,
+                endpointClassifier.classify(request), System.nanoTime());
+        notifyQuietly(() -> listener.onRequestStart(event));
+
+        try {
+            final Response response = downloader.execute(request);
+            // Don't decode raw bodies just to measure them
+            event.setCompleted(System.nanoTime(), response.responseCode(),
+                    response.hasRawResponseBody()
+                            ? response.responseBodyBytes().length
+                            : utf8Length(response.responseBody()));
+            notifyQuietly(() -> listener.onRequestEnd(event));
+            return response;
+        } catch (final IOException | ReCaptchaException | RuntimeException e) {
+            event.setFailed(System.nanoTime(), e);
+            notifyQuietly(() -> listener.onRequestFailed(event));
+            throw e;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Executor getAsyncExecutor() {
+        return downloader.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        downloader.setAsyncExecutor(asyncExecutor);
+    }
+
+    private static void notifyQuietly(@Nonnull final Runnable notification) {
+        try {
+            notification.run();
+        } catch (final RuntimeException ignored) {
+            // A faulty listener must not make requests fail
+        }
+    }
+
+    /**
+     * Compute the length of a string encoded in UTF-8 without encoding it.
+     */
+    private static long utf8Length(@Nonnull final String string) {
+        long length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if (c < 0x80) {
+                ++length;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                // Each half of a surrogate pair accounts for half of a 4 bytes sequence
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,151 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative durations, with a fixed memory footprint and a
+ * constant recording cost.
+ *
+ * <p>
+ * Values are counted in buckets whose width grows with the magnitude of the values: each power
+ * of two is divided into four buckets, so percentiles are exact to within 25%. Recording a value
+ * is a few arithmetic operations and atomic increments, without any lock or allocation.
+ * </p>
+ *
+ * <p>
+ * Reading methods aren't atomic with respect to each other, so values read while other threads
+ * record values may be slightly inconsistent.
+ * </p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (Long.SIZE - SUB_BUCKET_BITS);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a value. Negative values are recorded as {@code 0}.
+     *
+     * @param value the value to record, such as a duration in nanoseconds
+     */
+    public void record(final long value) {
+        final long v = Math.max(0, value);
+        buckets.incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the smallest recorded value, or {@code 0} if no value has been recorded
+     */
+    public long getMin() {
+        final long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * @return the largest recorded value, or {@code 0} if no value has been recorded
+     */
+    public long getMax() {
+        final long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * @return the mean of the recorded values, or {@code 0} if no value has been recorded
+     */
+    public double getMean() {
+        final long currentCount = getCount();
+        return currentCount == 0 ? 0 : (double) getSum() / currentCount;
+    }
+
+    /**
+     * Get an approximation of a percentile of the recorded values.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}, such as {@code 99}
+     * @return the upper bound of the bucket containing the percentile, capped to the largest
+     * recorded value, or {@code 0} if no value has been recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Remove all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT * (shift + 1)
+                + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long subBucket = index % SUB_BUCKET_COUNT;
+        final long lowerBound = (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount()
+                + ", mean=" + getMean()
+                + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99)
+                + ", max=" + getMax() + "}";
+    }
+}
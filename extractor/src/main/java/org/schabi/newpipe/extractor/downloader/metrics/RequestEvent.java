@@ -0,0 +1,114 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import org.schabi.newpipe.extractor.downloader.Request;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A request executed by an {@link InstrumentedDownloader}, passed to {@link RequestListener}s.
+ *
+ * <p>
+ * The same event is passed to all the callbacks of a request, and is updated as the request
+ * progresses. Times are in nanoseconds from the start of the request.
+ * </p>
+ */
+public final class RequestEvent {
+    @Nonnull
+    private final Request request;
+    @Nonnull
+    private final Endpoint endpoint;
+    private final long startNanos;
+    private final long requestBytes;
+
+    private volatile long durationNanos = -1;
+    private volatile int responseCode = -1;
+    private volatile long responseBytes = -1;
+    @Nullable
+    private volatile Exception exception;
+
+    RequestEvent(@Nonnull final Request request,
+                 @Nonnull final Endpoint endpoint,
+                 final long startNanos) {
+        this.request = request;
+        this.endpoint = endpoint;
+        this.startNanos = startNanos;
+        final byte[] dataToSend = request.dataToSend();
+        this.requestBytes = dataToSend == null ? 0 : dataToSend.length;
+    }
+
+    @Nonnull
+    public Request getRequest() {
+        return request;
+    }
+
+    @Nonnull
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the request started
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return the time until the request completed or failed, or {@code -1} if it is in progress
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return the HTTP status code of the response, or {@code -1} if there is no response
+     */
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * @return the size of the raw response body, or of the response body encoded in UTF-8 if it
+     * has been given as a string, or {@code -1} if there is no response
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return the exception which made the request fail, or {@code null} if it didn't fail
+     */
+    @Nullable
+    public Exception getException() {
+        return exception;
+    }
+
+    public boolean isFailed() {
+        return exception != null;
+    }
+
+    void setCompleted(final long nowNanos, final int code, final long bytes) {
+        this.responseCode = code;
+        this.responseBytes = bytes;
+        this.durationNanos = nowNanos - startNanos;
+    }
+
+    void setFailed(final long nowNanos, @Nonnull final Exception e) {
+        this.exception = e;
+        this.durationNanos = nowNanos - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestEvent{endpoint=" + endpoint
+                + ", url=" + request.url()
+                + ", durationNanos=" + durationNanos
+                + ", responseCode=" + responseCode
+                + ", exception=" + exception + "}";
+    }
+}
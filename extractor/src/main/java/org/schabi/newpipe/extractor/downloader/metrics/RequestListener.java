@@ -0,0 +1,39 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A listener notified of the progress of the requests executed by an
+ * {@link InstrumentedDownloader}.
+ *
+ * <p>
+ * Callbacks are invoked synchronously on the thread executing the request, so they should be
+ * fast and must be thread-safe. Exceptions thrown by callbacks are ignored.
+ * </p>
+ */
+public interface RequestListener {
+
+    /**
+     * Called before a request is sent.
+     *
+     * @param event the request
+     */
+    default void onRequestStart(@Nonnull final RequestEvent event) {
+    }
+
+    /**
+     * Called when a request completed with a response, whatever its status code is.
+     *
+     * @param event the request, with its duration, response code and response size set
+     */
+    default void onRequestEnd(@Nonnull final RequestEvent event) {
+    }
+
+    /**
+     * Called when a request failed with an exception.
+     *
+     * @param event the request, with its duration and exception set
+     */
+    default void onRequestFailed(@Nonnull final RequestEvent event) {
+    }
+}
@@ -0,0 +1,126 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link RequestListener} aggregating request counters and latency histograms per service and
+ * per {@link Endpoint}.
+ *
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>{@code
+ * final RequestMetrics metrics = new RequestMetrics();
+ * NewPipe.init(new InstrumentedDownloader(downloader, metrics));
+ * // ... extract content ...
+ * System.out.println(metrics.getSummary());
+ * }</pre>
+ */
+public final class RequestMetrics implements RequestListener {
+    private final ConcurrentHashMap<Endpoint, EndpointMetrics> endpointMetrics =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void onRequestStart(@Nonnull final RequestEvent event) {
+        getOrCreate(event.getEndpoint()).onRequestStart(event);
+    }
+
+    @Override
+    public void onRequestEnd(@Nonnull final RequestEvent event) {
+        getOrCreate(event.getEndpoint()).onRequestEnd(event);
+    }
+
+    @Override
+    public void onRequestFailed(@Nonnull final RequestEvent event) {
+        getOrCreate(event.getEndpoint()).onRequestFailed(event);
+    }
+
+    /**
+     * @param endpoint an endpoint
+     * @return the metrics of the endpoint, or {@code null} if no request has been made to it
+     */
+    @Nullable
+    public EndpointMetrics getEndpointMetrics(@Nonnull final Endpoint endpoint) {
+        return endpointMetrics.get(endpoint);
+    }
+
+    /**
+     * @return the metrics of all endpoints to which requests have been made, sorted by service
+     * and endpoint name
+     */
+    @Nonnull
+    public List<EndpointMetrics> getAllEndpointMetrics() {
+        final List<EndpointMetrics> metrics = new ArrayList<>(endpointMetrics.values());
+        metrics.sort(Comparator
+                .comparing((EndpointMetrics m) -> m.getEndpoint().getService())
+                .thenComparing(m -> m.getEndpoint().getName()));
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of the endpoints of the given service
+     */
+    @Nonnull
+    public List<EndpointMetrics> getServiceEndpointMetrics(@Nonnull final String service) {
+        final List<EndpointMetrics> metrics = getAllEndpointMetrics();
+        metrics.removeIf(m -> !m.getEndpoint().getService().equals(service));
+        return metrics;
+    }
+
+    /**
+     * Reset the counters and histograms of all endpoints. Requests in flight are still counted.
+     */
+    public void reset() {
+        endpointMetrics.values().forEach(EndpointMetrics::reset);
+    }
+
+    /**
+     * @return a human readable table of the metrics of all endpoints, with latencies in
+     * milliseconds
+     */
+    @Nonnull
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%-40s %8s %6s %6s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "failed", "errors", "mean", "p50", "p99", "max"));
+        for (final EndpointMetrics metrics : getAllEndpointMetrics()) {
+            final LatencyHistogram latency = metrics.getLatency();
+            summary.append(String.format(Locale.ROOT,
+                    "%-40s %8d %6d %6d %8.1f %8.1f %8.1f %8.1f%n",
+                    metrics.getEndpoint(),
+                    metrics.getCompletedRequestCount() + metrics.getFailedRequestCount(),
+                    metrics.getFailedRequestCount(),
+                    metrics.getErrorResponseCount(),
+                    latency.getMean() / TimeUnit.MILLISECONDS.toNanos(1),
+                    toMillis(latency.getValueAtPercentile(50)),
+                    toMillis(latency.getValueAtPercentile(99)),
+                    toMillis(latency.getMax())));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+    @Nonnull
+    private EndpointMetrics getOrCreate(@Nonnull final Endpoint endpoint) {
+        final EndpointMetrics metrics = endpointMetrics.get(endpoint);
+        return metrics != null
+                ? metrics
+                : endpointMetrics.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    private static double toMillis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
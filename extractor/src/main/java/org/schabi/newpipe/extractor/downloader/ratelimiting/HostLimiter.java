@@ -0,0 +1,172 @@
+package org.schabi.newpipe.extractor.downloader.ratelimiting;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Limits the requests made to a single host, using a token bucket for the request rate and a
+ * counter for the requests in flight.
+ *
+ * <p>
+ * Callers are served in the order in which they called {@link #acquire()}, so that a caller
+ * making many requests can't starve the others. When the host reports that too many requests
+ * have been made, no request is started during a backoff delay which doubles on each consecutive
+ * report, and the request rate is halved. The rate is then increased again linearly with each
+ * successful request, until it reaches the configured rate.
+ * </p>
+ */
+final class HostLimiter {
+    /**
+     * The minimum ratio of the configured rate to which the rate can be decreased.
+     */
+    private static final double MIN_RATE_FACTOR = 1.0 / 16;
+    /**
+     * The ratio of the configured rate by which the rate is increased after a successful
+     * request.
+     */
+    private static final double RATE_RECOVERY_FACTOR = 1.0 / 20;
+
+    @Nonnull
+    private final HostLimits limits;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final ArrayDeque<Object> waitingCallers = new ArrayDeque<>();
+
+    private double requestsPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private int inFlightRequests;
+    private long backoffNanos;
+    private long blockedUntilNanos;
+
+    HostLimiter(@Nonnull final HostLimits limits,
+                final long initialBackoffNanos,
+                final long maxBackoffNanos) {
+        this.limits = limits;
+        this.initialBackoffNanos = initialBackoffNanos;
+        this.maxBackoffNanos = maxBackoffNanos;
+        this.requestsPerSecond = limits.getRequestsPerSecond();
+        this.tokens = limits.getBurstSize();
+        this.lastRefillNanos = System.nanoTime();
+        this.blockedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Wait until a request can be started. {@link #release()} must be called once the request
+     * completed.
+     *
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        final Object caller = new Object();
+        lock.lock();
+        try {
+            waitingCallers.addLast(caller);
+            try {
+                while (true) {
+                    if (waitingCallers.peekFirst() != caller
+                            || inFlightRequests >= limits.getMaxConcurrentRequests()) {
+                        stateChanged.await();
+                        continue;
+                    }
+
+                    final long now = System.nanoTime();
+                    refill(now);
+                    long waitNanos = blockedUntilNanos - now;
+                    if (waitNanos <= 0) {
+                        if (tokens >= 1) {
+                            tokens -= 1;
+                            ++inFlightRequests;
+                            waitingCallers.removeFirst();
+                            // Let the next caller check whether it can start its request
+                            stateChanged.signalAll();
+                            return;
+                        }
+                        waitNanos = (long) Math.ceil(
+                                (1 - tokens) * TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+                    }
+                    stateChanged.awaitNanos(waitNanos);
+                }
+            } catch (final InterruptedException e) {
+                waitingCallers.remove(caller);
+                stateChanged.signalAll();
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a request started with {@link #acquire()} as completed.
+     */
+    void release() {
+        lock.lock();
+        try {
+            --inFlightRequests;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report that a request succeeded, which resets the backoff delay and increases the request
+     * rate if it has been decreased.
+     */
+    void onSuccess() {
+        lock.lock();
+        try {
+            backoffNanos = 0;
+            if (requestsPerSecond < limits.getRequestsPerSecond()) {
+                refill(System.nanoTime());
+                requestsPerSecond = Math.min(limits.getRequestsPerSecond(), requestsPerSecond
+                        + limits.getRequestsPerSecond() * RATE_RECOVERY_FACTOR);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report that the host rejected a request because too many requests have been made.
+     *
+     * @param retryAfterNanos the delay before making new requests requested by the host, or
+     *                        {@code 0} if it didn't request any delay
+     */
+    void onRateLimited(final long retryAfterNanos) {
+        lock.lock();
+        try {
+            final long now = System.nanoTime();
+            refill(now);
+            backoffNanos = backoffNanos == 0
+                    ? initialBackoffNanos
+                    : Math.min(maxBackoffNanos, backoffNanos * 2);
+            final long blockedUntil = now + Math.max(backoffNanos, retryAfterNanos);
+            if (blockedUntil - blockedUntilNanos > 0) {
+                blockedUntilNanos = blockedUntil;
+            }
+            requestsPerSecond = Math.max(limits.getRequestsPerSecond() * MIN_RATE_FACTOR,
+                    requestsPerSecond / 2);
+            tokens = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(final long now) {
+        final long elapsedNanos = now - lastRefillNanos;
+        if (elapsedNanos > 0) {
+            tokens = Math.min(limits.getBurstSize(), tokens
+                    + elapsedNanos * requestsPerSecond / TimeUnit.SECONDS.toNanos(1));
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.schabi.newpipe.extractor.downloader.ratelimiting;
+
+/**
+ * The limits applied by a {@link RateLimitingDownloader} to the requests made to a host.
+ */
+public final class HostLimits {
+    private final double requestsPerSecond;
+    private final int burstSize;
+    private final int maxConcurrentRequests;
+
+    /**
+     * Create new host limits.
+     *
+     * @param requestsPerSecond     the sustained rate at which requests can be started
+     * @param burstSize             the number of requests which can be started at once after the
+     *                              host has been idle for a while
+     * @param maxConcurrentRequests the maximum number of requests in flight at the same time
+     */
+    public HostLimits(final double requestsPerSecond,
+                      final int burstSize,
+                      final int maxConcurrentRequests) {
+        if (!(requestsPerSecond > 0) || Double.isInfinite(requestsPerSecond)) {
+            throw new IllegalArgumentException(
+                    "Invalid requests per second: " + requestsPerSecond);
+        }
+        if (burstSize < 1) {
+            throw new IllegalArgumentException("Invalid burst size: " + burstSize);
+        }
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid maximum concurrent requests: " + maxConcurrentRequests);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burstSize = burstSize;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getBurstSize() {
+        return burstSize;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public String toString() {
+        return "HostLimits{requestsPerSecond=" + requestsPerSecond
+                + ", burstSize=" + burstSize
+                + ", maxConcurrentRequests=" + maxConcurrentRequests + "}";
+    }
+}
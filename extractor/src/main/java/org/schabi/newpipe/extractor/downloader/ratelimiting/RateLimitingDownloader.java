@@ -0,0 +1,299 @@
+package org.schabi.newpipe.extractor.downloader.ratelimiting;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Downloader} which limits the rate and the concurrency of the requests made to each
+ * host.
+ *
+ * <p>
+ * Each host gets its own {@link HostLimits}: a request rate, with bursts allowed after idle
+ * periods, and a maximum number of requests in flight. Callers waiting for the same host are
+ * served in order of arrival.
+ * </p>
+ *
+ * <p>
+ * When a host answers with {@code 429 Too Many Requests} or when a {@link ReCaptchaException} is
+ * thrown, no request is made to the host for an exponentially increasing backoff delay (or for
+ * the delay given in the {@code Retry-After} header, if longer), and its request rate is
+ * decreased until requests succeed again. Requests answered with {@code 429} are retried a few
+ * times before their response is returned, while {@link ReCaptchaException}s are rethrown
+ * directly, as they need to be solved by the user.
+ * </p>
+ */
+public final class RateLimitingDownloader extends Downloader {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    @Nonnull
+    private final Downloader downloader;
+    @Nonnull
+    private final HostLimits defaultLimits;
+    @Nonnull
+    private final List<HostRule> hostRules;
+    private final int maxRetries;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    private RateLimitingDownloader(@Nonnull final Builder builder) {
+        this.downloader = builder.downloader;
+        this.defaultLimits = builder.defaultLimits;
+        this.hostRules = Collections.unmodifiableList(new ArrayList<>(builder.hostRules));
+        this.maxRetries = builder.maxRetries;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+    }
+
+    /**
+     * Create a builder of {@link RateLimitingDownloader}.
+     *
+     * @param downloader the downloader used to execute requests
+     * @return a new builder
+     */
+    @Nonnull
+    public static Builder newBuilder(@Nonnull final Downloader downloader) {
+        return new Builder(downloader);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request)
+            throws IOException, ReCaptchaException {
+        final HostLimiter hostLimiter = getHostLimiter(request.url());
+        int retries = 0;
+        while (true) {
+            try {
+                hostLimiter.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to send request", e);
+            }
+
+            final Response response;
+            try {
+                response = downloader.execute(request);
+            } catch (final ReCaptchaException e) {
+                hostLimiter.onRateLimited(0);
+                throw e;
+            } finally {
+                hostLimiter.release();
+            }
+
+            if (response.responseCode() != HTTP_TOO_MANY_REQUESTS) {
+                hostLimiter.onSuccess();
+                return response;
+            }
+
+            hostLimiter.onRateLimited(getRetryAfterNanos(response));
+            if (retries >= maxRetries) {
+                return response;
+            }
+            ++retries;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Executor getAsyncExecutor() {
+        return downloader.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        downloader.setAsyncExecutor(asyncExecutor);
+    }
+
+    @Nonnull
+    private HostLimiter getHostLimiter(@Nonnull final String url) {
+        final String host = getHost(url);
+        return hostLimiters.computeIfAbsent(host, h ->
+                new HostLimiter(getLimits(h), initialBackoffNanos, maxBackoffNanos));
+    }
+
+    @Nonnull
+    private HostLimits getLimits(@Nonnull final String host) {
+        for (final HostRule hostRule : hostRules) {
+            if (hostRule.hostFilter.test(host)) {
+                return hostRule.limits;
+            }
+        }
+        return defaultLimits;
+    }
+
+    @Nonnull
+    private static String getHost(@Nonnull final String url) {
+        try {
+            final String host = URI.create(url).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (final IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static long getRetryAfterNanos(@Nonnull final Response response) {
+        final String retryAfter = response.getHeader("Retry-After");
+        if (retryAfter == null) {
+            return 0;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (final NumberFormatException ignored) {
+            // Retry-After may also be an HTTP date
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(),
+                    DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date)
+                    .toNanos());
+        } catch (final DateTimeParseException | ArithmeticException e) {
+            return 0;
+        }
+    }
+
+    private static final class HostRule {
+        @Nonnull
+        private final Predicate<String> hostFilter;
+        @Nonnull
+        private final HostLimits limits;
+
+        HostRule(@Nonnull final Predicate<String> hostFilter, @Nonnull final HostLimits limits) {
+            this.hostFilter = hostFilter;
+            this.limits = limits;
+        }
+    }
+
+    /**
+     * A builder of {@link RateLimitingDownloader}.
+     */
+    public static final class Builder {
+        @Nonnull
+        private final Downloader downloader;
+        @Nonnull
+        private HostLimits defaultLimits = new HostLimits(5, 5, 4);
+        private final List<HostRule> hostRules = new ArrayList<>();
+        private int maxRetries = 2;
+        @Nonnull
+        private Duration initialBackoff = Duration.ofSeconds(2);
+        @Nonnull
+        private Duration maxBackoff = Duration.ofMinutes(1);
+
+        private Builder(@Nonnull final Downloader downloader) {
+            this.downloader = Objects.requireNonNull(downloader);
+        }
+
+        /**
+         * Set the limits of hosts not matching any rule added with
+         * {@link #hostLimits(String, HostLimits)} or {@link #hostLimits(Predicate, HostLimits)}.
+         * Defaults to 5 requests per second, with bursts of 5 requests and 4 concurrent
+         * requests.
+         *
+         * @param limits the default limits
+         * @return this builder
+         */
+        @Nonnull
+        public Builder defaultLimits(@Nonnull final HostLimits limits) {
+            this.defaultLimits = Objects.requireNonNull(limits);
+            return this;
+        }
+
+        /**
+         * Set the limits of a domain and of its subdomains. Each host still has its own limiter.
+         *
+         * @param domain the domain, such as {@code youtube.com}
+         * @param limits the limits of each host of the domain
+         * @return this builder
+         * @see #hostLimits(Predicate, HostLimits)
+         */
+        @Nonnull
+        public Builder hostLimits(@Nonnull final String domain,
+                                  @Nonnull final HostLimits limits) {
+            final String lowerCaseDomain = domain.toLowerCase(Locale.ROOT);
+            return hostLimits(host -> host.equals(lowerCaseDomain)
+                    || host.endsWith("." + lowerCaseDomain), limits);
+        }
+
+        /**
+         * Set the limits of the hosts matching a predicate.
+         *
+         * <p>
+         * Rules are checked in the order in which they have been added, the first matching one
+         * is used.
+         * </p>
+         *
+         * @param hostFilter a predicate receiving lower case host names
+         * @param limits     the limits of each matching host
+         * @return this builder
+         */
+        @Nonnull
+        public Builder hostLimits(@Nonnull final Predicate<String> hostFilter,
+                                  @Nonnull final HostLimits limits) {
+            hostRules.add(new HostRule(Objects.requireNonNull(hostFilter),
+                    Objects.requireNonNull(limits)));
+            return this;
+        }
+
+        /**
+         * Set how many times requests answered with {@code 429 Too Many Requests} are retried.
+         * Defaults to 2.
+         *
+         * @param maxRetriesToSet the maximum number of retries, or {@code 0} to never retry
+         * @return this builder
+         */
+        @Nonnull
+        public Builder maxRetries(final int maxRetriesToSet) {
+            if (maxRetriesToSet < 0) {
+                throw new IllegalArgumentException("Invalid maximum retries: " + maxRetriesToSet);
+            }
+            this.maxRetries = maxRetriesToSet;
+            return this;
+        }
+
+        /**
+         * Set the backoff delays applied to a host which reported that too many requests have
+         * been made. The delay starts at {@code initial} and doubles on each consecutive report,
+         * up to {@code max}. Defaults to 2 seconds and 1 minute.
+         *
+         * @param initial the first backoff delay
+         * @param max     the maximum backoff delay
+         * @return this builder
+         */
+        @Nonnull
+        public Builder backoff(@Nonnull final Duration initial, @Nonnull final Duration max) {
+            if (initial.isNegative() || max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid backoff delays: " + initial + ", " + max);
+            }
+            this.initialBackoff = initial;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        @Nonnull
+        public RateLimitingDownloader build() {
+            return new RateLimitingDownloader(this);
+        }
+    }
+}
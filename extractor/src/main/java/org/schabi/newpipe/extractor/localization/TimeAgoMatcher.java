@@ -0,0 +1,283 @@
+package org.schabi.newpipe.extractor.localization;
+
+import org.schabi.newpipe.extractor.timeago.PatternsHolder;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The phrases of a {@link PatternsHolder}, compiled into an Aho-Corasick automaton so that a
+ * textual date can be matched against all of them in a single scan.
+ *
+ * <p>
+ * Each phrase has a priority: the special cases come first, followed by the phrases of each unit,
+ * from seconds to years. A textual date matches the phrase with the highest priority among the
+ * ones it contains, surrounded by word separators or by the start and the end of the date.
+ * </p>
+ */
+final class TimeAgoMatcher {
+    /**
+     * The matchers of the patterns holders, which are singletons. Keys are weak so that custom
+     * holders can be garbage collected.
+     */
+    private static final Map<PatternsHolder, TimeAgoMatcher> MATCHERS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int NO_PHRASE = -1;
+
+    @Nonnull
+    private final String wordSeparator;
+    private final boolean spaceSeparator;
+
+    // The automaton, indexed by node, the root being the node 0
+    @Nonnull
+    private final char[][] transitionChars;
+    @Nonnull
+    private final int[][] transitionTargets;
+    @Nonnull
+    private final int[] failureLinks;
+    /**
+     * The phrase ending at each node, or {@link #NO_PHRASE}.
+     */
+    @Nonnull
+    private final int[] nodePhrases;
+    /**
+     * The nearest node with a phrase on the failure chain of each node, or {@link #NO_PHRASE}.
+     */
+    @Nonnull
+    private final int[] outputLinks;
+    @Nonnull
+    private final int[] depths;
+
+    // The phrases, indexed by priority
+    @Nonnull
+    private final ChronoUnit[] phraseUnits;
+    @Nonnull
+    private final boolean[] specialCases;
+    @Nonnull
+    private final int[] specialCaseAmounts;
+
+    /**
+     * A node of the trie built before being compiled into arrays.
+     */
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new TreeMap<>();
+        int index;
+        int depth;
+        int phrase = NO_PHRASE;
+        TrieNode failure;
+    }
+
+    private TimeAgoMatcher(@Nonnull final PatternsHolder patternsHolder) {
+        wordSeparator = patternsHolder.wordSeparator();
+        spaceSeparator = wordSeparator.equals(" ");
+
+        final List<String> phrases = new ArrayList<>();
+        final List<ChronoUnit> units = new ArrayList<>();
+        final List<Integer> amounts = new ArrayList<>();
+        for (final var caseUnitEntry : patternsHolder.specialCases().entrySet()) {
+            for (final var caseMapToAmountEntry : caseUnitEntry.getValue().entrySet()) {
+                phrases.add(caseMapToAmountEntry.getKey());
+                units.add(caseUnitEntry.getKey());
+                amounts.add(caseMapToAmountEntry.getValue());
+            }
+        }
+        final int specialCaseCount = phrases.size();
+        for (final Map.Entry<ChronoUnit, Collection<String>> unitEntry
+                : patternsHolder.asMap().entrySet()) {
+            for (final String phrase : unitEntry.getValue()) {
+                phrases.add(phrase);
+                units.add(unitEntry.getKey());
+            }
+        }
+
+        phraseUnits = units.toArray(new ChronoUnit[0]);
+        specialCases = new boolean[phrases.size()];
+        specialCaseAmounts = new int[phrases.size()];
+        for (int i = 0; i < specialCaseCount; i++) {
+            specialCases[i] = true;
+            specialCaseAmounts[i] = amounts.get(i);
+        }
+
+        // Build the trie of the lowercase phrases
+        final TrieNode root = new TrieNode();
+        final List<TrieNode> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < phrases.size(); i++) {
+            final String phrase = phrases.get(i).toLowerCase();
+            if (phrase.isEmpty()) {
+                continue;
+            }
+            TrieNode node = root;
+            for (int j = 0; j < phrase.length(); j++) {
+                final TrieNode parent = node;
+                node = parent.children.computeIfAbsent(phrase.charAt(j), c -> {
+                    final TrieNode child = new TrieNode();
+                    child.index = nodes.size();
+                    child.depth = parent.depth + 1;
+                    nodes.add(child);
+                    return child;
+                });
+            }
+            // A phrase may be repeated, in which case it keeps its highest priority
+            if (node.phrase == NO_PHRASE) {
+                node.phrase = i;
+            }
+        }
+
+        // Compute the failure links breadth first, so that the links of shorter prefixes are
+        // known before the ones of the longer prefixes
+        final ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (final TrieNode child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final TrieNode node = queue.poll();
+            for (final Map.Entry<Character, TrieNode> childEntry : node.children.entrySet()) {
+                TrieNode failure = node.failure;
+                while (failure != root && !failure.children.containsKey(childEntry.getKey())) {
+                    failure = failure.failure;
+                }
+                final TrieNode failureChild = failure.children.get(childEntry.getKey());
+                childEntry.getValue().failure = failureChild == null ? root : failureChild;
+                queue.add(childEntry.getValue());
+            }
+        }
+
+        final int nodeCount = nodes.size();
+        transitionChars = new char[nodeCount][];
+        transitionTargets = new int[nodeCount][];
+        failureLinks = new int[nodeCount];
+        nodePhrases = new int[nodeCount];
+        outputLinks = new int[nodeCount];
+        depths = new int[nodeCount];
+        for (final TrieNode node : nodes) {
+            final int i = node.index;
+            transitionChars[i] = new char[node.children.size()];
+            transitionTargets[i] = new int[node.children.size()];
+            int j = 0;
+            // The children are sorted by character, so that transitions can be binary searched
+            for (final Map.Entry<Character, TrieNode> childEntry : node.children.entrySet()) {
+                transitionChars[i][j] = childEntry.getKey();
+                transitionTargets[i][j] = childEntry.getValue().index;
+                j++;
+            }
+            failureLinks[i] = node.failure.index;
+            nodePhrases[i] = node.phrase;
+            depths[i] = node.depth;
+
+            TrieNode output = node.failure;
+            while (output != root && output.phrase == NO_PHRASE) {
+                output = output.failure;
+            }
+            outputLinks[i] = output == root ? NO_PHRASE : output.index;
+        }
+    }
+
+    /**
+     * Get the compiled matcher of the phrases of a patterns holder.
+     *
+     * @param patternsHolder the holder of the phrases
+     * @return the matcher of the phrases, which is compiled once per holder
+     */
+    @Nonnull
+    static TimeAgoMatcher of(@Nonnull final PatternsHolder patternsHolder) {
+        return MATCHERS.computeIfAbsent(patternsHolder, TimeAgoMatcher::new);
+    }
+
+    /**
+     * Find the phrase with the highest priority in a textual date.
+     *
+     * @param textualDate the textual date
+     * @return the index of the phrase, or a negative number if the date contains no phrase
+     */
+    int match(@Nonnull final String textualDate) {
+        final String text = textualDate.toLowerCase();
+
+        int bestPhrase = Integer.MAX_VALUE;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            node = next(node, text.charAt(i));
+
+            int output = nodePhrases[node] == NO_PHRASE ? outputLinks[node] : node;
+            while (output != NO_PHRASE) {
+                final int phrase = nodePhrases[output];
+                if (phrase < bestPhrase && isSeparated(text, i + 1 - depths[output], i + 1)) {
+                    bestPhrase = phrase;
+                }
+                output = outputLinks[output];
+            }
+        }
+
+        return bestPhrase == Integer.MAX_VALUE ? NO_PHRASE : bestPhrase;
+    }
+
+    @Nonnull
+    ChronoUnit getUnit(final int phrase) {
+        return phraseUnits[phrase];
+    }
+
+    /**
+     * @param phrase the index of a phrase
+     * @return whether the phrase is a special case, which has its own amount
+     */
+    boolean isSpecialCase(final int phrase) {
+        return specialCases[phrase];
+    }
+
+    int getSpecialCaseAmount(final int phrase) {
+        return specialCaseAmounts[phrase];
+    }
+
+    private int next(final int node, final char c) {
+        int current = node;
+        while (true) {
+            final int transition = Arrays.binarySearch(transitionChars[current], c);
+            if (transition >= 0) {
+                return transitionTargets[current][transition];
+            } else if (current == 0) {
+                return 0;
+            }
+            current = failureLinks[current];
+        }
+    }
+
+    /**
+     * Check whether the phrase found between {@code start} and {@code end} is surrounded by word
+     * separators or by the start and the end of the text. Without word separators, phrases can be
+     * anywhere.
+     */
+    private boolean isSeparated(@Nonnull final String text, final int start, final int end) {
+        if (wordSeparator.isEmpty()) {
+            return true;
+        } else if (spaceSeparator) {
+            return (start == 0 || isSpaceSeparator(text.charAt(start - 1)))
+                    && (end == text.length() || isSpaceSeparator(text.charAt(end)));
+        } else {
+            return (start == 0 || text.startsWith(wordSeparator, start - wordSeparator.length()))
+                    && (end == text.length() || text.startsWith(wordSeparator, end));
+        }
+    }
+
+    /**
+     * Horizontal spaces (non-breaking space, thin space, etc.) are treated as normal spaces, and
+     * numbers are separators too, to be able to parse strings like {@code 2wk}.
+     */
+    private static boolean isSpaceSeparator(final char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u1680' || c == '\u180E'
+                || (c >= '\u2000' && c <= '\u200A') || c == '\u202F' || c == '\u205F'
+                || c == '\u3000' || (c >= '0' && c <= '9');
+    }
+}
@@ -1,12 +1,29 @@
 package org.schabi.newpipe.extractor.playlist;
 
+import org.schabi.newpipe.extractor.Image;
 import org.schabi.newpipe.extractor.InfoItem;
 import org.schabi.newpipe.extractor.stream.Description;
 
+import java.util.List;
+
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public class PlaylistInfoItem extends InfoItem {
 
+    /**
+     * The optional fields of a playlist item, in the order in which they are extracted.
+     */
+    public enum Field {
+        UPLOADER_NAME,
+        UPLOADER_URL,
+        UPLOADER_VERIFIED,
+        THUMBNAILS,
+        STREAM_COUNT,
+        DESCRIPTION,
+        PLAYLIST_TYPE
+    }
+
     private String uploaderName;
     private String uploaderUrl;
     private boolean uploaderVerified;
@@ -22,51 +39,76 @@ public class PlaylistInfoItem extends InfoItem {
     }
 
     public String getUploaderName() {
+        extractField(Field.UPLOADER_NAME);
         return uploaderName;
     }
 
     public void setUploaderName(final String uploaderName) {
+        markFieldSet(Field.UPLOADER_NAME);
         this.uploaderName = uploaderName;
     }
 
     @Nullable
     public String getUploaderUrl() {
+        extractField(Field.UPLOADER_URL);
         return uploaderUrl;
     }
 
     public void setUploaderUrl(@Nullable final String uploaderUrl) {
+        markFieldSet(Field.UPLOADER_URL);
         this.uploaderUrl = uploaderUrl;
     }
 
     public boolean isUploaderVerified() {
+        extractField(Field.UPLOADER_VERIFIED);
         return uploaderVerified;
     }
 
     public void setUploaderVerified(final boolean uploaderVerified) {
+        markFieldSet(Field.UPLOADER_VERIFIED);
         this.uploaderVerified = uploaderVerified;
     }
 
     public long getStreamCount() {
+        extractField(Field.STREAM_COUNT);
         return streamCount;
     }
 
     public void setStreamCount(final long streamCount) {
+        markFieldSet(Field.STREAM_COUNT);
         this.streamCount = streamCount;
     }
 
     public Description getDescription() {
+        extractField(Field.DESCRIPTION);
         return description;
     }
 
     public void setDescription(final Description description) {
+        markFieldSet(Field.DESCRIPTION);
         this.description = description;
     }
 
     public PlaylistInfo.PlaylistType getPlaylistType() {
+        extractField(Field.PLAYLIST_TYPE);
         return playlistType;
     }
 
     public void setPlaylistType(final PlaylistInfo.PlaylistType playlistType) {
+        markFieldSet(Field.PLAYLIST_TYPE);
         this.playlistType = playlistType;
     }
+
+    @Nonnull
+    @Override
+    public List<Image> getThumbnails() {
+        extractField(Field.THUMBNAILS);
+        return super.getThumbnails();
+    }
+
+    @Override
+    public void setThumbnails(@Nonnull final List<Image> thumbnails) {
+        markFieldSet(Field.THUMBNAILS);
+        super.setThumbnails(thumbnails);
+    }
 }
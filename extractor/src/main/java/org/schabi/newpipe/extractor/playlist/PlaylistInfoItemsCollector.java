@@ -3,6 +3,8 @@ package org.schabi.newpipe.extractor.playlist;
 import org.schabi.newpipe.extractor.InfoItemsCollector;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import javax.annotation.Nonnull;
+
 public class PlaylistInfoItemsCollector
         extends InfoItemsCollector<PlaylistInfoItem, PlaylistInfoItemExtractor> {
 
@@ -16,41 +18,39 @@ public class PlaylistInfoItemsCollector
         final PlaylistInfoItem resultItem = new PlaylistInfoItem(
                 getServiceId(), extractor.getUrl(), extractor.getName());
 
-        try {
-            resultItem.setUploaderName(extractor.getUploaderName());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderUrl(extractor.getUploaderUrl());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderVerified(extractor.isUploaderVerified());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setThumbnails(extractor.getThumbnails());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setStreamCount(extractor.getStreamCount());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setDescription(extractor.getDescription());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setPlaylistType(extractor.getPlaylistType());
-        } catch (final Exception e) {
-            addError(e);
-        }
+        // optional information
+        extractOptionalFields(resultItem, PlaylistInfoItem.Field.class,
+                field -> extractField(resultItem, extractor, field));
+
         return resultItem;
     }
+
+    private static void extractField(@Nonnull final PlaylistInfoItem item,
+                                     @Nonnull final PlaylistInfoItemExtractor extractor,
+                                     @Nonnull final PlaylistInfoItem.Field field)
+            throws ParsingException {
+        switch (field) {
+            case UPLOADER_NAME:
+                item.setUploaderName(extractor.getUploaderName());
+                break;
+            case UPLOADER_URL:
+                item.setUploaderUrl(extractor.getUploaderUrl());
+                break;
+            case UPLOADER_VERIFIED:
+                item.setUploaderVerified(extractor.isUploaderVerified());
+                break;
+            case THUMBNAILS:
+                item.setThumbnails(extractor.getThumbnails());
+                break;
+            case STREAM_COUNT:
+                item.setStreamCount(extractor.getStreamCount());
+                break;
+            case DESCRIPTION:
+                item.setDescription(extractor.getDescription());
+                break;
+            case PLAYLIST_TYPE:
+                item.setPlaylistType(extractor.getPlaylistType());
+                break;
+        }
+    }
 }
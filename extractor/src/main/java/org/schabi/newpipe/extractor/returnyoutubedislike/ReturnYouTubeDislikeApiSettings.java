@@ -2,6 +2,15 @@ package org.schabi.newpipe.extractor.returnyoutubedislike;
 
 public class ReturnYouTubeDislikeApiSettings {
     public String apiUrl;
+    /**
+     * The maximum time in milliseconds to wait for the Return YouTube Dislike data once the
+     * extraction of a stream is done, or {@code 0} to wait until the request completes.
+     *
+     * <p>
+     * If the data isn't available in time, the stream is returned without it.
+     * </p>
+     */
+    public long timeoutMillis;
 
     // TODO: add more if needed
     //
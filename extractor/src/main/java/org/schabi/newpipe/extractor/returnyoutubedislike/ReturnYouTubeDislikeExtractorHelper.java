@@ -19,13 +19,29 @@ public final class ReturnYouTubeDislikeExtractorHelper {
     public static ReturnYouTubeDislikeInfo getInfo(
             final StreamInfo streamInfo,
             final ReturnYouTubeDislikeApiSettings apiSettings) {
-        if (!streamInfo.getUrl().startsWith("https://www.youtube.com")
+        return getInfo(streamInfo.getUrl(), streamInfo.getId(), apiSettings);
+    }
+
+    /**
+     * Get the Return YouTube Dislike information of a stream from its URL and its ID only, which
+     * allows fetching it before the stream itself has been extracted.
+     *
+     * @param streamUrl   the URL of the stream
+     * @param videoId     the ID of the stream
+     * @param apiSettings the Return YouTube Dislike API settings to use
+     * @return the information of the stream, or {@code null} if it couldn't be fetched
+     */
+    public static ReturnYouTubeDislikeInfo getInfo(
+            final String streamUrl,
+            final String videoId,
+            final ReturnYouTubeDislikeApiSettings apiSettings) {
+        if (!streamUrl.startsWith("https://www.youtube.com")
                 || apiSettings.apiUrl == null
                 || apiSettings.apiUrl.isEmpty()) {
             return null;
         }
 
-        final String url = apiSettings.apiUrl + "votes?videoId=" + streamInfo.getId();
+        final String url = apiSettings.apiUrl + "votes?videoId=" + videoId;
 
         JsonObject response = null;
 
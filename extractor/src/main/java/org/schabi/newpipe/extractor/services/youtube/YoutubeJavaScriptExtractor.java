@@ -52,6 +52,32 @@ final class YoutubeJavaScriptExtractor {
     @Nonnull
     static String extractJavaScriptPlayerCode(@Nonnull final String videoId)
             throws ParsingException {
+        return extractJavaScriptPlayer(videoId, YoutubeJavaScriptExtractor::downloadJavaScriptCode);
+    }
+
+    /**
+     * Extracts the URL of the JavaScript base player file and loads it with the given loader.
+     *
+     * <p>
+     * This allows callers to reuse data they have already extracted from a player, instead of
+     * downloading it again. If loading the player from the URL given by YouTube's IFrame
+     * resource fails, the URL given by a YouTube embed watch page is tried.
+     * </p>
+     *
+     * @param videoId the video ID used to get the JavaScript base player file (an empty one can be
+     *                passed, even it is not recommend in order to spoof better official YouTube
+     *                clients)
+     * @param loader  the loader of the player from its URL, which can use
+     *                {@link #downloadJavaScriptCode(String)} to get the player's code
+     * @param <T>     the type of the loaded player
+     * @return the player returned by the loader
+     * @throws ParsingException if the extraction of the player URL failed, or if the loader
+     * failed
+     */
+    @Nonnull
+    static <T> T extractJavaScriptPlayer(@Nonnull final String videoId,
+                                         @Nonnull final PlayerLoader<T> loader)
+            throws ParsingException {
         String url;
         try {
             url = YoutubeJavaScriptExtractor.extractJavaScriptUrlWithIframeResource();
@@ -60,7 +86,7 @@ final class YoutubeJavaScriptExtractor {
             // Assert that the URL we extracted and built is valid
             new URL(playerJsUrl);
 
-            return YoutubeJavaScriptExtractor.downloadJavaScriptCode(playerJsUrl);
+            return loader.load(playerJsUrl);
         } catch (final Exception e) {
             url = YoutubeJavaScriptExtractor.extractJavaScriptUrlWithEmbedWatchPage(videoId);
             final String playerJsUrl = YoutubeJavaScriptExtractor.cleanJavaScriptUrl(url);
@@ -73,7 +99,7 @@ final class YoutubeJavaScriptExtractor {
                         "The extracted and built JavaScript URL is invalid", exception);
             }
 
-            return YoutubeJavaScriptExtractor.downloadJavaScriptCode(playerJsUrl);
+            return loader.load(playerJsUrl);
         }
     }
 
@@ -151,7 +177,7 @@ final class YoutubeJavaScriptExtractor {
     }
 
     @Nonnull
-    private static String downloadJavaScriptCode(@Nonnull final String javaScriptPlayerUrl)
+    static String downloadJavaScriptCode(@Nonnull final String javaScriptPlayerUrl)
             throws ParsingException {
         try {
             return NewPipe.getDownloader()
@@ -161,4 +187,15 @@ final class YoutubeJavaScriptExtractor {
             throw new ParsingException("Could not get JavaScript base player's code", e);
         }
     }
+
+    /**
+     * A loader of a JavaScript base player from its URL.
+     *
+     * @param <T> the type of the loaded player
+     */
+    @FunctionalInterface
+    interface PlayerLoader<T> {
+        @Nonnull
+        T load(@Nonnull String javaScriptPlayerUrl) throws ParsingException;
+    }
 }
@@ -0,0 +1,588 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.JavaScript;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A version of YouTube's base JavaScript player, with the data extracted from it.
+ *
+ * <p>
+ * The signature timestamp and the deobfuscation functions are extracted on first use and then
+ * cached, as well as extraction failures, as they would fail again with the same player code.
+ * The player's code, which weighs a few megabytes, is released once all of them have been
+ * extracted or have failed to be.
+ * Deobfuscated throttling parameters are cached too, in a bounded cache evicting the least
+ * recently used parameters.
+ * </p>
+ *
+ * <p>
+ * Players are got from {@link YoutubeJavaScriptPlayerManager#getPlayer(String)}, and can be
+ * passed back to its methods to use a given player version. This class is thread-safe.
+ * </p>
+ */
+public final class YoutubeJavaScriptPlayer {
+
+    /**
+     * The maximum number of deobfuscated throttling parameters kept in a player's cache.
+     */
+    static final int MAX_CACHED_THROTTLING_PARAMETERS = 1000;
+
+    /**
+     * Signatures deobfuscated with both the JavaScript signature deobfuscation function and its
+     * compiled variant, to check that the compiled variant is correct.
+     *
+     * <p>
+     * Their characters are all distinct, so that any difference in the resulting permutation is
+     * detected, and they have the usual lengths of signatures, as swap indexes are taken modulo
+     * the signature length.
+     * </p>
+     */
+    private static final List<String> SIGNATURE_PROBES = createSignatureProbes(100, 108);
+
+    /**
+     * The keys of the data written by {@link #writeTo(Properties)}.
+     */
+    private static final String URL_KEY = "url";
+    private static final String SIGNATURE_TIMESTAMP_KEY = "signatureTimestamp";
+    private static final String SIGNATURE_DEOBFUSCATION_FUNCTION_KEY =
+            "signatureDeobfuscationFunction";
+    private static final String THROTTLING_DEOBFUSCATION_FUNCTION_NAME_KEY =
+            "throttlingDeobfuscationFunctionName";
+    private static final String THROTTLING_DEOBFUSCATION_FUNCTION_KEY =
+            "throttlingDeobfuscationFunction";
+
+    @Nonnull
+    private final String url;
+    @Nullable
+    private final YoutubeJavaScriptPlayerStore store;
+    /**
+     * The code of the player, or {@code null} if it has not been downloaded yet or if it has been
+     * released as no data has to be extracted from it anymore.
+     */
+    @Nullable
+    private String code;
+    /**
+     * The index of the functions and literals defined in the player's code, built on first use
+     * and shared by the extractions of the deobfuscation functions, and released with the code.
+     */
+    @Nullable
+    private JavaScriptIndex codeIndex;
+    private boolean codeIndexBuilt;
+
+    /**
+     * Deobfuscated throttling parameters, by their obfuscated variant, in least recently used
+     * order.
+     */
+    private final Map<String, String> throttlingParameters =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                    return size() > MAX_CACHED_THROTTLING_PARAMETERS;
+                }
+            };
+
+    @Nullable
+    private Integer signatureTimestamp;
+    @Nullable
+    private String signatureDeobfuscationFunction;
+    @Nullable
+    private YoutubeSignatureDeobfuscator signatureDeobfuscator;
+    private boolean signatureDeobfuscatorCompiled;
+    @Nullable
+    private String throttlingDeobfuscationFunctionName;
+    @Nullable
+    private String throttlingDeobfuscationFunction;
+
+    @Nullable
+    private ParsingException sigTimestampExtractionEx;
+    @Nullable
+    private ParsingException sigDeobFuncExtractionEx;
+    @Nullable
+    private ParsingException throttlingDeobfFuncExtractionEx;
+
+    /**
+     * Create a player.
+     *
+     * @param url   the URL of the player
+     * @param code  the code of the player, or {@code null} to download it only if it is needed
+     * @param store the store in which the data extracted from the player is saved, if any
+     */
+    YoutubeJavaScriptPlayer(@Nonnull final String url,
+                            @Nullable final String code,
+                            @Nullable final YoutubeJavaScriptPlayerStore store) {
+        this.url = url;
+        this.code = code;
+        this.store = store;
+    }
+
+    /**
+     * Create a player from data written by {@link #writeTo(Properties)}.
+     *
+     * <p>
+     * The player's code will be downloaded only if data missing from the properties is needed.
+     * </p>
+     *
+     * @param properties the data of the player
+     * @param store      the store from which the data has been read
+     * @return the player, or {@code null} if the properties are not the ones of a player
+     */
+    @Nullable
+    static YoutubeJavaScriptPlayer readFrom(@Nonnull final Properties properties,
+                                            @Nullable final YoutubeJavaScriptPlayerStore store) {
+        final String url = properties.getProperty(URL_KEY);
+        if (url == null) {
+            return null;
+        }
+
+        final YoutubeJavaScriptPlayer player = new YoutubeJavaScriptPlayer(url, null, store);
+        final String timestamp = properties.getProperty(SIGNATURE_TIMESTAMP_KEY);
+        if (timestamp != null) {
+            try {
+                player.signatureTimestamp = Integer.valueOf(timestamp);
+            } catch (final NumberFormatException ignored) {
+                // The timestamp will be extracted again
+            }
+        }
+        player.signatureDeobfuscationFunction =
+                properties.getProperty(SIGNATURE_DEOBFUSCATION_FUNCTION_KEY);
+        final String throttlingFunctionName =
+                properties.getProperty(THROTTLING_DEOBFUSCATION_FUNCTION_NAME_KEY);
+        final String throttlingFunction =
+                properties.getProperty(THROTTLING_DEOBFUSCATION_FUNCTION_KEY);
+        if (throttlingFunctionName != null && throttlingFunction != null) {
+            player.throttlingDeobfuscationFunctionName = throttlingFunctionName;
+            player.throttlingDeobfuscationFunction = throttlingFunction;
+        }
+        return player;
+    }
+
+    /**
+     * Write the URL of this player and the data successfully extracted from it.
+     *
+     * <p>
+     * The player's code, extraction failures and deobfuscated throttling parameters are not
+     * written.
+     * </p>
+     *
+     * @param properties the properties to which the data is written
+     */
+    synchronized void writeTo(@Nonnull final Properties properties) {
+        properties.setProperty(URL_KEY, url);
+        if (signatureTimestamp != null) {
+            properties.setProperty(SIGNATURE_TIMESTAMP_KEY, signatureTimestamp.toString());
+        }
+        if (signatureDeobfuscationFunction != null) {
+            properties.setProperty(SIGNATURE_DEOBFUSCATION_FUNCTION_KEY,
+                    signatureDeobfuscationFunction);
+        }
+        if (throttlingDeobfuscationFunction != null) {
+            properties.setProperty(THROTTLING_DEOBFUSCATION_FUNCTION_NAME_KEY,
+                    throttlingDeobfuscationFunctionName);
+            properties.setProperty(THROTTLING_DEOBFUSCATION_FUNCTION_KEY,
+                    throttlingDeobfuscationFunction);
+        }
+    }
+
+    /**
+     * @return the URL of the player, which identifies its version
+     */
+    @Nonnull
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * Extract all the data of this player which is not already extracted, so that it is ready to
+     * be used.
+     *
+     * <p>
+     * Extraction failures are cached as usual, and are not thrown.
+     * </p>
+     *
+     * @throws ParsingException if the player's code couldn't be downloaded
+     */
+    synchronized void prepare() throws ParsingException {
+        // Fail early if the code cannot be downloaded, instead of caching extraction failures
+        if (!isAllDataExtracted()) {
+            getCode();
+        }
+
+        try {
+            getSignatureTimestamp();
+        } catch (final ParsingException ignored) {
+            // Cached in sigTimestampExtractionEx
+        }
+        try {
+            getSignatureDeobfuscationFunction();
+        } catch (final ParsingException ignored) {
+            // Cached in sigDeobFuncExtractionEx
+        }
+        try {
+            extractThrottlingDeobfuscationFunctionIfNeeded();
+        } catch (final ParsingException ignored) {
+            // Cached in throttlingDeobfFuncExtractionEx
+        }
+    }
+
+    @Nonnull
+    synchronized Integer getSignatureTimestamp() throws ParsingException {
+        if (signatureTimestamp != null) {
+            return signatureTimestamp;
+        }
+        if (sigTimestampExtractionEx != null) {
+            throw sigTimestampExtractionEx;
+        }
+
+        final String playerCode = getCode();
+        try {
+            signatureTimestamp = Integer.valueOf(
+                    YoutubeSignatureUtils.getSignatureTimestamp(playerCode));
+        } catch (final ParsingException e) {
+            sigTimestampExtractionEx = e;
+            throw e;
+        } catch (final NumberFormatException e) {
+            sigTimestampExtractionEx =
+                    new ParsingException("Could not convert signature timestamp to a number", e);
+            throw sigTimestampExtractionEx;
+        } catch (final Exception e) {
+            sigTimestampExtractionEx = new ParsingException("Could not get signature timestamp", e);
+            throw e;
+        } finally {
+            releaseCodeIfUnneeded();
+        }
+
+        save();
+        return signatureTimestamp;
+    }
+
+    /**
+     * Deobfuscate a signature.
+     *
+     * <p>
+     * The signature deobfuscation function is run natively if it could be compiled to Java with
+     * {@link YoutubeSignatureDeobfuscator}, and with a JavaScript engine otherwise.
+     * </p>
+     *
+     * @param obfuscatedSignature the obfuscated signature
+     * @return the deobfuscated signature
+     * @throws ParsingException if the signature deobfuscation function couldn't be extracted or
+     * run
+     */
+    @Nonnull
+    String deobfuscateSignature(@Nonnull final String obfuscatedSignature)
+            throws ParsingException {
+        final YoutubeSignatureDeobfuscator deobfuscator = getSignatureDeobfuscator();
+        if (deobfuscator != null) {
+            return deobfuscator.deobfuscate(obfuscatedSignature);
+        }
+        return runSignatureDeobfuscationFunction(getSignatureDeobfuscationFunction(),
+                obfuscatedSignature);
+    }
+
+    /**
+     * Get a deobfuscated throttling parameter from the cache.
+     *
+     * @param obfuscatedThrottlingParameter an obfuscated throttling parameter
+     * @return the deobfuscated parameter, or {@code null} if it is not in the cache
+     */
+    @Nullable
+    String getCachedThrottlingParameter(@Nonnull final String obfuscatedThrottlingParameter) {
+        synchronized (throttlingParameters) {
+            return throttlingParameters.get(obfuscatedThrottlingParameter);
+        }
+    }
+
+    /**
+     * Deobfuscate throttling parameters, using the cache for parameters already deobfuscated.
+     *
+     * <p>
+     * Parameters which are not in the cache are deobfuscated with
+     * {@link JavaScript#runForEach(String, String, List)}, which evaluates the function's code
+     * once for all of them.
+     * </p>
+     *
+     * @param obfuscatedThrottlingParameters obfuscated throttling parameters, which may contain
+     *                                       duplicates
+     * @return a map of the given parameters to their deobfuscated variant
+     * @throws ParsingException if the throttling parameter deobfuscation function couldn't be
+     * extracted or run
+     */
+    @Nonnull
+    Map<String, String> deobfuscateThrottlingParameters(
+            @Nonnull final Collection<String> obfuscatedThrottlingParameters)
+            throws ParsingException {
+        final Map<String, String> deobfuscatedParameters = new HashMap<>();
+        final List<String> uncachedParameters = new ArrayList<>();
+        for (final String obfuscatedParameter : obfuscatedThrottlingParameters) {
+            if (deobfuscatedParameters.containsKey(obfuscatedParameter)) {
+                continue;
+            }
+            final String cacheResult = getCachedThrottlingParameter(obfuscatedParameter);
+            deobfuscatedParameters.put(obfuscatedParameter, cacheResult);
+            if (cacheResult == null) {
+                uncachedParameters.add(obfuscatedParameter);
+            }
+        }
+
+        if (uncachedParameters.isEmpty()) {
+            return deobfuscatedParameters;
+        }
+
+        final String functionName;
+        final String function;
+        synchronized (this) {
+            extractThrottlingDeobfuscationFunctionIfNeeded();
+            functionName = throttlingDeobfuscationFunctionName;
+            function = throttlingDeobfuscationFunction;
+        }
+
+        final List<String> results;
+        try {
+            results = JavaScript.runForEach(function, functionName, uncachedParameters);
+        } catch (final Exception e) {
+            // This shouldn't happen as the function validity is checked when it is extracted
+            throw new ParsingException(
+                    "Could not run throttling parameter deobfuscation JavaScript function", e);
+        }
+
+        for (int i = 0; i < uncachedParameters.size(); i++) {
+            final String deobfuscatedParameter = results.get(i);
+            if (isNullOrEmpty(deobfuscatedParameter)) {
+                throw new ParsingException("Extracted n-parameter is empty");
+            }
+            deobfuscatedParameters.put(uncachedParameters.get(i), deobfuscatedParameter);
+        }
+
+        synchronized (throttlingParameters) {
+            for (final String uncachedParameter : uncachedParameters) {
+                throttlingParameters.put(uncachedParameter,
+                        deobfuscatedParameters.get(uncachedParameter));
+            }
+        }
+
+        return deobfuscatedParameters;
+    }
+
+    int getThrottlingParametersCacheSize() {
+        synchronized (throttlingParameters) {
+            return throttlingParameters.size();
+        }
+    }
+
+    void clearThrottlingParametersCache() {
+        synchronized (throttlingParameters) {
+            throttlingParameters.clear();
+        }
+    }
+
+    /**
+     * Get the compiled variant of the signature deobfuscation function, compiling it on first
+     * use.
+     *
+     * <p>
+     * The compiled function is checked once against the JavaScript one, so that the JavaScript
+     * one is used if they don't give the same result.
+     * </p>
+     *
+     * @return the compiled function, or {@code null} if it couldn't be compiled
+     */
+    @Nullable
+    private synchronized YoutubeSignatureDeobfuscator getSignatureDeobfuscator()
+            throws ParsingException {
+        if (!signatureDeobfuscatorCompiled) {
+            final String function = getSignatureDeobfuscationFunction();
+            final YoutubeSignatureDeobfuscator deobfuscator =
+                    YoutubeSignatureDeobfuscator.compile(function);
+            if (deobfuscator != null && isSameDeobfuscation(deobfuscator, function)) {
+                signatureDeobfuscator = deobfuscator;
+            }
+            signatureDeobfuscatorCompiled = true;
+        }
+        return signatureDeobfuscator;
+    }
+
+    @Nonnull
+    private static List<String> createSignatureProbes(final int minLength, final int maxLength) {
+        final List<String> probes = new ArrayList<>();
+        for (int length = minLength; length <= maxLength; length++) {
+            final StringBuilder probe = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                probe.append((char) ('\u0100' + i));
+            }
+            probes.add(probe.toString());
+        }
+        return probes;
+    }
+
+    private static boolean isSameDeobfuscation(
+            @Nonnull final YoutubeSignatureDeobfuscator deobfuscator,
+            @Nonnull final String function) throws ParsingException {
+        for (final String probe : SIGNATURE_PROBES) {
+            if (!deobfuscator.deobfuscate(probe)
+                    .equals(runSignatureDeobfuscationFunction(function, probe))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nonnull
+    private static String runSignatureDeobfuscationFunction(
+            @Nonnull final String function,
+            @Nonnull final String obfuscatedSignature) throws ParsingException {
+        try {
+            // Return an empty parameter in the case the function returns null
+            return Objects.requireNonNullElse(
+                    JavaScript.run(function, YoutubeSignatureUtils.DEOBFUSCATION_FUNCTION_NAME,
+                            obfuscatedSignature), "");
+        } catch (final Exception e) {
+            // This shouldn't happen as the function validity is checked when it is extracted
+            throw new ParsingException(
+                    "Could not run signature parameter deobfuscation JavaScript function", e);
+        }
+    }
+
+    @Nonnull
+    private synchronized String getSignatureDeobfuscationFunction() throws ParsingException {
+        if (signatureDeobfuscationFunction != null) {
+            return signatureDeobfuscationFunction;
+        }
+        if (sigDeobFuncExtractionEx != null) {
+            throw sigDeobFuncExtractionEx;
+        }
+
+        final String playerCode = getCode();
+        try {
+            signatureDeobfuscationFunction =
+                    YoutubeSignatureUtils.getDeobfuscationCode(playerCode, getCodeIndex());
+        } catch (final ParsingException e) {
+            sigDeobFuncExtractionEx = e;
+            throw e;
+        } catch (final Exception e) {
+            sigDeobFuncExtractionEx = new ParsingException(
+                    "Could not get signature parameter deobfuscation JavaScript function", e);
+            throw e;
+        } finally {
+            releaseCodeIfUnneeded();
+        }
+
+        save();
+        return signatureDeobfuscationFunction;
+    }
+
+    private void extractThrottlingDeobfuscationFunctionIfNeeded() throws ParsingException {
+        if (throttlingDeobfuscationFunction != null) {
+            return;
+        }
+        if (throttlingDeobfFuncExtractionEx != null) {
+            throw throttlingDeobfFuncExtractionEx;
+        }
+
+        final String playerCode = getCode();
+        try {
+            final JavaScriptIndex index = getCodeIndex();
+            final String functionName = YoutubeThrottlingParameterUtils
+                    .getDeobfuscationFunctionName(playerCode, index);
+            throttlingDeobfuscationFunction = YoutubeThrottlingParameterUtils
+                    .getDeobfuscationFunction(playerCode, index, functionName);
+            throttlingDeobfuscationFunctionName = functionName;
+        } catch (final ParsingException e) {
+            throttlingDeobfFuncExtractionEx = e;
+            throw e;
+        } catch (final Exception e) {
+            throttlingDeobfFuncExtractionEx = new ParsingException(
+                    "Could not get throttling parameter deobfuscation JavaScript function", e);
+            throw e;
+        } finally {
+            releaseCodeIfUnneeded();
+        }
+
+        save();
+    }
+
+    /**
+     * Get the code of the player, downloading it if it is not known.
+     *
+     * <p>
+     * Download failures are not cached like extraction failures, as they may be temporary.
+     * </p>
+     */
+    @Nonnull
+    private synchronized String getCode() throws ParsingException {
+        if (code == null) {
+            code = YoutubeJavaScriptExtractor.downloadJavaScriptCode(url);
+        }
+        return code;
+    }
+
+    /**
+     * Get the index of the player's code, building it if needed.
+     *
+     * @return the index, or {@code null} if the code could not be indexed, in which case the
+     * code is searched with regular expressions
+     */
+    @Nullable
+    private synchronized JavaScriptIndex getCodeIndex() throws ParsingException {
+        if (!codeIndexBuilt) {
+            try {
+                codeIndex = JavaScriptIndex.build(getCode());
+            } catch (final ParsingException e) {
+                codeIndex = null;
+            }
+            codeIndexBuilt = true;
+        }
+        return codeIndex;
+    }
+
+    /**
+     * @return whether the code of the player is kept, which is only the case while data still
+     * has to be extracted from it
+     */
+    synchronized boolean isCodeKept() {
+        return code != null;
+    }
+
+    /**
+     * @return whether all the data of the player has been extracted or has failed to be, so that
+     * the player's code is not needed anymore
+     */
+    private synchronized boolean isAllDataExtracted() {
+        return (signatureTimestamp != null || sigTimestampExtractionEx != null)
+                && (signatureDeobfuscationFunction != null || sigDeobFuncExtractionEx != null)
+                && (throttlingDeobfuscationFunction != null
+                        || throttlingDeobfFuncExtractionEx != null);
+    }
+
+    /**
+     * Release the player's code and its index if all the data of the player has been extracted
+     * or has failed to be, as they won't be used anymore.
+     */
+    private synchronized void releaseCodeIfUnneeded() {
+        if (isAllDataExtracted()) {
+            code = null;
+            codeIndex = null;
+            codeIndexBuilt = false;
+        }
+    }
+
+    private void save() {
+        if (store != null) {
+            store.save(this);
+        }
+    }
+}
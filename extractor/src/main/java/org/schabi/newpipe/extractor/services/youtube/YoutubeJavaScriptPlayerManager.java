@@ -1,15 +1,22 @@
 package org.schabi.newpipe.extractor.services.youtube;
 
-import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
-
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.utils.JavaScript;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Manage the extraction and the usage of YouTube's player JavaScript needed data in the YouTube
@@ -26,29 +33,65 @@ import java.util.Objects;
  * timestamp and to deobfuscate streaming URLs' signature and/or throttling parameter of HTML5
  * clients.
  * </p>
+ *
+ * <p>
+ * Data extracted from the base JavaScript player is cached per player version, identified by the
+ * player's URL, so that the data of a few versions can be kept while YouTube rolls out a new
+ * one. All methods of this class are thread-safe.
+ * </p>
  */
 public final class YoutubeJavaScriptPlayerManager {
 
-    @Nonnull
-    private static final Map<String, String> CACHED_THROTTLING_PARAMETERS = new HashMap<>();
+    /**
+     * The maximum number of player versions whose data is cached.
+     */
+    private static final int MAX_CACHED_PLAYERS = 4;
 
-    private static String cachedJavaScriptPlayerCode;
+    /**
+     * Cached players, by their URL, in least recently used order.
+     */
+    private static final Map<String, YoutubeJavaScriptPlayer> CACHED_PLAYERS =
+            new LinkedHashMap<>(MAX_CACHED_PLAYERS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, YoutubeJavaScriptPlayer> eldest) {
+                    return size() > MAX_CACHED_PLAYERS;
+                }
+            };
 
+    /**
+     * A lock held while fetching the current player, so that it is fetched only once when it is
+     * needed by multiple threads at the same time.
+     */
+    private static final Object PLAYER_FETCH_LOCK = new Object();
+
+    /**
+     * The player used by the methods of this class, or {@code null} if it has not been fetched
+     * yet.
+     */
     @Nullable
-    private static Integer cachedSignatureTimestamp;
-    @Nullable
-    private static String cachedSignatureDeobfuscationFunction;
-    @Nullable
-    private static String cachedThrottlingDeobfuscationFunctionName;
-    @Nullable
-    private static String cachedThrottlingDeobfuscationFunction;
+    private static volatile YoutubeJavaScriptPlayer currentPlayer;
 
     @Nullable
-    private static ParsingException throttlingDeobfFuncExtractionEx;
+    private static volatile YoutubeJavaScriptPlayerStore playerStore;
+
+    /**
+     * The minimum time between two refreshes of the player triggered by deobfuscation failures.
+     */
+    private static final long MIN_FAILURE_REFRESH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * A lock guarding {@link #refreshExecutor} and {@link #scheduledRefresh}.
+     */
+    private static final Object REFRESH_LOCK = new Object();
+    private static final AtomicBoolean REFRESH_IN_PROGRESS = new AtomicBoolean();
+
     @Nullable
-    private static ParsingException sigDeobFuncExtractionEx;
+    private static ScheduledExecutorService refreshExecutor;
     @Nullable
-    private static ParsingException sigTimestampExtractionEx;
+    private static ScheduledFuture<?> scheduledRefresh;
+    private static volatile long lastFailureRefreshNanos =
+            System.nanoTime() - MIN_FAILURE_REFRESH_INTERVAL_NANOS;
 
     private YoutubeJavaScriptPlayerManager() {
     }
@@ -80,36 +123,7 @@ public final class YoutubeJavaScriptPlayerManager {
     @Nonnull
     public static Integer getSignatureTimestamp(@Nonnull final String videoId)
             throws ParsingException {
-        // Return the cached result if it is present
-        if (cachedSignatureTimestamp != null) {
-            return cachedSignatureTimestamp;
-        }
-
-        // If the signature timestamp has been not extracted on a previous call, this mean that we
-        // will fail to extract it on next calls too if the player code has been not changed
-        // Throw again the corresponding stored exception in this case to improve performance
-        if (sigTimestampExtractionEx != null) {
-            throw sigTimestampExtractionEx;
-        }
-
-        extractJavaScriptCodeIfNeeded(videoId);
-
-        try {
-            cachedSignatureTimestamp = Integer.valueOf(
-                    YoutubeSignatureUtils.getSignatureTimestamp(cachedJavaScriptPlayerCode));
-        } catch (final ParsingException e) {
-            // Store the exception for future calls of this method, in order to improve performance
-            sigTimestampExtractionEx = e;
-            throw e;
-        } catch (final NumberFormatException e) {
-            sigTimestampExtractionEx =
-                    new ParsingException("Could not convert signature timestamp to a number", e);
-        } catch (final Exception e) {
-            sigTimestampExtractionEx = new ParsingException("Could not get signature timestamp", e);
-            throw e;
-        }
-
-        return cachedSignatureTimestamp;
+        return getPlayer(videoId).getSignatureTimestamp();
     }
 
     /**
@@ -132,42 +146,32 @@ public final class YoutubeJavaScriptPlayerManager {
     public static String deobfuscateSignature(@Nonnull final String videoId,
                                               @Nonnull final String obfuscatedSignature)
             throws ParsingException {
-        // If the signature deobfuscation function has been not extracted on a previous call, this
-        // mean that we will fail to extract it on next calls too if the player code has been not
-        // changed
-        // Throw again the corresponding stored exception in this case to improve performance
-        if (sigDeobFuncExtractionEx != null) {
-            throw sigDeobFuncExtractionEx;
-        }
-
-        extractJavaScriptCodeIfNeeded(videoId);
-
-        if (cachedSignatureDeobfuscationFunction == null) {
-            try {
-                cachedSignatureDeobfuscationFunction = YoutubeSignatureUtils.getDeobfuscationCode(
-                        cachedJavaScriptPlayerCode);
-            } catch (final ParsingException e) {
-                // Store the exception for future calls of this method, in order to improve
-                // performance
-                sigDeobFuncExtractionEx = e;
-                throw e;
-            } catch (final Exception e) {
-                sigDeobFuncExtractionEx = new ParsingException(
-                        "Could not get signature parameter deobfuscation JavaScript function", e);
-                throw e;
-            }
-        }
+        return deobfuscateSignature(getPlayer(videoId), obfuscatedSignature);
+    }
 
+    /**
+     * Deobfuscate a signature of a streaming URL using the function of a given base JavaScript
+     * player.
+     *
+     * <p>
+     * This lets the signatures of streaming URLs extracted while a player was current be
+     * deobfuscated with this player, even if the current player changed since.
+     * </p>
+     *
+     * @param player              a player got with {@link #getPlayer(String)}
+     * @param obfuscatedSignature the obfuscated signature of a streaming URL
+     * @return the deobfuscated signature
+     * @throws ParsingException if the extraction of the signature deobfuscation function failed
+     */
+    @Nonnull
+    public static String deobfuscateSignature(@Nonnull final YoutubeJavaScriptPlayer player,
+                                              @Nonnull final String obfuscatedSignature)
+            throws ParsingException {
         try {
-            // Return an empty parameter in the case the function returns null
-            return Objects.requireNonNullElse(
-                    JavaScript.run(cachedSignatureDeobfuscationFunction,
-                            YoutubeSignatureUtils.DEOBFUSCATION_FUNCTION_NAME,
-                            obfuscatedSignature), "");
-        } catch (final Exception e) {
-            // This shouldn't happen as the function validity is checked when it is extracted
-            throw new ParsingException(
-                    "Could not run signature parameter deobfuscation JavaScript function", e);
+            return player.deobfuscateSignature(obfuscatedSignature);
+        } catch (final ParsingException e) {
+            onDeobfuscationFailure();
+            throw e;
         }
     }
 
@@ -188,7 +192,8 @@ public final class YoutubeJavaScriptPlayerManager {
      * As throttling parameters can be common between multiple streaming URLs of the same player
      * response, deobfuscated parameters are cached with their obfuscated variant, in order to
      * improve performance with multiple calls of this method having the same obfuscated throttling
-     * parameter.
+     * parameter. This cache is bounded: the least recently used parameters are evicted from it
+     * when it is full.
      * </p>
      *
      * <p>
@@ -217,85 +222,225 @@ public final class YoutubeJavaScriptPlayerManager {
             return streamingUrl;
         }
 
-        // Do not use the containsKey method of the Map interface in order to avoid a double
-        // element search, and so to improve performance
-        final String cacheResult = CACHED_THROTTLING_PARAMETERS.get(
+        return getUrlWithThrottlingParameterDeobfuscated(getPlayer(videoId), streamingUrl,
                 obfuscatedThrottlingParameter);
-        if (cacheResult != null) {
-            // If the throttling parameter function has been already ran on the throttling parameter
-            // of the current streaming URL, replace directly the obfuscated throttling parameter
-            // with the cached result in the streaming URL
-            return streamingUrl.replace(obfuscatedThrottlingParameter, cacheResult);
-        }
-
-        extractJavaScriptCodeIfNeeded(videoId);
+    }
 
-        // If the throttling parameter deobfuscation function has been not extracted on a previous
-        // call, this mean that we will fail to extract it on next calls too if the player code has
-        // been not changed
-        // Throw again the corresponding stored exception in this case to improve performance
-        if (throttlingDeobfFuncExtractionEx != null) {
-            throw throttlingDeobfFuncExtractionEx;
+    /**
+     * Return a streaming URL with the throttling parameter of a given one deobfuscated, if it is
+     * present, using the function of a given base JavaScript player.
+     *
+     * <p>
+     * This works like {@link #getUrlWithThrottlingParameterDeobfuscated(String, String)}, but
+     * lets the throttling parameters of streaming URLs extracted while a player was current be
+     * deobfuscated with this player, even if the current player changed since.
+     * </p>
+     *
+     * @param player       a player got with {@link #getPlayer(String)}
+     * @param streamingUrl a streaming URL
+     * @return the original streaming URL if it has no throttling parameter or a URL with a
+     * deobfuscated throttling parameter
+     * @throws ParsingException if the extraction of the throttling parameter deobfuscation
+     * function failed
+     */
+    @Nonnull
+    public static String getUrlWithThrottlingParameterDeobfuscated(
+            @Nonnull final YoutubeJavaScriptPlayer player,
+            @Nonnull final String streamingUrl) throws ParsingException {
+        final String obfuscatedThrottlingParameter =
+                YoutubeThrottlingParameterUtils.getThrottlingParameterFromStreamingUrl(
+                        streamingUrl);
+        if (obfuscatedThrottlingParameter == null) {
+            return streamingUrl;
         }
 
-        if (cachedThrottlingDeobfuscationFunction == null) {
+        return getUrlWithThrottlingParameterDeobfuscated(player, streamingUrl,
+                obfuscatedThrottlingParameter);
+    }
+
+    @Nonnull
+    private static String getUrlWithThrottlingParameterDeobfuscated(
+            @Nonnull final YoutubeJavaScriptPlayer player,
+            @Nonnull final String streamingUrl,
+            @Nonnull final String obfuscatedThrottlingParameter) throws ParsingException {
+        String deobfuscatedThrottlingParameter =
+                player.getCachedThrottlingParameter(obfuscatedThrottlingParameter);
+        if (deobfuscatedThrottlingParameter == null) {
             try {
-                cachedThrottlingDeobfuscationFunctionName =
-                        YoutubeThrottlingParameterUtils.getDeobfuscationFunctionName(
-                                cachedJavaScriptPlayerCode);
-
-                cachedThrottlingDeobfuscationFunction =
-                        YoutubeThrottlingParameterUtils.getDeobfuscationFunction(
-                                cachedJavaScriptPlayerCode,
-                                cachedThrottlingDeobfuscationFunctionName);
+                deobfuscatedThrottlingParameter = player.deobfuscateThrottlingParameters(
+                        List.of(obfuscatedThrottlingParameter)).get(obfuscatedThrottlingParameter);
             } catch (final ParsingException e) {
-                // Store the exception for future calls of this method, in order to improve
-                // performance
-                throttlingDeobfFuncExtractionEx = e;
-                throw e;
-            } catch (final Exception e) {
-                throttlingDeobfFuncExtractionEx = new ParsingException(
-                        "Could not get throttling parameter deobfuscation JavaScript function", e);
+                onDeobfuscationFailure();
                 throw e;
             }
         }
 
-        try {
-            final String deobfuscatedThrottlingParameter = JavaScript.run(
-                    cachedThrottlingDeobfuscationFunction,
-                    cachedThrottlingDeobfuscationFunctionName,
-                    obfuscatedThrottlingParameter);
+        return streamingUrl.replace(obfuscatedThrottlingParameter, deobfuscatedThrottlingParameter);
+    }
 
-            if (isNullOrEmpty(deobfuscatedThrottlingParameter)) {
-                throw new IllegalStateException("Extracted n-parameter is empty");
+    /**
+     * Deobfuscate the throttling parameters of multiple streaming URLs at once, using the
+     * JavaScript base player's function.
+     *
+     * <p>
+     * Distinct throttling parameters which are not already cached are deobfuscated in a single
+     * batch, evaluating the function's JavaScript code only once instead of once per parameter,
+     * which is cheaper than calling
+     * {@link #getUrlWithThrottlingParameterDeobfuscated(String, String)} on each URL. Results are
+     * cached like with this method, so calling it on the same URLs afterwards is fast.
+     * </p>
+     *
+     * <p>
+     * This is typically used with all the streaming URLs of a video (audio, video and video-only
+     * streams), whose throttling parameters are often the same.
+     * </p>
+     *
+     * @param videoId       the video ID used to get the JavaScript base player file (an empty one
+     *                      can be passed, even it is not recommend in order to spoof better
+     *                      official YouTube clients)
+     * @param streamingUrls streaming URLs, which may not have a throttling parameter
+     * @return a map of the obfuscated throttling parameters of the given URLs to their
+     * deobfuscated variant
+     * @throws ParsingException if the extraction of the base JavaScript player file or the
+     * throttling parameter deobfuscation function failed, or if running it failed
+     */
+    @Nonnull
+    public static Map<String, String> deobfuscateThrottlingParameters(
+            @Nonnull final String videoId,
+            @Nonnull final Collection<String> streamingUrls) throws ParsingException {
+        final List<String> obfuscatedThrottlingParameters = new ArrayList<>();
+        for (final String streamingUrl : streamingUrls) {
+            final String obfuscatedThrottlingParameter =
+                    YoutubeThrottlingParameterUtils.getThrottlingParameterFromStreamingUrl(
+                            streamingUrl);
+            if (obfuscatedThrottlingParameter != null) {
+                obfuscatedThrottlingParameters.add(obfuscatedThrottlingParameter);
             }
+        }
+
+        if (obfuscatedThrottlingParameters.isEmpty()) {
+            return Map.of();
+        }
+
+        final YoutubeJavaScriptPlayer player = getPlayer(videoId);
+        try {
+            return player.deobfuscateThrottlingParameters(obfuscatedThrottlingParameters);
+        } catch (final ParsingException e) {
+            onDeobfuscationFailure();
+            throw e;
+        }
+    }
 
-            CACHED_THROTTLING_PARAMETERS.put(
-                    obfuscatedThrottlingParameter, deobfuscatedThrottlingParameter);
+    /**
+     * Fetch the current version of the base JavaScript player and extract its data, then use it
+     * for next calls of the methods of this class.
+     *
+     * <p>
+     * Calls made while the player is refreshed keep using the previous player, so that they
+     * don't wait for the download and the extraction of the new one. If the current version is
+     * already cached, its data is not downloaded nor extracted again.
+     * </p>
+     *
+     * <p>
+     * This method is called periodically in the background after
+     * {@link #startPlayerRefresh(Duration)}, but it can also be called directly.
+     * </p>
+     *
+     * @param videoId the video ID used to get the JavaScript base player file if it cannot be
+     *                got from YouTube's IFrame resource (an empty one can be passed)
+     * @return whether the player version changed
+     * @throws ParsingException if the extraction or the download of the base JavaScript player
+     * file failed, in which case the previous player keeps being used
+     */
+    public static boolean refreshPlayer(@Nonnull final String videoId) throws ParsingException {
+        final YoutubeJavaScriptPlayer player = YoutubeJavaScriptExtractor.extractJavaScriptPlayer(
+                videoId, YoutubeJavaScriptPlayerManager::getOrDownloadPlayer);
+        player.prepare();
+
+        synchronized (PLAYER_FETCH_LOCK) {
+            final YoutubeJavaScriptPlayer previousPlayer = currentPlayer;
+            currentPlayer = player;
+            return previousPlayer != player;
+        }
+    }
 
-            return streamingUrl.replace(
-                    obfuscatedThrottlingParameter, deobfuscatedThrottlingParameter);
-        } catch (final Exception e) {
-            // This shouldn't happen as the function validity is checked when it is extracted
-            throw new ParsingException(
-                    "Could not run throttling parameter deobfuscation JavaScript function", e);
+    /**
+     * Start refreshing the base JavaScript player periodically in the background, with
+     * {@link #refreshPlayer(String)}.
+     *
+     * <p>
+     * New player versions are then prepared before they are needed, instead of on the threads of
+     * the first calls made after {@link #clearAllCaches()}. While the refresh is started, a
+     * failure to deobfuscate a signature or a throttling parameter also triggers a refresh, at
+     * most once per minute, as it may be caused by a new player version.
+     * </p>
+     *
+     * <p>
+     * Refreshes are run on a daemon thread. Calling this method again replaces the previous
+     * refresh interval, and {@link #stopPlayerRefresh()} stops refreshes.
+     * </p>
+     *
+     * @param interval the interval between two refreshes, the first one being done immediately
+     */
+    public static void startPlayerRefresh(@Nonnull final Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Invalid refresh interval: " + interval);
+        }
+
+        synchronized (REFRESH_LOCK) {
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+            if (refreshExecutor == null) {
+                refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable,
+                            "NewPipeExtractor-YoutubePlayerRefresher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            scheduledRefresh = refreshExecutor.scheduleWithFixedDelay(
+                    YoutubeJavaScriptPlayerManager::refreshPlayerInBackground,
+                    0, interval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stop refreshing the base JavaScript player in the background.
+     *
+     * <p>
+     * A refresh in progress is not interrupted.
+     * </p>
+     */
+    public static void stopPlayerRefresh() {
+        synchronized (REFRESH_LOCK) {
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+                scheduledRefresh = null;
+            }
+            if (refreshExecutor != null) {
+                refreshExecutor.shutdown();
+                refreshExecutor = null;
+            }
         }
     }
 
     /**
      * Get the current cache size of throttling parameters.
      *
-     * @return the current cache size of throttling parameters
+     * @return the current cache size of throttling parameters of the current player version
      */
     public static int getThrottlingParametersCacheSize() {
-        return CACHED_THROTTLING_PARAMETERS.size();
+        final YoutubeJavaScriptPlayer player = currentPlayer;
+        return player == null ? 0 : player.getThrottlingParametersCacheSize();
     }
 
     /**
      * Clear all caches.
      *
      * <p>
-     * This method will clear all cached JavaScript code and throttling parameters.
+     * This method will clear all cached JavaScript code, compiled JavaScript functions and
+     * throttling parameters, of all player versions.
      * </p>
      *
      * <p>
@@ -306,17 +451,13 @@ public final class YoutubeJavaScriptPlayerManager {
      * </p>
      */
     public static void clearAllCaches() {
-        cachedJavaScriptPlayerCode = null;
-        cachedSignatureDeobfuscationFunction = null;
-        cachedThrottlingDeobfuscationFunctionName = null;
-        cachedThrottlingDeobfuscationFunction = null;
-        cachedSignatureTimestamp = null;
-        clearThrottlingParametersCache();
-
-        // Clear cached extraction exceptions, if applicable
-        throttlingDeobfFuncExtractionEx = null;
-        sigDeobFuncExtractionEx = null;
-        sigTimestampExtractionEx = null;
+        synchronized (PLAYER_FETCH_LOCK) {
+            currentPlayer = null;
+            synchronized (CACHED_PLAYERS) {
+                CACHED_PLAYERS.clear();
+            }
+        }
+        JavaScript.clearCompiledFunctionsCache();
     }
 
     /**
@@ -333,22 +474,133 @@ public final class YoutubeJavaScriptPlayerManager {
      * </p>
      */
     public static void clearThrottlingParametersCache() {
-        CACHED_THROTTLING_PARAMETERS.clear();
+        synchronized (CACHED_PLAYERS) {
+            for (final YoutubeJavaScriptPlayer player : CACHED_PLAYERS.values()) {
+                player.clearThrottlingParametersCache();
+            }
+        }
     }
 
     /**
-     * Extract the JavaScript code if it isn't already cached.
+     * Set the directory in which the data extracted from base JavaScript players is persisted.
+     *
+     * <p>
+     * When a directory is set, the signature timestamp and the deobfuscation functions of each
+     * player version are written to it after their extraction, and read from it when the player
+     * version is used again, for instance after a restart. The player's code is then not
+     * downloaded again, unless data missing from the directory is needed. Only the player's URL
+     * still needs to be fetched, to know its current version.
+     * </p>
+     *
+     * <p>
+     * No directory is set by default. Files are never deleted from the directory, including by
+     * {@link #clearAllCaches()}, but they are small and a new player version is only released
+     * every few days.
+     * </p>
+     *
+     * @param directory the directory in which the data extracted from players is persisted, or
+     *                  {@code null} to not persist it
+     */
+    public static void setPlayerStoreDirectory(@Nullable final Path directory) {
+        playerStore = directory == null ? null : new YoutubeJavaScriptPlayerStore(directory);
+    }
+
+    private static void refreshPlayerInBackground() {
+        // Skip the refresh if another one is already in progress
+        if (!REFRESH_IN_PROGRESS.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshPlayer("");
+        } catch (final Exception ignored) {
+            // The previous player keeps being used, the refresh will be retried later
+        } finally {
+            REFRESH_IN_PROGRESS.set(false);
+        }
+    }
+
+    /**
+     * Refresh the player in the background if refreshes are started and if no refresh has been
+     * triggered by a failure recently.
+     */
+    private static void onDeobfuscationFailure() {
+        final long now = System.nanoTime();
+        if (now - lastFailureRefreshNanos < MIN_FAILURE_REFRESH_INTERVAL_NANOS) {
+            return;
+        }
+
+        synchronized (REFRESH_LOCK) {
+            if (refreshExecutor == null
+                    || now - lastFailureRefreshNanos < MIN_FAILURE_REFRESH_INTERVAL_NANOS) {
+                return;
+            }
+            lastFailureRefreshNanos = now;
+            refreshExecutor.execute(YoutubeJavaScriptPlayerManager::refreshPlayerInBackground);
+        }
+    }
+
+    /**
+     * Get the current player, fetching it if it isn't already cached.
+     *
+     * <p>
+     * If the URL of the fetched player is the one of a cached player version, the cached player
+     * is reused, with the data already extracted from it. Otherwise, the player is loaded from the
+     * {@link #setPlayerStoreDirectory(Path) player store} if possible, and downloaded if not.
+     * </p>
+     *
+     * <p>
+     * The returned player can be passed to the methods of this class taking a player, to
+     * deobfuscate streaming URLs later with the player which was current when they were
+     * extracted, like
+     * {@link #getUrlWithThrottlingParameterDeobfuscated(YoutubeJavaScriptPlayer, String)}.
+     * </p>
      *
      * @param videoId the video ID used to get the JavaScript base player file (an empty one can be
      *                passed, even it is not recommend in order to spoof better official YouTube
      *                clients)
+     * @return the current player
      * @throws ParsingException if the extraction of the base JavaScript player file failed
      */
-    private static void extractJavaScriptCodeIfNeeded(@Nonnull final String videoId)
+    @Nonnull
+    public static YoutubeJavaScriptPlayer getPlayer(@Nonnull final String videoId)
             throws ParsingException {
-        if (cachedJavaScriptPlayerCode == null) {
-            cachedJavaScriptPlayerCode = YoutubeJavaScriptExtractor.extractJavaScriptPlayerCode(
-                    videoId);
+        YoutubeJavaScriptPlayer player = currentPlayer;
+        if (player != null) {
+            return player;
+        }
+
+        synchronized (PLAYER_FETCH_LOCK) {
+            player = currentPlayer;
+            if (player == null) {
+                player = YoutubeJavaScriptExtractor.extractJavaScriptPlayer(videoId,
+                        YoutubeJavaScriptPlayerManager::getOrDownloadPlayer);
+                currentPlayer = player;
+            }
+            return player;
+        }
+    }
+
+    @Nonnull
+    private static YoutubeJavaScriptPlayer getOrDownloadPlayer(@Nonnull final String url)
+            throws ParsingException {
+        synchronized (CACHED_PLAYERS) {
+            final YoutubeJavaScriptPlayer cachedPlayer = CACHED_PLAYERS.get(url);
+            if (cachedPlayer != null) {
+                return cachedPlayer;
+            }
+        }
+
+        final YoutubeJavaScriptPlayerStore store = playerStore;
+        YoutubeJavaScriptPlayer player = store == null ? null : store.load(url);
+        if (player == null) {
+            player = new YoutubeJavaScriptPlayer(url,
+                    YoutubeJavaScriptExtractor.downloadJavaScriptCode(url), store);
+            // Extract all the data now, so that the code is not kept while the player is cached
+            player.prepare();
+        }
+        synchronized (CACHED_PLAYERS) {
+            CACHED_PLAYERS.put(url, player);
         }
+        return player;
     }
 }
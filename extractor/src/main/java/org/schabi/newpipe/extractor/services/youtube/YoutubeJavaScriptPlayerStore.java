@@ -0,0 +1,128 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A directory in which the data extracted from YouTube's base JavaScript players is persisted,
+ * so that it can be reused across restarts without downloading players again.
+ *
+ * <p>
+ * Each player version is stored in its own properties file, named after the player's hash and
+ * variant. Files are replaced atomically when possible, so that a process reading a player never
+ * sees a partially written file. The store is best-effort: I/O errors are ignored, the data being
+ * then extracted again from the player's code.
+ * </p>
+ */
+final class YoutubeJavaScriptPlayerStore {
+
+    /**
+     * The version of the format of the files, part of their name so that files written in a
+     * previous format are ignored.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String FILE_EXTENSION = ".properties";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final Pattern PLAYER_URL_PATTERN = Pattern.compile("/s/player/(.+)$");
+    private static final Pattern UNSAFE_FILE_NAME_CHARACTERS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    @Nonnull
+    private final Path directory;
+
+    YoutubeJavaScriptPlayerStore(@Nonnull final Path directory) {
+        this.directory = directory;
+    }
+
+    @Nonnull
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Load a player from the store.
+     *
+     * @param url the URL of the player
+     * @return the player with the data stored for it, or {@code null} if nothing has been stored
+     * for it or if it could not be read
+     */
+    @Nullable
+    YoutubeJavaScriptPlayer load(@Nonnull final String url) {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(getFile(url))) {
+            properties.load(inputStream);
+        } catch (final NoSuchFileException e) {
+            return null;
+        } catch (final IOException | IllegalArgumentException e) {
+            // Unreadable or corrupted file, it will be replaced on the next save
+            return null;
+        }
+
+        if (!url.equals(properties.getProperty("url"))) {
+            // Another player whose file name is the same, which is very unlikely
+            return null;
+        }
+        return YoutubeJavaScriptPlayer.readFrom(properties, this);
+    }
+
+    /**
+     * Save the data extracted from a player, replacing the data previously stored for it.
+     *
+     * @param player the player to save
+     */
+    void save(@Nonnull final YoutubeJavaScriptPlayer player) {
+        final Properties properties = new Properties();
+        player.writeTo(properties);
+
+        final Path file = getFile(player.getUrl());
+        final Path temporaryFile = file.resolveSibling(file.getFileName()
+                + "." + Thread.currentThread().getId() + TEMPORARY_FILE_EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                properties.store(outputStream, null);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (final IOException ignored) {
+                // Nothing more can be done
+            }
+        }
+    }
+
+    /**
+     * Get the file in which the data of a player is stored.
+     *
+     * <p>
+     * Its name is made of the part of the player's URL after {@code /s/player/}, which contains
+     * the player's hash and its variant, or of the whole URL if it has not the expected format.
+     * </p>
+     */
+    @Nonnull
+    Path getFile(@Nonnull final String url) {
+        final Matcher matcher = PLAYER_URL_PATTERN.matcher(url);
+        final String name = matcher.find() ? matcher.group(1) : url;
+        return directory.resolve(UNSAFE_FILE_NAME_CHARACTERS.matcher(name).replaceAll("_")
+                + "-v" + FORMAT_VERSION + FILE_EXTENSION);
+    }
+}
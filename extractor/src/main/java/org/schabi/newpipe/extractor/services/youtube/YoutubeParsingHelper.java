@@ -66,6 +66,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -983,13 +984,26 @@ public final class YoutubeParsingHelper {
     @Nonnull
     public static String getValidJsonResponseBody(@Nonnull final Response response)
             throws ParsingException, MalformedURLException {
+        return getValidJsonResponse(response).responseBody();
+    }
+
+    /**
+     * Check that a response is a valid JSON response, without decoding its body if it has been
+     * given as bytes, so that it can be parsed with {@link JsonUtils#toJsonObject(Response)}.
+     *
+     * @param response the response to check
+     * @return the given response
+     * @throws ParsingException if the response is not a valid JSON response
+     */
+    @Nonnull
+    public static Response getValidJsonResponse(@Nonnull final Response response)
+            throws ParsingException, MalformedURLException {
         if (response.responseCode() == 404) {
             throw new ContentNotAvailableException("Not found"
                     + " (\"" + response.responseCode() + " " + response.responseMessage() + "\")");
         }
 
-        final String responseBody = response.responseBody();
-        if (responseBody.length() < 50) { // Ensure to have a valid response
+        if (response.responseBodyLength() < 50) { // Ensure to have a valid response
             throw new ParsingException("JSON response is too short");
         }
 
@@ -1009,7 +1023,7 @@ public final class YoutubeParsingHelper {
                     + " (latest url was: \"" + response.latestUrl() + "\")");
         }
 
-        return responseBody;
+        return response;
     }
 
     public static JsonObject getJsonPostResponse(@Nonnull final String endpoint,
@@ -1018,11 +1032,33 @@ public final class YoutubeParsingHelper {
             throws IOException, ExtractionException {
         final var headers = getYouTubeHeaders();
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
+        return JsonUtils.toJsonObject(getValidJsonResponse(
                 getDownloader().postWithContentTypeJson(YOUTUBEI_V1_URL + endpoint + "?"
                         + DISABLE_PRETTY_PRINT_PARAMETER, headers, body, localization)));
     }
 
+    /**
+     * Send a POST request to an innertube endpoint and parse only some values of its response.
+     *
+     * @param endpoint     the innertube endpoint
+     * @param body         the body of the request
+     * @param localization the localization of the request
+     * @param paths        the paths of the values to parse, see
+     *                     {@link JsonUtils#toJsonObject(Response, Collection)}
+     * @return the response, with only the values at the given paths
+     */
+    public static JsonObject getJsonPostResponse(@Nonnull final String endpoint,
+                                                 final byte[] body,
+                                                 @Nonnull final Localization localization,
+                                                 @Nonnull final Collection<String> paths)
+            throws IOException, ExtractionException {
+        final var headers = getYouTubeHeaders();
+
+        return JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(YOUTUBEI_V1_URL + endpoint + "?"
+                        + DISABLE_PRETTY_PRINT_PARAMETER, headers, body, localization)), paths);
+    }
+
     public static JsonObject getJsonPostResponse(@Nonnull final String endpoint,
                                                  @Nonnull final List<String> queryParameters,
                                                  final byte[] body,
@@ -1038,7 +1074,7 @@ public final class YoutubeParsingHelper {
                     + "&" + DISABLE_PRETTY_PRINT_PARAMETER;
         }
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
+        return JsonUtils.toJsonObject(getValidJsonResponse(
                 getDownloader().postWithContentTypeJson(YOUTUBEI_V1_URL + endpoint
                         + queryParametersString, headers, body, localization)));
     }
@@ -1481,7 +1517,7 @@ public final class YoutubeParsingHelper {
         final byte[] body = JsonWriter.string(builder.done())
                 .getBytes(StandardCharsets.UTF_8);
 
-        final String visitorData = JsonUtils.toJsonObject(getValidJsonResponseBody(getDownloader()
+        final String visitorData = JsonUtils.toJsonObject(getValidJsonResponse(getDownloader()
                 .postWithContentTypeJson(
                         innertubeDomainAndVersionEndpoint
                                 + (useGuideEndpoint ? "guide" : "visitor_id") + "?"
@@ -0,0 +1,349 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A signature deobfuscation function of YouTube's base JavaScript player, compiled to Java.
+ *
+ * <p>
+ * The signature deobfuscation function splits the signature into an array of characters, calls
+ * methods of a helper object on it which reverse it, remove its first characters or swap its
+ * first character with another one, and joins it back. {@link #compile(String)} recognizes this
+ * shape in the code returned by
+ * {@link YoutubeSignatureUtils#getDeobfuscationCode(String, JavaScriptIndex)}, and translates it
+ * into a list of operations which are then applied natively, without a JavaScript engine.
+ * </p>
+ *
+ * <p>
+ * If any part of the code is not recognized, the code cannot be compiled and must be run with a
+ * JavaScript engine instead.
+ * </p>
+ */
+final class YoutubeSignatureDeobfuscator {
+
+    private static final String IDENTIFIER = "[\\w$]+";
+
+    /**
+     * Matches a global array of strings, such as {@code var z="a;b;c".split(";")}.
+     */
+    private static final Pattern GLOBAL_ARRAY_PATTERN = Pattern.compile(
+            "var (" + IDENTIFIER + ")=(['\"])(.*?)\\2\\.split\\((['\"])(.*?)\\4\\)");
+
+    /**
+     * Matches an object whose values are functions without nested blocks, such as
+     * {@code var Xy={AB:function(a){a.reverse()},cd:function(a,b){a.splice(0,b)}};}.
+     */
+    private static final Pattern HELPER_OBJECT_PATTERN = Pattern.compile(
+            "var (" + IDENTIFIER + ")=\\{((?:[^{}]|\\{[^{}]*\\})*)\\};");
+
+    private static final Pattern HELPER_METHOD_PATTERN = Pattern.compile(
+            "\"?(" + IDENTIFIER + ")\"?:function\\(([^)]*)\\)\\{([^{}]*)\\}");
+
+    private static final Pattern CALLER_FUNCTION_PATTERN = Pattern.compile(
+            "function " + YoutubeSignatureUtils.DEOBFUSCATION_FUNCTION_NAME
+                    + "\\(a\\)\\{return (" + IDENTIFIER + ")\\(([^)]*)\\);?\\}");
+
+    private static final String FUNCTION_PATTERN_END = "=function\\(([^)]*)\\)\\{([^{}]*)\\}";
+
+    private static final String SPLIT_STATEMENT_FORMAT =
+            "%1$s=%1$s(?:\\.split|\\[\"split\"])\\(\"\"\\)";
+    private static final String JOIN_STATEMENT_FORMAT =
+            "return %1$s(?:\\.join|\\[\"join\"])\\(\"\"\\)";
+    private static final String OPERATION_STATEMENT_FORMAT =
+            "%1$s(?:\\.(%3$s)|\\[\"(%3$s)\"])\\(%2$s(?:,(%3$s))?\\)";
+
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("\\d+");
+
+    /**
+     * The types of operations which can be applied on a signature.
+     */
+    private enum OperationType {
+        /**
+         * Reverse the signature: {@code a.reverse()}.
+         */
+        REVERSE,
+        /**
+         * Remove the first characters of the signature: {@code a.splice(0,b)}.
+         */
+        SPLICE,
+        /**
+         * Swap the first character with the one at an index:
+         * {@code var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}.
+         */
+        SWAP
+    }
+
+    @Nonnull
+    private final OperationType[] operationTypes;
+    @Nonnull
+    private final int[] arguments;
+
+    private YoutubeSignatureDeobfuscator(@Nonnull final OperationType[] operationTypes,
+                                         @Nonnull final int[] arguments) {
+        this.operationTypes = operationTypes;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Compile the code returned by
+     * {@link YoutubeSignatureUtils#getDeobfuscationCode(String, JavaScriptIndex)}.
+     *
+     * @param deobfuscationCode the signature deobfuscation code
+     * @return the compiled function, or {@code null} if the code has not a known shape
+     */
+    @Nullable
+    static YoutubeSignatureDeobfuscator compile(@Nonnull final String deobfuscationCode) {
+        final String code = resolveGlobalArrays(deobfuscationCode);
+
+        final Matcher callerMatcher = CALLER_FUNCTION_PATTERN.matcher(code);
+        if (!callerMatcher.find()) {
+            return null;
+        }
+        final String functionName = callerMatcher.group(1);
+        final String[] callArguments = callerMatcher.group(2).split(",", -1);
+
+        final Matcher functionMatcher = Pattern.compile(
+                "(?<![\\w$])" + Pattern.quote(functionName) + FUNCTION_PATTERN_END)
+                .matcher(code);
+        if (!functionMatcher.find()) {
+            return null;
+        }
+        final String[] parameters = functionMatcher.group(1).split(",", -1);
+        if (parameters.length != callArguments.length) {
+            return null;
+        }
+
+        // Find the parameter receiving the signature, the other ones must be constant integers
+        String signatureParameter = null;
+        final Map<String, Integer> constants = new HashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            final String argument = callArguments[i].trim();
+            if (argument.equals("a")) {
+                signatureParameter = parameters[i].trim();
+            } else if (INTEGER_PATTERN.matcher(argument).matches()) {
+                constants.put(parameters[i].trim(), Integer.valueOf(argument));
+            } else {
+                return null;
+            }
+        }
+        if (signatureParameter == null) {
+            return null;
+        }
+
+        return compileFunction(code, functionMatcher.group(2), signatureParameter, constants);
+    }
+
+    /**
+     * Deobfuscate a signature.
+     *
+     * @param obfuscatedSignature the obfuscated signature
+     * @return the deobfuscated signature
+     */
+    @Nonnull
+    String deobfuscate(@Nonnull final String obfuscatedSignature) {
+        final StringBuilder signature = new StringBuilder(obfuscatedSignature);
+        for (int i = 0; i < operationTypes.length; i++) {
+            switch (operationTypes[i]) {
+                case REVERSE:
+                    signature.reverse();
+                    break;
+                case SPLICE:
+                    signature.delete(0, Math.min(arguments[i], signature.length()));
+                    break;
+                case SWAP:
+                    if (signature.length() > 0) {
+                        final int index = arguments[i] % signature.length();
+                        final char first = signature.charAt(0);
+                        signature.setCharAt(0, signature.charAt(index));
+                        signature.setCharAt(index, first);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operationTypes[i]);
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * @return the number of operations applied on signatures
+     */
+    int getOperationCount() {
+        return operationTypes.length;
+    }
+
+    @Nullable
+    private static YoutubeSignatureDeobfuscator compileFunction(
+            @Nonnull final String code,
+            @Nonnull final String functionBody,
+            @Nonnull final String signatureParameter,
+            @Nonnull final Map<String, Integer> constants) {
+        final String quotedParameter = Pattern.quote(signatureParameter);
+        final String[] statements = functionBody.split(";");
+        if (statements.length < 2
+                || !statements[0].matches(String.format(SPLIT_STATEMENT_FORMAT, quotedParameter))
+                || !statements[statements.length - 1].matches(
+                        String.format(JOIN_STATEMENT_FORMAT, quotedParameter))) {
+            return null;
+        }
+
+        final Pattern operationPattern = Pattern.compile(String.format(
+                OPERATION_STATEMENT_FORMAT, "(" + IDENTIFIER + ")", quotedParameter,
+                IDENTIFIER));
+        final List<OperationType> operationTypes = new ArrayList<>();
+        final List<Integer> arguments = new ArrayList<>();
+        Map<String, OperationType> helperMethods = null;
+        String helperObjectName = null;
+
+        for (int i = 1; i < statements.length - 1; i++) {
+            final Matcher matcher = operationPattern.matcher(statements[i]);
+            if (!matcher.matches()) {
+                return null;
+            }
+
+            final String objectName = matcher.group(1);
+            if (helperMethods == null) {
+                helperObjectName = objectName;
+                helperMethods = getHelperMethods(code, objectName);
+                if (helperMethods == null) {
+                    return null;
+                }
+            } else if (!objectName.equals(helperObjectName)) {
+                return null;
+            }
+
+            final String methodName = matcher.group(2) != null
+                    ? matcher.group(2) : matcher.group(3);
+            final OperationType operationType = helperMethods.get(methodName);
+            final Integer argument = getArgument(matcher.group(4), constants);
+            if (operationType == null
+                    || (argument == null && operationType != OperationType.REVERSE)) {
+                return null;
+            }
+            operationTypes.add(operationType);
+            arguments.add(argument == null ? 0 : argument);
+        }
+
+        final int[] argumentArray = new int[arguments.size()];
+        for (int i = 0; i < argumentArray.length; i++) {
+            argumentArray[i] = arguments.get(i);
+        }
+        return new YoutubeSignatureDeobfuscator(
+                operationTypes.toArray(new OperationType[0]), argumentArray);
+    }
+
+    @Nullable
+    private static Integer getArgument(@Nullable final String argument,
+                                       @Nonnull final Map<String, Integer> constants) {
+        if (argument == null) {
+            return null;
+        }
+        if (INTEGER_PATTERN.matcher(argument).matches()) {
+            return Integer.valueOf(argument);
+        }
+        return constants.get(argument);
+    }
+
+    /**
+     * Get the operations done by the methods of the helper object.
+     *
+     * @return the operation types by method name, or {@code null} if the helper object has not
+     * been found or if one of its methods is not recognized
+     */
+    @Nullable
+    private static Map<String, OperationType> getHelperMethods(@Nonnull final String code,
+                                                               @Nonnull final String objectName) {
+        final Matcher objectMatcher = HELPER_OBJECT_PATTERN.matcher(code);
+        while (objectMatcher.find()) {
+            if (!objectMatcher.group(1).equals(objectName)) {
+                continue;
+            }
+
+            final Map<String, OperationType> methods = new HashMap<>();
+            final Matcher methodMatcher = HELPER_METHOD_PATTERN.matcher(objectMatcher.group(2));
+            while (methodMatcher.find()) {
+                final OperationType operationType = getOperationType(
+                        methodMatcher.group(2), methodMatcher.group(3));
+                if (operationType == null) {
+                    return null;
+                }
+                methods.put(methodMatcher.group(1), operationType);
+            }
+            return methods.isEmpty() ? null : methods;
+        }
+        return null;
+    }
+
+    /**
+     * Get the operation done by a method of the helper object.
+     *
+     * @param methodParameters the parameters of the method: the array of characters, then the
+     *                         argument of the operation, if any
+     * @param methodBody       the body of the method
+     * @return the operation type, or {@code null} if the method is not recognized
+     */
+    @Nullable
+    private static OperationType getOperationType(@Nonnull final String methodParameters,
+                                                  @Nonnull final String methodBody) {
+        final String[] parameters = methodParameters.split(",");
+        final String body = methodBody.endsWith(";")
+                ? methodBody.substring(0, methodBody.length() - 1) : methodBody;
+        final String array = Pattern.quote(parameters[0]);
+        if (body.matches(array + "(?:\\.reverse|\\[\"reverse\"])\\(\\)")) {
+            return OperationType.REVERSE;
+        }
+        if (parameters.length < 2) {
+            return null;
+        }
+
+        final String argument = Pattern.quote(parameters[1]);
+        if (body.matches(array + "(?:\\.splice|\\[\"splice\"])\\(0," + argument + "\\)")) {
+            return OperationType.SPLICE;
+        }
+        final String index = argument + "%" + array + "(?:\\.length|\\[\"length\"])";
+        if (body.matches("var (" + IDENTIFIER + ")=" + array + "\\[0];"
+                + array + "\\[0]=" + array + "\\[" + index + "];"
+                + array + "\\[" + index + "]=\\1")) {
+            return OperationType.SWAP;
+        }
+        return null;
+    }
+
+    /**
+     * Replace accesses to global arrays of strings, such as {@code z[3]}, by the accessed strings
+     * quoted.
+     */
+    @Nonnull
+    private static String resolveGlobalArrays(@Nonnull final String code) {
+        String resolvedCode = code;
+        final Matcher arrayMatcher = GLOBAL_ARRAY_PATTERN.matcher(code);
+        while (arrayMatcher.find()) {
+            final String[] values = arrayMatcher.group(3).split(
+                    Pattern.quote(arrayMatcher.group(5)), -1);
+            final Matcher accessMatcher = Pattern.compile("(?<![\\w$])"
+                    + Pattern.quote(arrayMatcher.group(1)) + "\\[(\\d+)]")
+                    .matcher(resolvedCode);
+            final StringBuilder builder = new StringBuilder();
+            while (accessMatcher.find()) {
+                final int index = Integer.parseInt(accessMatcher.group(1));
+                // Keep accesses outside of the array as-is, the code will not be recognized
+                final String replacement = index < values.length
+                        ? "\"" + values[index] + "\"" : accessMatcher.group();
+                accessMatcher.appendReplacement(builder, Matcher.quoteReplacement(replacement));
+            }
+            accessMatcher.appendTail(builder);
+            resolvedCode = builder.toString();
+        }
+        return resolvedCode;
+    }
+}
@@ -7,8 +7,10 @@ import org.schabi.newpipe.extractor.utils.JavaScript;
 import org.schabi.newpipe.extractor.utils.Pair;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptExtractor;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -74,12 +76,19 @@ final class YoutubeSignatureUtils {
     /**
      * Get the signature deobfuscation code of YouTube's base JavaScript file.
      *
+     * <p>
+     * The deobfuscation function and its helper object are looked up in the index of the player
+     * code if it could be built, and searched in the code itself otherwise.
+     * </p>
+     *
      * @param javaScriptPlayerCode the complete JavaScript base player code
+     * @param index                the index of the player code, if it could be built
      * @return the signature deobfuscation code
      * @throws ParsingException if the signature deobfuscation code couldn't be extracted
      */
     @Nonnull
-    static String getDeobfuscationCode(@Nonnull final String javaScriptPlayerCode)
+    static String getDeobfuscationCode(@Nonnull final String javaScriptPlayerCode,
+                                       @Nullable final JavaScriptIndex index)
             throws ParsingException {
         try {
             final Pair<String, String> deobfuscationFunctionNameAndParams =
@@ -87,13 +96,19 @@ final class YoutubeSignatureUtils {
             final String deobfuscationFunctionName = deobfuscationFunctionNameAndParams.getFirst();
             final String functionAdditionalParams = deobfuscationFunctionNameAndParams.getSecond();
 
+            final String indexedFunction =
+                    index == null ? null : index.getFunction(deobfuscationFunctionName);
             String deobfuscationFunction;
-            try {
-                deobfuscationFunction = getDeobfuscateFunctionWithLexer(
-                        javaScriptPlayerCode, deobfuscationFunctionName);
-            } catch (final Exception e) {
-                deobfuscationFunction = getDeobfuscateFunctionWithRegex(
-                        javaScriptPlayerCode, deobfuscationFunctionName);
+            if (indexedFunction != null) {
+                deobfuscationFunction = deobfuscationFunctionName + "=" + indexedFunction;
+            } else {
+                try {
+                    deobfuscationFunction = getDeobfuscateFunctionWithLexer(
+                            javaScriptPlayerCode, deobfuscationFunctionName);
+                } catch (final Exception e) {
+                    deobfuscationFunction = getDeobfuscateFunctionWithRegex(
+                            javaScriptPlayerCode, deobfuscationFunctionName);
+                }
             }
 
             // Assert the extracted deobfuscation function is valid
@@ -105,7 +120,12 @@ final class YoutubeSignatureUtils {
             final String helperObjectName =
                     Parser.matchGroup1(SIG_DEOBF_HELPER_OBJ_NAME_REGEX, deobfuscationFunction);
 
-            final String helperObject = getHelperObject(javaScriptPlayerCode, helperObjectName);
+            final String indexedHelperObject =
+                    index == null ? null : index.getObject(helperObjectName);
+            final String helperObject = indexedHelperObject != null
+                    ? "var " + helperObjectName + "=" + indexedHelperObject.replace("\n", "")
+                            + ";"
+                    : getHelperObject(javaScriptPlayerCode, helperObjectName);
 
             final String callerFunction = "function " + DEOBFUSCATION_FUNCTION_NAME
                     + "(a){return "
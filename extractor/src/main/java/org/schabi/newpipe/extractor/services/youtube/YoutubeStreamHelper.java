@@ -15,6 +15,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.schabi.newpipe.extractor.NewPipe.getDownloader;
 import static org.schabi.newpipe.extractor.services.youtube.ClientsConstants.WEB_EMBEDDED_CLIENT_ID;
@@ -32,7 +33,7 @@ import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getClientVersion;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getIosUserAgent;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getOriginReferrerHeaders;
-import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponseBody;
+import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponse;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getYouTubeHeaders;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.prepareJsonBuilder;
 
@@ -43,6 +44,20 @@ public final class YoutubeStreamHelper {
     private static final String PO_TOKEN = "poToken";
     private static final String BASE_YT_DESKTOP_WATCH_URL = "https://www.youtube.com/watch?v=";
 
+    /**
+     * The values of player responses which are used by {@code YoutubeStreamExtractor}.
+     *
+     * <p>
+     * Only these values are parsed from player responses; the other ones, such as ads and
+     * tracking data, are skipped instead of being built.
+     * </p>
+     */
+    public static final List<String> PLAYER_RESPONSE_PATHS = List.of("playabilityStatus",
+            "streamingData", "captions", "videoDetails", "storyboards", "microformat");
+    private static final List<String> REEL_PLAYER_RESPONSE_PATHS = PLAYER_RESPONSE_PATHS.stream()
+            .map(path -> "playerResponse." + path)
+            .collect(Collectors.toUnmodifiableList());
+
     private YoutubeStreamHelper() {
     }
 
@@ -74,7 +89,7 @@ public final class YoutubeStreamHelper {
         final String url = YOUTUBEI_V1_URL + PLAYER + "?" + DISABLE_PRETTY_PRINT_PARAMETER
                 + "&$fields=microformat,videoDetails.thumbnail.thumbnails,videoDetails.videoId";
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
+        return JsonUtils.toJsonObject(getValidJsonResponse(
                 getDownloader().postWithContentTypeJson(
                         url, headers, body, localization)));
     }
@@ -118,8 +133,9 @@ public final class YoutubeStreamHelper {
                 .getBytes(StandardCharsets.UTF_8);
         final String url = YOUTUBEI_V1_URL + PLAYER + "?" + DISABLE_PRETTY_PRINT_PARAMETER;
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(url, headers, body, localization)));
+        return JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(url, headers, body, localization)),
+                PLAYER_RESPONSE_PATHS);
     }
 
     public static JsonObject getAndroidPlayerResponse(
@@ -149,8 +165,9 @@ public final class YoutubeStreamHelper {
         final String url = YOUTUBEI_V1_GAPIS_URL + PLAYER + "?" + DISABLE_PRETTY_PRINT_PARAMETER
                 + "&t=" + generateTParameter() + "&id=" + videoId;
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(url, headers, body, localization)));
+        return JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(url, headers, body, localization)),
+                PLAYER_RESPONSE_PATHS);
     }
 
     public static JsonObject getAndroidReelPlayerResponse(
@@ -185,8 +202,9 @@ public final class YoutubeStreamHelper {
                 + DISABLE_PRETTY_PRINT_PARAMETER + "&t=" + generateTParameter() + "&id=" + videoId
                 + "&$fields=playerResponse";
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(url, headers, body, localization)))
+        return JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(url, headers, body, localization)),
+                REEL_PLAYER_RESPONSE_PATHS)
                 .getObject("playerResponse");
     }
 
@@ -224,8 +242,9 @@ public final class YoutubeStreamHelper {
         final String url = YOUTUBEI_V1_GAPIS_URL + PLAYER + "?" + DISABLE_PRETTY_PRINT_PARAMETER
                 + "&t=" + generateTParameter() + "&id=" + videoId;
 
-        return JsonUtils.toJsonObject(getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(url, headers, body, localization)));
+        return JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(url, headers, body, localization)),
+                PLAYER_RESPONSE_PATHS);
     }
 
     private static void addVideoIdCpnAndOkChecks(@Nonnull final JsonBuilder<JsonObject> builder,
@@ -6,6 +6,7 @@ import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.schabi.newpipe.extractor.utils.JavaScript;
 import org.schabi.newpipe.extractor.utils.Parser;
 import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptExtractor;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -144,12 +145,14 @@ final class YoutubeThrottlingParameterUtils {
      * Get the throttling parameter deobfuscation function name of YouTube's base JavaScript file.
      *
      * @param javaScriptPlayerCode the complete JavaScript base player code
+     * @param index                the index of the player code, if it could be built
      * @return the name of the throttling parameter deobfuscation function
      * @throws ParsingException if the name of the throttling parameter deobfuscation function
      * could not be extracted
      */
     @Nonnull
-    static String getDeobfuscationFunctionName(@Nonnull final String javaScriptPlayerCode)
+    static String getDeobfuscationFunctionName(@Nonnull final String javaScriptPlayerCode,
+                                               @Nullable final JavaScriptIndex index)
             throws ParsingException {
         final Matcher matcher;
         try {
@@ -166,11 +169,17 @@ final class YoutubeThrottlingParameterUtils {
         }
 
         final int arrayNum = Integer.parseInt(matcher.group(2));
-        final Pattern arrayPattern = Pattern.compile(
-                DEOBFUSCATION_FUNCTION_ARRAY_OBJECT_TYPE_DECLARATION_REGEX
-                        + Pattern.quote(functionName)
-                        + FUNCTION_NAMES_IN_DEOBFUSCATION_ARRAY_REGEX);
-        final String arrayStr = Parser.matchGroup1(arrayPattern, javaScriptPlayerCode);
+        final String array = index == null ? null : index.getArray(functionName);
+        final String arrayStr;
+        if (array != null) {
+            arrayStr = array.substring(1, array.length() - 1);
+        } else {
+            final Pattern arrayPattern = Pattern.compile(
+                    DEOBFUSCATION_FUNCTION_ARRAY_OBJECT_TYPE_DECLARATION_REGEX
+                            + Pattern.quote(functionName)
+                            + FUNCTION_NAMES_IN_DEOBFUSCATION_ARRAY_REGEX);
+            arrayStr = Parser.matchGroup1(arrayPattern, javaScriptPlayerCode);
+        }
         final String[] names = arrayStr.split(",");
         return names[arrayNum];
     }
@@ -179,14 +188,27 @@ final class YoutubeThrottlingParameterUtils {
      * Get the throttling parameter deobfuscation code of YouTube's base JavaScript file.
      *
      * @param javaScriptPlayerCode the complete JavaScript base player code
+     * @param index                the index of the player code, if it could be built
+     * @param functionName         the name of the throttling parameter deobfuscation function
      * @return the throttling parameter deobfuscation function code
      * @throws ParsingException if the throttling parameter deobfuscation code couldn't be
      * extracted
      */
     @Nonnull
     static String getDeobfuscationFunction(@Nonnull final String javaScriptPlayerCode,
+                                           @Nullable final JavaScriptIndex index,
                                            @Nonnull final String functionName)
             throws ParsingException {
+        final String indexedFunction = index == null ? null : index.getFunction(functionName);
+        if (indexedFunction != null) {
+            try {
+                return fixupFunction(
+                        validateFunction(functionName + "=" + indexedFunction + ";"));
+            } catch (final Exception ignored) {
+                // The indexed function may be wrong or truncated, extract it from the code
+            }
+        }
+
         String function;
         try {
             function = parseFunctionWithLexer(javaScriptPlayerCode, functionName);
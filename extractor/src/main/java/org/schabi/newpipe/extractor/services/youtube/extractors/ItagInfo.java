@@ -1,8 +1,10 @@
 package org.schabi.newpipe.extractor.services.youtube.extractors;
 
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
+import org.schabi.newpipe.extractor.stream.ContentResolver;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.Serializable;
 
 /**
@@ -13,7 +15,8 @@ import java.io.Serializable;
  * <ul>
  *     <li>its content (the URL/the base URL of streams);</li>
  *     <li>whether its content is the URL the content itself or the base URL;</li>
- *     <li>its associated {@link ItagItem}.</li>
+ *     <li>its associated {@link ItagItem};</li>
+ *     <li>the {@link ContentResolver} of its content, if it is resolved lazily.</li>
  * </ul>
  */
 final class ItagInfo implements Serializable {
@@ -22,6 +25,8 @@ final class ItagInfo implements Serializable {
     @Nonnull
     private final ItagItem itagItem;
     private boolean isUrl;
+    @Nullable
+    private transient ContentResolver contentResolver;
 
     /**
      * Creates a new {@code ItagInfo} instance.
@@ -75,4 +80,24 @@ final class ItagInfo implements Serializable {
     boolean getIsUrl() {
         return isUrl;
     }
+
+    /**
+     * Sets the resolver of the content of the stream.
+     *
+     * @param contentResolver the resolver of the content, or {@code null} if the content is
+     *                        already resolved
+     */
+    void setContentResolver(@Nullable final ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
+    /**
+     * Gets the resolver of the content of the stream.
+     *
+     * @return the resolver of the content, or {@code null} if the content is already resolved
+     */
+    @Nullable
+    ContentResolver getContentResolver() {
+        return contentResolver;
+    }
 }
@@ -114,6 +114,7 @@ public class YoutubeChannelTabExtractor extends ChannelTabExtractor {
     @Override
     public InfoItemsPage<InfoItem> getInitialPage() throws IOException, ExtractionException {
         final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+        collector.allowParallelExtraction();
 
         JsonArray items = new JsonArray();
         final Optional<JsonObject> tab = getTabData();
@@ -177,6 +178,7 @@ public class YoutubeChannelTabExtractor extends ChannelTabExtractor {
         final List<String> channelIds = page.getIds();
 
         final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+        collector.allowParallelExtraction();
 
         final JsonObject ajaxJson = getJsonPostResponse("browse", page.getBody(),
                 getExtractorLocalization());
@@ -2,7 +2,7 @@ package org.schabi.newpipe.extractor.services.youtube.extractors;
 
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.DISABLE_PRETTY_PRINT_PARAMETER;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getTextFromObject;
-import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponseBody;
+import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponse;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getYoutubeMusicClientVersion;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getYoutubeMusicHeaders;
 import static org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeSearchQueryHandlerFactory.MUSIC_ALBUMS;
@@ -14,8 +14,6 @@ import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
 import com.grack.nanojson.JsonArray;
 import com.grack.nanojson.JsonObject;
-import com.grack.nanojson.JsonParser;
-import com.grack.nanojson.JsonParserException;
 import com.grack.nanojson.JsonWriter;
 
 import org.schabi.newpipe.extractor.InfoItem;
@@ -107,14 +105,8 @@ public class YoutubeMusicSearchExtractor extends SearchExtractor {
             .end().done().getBytes(StandardCharsets.UTF_8);
         // @formatter:on
 
-        final String responseBody = getValidJsonResponseBody(
-                getDownloader().postWithContentTypeJson(url, getYoutubeMusicHeaders(), json));
-
-        try {
-            initialData = JsonParser.object().from(responseBody);
-        } catch (final JsonParserException e) {
-            throw new ParsingException("Could not parse JSON", e);
-        }
+        initialData = JsonUtils.toJsonObject(getValidJsonResponse(
+                getDownloader().postWithContentTypeJson(url, getYoutubeMusicHeaders(), json)));
     }
 
     private List<JsonObject> getItemSectionRendererContents() {
@@ -240,16 +232,9 @@ public class YoutubeMusicSearchExtractor extends SearchExtractor {
             .end().done().getBytes(StandardCharsets.UTF_8);
         // @formatter:on
 
-        final String responseBody = getValidJsonResponseBody(
+        final JsonObject ajaxJson = JsonUtils.toJsonObject(getValidJsonResponse(
                 getDownloader().postWithContentTypeJson(
-                        page.getUrl(), getYoutubeMusicHeaders(), json));
-
-        final JsonObject ajaxJson;
-        try {
-            ajaxJson = JsonParser.object().from(responseBody);
-        } catch (final JsonParserException e) {
-            throw new ParsingException("Could not parse JSON", e);
-        }
+                        page.getUrl(), getYoutubeMusicHeaders(), json)));
 
         final JsonObject musicShelfContinuation = ajaxJson.getObject("continuationContents")
                 .getObject("musicShelfContinuation");
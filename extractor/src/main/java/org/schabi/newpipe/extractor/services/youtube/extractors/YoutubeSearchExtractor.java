@@ -162,6 +162,7 @@ public class YoutubeSearchExtractor extends SearchExtractor {
     @Override
     public InfoItemsPage<InfoItem> getInitialPage() throws IOException, ExtractionException {
         final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+        collector.allowParallelExtraction();
 
         final JsonArray sections = initialData.getObject("contents")
                 .getObject("twoColumnSearchResultsRenderer")
@@ -196,6 +197,7 @@ public class YoutubeSearchExtractor extends SearchExtractor {
 
         final Localization localization = getExtractorLocalization();
         final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(getServiceId());
+        collector.allowParallelExtraction();
 
         // @formatter:off
         final byte[] json = JsonWriter.string(prepareDesktopJsonBuilder(localization,
@@ -64,12 +64,14 @@ import org.schabi.newpipe.extractor.localization.TimeAgoPatternsManager;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 import org.schabi.newpipe.extractor.services.youtube.PoTokenProvider;
 import org.schabi.newpipe.extractor.services.youtube.PoTokenResult;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeJavaScriptPlayer;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeJavaScriptPlayerManager;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeMetaInfoHelper;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper;
 import org.schabi.newpipe.extractor.services.youtube.YoutubeStreamHelper;
 import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeChannelLinkHandlerFactory;
 import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.ContentResolver;
 import org.schabi.newpipe.extractor.stream.DeliveryMethod;
 import org.schabi.newpipe.extractor.stream.Description;
 import org.schabi.newpipe.extractor.stream.Frameset;
@@ -79,6 +81,7 @@ import org.schabi.newpipe.extractor.stream.StreamSegment;
 import org.schabi.newpipe.extractor.stream.StreamType;
 import org.schabi.newpipe.extractor.stream.SubtitlesStream;
 import org.schabi.newpipe.extractor.stream.VideoStream;
+import org.schabi.newpipe.extractor.utils.FutureUtils;
 import org.schabi.newpipe.extractor.utils.JsonUtils;
 import org.schabi.newpipe.extractor.utils.LocaleCompat;
 import org.schabi.newpipe.extractor.utils.Pair;
@@ -95,8 +98,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -110,6 +116,11 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     private static final String ADAPTIVE_FORMATS = "adaptiveFormats";
     private static final String STREAMING_DATA = "streamingData";
     private static final String NEXT = "next";
+    /**
+     * The values of {@code next} responses used by the extractor; the others are not parsed.
+     */
+    private static final List<String> NEXT_RESPONSE_PATHS =
+            List.of("contents.twoColumnWatchNextResults", "engagementPanels");
     private static final String SIGNATURE_CIPHER = "signatureCipher";
     private static final String CIPHER = "cipher";
     private static final String PLAYER_CAPTIONS_TRACKLIST_RENDERER
@@ -124,6 +135,8 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Nullable
     private static PoTokenProvider poTokenProvider;
     private static boolean fetchIosClient;
+    private static boolean fetchConcurrently;
+    private static boolean resolveStreamUrlsLazily;
 
     private JsonObject playerResponse;
     private JsonObject nextResponse;
@@ -153,6 +166,16 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     @Nullable
     private String iosStreamingUrlsPoToken;
 
+    private boolean throttlingParametersDeobfuscated;
+
+    /**
+     * The base JavaScript player with which the URLs of streams resolved lazily are deobfuscated,
+     * got when the streams are built.
+     */
+    @Nullable
+    private YoutubeJavaScriptPlayer javaScriptPlayer;
+    private boolean javaScriptPlayerFetched;
+
     public YoutubeStreamExtractor(final StreamingService service, final LinkHandler linkHandler) {
         super(service, linkHandler);
     }
@@ -854,6 +877,13 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         final ContentCountry contentCountry = getExtractorContentCountry();
 
         final PoTokenProvider poTokenProviderInstance = poTokenProvider;
+
+        if (fetchConcurrently) {
+            fetchPlayerAndNextResponsesConcurrently(downloader, localization, contentCountry,
+                    videoId, poTokenProviderInstance);
+            return;
+        }
+
         final boolean noPoTokenProviderSet = poTokenProviderInstance == null;
 
         final PoTokenResult androidPoTokenResult = noPoTokenProviderSet ? null
@@ -871,6 +901,92 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
         fetchWebClientMetadataAndSetThumbnails(localization, contentCountry, videoId);
 
+        nextResponse = fetchNextResponse(localization, contentCountry, videoId);
+    }
+
+    /**
+     * Fetch the player responses of the clients used and the {@code next} response at the same
+     * time.
+     *
+     * <p>
+     * The {@code WEB} metadata player response, the {@code next} response and the {@code IOS}
+     * player response (if enabled) are requested on the {@link Downloader#getAsyncExecutor()
+     * async executor} of the downloader, while the {@code ANDROID} player response is fetched and
+     * checked on the current thread.
+     * </p>
+     *
+     * <p>
+     * Results are then processed in the same order as when fetching them sequentially, so the
+     * error semantics are the same: an {@code ANDROID} client or a {@code next} request failure
+     * is fatal while failures of the other clients are ignored.
+     * </p>
+     */
+    private void fetchPlayerAndNextResponsesConcurrently(
+            @Nonnull final Downloader downloader,
+            @Nonnull final Localization localization,
+            @Nonnull final ContentCountry contentCountry,
+            @Nonnull final String videoId,
+            @Nullable final PoTokenProvider poTokenProviderInstance)
+            throws IOException, ExtractionException {
+        final Executor executor = downloader.getAsyncExecutor();
+
+        final CompletableFuture<JsonObject> webPlayerResponseFuture = FutureUtils.callAsync(
+                () -> YoutubeStreamHelper.getWebMetadataPlayerResponse(
+                        localization, contentCountry, videoId), executor);
+        final CompletableFuture<JsonObject> nextResponseFuture = FutureUtils.callAsync(
+                () -> fetchNextResponse(localization, contentCountry, videoId), executor);
+
+        CompletableFuture<JsonObject> iosPlayerResponseFuture = null;
+        PoTokenResult iosPoTokenResult = null;
+        try {
+            if (fetchIosClient) {
+                iosPoTokenResult = poTokenProviderInstance == null ? null
+                        : poTokenProviderInstance.getIosClientPoToken(videoId);
+                iosCpn = generateContentPlaybackNonce();
+                final PoTokenResult finalIosPoTokenResult = iosPoTokenResult;
+                iosPlayerResponseFuture = FutureUtils.callAsync(
+                        () -> YoutubeStreamHelper.getIosPlayerResponse(contentCountry,
+                                localization, videoId, iosCpn, finalIosPoTokenResult), executor);
+            }
+
+            final PoTokenResult androidPoTokenResult = poTokenProviderInstance == null ? null
+                    : poTokenProviderInstance.getAndroidClientPoToken(videoId);
+            fetchAndroidClient(localization, contentCountry, videoId, androidPoTokenResult);
+        } catch (final IOException | ExtractionException | RuntimeException e) {
+            FutureUtils.cancelAll(webPlayerResponseFuture, nextResponseFuture,
+                    iosPlayerResponseFuture);
+            throw e;
+        }
+
+        setStreamType();
+
+        if (iosPlayerResponseFuture != null) {
+            try {
+                setIosStreamingData(FutureUtils.await(iosPlayerResponseFuture), videoId,
+                        iosPoTokenResult);
+            } catch (final Exception ignored) {
+                // Ignore exceptions related to IOS client fetch or parsing, as it is not
+                // compulsory to play contents
+            }
+        }
+
+        try {
+            setWebClientMetadataAndThumbnails(FutureUtils.await(webPlayerResponseFuture),
+                    videoId);
+        } catch (final Exception e) {
+            // Ignore exceptions related to WEB client fetch or parsing, as it is not
+            // compulsory to play contents
+            setMetadataAndThumbnailsFromPlayerResponse();
+        }
+
+        nextResponse = FutureUtils.await(nextResponseFuture);
+    }
+
+    @Nonnull
+    private static JsonObject fetchNextResponse(@Nonnull final Localization localization,
+                                                @Nonnull final ContentCountry contentCountry,
+                                                @Nonnull final String videoId)
+            throws IOException, ExtractionException {
         final byte[] nextBody = JsonWriter.string(
                 prepareDesktopJsonBuilder(localization, contentCountry)
                         .value(VIDEO_ID, videoId)
@@ -878,7 +994,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                         .value(RACY_CHECK_OK, true)
                         .done())
                 .getBytes(StandardCharsets.UTF_8);
-        nextResponse = getJsonPostResponse(NEXT, nextBody, localization);
+        return getJsonPostResponse(NEXT, nextBody, localization, NEXT_RESPONSE_PATHS);
     }
 
     private static void checkPlayabilityStatus(@Nonnull final JsonObject playabilityStatus)
@@ -976,22 +1092,27 @@ public class YoutubeStreamExtractor extends StreamExtractor {
 
             final JsonObject iosPlayerResponse = YoutubeStreamHelper.getIosPlayerResponse(
                     contentCountry, localization, videoId, iosCpn, iosPoTokenResult);
+            setIosStreamingData(iosPlayerResponse, videoId, iosPoTokenResult);
+        } catch (final Exception ignored) {
+            // Ignore exceptions related to IOS client fetch or parsing, as it is not
+            // compulsory to play contents
+        }
+    }
 
-            if (!isPlayerResponseNotValid(iosPlayerResponse, videoId)) {
-                iosStreamingData = iosPlayerResponse.getObject(STREAMING_DATA);
+    private void setIosStreamingData(@Nonnull final JsonObject iosPlayerResponse,
+                                     @Nonnull final String videoId,
+                                     @Nullable final PoTokenResult iosPoTokenResult) {
+        if (!isPlayerResponseNotValid(iosPlayerResponse, videoId)) {
+            iosStreamingData = iosPlayerResponse.getObject(STREAMING_DATA);
 
-                if (isNullOrEmpty(playerCaptionsTracklistRenderer)) {
-                    playerCaptionsTracklistRenderer = iosPlayerResponse.getObject(CAPTIONS)
-                            .getObject(PLAYER_CAPTIONS_TRACKLIST_RENDERER);
-                }
+            if (isNullOrEmpty(playerCaptionsTracklistRenderer)) {
+                playerCaptionsTracklistRenderer = iosPlayerResponse.getObject(CAPTIONS)
+                        .getObject(PLAYER_CAPTIONS_TRACKLIST_RENDERER);
+            }
 
-                if (iosPoTokenResult != null) {
-                    iosStreamingUrlsPoToken = iosPoTokenResult.streamingDataPoToken;
-                }
+            if (iosPoTokenResult != null) {
+                iosStreamingUrlsPoToken = iosPoTokenResult.streamingDataPoToken;
             }
-        } catch (final Exception ignored) {
-            // Ignore exceptions related to IOS client fetch or parsing, as it is not
-            // compulsory to play contents
         }
     }
 
@@ -1002,40 +1123,47 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         try {
             final JsonObject webPlayerResponse = YoutubeStreamHelper.getWebMetadataPlayerResponse(
                     localization, contentCountry, videoId);
-
-            // Important note: we don't checkPlayabilityStatus() here, because we use this request
-            // exclusively for metadata, not for extracting streams. It turns out that when
-            // YouTube returns a playability status error, the metadata may still be there.
-
-            if (!isPlayerResponseNotValid(webPlayerResponse, videoId)) {
-                // The microformat JSON object of the content is only returned on the WEB client,
-                // so we need to store it instead of getting it directly from the playerResponse
-                playerMicroFormatRenderer = webPlayerResponse.getObject("microformat")
-                        .getObject("playerMicroformatRenderer");
-
-                // Try to use web player response thumbnails first, as they should contain higher
-                // quality ones than mobile clients
-                final JsonObject thumbnailWebJsonObj = webPlayerResponse.getObject(VIDEO_DETAILS)
-                        .getObject(THUMBNAIL);
-                if (thumbnailWebJsonObj.containsKey(THUMBNAILS)) {
-                    thumbnailsArray = thumbnailWebJsonObj.getArray(THUMBNAILS);
-                } else {
-                    thumbnailsArray = playerResponse.getObject(VIDEO_DETAILS)
-                            .getObject(THUMBNAIL)
-                            .getArray(THUMBNAILS);
-                }
-            }
+            setWebClientMetadataAndThumbnails(webPlayerResponse, videoId);
         } catch (final Exception e) {
             // Ignore exceptions related to WEB client fetch or parsing, as it is not
             // compulsory to play contents
-            // Set thumbnails from playerResponse
-            playerMicroFormatRenderer = new JsonObject();
-            thumbnailsArray = playerResponse.getObject(VIDEO_DETAILS)
-                    .getObject(THUMBNAIL)
-                    .getArray(THUMBNAILS);
+            setMetadataAndThumbnailsFromPlayerResponse();
+        }
+    }
+
+    private void setWebClientMetadataAndThumbnails(@Nonnull final JsonObject webPlayerResponse,
+                                                   @Nonnull final String videoId) {
+        // Important note: we don't checkPlayabilityStatus() here, because we use this request
+        // exclusively for metadata, not for extracting streams. It turns out that when
+        // YouTube returns a playability status error, the metadata may still be there.
+
+        if (!isPlayerResponseNotValid(webPlayerResponse, videoId)) {
+            // The microformat JSON object of the content is only returned on the WEB client,
+            // so we need to store it instead of getting it directly from the playerResponse
+            playerMicroFormatRenderer = webPlayerResponse.getObject("microformat")
+                    .getObject("playerMicroformatRenderer");
+
+            // Try to use web player response thumbnails first, as they should contain higher
+            // quality ones than mobile clients
+            final JsonObject thumbnailWebJsonObj = webPlayerResponse.getObject(VIDEO_DETAILS)
+                    .getObject(THUMBNAIL);
+            if (thumbnailWebJsonObj.containsKey(THUMBNAILS)) {
+                thumbnailsArray = thumbnailWebJsonObj.getArray(THUMBNAILS);
+            } else {
+                thumbnailsArray = playerResponse.getObject(VIDEO_DETAILS)
+                        .getObject(THUMBNAIL)
+                        .getArray(THUMBNAILS);
+            }
         }
     }
 
+    private void setMetadataAndThumbnailsFromPlayerResponse() {
+        playerMicroFormatRenderer = new JsonObject();
+        thumbnailsArray = playerResponse.getObject(VIDEO_DETAILS)
+                .getObject(THUMBNAIL)
+                .getArray(THUMBNAILS);
+    }
+
     /**
      * Checks whether a player response is invalid.
      *
@@ -1122,6 +1250,11 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         try {
             final String videoId = getId();
             final List<T> streamList = new ArrayList<>();
+            final List<ItagInfo> streamItagInfos = new ArrayList<>();
+
+            if (!resolveStreamUrlsLazily) {
+                deobfuscateThrottlingParametersIfNeeded(videoId);
+            }
 
             java.util.stream.Stream.of(
                     new Pair<>(androidStreamingData,
@@ -1135,10 +1268,23 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                             itagTypeWanted,
                             pair.getSecond().getFirst(),
                             pair.getSecond().getSecond()))
-                    .map(streamBuilderHelper)
-                    .forEachOrdered(stream -> {
-                        if (!Stream.containSimilarStream(stream, streamList)) {
+                    .forEachOrdered(itagInfo -> {
+                        final T stream = streamBuilderHelper.apply(itagInfo);
+                        final int similarStreamIndex = indexOfSimilarStream(stream, streamList);
+                        if (similarStreamIndex == -1) {
                             streamList.add(stream);
+                            streamItagInfos.add(itagInfo);
+                        } else {
+                            final ItagInfo similarItagInfo =
+                                    streamItagInfos.get(similarStreamIndex);
+                            if (similarItagInfo.getContentResolver() != null) {
+                                // The URL of the similar stream has not been deobfuscated yet,
+                                // so it may not be usable: keep this stream's URL as a fallback
+                                similarItagInfo.setContentResolver(withFallbackContent(
+                                        similarItagInfo.getContentResolver(), itagInfo));
+                                streamList.set(similarStreamIndex,
+                                        streamBuilderHelper.apply(similarItagInfo));
+                            }
                         }
                     });
 
@@ -1149,6 +1295,56 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         }
     }
 
+    /**
+     * Deobfuscate at once the throttling parameters of all streaming URLs, if this has not been
+     * already done.
+     *
+     * <p>
+     * Results are cached by {@link YoutubeJavaScriptPlayerManager}, so that they are directly
+     * available when building each stream. Failures are ignored, as they are reported for each
+     * stream when building it.
+     * </p>
+     *
+     * @param videoId the ID of the video
+     */
+    private void deobfuscateThrottlingParametersIfNeeded(@Nonnull final String videoId) {
+        if (throttlingParametersDeobfuscated) {
+            return;
+        }
+        throttlingParametersDeobfuscated = true;
+
+        final List<String> streamingUrls = new ArrayList<>();
+        java.util.stream.Stream.of(androidStreamingData, iosStreamingData)
+                .filter(Objects::nonNull)
+                .flatMap(streamingData -> java.util.stream.Stream.of(
+                        streamingData.getArray(FORMATS), streamingData.getArray(ADAPTIVE_FORMATS)))
+                .flatMap(JsonArray::stream)
+                .filter(JsonObject.class::isInstance)
+                .map(JsonObject.class::cast)
+                .forEachOrdered(formatData -> {
+                    if (formatData.has("url")) {
+                        streamingUrls.add(formatData.getString("url"));
+                        return;
+                    }
+                    final String cipherString = formatData.getString(CIPHER,
+                            formatData.getString(SIGNATURE_CIPHER));
+                    if (!isNullOrEmpty(cipherString)) {
+                        // The throttling parameter doesn't depend on the signature
+                        final String url = Parser.compatParseMap(cipherString).get("url");
+                        if (url != null) {
+                            streamingUrls.add(url);
+                        }
+                    }
+                });
+
+        try {
+            YoutubeJavaScriptPlayerManager.deobfuscateThrottlingParameters(videoId, streamingUrls);
+        } catch (final Exception ignored) {
+            // Streams whose throttling parameter cannot be deobfuscated are ignored when building
+            // them
+        }
+    }
+
     /**
      * Get the stream builder helper which will be used to build {@link AudioStream}s in
      * {@link #getItags(String, ItagItem.ItagType, java.util.function.Function, String)}
@@ -1182,6 +1378,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             final AudioStream.Builder builder = new AudioStream.Builder()
                     .setId(String.valueOf(itagItem.id))
                     .setContent(itagInfo.getContent(), itagInfo.getIsUrl())
+                    .setContentResolver(itagInfo.getContentResolver())
                     .setMediaFormat(itagItem.getMediaFormat())
                     .setAverageBitrate(itagItem.getAverageBitrate())
                     .setAudioTrackId(itagItem.getAudioTrackId())
@@ -1244,6 +1441,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             final VideoStream.Builder builder = new VideoStream.Builder()
                     .setId(String.valueOf(itagItem.id))
                     .setContent(itagInfo.getContent(), itagInfo.getIsUrl())
+                    .setContentResolver(itagInfo.getContentResolver())
                     .setMediaFormat(itagItem.getMediaFormat())
                     .setIsVideoOnly(areStreamsVideoOnly)
                     .setItagItem(itagItem);
@@ -1300,9 +1498,11 @@ public class YoutubeStreamExtractor extends StreamExtractor {
             @Nonnull final ItagItem.ItagType itagType,
             @Nonnull final String contentPlaybackNonce,
             @Nullable final String poToken) throws ExtractionException {
-        String streamUrl;
+        final String url;
+        final Map<String, String> cipher;
         if (formatData.has("url")) {
-            streamUrl = formatData.getString("url");
+            url = formatData.getString("url");
+            cipher = null;
         } else {
             // This url has an obfuscated signature
             final String cipherString = formatData.getString(CIPHER,
@@ -1312,27 +1512,25 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 return null;
             }
 
-            final var cipher = Parser.compatParseMap(cipherString);
-            final String signature = YoutubeJavaScriptPlayerManager.deobfuscateSignature(videoId,
-                    cipher.getOrDefault("s", ""));
-            streamUrl = cipher.get("url") + "&" + cipher.get("sp") + "=" + signature;
+            cipher = Parser.compatParseMap(cipherString);
+            url = cipher.get("url");
         }
 
-        // Decode the n parameter if it is present
-        // If it cannot be decoded, the stream cannot be used as streaming URLs return HTTP 403
-        // responses if it has not the right value
-        // Exceptions thrown by
-        // YoutubeJavaScriptPlayerManager.getUrlWithThrottlingParameterDeobfuscated are so
-        // propagated to the parent which ignores streams in this case
-        streamUrl = YoutubeJavaScriptPlayerManager.getUrlWithThrottlingParameterDeobfuscated(
-                videoId, streamUrl);
-
-        // Add the content playback nonce to the stream URL
-        streamUrl += "&" + CPN + "=" + contentPlaybackNonce;
-
-        // Add the poToken, if there is one
-        if (poToken != null) {
-            streamUrl += "&pot=" + poToken;
+        final String streamUrl;
+        final ContentResolver contentResolver;
+        if (resolveStreamUrlsLazily) {
+            // Only add the parameters which don't need to be deobfuscated, the URL is completed
+            // when the stream's content is first accessed
+            streamUrl = addStreamUrlParameters(url, contentPlaybackNonce, poToken);
+            final YoutubeJavaScriptPlayer player = getJavaScriptPlayer(videoId);
+            contentResolver = unresolvedUrl -> buildStreamUrl(videoId, player, url, cipher,
+                    contentPlaybackNonce, poToken);
+        } else {
+            // Exceptions thrown when deobfuscating the URL are propagated to the parent which
+            // ignores streams in this case
+            streamUrl = buildStreamUrl(videoId, null, url, cipher, contentPlaybackNonce,
+                    poToken);
+            contentResolver = null;
         }
 
         final JsonObject initRange = formatData.getObject("initRange");
@@ -1396,6 +1594,7 @@ public class YoutubeStreamExtractor extends StreamExtractor {
                 String.valueOf(APPROX_DURATION_MS_UNKNOWN))));
 
         final ItagInfo itagInfo = new ItagInfo(streamUrl, itagItem);
+        itagInfo.setContentResolver(contentResolver);
 
         if (streamType == StreamType.VIDEO_STREAM) {
             itagInfo.setIsUrl(!formatData.getString("type", "")
@@ -1412,6 +1611,141 @@ public class YoutubeStreamExtractor extends StreamExtractor {
         return itagInfo;
     }
 
+    /**
+     * Get the base JavaScript player with which the URLs of streams resolved lazily are
+     * deobfuscated, fetching it on first call.
+     *
+     * <p>
+     * The same player is used for all the streams of this extractor, so that their URLs are
+     * deobfuscated with the player which was current when they were extracted, even if it
+     * changed before they are resolved.
+     * </p>
+     *
+     * @param videoId the ID of the video
+     * @return the player, or {@code null} if it could not be fetched, in which case the player
+     * which is current when streams are resolved is used
+     */
+    @Nullable
+    private YoutubeJavaScriptPlayer getJavaScriptPlayer(@Nonnull final String videoId) {
+        if (!javaScriptPlayerFetched) {
+            javaScriptPlayerFetched = true;
+            try {
+                javaScriptPlayer = YoutubeJavaScriptPlayerManager.getPlayer(videoId);
+            } catch (final ParsingException ignored) {
+                // The player will be fetched again if it is needed to resolve a stream
+            }
+        }
+        return javaScriptPlayer;
+    }
+
+    private static int indexOfSimilarStream(@Nonnull final Stream stream,
+                                            @Nonnull final List<? extends Stream> streamList) {
+        for (int i = 0; i < streamList.size(); i++) {
+            if (stream.equalStats(streamList.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Chain the resolution of the content of a similar stream to a content resolver, so that a
+     * stream whose URL cannot be deobfuscated falls back to the URL of a similar stream returned
+     * for another client.
+     *
+     * @param contentResolver the resolver of the content of the stream, or {@code null} if its
+     *                        content is already resolved
+     * @param fallback        the similar stream
+     * @return a resolver returning the content resolved by {@code contentResolver}, or the
+     * content of the similar stream if it could not be resolved; {@code null} if
+     * {@code contentResolver} is {@code null}, as the content of the stream is then kept
+     */
+    @Nullable
+    private static ContentResolver withFallbackContent(
+            @Nullable final ContentResolver contentResolver,
+            @Nonnull final ItagInfo fallback) {
+        if (contentResolver == null) {
+            return null;
+        }
+        final ContentResolver fallbackResolver = fallback.getContentResolver();
+        return unresolvedContent -> {
+            try {
+                return contentResolver.resolve(unresolvedContent);
+            } catch (final ExtractionException e) {
+                if (fallbackResolver == null) {
+                    return fallback.getContent();
+                }
+                try {
+                    return fallbackResolver.resolve(fallback.getContent());
+                } catch (final ExtractionException fallbackException) {
+                    e.addSuppressed(fallbackException);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Build the URL of a stream, deobfuscating its signature and its throttling parameter.
+     *
+     * @param videoId              the ID of the video
+     * @param player               the player with which the URL is deobfuscated, or
+     *                             {@code null} to use the current one
+     * @param url                  the URL of the stream, without its signature if it has a
+     *                             cipher
+     * @param cipher               the parameters of the stream's cipher, or {@code null} if the
+     *                             URL is not signed
+     * @param contentPlaybackNonce the content playback nonce to add to the URL
+     * @param poToken              the {@code poToken} to add to the URL, if any
+     * @return the URL of the stream
+     * @throws ParsingException if the signature or the throttling parameter could not be
+     * deobfuscated
+     */
+    @Nonnull
+    private static String buildStreamUrl(@Nonnull final String videoId,
+                                         @Nullable final YoutubeJavaScriptPlayer player,
+                                         @Nonnull final String url,
+                                         @Nullable final Map<String, String> cipher,
+                                         @Nonnull final String contentPlaybackNonce,
+                                         @Nullable final String poToken)
+            throws ParsingException {
+        String streamUrl = url;
+        if (cipher != null) {
+            final String obfuscatedSignature = cipher.getOrDefault("s", "");
+            final String signature = player == null
+                    ? YoutubeJavaScriptPlayerManager.deobfuscateSignature(videoId,
+                            obfuscatedSignature)
+                    : YoutubeJavaScriptPlayerManager.deobfuscateSignature(player,
+                            obfuscatedSignature);
+            streamUrl += "&" + cipher.get("sp") + "=" + signature;
+        }
+
+        // Decode the n parameter if it is present
+        // If it cannot be decoded, the stream cannot be used as streaming URLs return HTTP 403
+        // responses if it has not the right value
+        streamUrl = player == null
+                ? YoutubeJavaScriptPlayerManager.getUrlWithThrottlingParameterDeobfuscated(
+                        videoId, streamUrl)
+                : YoutubeJavaScriptPlayerManager.getUrlWithThrottlingParameterDeobfuscated(
+                        player, streamUrl);
+
+        return addStreamUrlParameters(streamUrl, contentPlaybackNonce, poToken);
+    }
+
+    @Nonnull
+    private static String addStreamUrlParameters(@Nonnull final String streamUrl,
+                                                 @Nonnull final String contentPlaybackNonce,
+                                                 @Nullable final String poToken) {
+        // Add the content playback nonce to the stream URL
+        String url = streamUrl + "&" + CPN + "=" + contentPlaybackNonce;
+
+        // Add the poToken, if there is one
+        if (poToken != null) {
+            url += "&pot=" + poToken;
+        }
+        return url;
+    }
+
 
     /**
      * {@inheritDoc}
@@ -1669,4 +2003,67 @@ public class YoutubeStreamExtractor extends StreamExtractor {
     public static void setFetchIosClient(final boolean fetchIosClient) {
         YoutubeStreamExtractor.fetchIosClient = fetchIosClient;
     }
+
+    /**
+     * Set whether to fetch the player and {@code next} responses concurrently.
+     *
+     * <p>
+     * When enabled, the requests of the {@code WEB} metadata client, the {@code IOS} client (if
+     * {@link #setFetchIosClient(boolean) enabled}) and the {@code next} endpoint are executed on
+     * the {@link Downloader#getAsyncExecutor() async executor} of the downloader while the
+     * {@code ANDROID} client is fetched, instead of one after another. This reduces the time
+     * spent in {@link #fetchPage()} to roughly the one of the slowest request, at the cost of
+     * doing the non-{@code ANDROID} requests even if the {@code ANDROID} one fails.
+     * </p>
+     *
+     * <p>
+     * Errors are handled in the same way in both modes: an {@code ANDROID} client failure is
+     * fatal while failures of the {@code IOS} and {@code WEB} clients are ignored.
+     * </p>
+     *
+     * @param fetchConcurrently whether to fetch the player and {@code next} responses
+     *                          concurrently
+     */
+    @SuppressWarnings("unused")
+    public static void setFetchConcurrently(final boolean fetchConcurrently) {
+        YoutubeStreamExtractor.fetchConcurrently = fetchConcurrently;
+    }
+
+    /**
+     * Set whether the URLs of audio and video streams are deobfuscated only when they are
+     * accessed.
+     *
+     * <p>
+     * When enabled, the signature and the throttling parameter of a stream's URL are deobfuscated
+     * on the first call of {@link Stream#getContent()} on it, instead of when building the
+     * streams. This avoids deobfuscating the URLs of streams which are not played, which are
+     * usually most of them. {@link Stream#resolveContents(List)} can be used to resolve all the
+     * URLs of a list at once.
+     * </p>
+     *
+     * <p>
+     * In this mode, streams whose URL cannot be deobfuscated are not removed from stream lists:
+     * {@link Stream#getContent()} throws an {@link IllegalStateException} on them instead, which
+     * can be prevented by calling {@link Stream#resolveContent()} before. When several clients
+     * return a similar stream, only the first one is listed, and the URLs of the other ones are
+     * used in turn if its URL cannot be deobfuscated. Streams may then not be listed in the same
+     * order as when this mode is disabled: in this case, a stream whose URL cannot be
+     * deobfuscated is removed, and a similar stream of another client is listed after the
+     * streams of the first client instead.
+     * </p>
+     *
+     * <p>
+     * The base JavaScript player is got when building the streams, and URLs are deobfuscated
+     * with it even if the current player changes before they are accessed. As deobfuscation
+     * functions are extracted from it on first use, which may require downloading its code if
+     * it has been loaded from the player store, {@link Stream#getContent()} may block, and
+     * should not be called on threads which must not do network requests.
+     * </p>
+     *
+     * @param resolveStreamUrlsLazily whether to deobfuscate stream URLs when they are accessed
+     */
+    @SuppressWarnings("unused")
+    public static void setResolveStreamUrlsLazily(final boolean resolveStreamUrlsLazily) {
+        YoutubeStreamExtractor.resolveStreamUrlsLazily = resolveStreamUrlsLazily;
+    }
 }
@@ -14,7 +14,7 @@ import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeChannelL
 import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeStreamLinkHandlerFactory;
 import org.schabi.newpipe.extractor.stream.StreamInfoItemExtractor;
 import org.schabi.newpipe.extractor.stream.StreamType;
-import org.schabi.newpipe.extractor.utils.JsonUtils;
+import org.schabi.newpipe.extractor.utils.JsonPath;
 import org.schabi.newpipe.extractor.utils.Utils;
 
 import java.time.LocalDateTime;
@@ -46,6 +46,20 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
     private static final DateTimeFormatter PREMIERES_DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy, HH:mm");
 
+    // Paths followed for every item
+    private static final JsonPath THUMBNAIL_OVERLAYS =
+            JsonPath.compile("contentImage.thumbnailViewModel.overlays");
+    private static final JsonPath THUMBNAIL_SOURCES =
+            JsonPath.compile("contentImage.thumbnailViewModel.image.sources");
+    private static final JsonPath WATCH_ENDPOINT_VIDEO_ID = JsonPath.compile(
+            "rendererContext.commandContext.onTap.innertubeCommand.watchEndpoint.videoId");
+    private static final JsonPath TITLE =
+            JsonPath.compile("metadata.lockupMetadataViewModel.title.content");
+    private static final JsonPath METADATA_ROWS = JsonPath.compile(
+            "metadata.lockupMetadataViewModel.metadata.contentMetadataViewModel.metadataRows");
+    private static final JsonPath AVATAR_SOURCES =
+            JsonPath.compile("avatarViewModel.image.sources");
+
     private final JsonObject lockupViewModel;
     private final TimeAgoParser timeAgoParser;
 
@@ -77,7 +91,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
     }
 
     private StreamType determineStreamType() throws ParsingException {
-        if (JsonUtils.getArray(lockupViewModel, "contentImage.thumbnailViewModel.overlays")
+        if (THUMBNAIL_OVERLAYS.getArray(lockupViewModel)
             .streamAsJsonObjects()
             .flatMap(overlay -> overlay
                 .getObject("thumbnailOverlayBadgeViewModel")
@@ -118,8 +132,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
         try {
             String videoId = lockupViewModel.getString("contentId");
             if (isNullOrEmpty(videoId)) {
-                videoId = JsonUtils.getString(lockupViewModel,
-                    "rendererContext.commandContext.onTap.innertubeCommand.watchEndpoint.videoId");
+                videoId = WATCH_ENDPOINT_VIDEO_ID.getString(lockupViewModel);
             }
             return YoutubeStreamLinkHandlerFactory.getInstance().getUrl(videoId);
         } catch (final Exception e) {
@@ -133,8 +146,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
             return cachedName;
         }
 
-        final String name = JsonUtils.getString(lockupViewModel,
-            "metadata.lockupMetadataViewModel.title.content");
+        final String name = TITLE.getString(lockupViewModel);
         if (!isNullOrEmpty(name)) {
             this.cachedName = name;
             return name;
@@ -151,8 +163,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
             return -1;
         }
 
-        final List<String> potentialDurations = JsonUtils.getArray(lockupViewModel,
-                "contentImage.thumbnailViewModel.overlays")
+        final List<String> potentialDurations = THUMBNAIL_OVERLAYS.getArray(lockupViewModel)
             .streamAsJsonObjects()
             .flatMap(jsonObject -> jsonObject
                 .getObject("thumbnailOverlayBadgeViewModel")
@@ -229,9 +240,8 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
     @Override
     public List<Image> getUploaderAvatars() throws ParsingException {
         return YoutubeParsingHelper.getImagesFromThumbnailsArray(
-            JsonUtils.getArray(
-                channelImageViewModel().forAvatarExtraction(),
-                "avatarViewModel.image.sources"));
+            AVATAR_SOURCES.getArray(
+                channelImageViewModel().forAvatarExtraction()));
     }
 
     @Override
@@ -337,8 +347,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
     @Override
     public List<Image> getThumbnails() throws ParsingException {
         return YoutubeParsingHelper.getImagesFromThumbnailsArray(
-            JsonUtils.getArray(lockupViewModel,
-                "contentImage.thumbnailViewModel.image.sources"));
+            THUMBNAIL_SOURCES.getArray(lockupViewModel));
     }
 
     private ChannelImageViewModel channelImageViewModel() throws ParsingException {
@@ -372,9 +381,7 @@ public class YoutubeStreamInfoItemLockupExtractor implements StreamInfoItemExtra
     private Optional<JsonObject> metadataPart(final int rowIndex, final int partIndex)
         throws ParsingException {
         if (cachedMetadataRows == null) {
-            cachedMetadataRows = JsonUtils.getArray(lockupViewModel,
-                "metadata.lockupMetadataViewModel.metadata"
-                    + ".contentMetadataViewModel.metadataRows");
+            cachedMetadataRows = METADATA_ROWS.getArray(lockupViewModel);
         }
         return cachedMetadataRows
             .streamAsJsonObjects()
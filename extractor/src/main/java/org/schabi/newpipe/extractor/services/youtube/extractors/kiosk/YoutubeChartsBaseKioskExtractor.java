@@ -37,7 +37,7 @@ import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getClientHeaders;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getOriginReferrerHeaders;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getThumbnailsFromInfoItem;
-import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponseBody;
+import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.getValidJsonResponse;
 import static org.schabi.newpipe.extractor.services.youtube.YoutubeParsingHelper.prepareJsonBuilder;
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
 
@@ -103,7 +103,7 @@ abstract class YoutubeChartsBaseKioskExtractor extends KioskExtractor<StreamInfo
         headers.putAll(getClientHeaders(innertubeClientRequestInfo.clientInfo.clientId,
                 innertubeClientRequestInfo.clientInfo.clientVersion));
 
-        browseResponse = JsonUtils.toJsonObject(getValidJsonResponseBody(
+        browseResponse = JsonUtils.toJsonObject(getValidJsonResponse(
                 getDownloader().postWithContentTypeJson(
                         YT_CHARTS_ENDPOINT, headers, body, localization)));
     }
@@ -2,6 +2,15 @@ package org.schabi.newpipe.extractor.sponsorblock;
 
 public class SponsorBlockApiSettings {
     public String apiUrl;
+    /**
+     * The maximum time in milliseconds to wait for the SponsorBlock data once the extraction of a
+     * stream is done, or {@code 0} to wait until the request completes.
+     *
+     * <p>
+     * If the data isn't available in time, the stream is returned without it.
+     * </p>
+     */
+    public long timeoutMillis;
     public boolean includeSponsorCategory;
     public boolean includeIntroCategory;
     public boolean includeOutroCategory;
@@ -30,14 +30,29 @@ public final class SponsorBlockExtractorHelper {
     public static SponsorBlockSegment[] getSegments(final StreamInfo streamInfo,
                                                     final SponsorBlockApiSettings apiSettings)
             throws UnsupportedEncodingException {
-        if (!streamInfo.getUrl().startsWith("https://www.youtube.com")
+        return getSegments(streamInfo.getUrl(), streamInfo.getId(), apiSettings);
+    }
+
+    /**
+     * Get the SponsorBlock segments of a stream from its URL and its ID only, which allows
+     * fetching them before the stream itself has been extracted.
+     *
+     * @param streamUrl   the URL of the stream
+     * @param videoId     the ID of the stream
+     * @param apiSettings the SponsorBlock API settings to use
+     * @return the segments of the stream, which is an empty array if there is none or if they
+     * couldn't be fetched
+     */
+    public static SponsorBlockSegment[] getSegments(final String streamUrl,
+                                                    final String videoId,
+                                                    final SponsorBlockApiSettings apiSettings)
+            throws UnsupportedEncodingException {
+        if (!streamUrl.startsWith("https://www.youtube.com")
                 || apiSettings.apiUrl == null
                 || apiSettings.apiUrl.isEmpty()) {
             return new SponsorBlockSegment[0];
         }
 
-        final String videoId = streamInfo.getId();
-
         final ArrayList<String> categoryParamList = new ArrayList<>();
 
         if (apiSettings.includeSponsorCategory) {
@@ -80,6 +80,8 @@ public final class AudioStream extends Stream {
         private AudioTrackType audioTrackType;
         @Nullable
         private ItagItem itagItem;
+        @Nullable
+        private ContentResolver contentResolver;
 
         /**
          * Create a new {@link Builder} instance with its default values.
@@ -275,6 +277,23 @@ public final class AudioStream extends Stream {
             return this;
         }
 
+        /**
+         * Set the resolver of the content of the {@link AudioStream}, which is run when its
+         * content is first accessed.
+         *
+         * <p>
+         * The default value is {@code null}, which means that the content set with
+         * {@link #setContent(String, boolean)} is already resolved.
+         * </p>
+         *
+         * @param contentResolver the {@link ContentResolver} of the content, which can be null
+         * @return this {@link Builder} instance
+         */
+        public Builder setContentResolver(@Nullable final ContentResolver contentResolver) {
+            this.contentResolver = contentResolver;
+            return this;
+        }
+
         /**
          * Build an {@link AudioStream} using the builder's current values.
          *
@@ -291,7 +310,9 @@ public final class AudioStream extends Stream {
         public AudioStream build() {
             validateBuild();
 
-            return new AudioStream(this);
+            final AudioStream audioStream = new AudioStream(this);
+            audioStream.setContentResolver(contentResolver);
+            return audioStream;
         }
 
         void validateBuild() {
@@ -0,0 +1,27 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Resolves the content of a {@link Stream} when it is first accessed, for instance by
+ * deobfuscating its URL.
+ *
+ * <p>
+ * It lets extractors defer expensive work to the streams which are actually used.
+ * </p>
+ */
+@FunctionalInterface
+public interface ContentResolver {
+
+    /**
+     * Resolve the content of a stream.
+     *
+     * @param unresolvedContent the content the stream has been built with
+     * @return the resolved content
+     * @throws ExtractionException if the content could not be resolved
+     */
+    @Nonnull
+    String resolve(@Nonnull String unresolvedContent) throws ExtractionException;
+}
@@ -1,11 +1,15 @@
 package org.schabi.newpipe.extractor.stream;
 
 import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
 import org.schabi.newpipe.extractor.services.youtube.ItagItem;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.schabi.newpipe.extractor.utils.Utils.isNullOrEmpty;
@@ -29,10 +33,14 @@ public abstract class Stream implements Serializable {
 
     private final String id;
     @Nullable private final MediaFormat mediaFormat;
-    private final String content;
+    private String content;
     private final boolean isUrl;
     private final DeliveryMethod deliveryMethod;
     @Nullable private final String manifestUrl;
+    /**
+     * The resolver of {@link #content}, until it has been resolved.
+     */
+    @Nullable private transient ContentResolver contentResolver;
 
     /**
      * Instantiates a new {@code Stream} object.
@@ -61,6 +69,33 @@ public abstract class Stream implements Serializable {
         this.manifestUrl = manifestUrl;
     }
 
+    /**
+     * Resolve the content of all the given streams, if it has not been already resolved.
+     *
+     * <p>
+     * Streams whose content could not be resolved are not returned, so that the returned streams
+     * can be used like the ones built by extractors resolving contents directly.
+     * </p>
+     *
+     * @param streams the streams to resolve
+     * @param <T>     the type of the streams
+     * @return the streams whose content has been resolved, in the same order
+     * @see #resolveContent()
+     */
+    @Nonnull
+    public static <T extends Stream> List<T> resolveContents(@Nonnull final List<T> streams) {
+        final List<T> resolvedStreams = new ArrayList<>(streams.size());
+        for (final T stream : streams) {
+            try {
+                stream.resolveContent();
+                resolvedStreams.add(stream);
+            } catch (final ExtractionException ignored) {
+                // The stream cannot be used
+            }
+        }
+        return resolvedStreams;
+    }
+
     /**
      * Checks if the list already contains a stream with the same statistics.
      *
@@ -127,19 +162,66 @@ public abstract class Stream implements Serializable {
     @Deprecated
     @Nullable
     public String getUrl() {
-        return isUrl ? content : null;
+        return isUrl ? getContent() : null;
     }
 
     /**
      * Gets the content or URL.
      *
+     * <p>
+     * If the stream has been built with a {@link ContentResolver}, the content is resolved on the
+     * first call. This may block, for instance to download the data needed to resolve it, so
+     * this first call should not be made on threads which must not do network requests.
+     * </p>
+     *
      * @return the content or URL
+     * @throws IllegalStateException if the content could not be resolved; use
+     * {@link #resolveContent()} before to handle this case
      */
     @Nonnull
     public String getContent() {
+        try {
+            resolveContent();
+        } catch (final ExtractionException e) {
+            throw new IllegalStateException("Could not resolve the content of stream " + id, e);
+        }
         return content;
     }
 
+    /**
+     * Resolve the content of this stream, if it has been built with a {@link ContentResolver}
+     * and its content has not been already resolved.
+     *
+     * <p>
+     * Resolution failures are not cached: the next call tries to resolve the content again.
+     * </p>
+     *
+     * @throws ExtractionException if the content could not be resolved
+     */
+    public synchronized void resolveContent() throws ExtractionException {
+        if (contentResolver != null) {
+            content = contentResolver.resolve(content);
+            contentResolver = null;
+        }
+    }
+
+    /**
+     * @return whether the content of this stream has been resolved or didn't need to be
+     */
+    public synchronized boolean isContentResolved() {
+        return contentResolver == null;
+    }
+
+    /**
+     * Set the resolver of the content of this stream.
+     *
+     * @param contentResolver the resolver of the content the stream has been built with, or
+     *                        {@code null} if its content is already resolved
+     */
+    synchronized void setContentResolver(@Nullable final ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
     /**
      * Returns whether the content is a URL or not.
      *
@@ -203,4 +285,18 @@ public abstract class Stream implements Serializable {
      */
     @Nullable
     public abstract ItagItem getItagItem();
+
+    /**
+     * Resolve the content before serializing this stream, as its resolver is not serialized.
+     */
+    private void writeObject(@Nonnull final ObjectOutputStream outputStream) throws IOException {
+        try {
+            resolveContent();
+        } catch (final ExtractionException e) {
+            throw new IOException("Could not resolve the content of stream " + id, e);
+        }
+        synchronized (this) {
+            outputStream.defaultWriteObject();
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ContentNotAvailableException;
 import org.schabi.newpipe.extractor.exceptions.ContentNotSupportedException;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.linkhandler.LinkHandler;
 import org.schabi.newpipe.extractor.localization.DateWrapper;
 import org.schabi.newpipe.extractor.sponsorblock.SponsorBlockApiSettings;
 import org.schabi.newpipe.extractor.sponsorblock.SponsorBlockExtractorHelper;
@@ -37,12 +38,14 @@ import org.schabi.newpipe.extractor.returnyoutubedislike.ReturnYouTubeDislikeApi
 import org.schabi.newpipe.extractor.returnyoutubedislike.ReturnYouTubeDislikeExtractorHelper;
 import org.schabi.newpipe.extractor.returnyoutubedislike.ReturnYouTubeDislikeInfo;
 import org.schabi.newpipe.extractor.utils.ExtractorHelper;
+import org.schabi.newpipe.extractor.utils.FutureUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -94,42 +97,80 @@ public class StreamInfo extends Info {
             @Nullable final SponsorBlockApiSettings sponsorBlockApiSettings,
             @Nullable final ReturnYouTubeDislikeApiSettings returnYouTubeDislikeApiSettings)
             throws ExtractionException, IOException {
-        extractor.fetchPage();
-        final StreamInfo streamInfo;
-        try {
-            streamInfo = extractImportantData(extractor);
-            extractStreams(streamInfo, extractor);
-            extractOptionalData(streamInfo, extractor);
+        // SponsorBlock and Return YouTube Dislike data only need the URL and the ID of the
+        // stream, which are known before fetching the page, so start fetching them now to run
+        // them concurrently with the extraction
+        final LinkHandler linkHandler = extractor.getLinkHandler();
+        final CompletableFuture<SponsorBlockSegment[]> sponsorBlockSegmentsFuture =
+                sponsorBlockApiSettings == null ? null : FutureUtils.callAsync(
+                        () -> SponsorBlockExtractorHelper.getSegments(linkHandler.getUrl(),
+                                linkHandler.getId(), sponsorBlockApiSettings),
+                        NewPipe.getDownloader().getAsyncExecutor());
+        final CompletableFuture<ReturnYouTubeDislikeInfo> rydInfoFuture =
+                returnYouTubeDislikeApiSettings == null ? null : FutureUtils.callAsync(
+                        () -> ReturnYouTubeDislikeExtractorHelper.getInfo(linkHandler.getUrl(),
+                                linkHandler.getId(), returnYouTubeDislikeApiSettings),
+                        NewPipe.getDownloader().getAsyncExecutor());
+
+        try {
+            extractor.fetchPage();
+
+            final StreamInfo streamInfo;
+            try {
+                streamInfo = extractImportantData(extractor);
+                extractStreams(streamInfo, extractor);
+                extractOptionalData(streamInfo, extractor);
+            } catch (final ExtractionException e) {
+                // Currently, YouTube does not distinguish between age restricted videos and
+                // videos blocked by country. This means that during the initialisation of the
+                // extractor, the extractor will assume that a video is age restricted while in
+                // reality it is blocked by country.
+                //
+                // We will now detect whether the video is blocked by country or not.
+
+                final String errorMessage = extractor.getErrorMessage();
+                if (isNullOrEmpty(errorMessage)) {
+                    throw e;
+                } else {
+                    throw new ContentNotAvailableException(errorMessage, e);
+                }
+            }
+
+            // The URL or the ID may have been changed by the extraction, in which case the data
+            // fetched with the values of the link handler may not be the right one
+            final boolean sameUrlAndId = streamInfo.getUrl().equals(linkHandler.getUrl())
+                    && streamInfo.getId().equals(linkHandler.getId());
 
-            if (sponsorBlockApiSettings != null) {
-                final SponsorBlockSegment[] sponsorBlockSegments =
-                        SponsorBlockExtractorHelper.getSegments(streamInfo, sponsorBlockApiSettings);
-                streamInfo.setSponsorBlockSegments(sponsorBlockSegments);
+            if (sponsorBlockSegmentsFuture != null) {
+                if (sameUrlAndId) {
+                    streamInfo.setSponsorBlockSegments(FutureUtils.getOrDefault(
+                            sponsorBlockSegmentsFuture, sponsorBlockApiSettings.timeoutMillis,
+                            new SponsorBlockSegment[0]));
+                } else {
+                    sponsorBlockSegmentsFuture.cancel(false);
+                    streamInfo.setSponsorBlockSegments(
+                            SponsorBlockExtractorHelper.getSegments(streamInfo,
+                                    sponsorBlockApiSettings));
+                }
             }
 
-            if (returnYouTubeDislikeApiSettings != null) {
-                final ReturnYouTubeDislikeInfo rydInfo  =
-                        ReturnYouTubeDislikeExtractorHelper.getInfo(
-                                streamInfo, returnYouTubeDislikeApiSettings);
-                streamInfo.setReturnYouTubeDislikeInfo(rydInfo);
+            if (rydInfoFuture != null) {
+                if (sameUrlAndId) {
+                    streamInfo.setReturnYouTubeDislikeInfo(FutureUtils.getOrDefault(rydInfoFuture,
+                            returnYouTubeDislikeApiSettings.timeoutMillis, null));
+                } else {
+                    rydInfoFuture.cancel(false);
+                    streamInfo.setReturnYouTubeDislikeInfo(
+                            ReturnYouTubeDislikeExtractorHelper.getInfo(streamInfo,
+                                    returnYouTubeDislikeApiSettings));
+                }
             }
 
             return streamInfo;
-
-        } catch (final ExtractionException e) {
-            // Currently, YouTube does not distinguish between age restricted videos and videos
-            // blocked by country. This means that during the initialisation of the extractor, the
-            // extractor will assume that a video is age restricted while in reality it is blocked
-            // by country.
-            //
-            // We will now detect whether the video is blocked by country or not.
-
-            final String errorMessage = extractor.getErrorMessage();
-            if (isNullOrEmpty(errorMessage)) {
-                throw e;
-            } else {
-                throw new ContentNotAvailableException(errorMessage, e);
-            }
+        } finally {
+            // The futures which have been consumed are done, so this only cancels the ones which
+            // were not, e.g. because the extraction failed
+            FutureUtils.cancelAll(sponsorBlockSegmentsFuture, rydInfoFuture);
         }
     }
 
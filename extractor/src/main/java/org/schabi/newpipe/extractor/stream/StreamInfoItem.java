@@ -32,6 +32,25 @@ import java.util.List;
  * Info object for previews of unopened videos, e.g. search results, related videos.
  */
 public class StreamInfoItem extends InfoItem {
+
+    /**
+     * The optional fields of a stream item, in the order in which they are extracted.
+     */
+    public enum Field {
+        DURATION,
+        UPLOADER_NAME,
+        TEXTUAL_UPLOAD_DATE,
+        UPLOAD_DATE,
+        VIEW_COUNT,
+        THUMBNAILS,
+        UPLOADER_URL,
+        UPLOADER_AVATARS,
+        UPLOADER_VERIFIED,
+        SHORT_DESCRIPTION,
+        SHORT_FORM_CONTENT,
+        CONTENT_AVAILABILITY
+    }
+
     private final StreamType streamType;
 
     private String uploaderName;
@@ -63,85 +82,105 @@ public class StreamInfoItem extends InfoItem {
     }
 
     public String getUploaderName() {
+        extractField(Field.UPLOADER_NAME);
         return uploaderName;
     }
 
     public void setUploaderName(final String uploaderName) {
+        markFieldSet(Field.UPLOADER_NAME);
         this.uploaderName = uploaderName;
     }
 
     public long getViewCount() {
+        extractField(Field.VIEW_COUNT);
         return viewCount;
     }
 
     public void setViewCount(final long viewCount) {
+        markFieldSet(Field.VIEW_COUNT);
         this.viewCount = viewCount;
     }
 
     public long getDuration() {
+        extractField(Field.DURATION);
         return duration;
     }
 
     public void setDuration(final long duration) {
+        markFieldSet(Field.DURATION);
         this.duration = duration;
     }
 
     public String getUploaderUrl() {
+        extractField(Field.UPLOADER_URL);
         return uploaderUrl;
     }
 
     public void setUploaderUrl(final String uploaderUrl) {
+        markFieldSet(Field.UPLOADER_URL);
         this.uploaderUrl = uploaderUrl;
     }
 
     @Nonnull
     public List<Image> getUploaderAvatars() {
+        extractField(Field.UPLOADER_AVATARS);
         return uploaderAvatars;
     }
 
     public void setUploaderAvatars(@Nonnull final List<Image> uploaderAvatars) {
+        markFieldSet(Field.UPLOADER_AVATARS);
         this.uploaderAvatars = uploaderAvatars;
     }
 
     public String getShortDescription() {
+        extractField(Field.SHORT_DESCRIPTION);
         return shortDescription;
     }
 
     public void setShortDescription(final String shortDescription) {
+        markFieldSet(Field.SHORT_DESCRIPTION);
         this.shortDescription = shortDescription;
     }
 
     @Nullable
     public String getTextualUploadDate() {
+        extractField(Field.TEXTUAL_UPLOAD_DATE);
         return textualUploadDate;
     }
 
     public void setTextualUploadDate(final String textualUploadDate) {
+        markFieldSet(Field.TEXTUAL_UPLOAD_DATE);
         this.textualUploadDate = textualUploadDate;
     }
 
     @Nullable
     public DateWrapper getUploadDate() {
+        extractField(Field.UPLOAD_DATE);
         return uploadDate;
     }
 
     public void setUploadDate(@Nullable final DateWrapper uploadDate) {
+        markFieldSet(Field.UPLOAD_DATE);
         this.uploadDate = uploadDate;
     }
 
     public boolean isUploaderVerified() {
+        extractField(Field.UPLOADER_VERIFIED);
         return uploaderVerified;
     }
 
     public void setUploaderVerified(final boolean uploaderVerified) {
+        markFieldSet(Field.UPLOADER_VERIFIED);
         this.uploaderVerified = uploaderVerified;
     }
 
     public boolean isShortFormContent() {
+        extractField(Field.SHORT_FORM_CONTENT);
         return shortFormContent;
     }
 
     public void setShortFormContent(final boolean shortFormContent) {
+        markFieldSet(Field.SHORT_FORM_CONTENT);
         this.shortFormContent = shortFormContent;
     }
 
@@ -152,6 +191,7 @@ public class StreamInfoItem extends InfoItem {
      */
     @Nonnull
     public ContentAvailability getContentAvailability() {
+        extractField(Field.CONTENT_AVAILABILITY);
         return contentAvailability;
     }
 
@@ -159,9 +199,23 @@ public class StreamInfoItem extends InfoItem {
      * Sets the availability of the Stream.
      */
     public void setContentAvailability(@Nonnull final ContentAvailability availability) {
+        markFieldSet(Field.CONTENT_AVAILABILITY);
         this.contentAvailability = availability;
     }
 
+    @Nonnull
+    @Override
+    public List<Image> getThumbnails() {
+        extractField(Field.THUMBNAILS);
+        return super.getThumbnails();
+    }
+
+    @Override
+    public void setThumbnails(@Nonnull final List<Image> thumbnails) {
+        markFieldSet(Field.THUMBNAILS);
+        super.setThumbnails(thumbnails);
+    }
+
     @Override
     public String toString() {
         return "StreamInfoItem{"
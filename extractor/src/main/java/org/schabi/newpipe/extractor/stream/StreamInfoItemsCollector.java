@@ -26,6 +26,8 @@ import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
 import java.util.Comparator;
 
+import javax.annotation.Nonnull;
+
 public class StreamInfoItemsCollector
         extends InfoItemsCollector<StreamInfoItem, StreamInfoItemExtractor> {
 
@@ -48,72 +50,65 @@ public class StreamInfoItemsCollector
                 getServiceId(), extractor.getUrl(), extractor.getName(), extractor.getStreamType());
 
         // optional information
-        try {
-            resultItem.setDuration(extractor.getDuration());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderName(extractor.getUploaderName());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setTextualUploadDate(extractor.getTextualUploadDate());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploadDate(extractor.getUploadDate());
-        } catch (final ParsingException e) {
-            addError(e);
-        }
-        try {
-            resultItem.setViewCount(extractor.getViewCount());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setThumbnails(extractor.getThumbnails());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderUrl(extractor.getUploaderUrl());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderAvatars(extractor.getUploaderAvatars());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setUploaderVerified(extractor.isUploaderVerified());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setShortDescription(extractor.getShortDescription());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setShortFormContent(extractor.isShortFormContent());
-        } catch (final Exception e) {
-            addError(e);
-        }
-        try {
-            resultItem.setContentAvailability(extractor.getContentAvailability());
-        } catch (final Exception e) {
-            addError(e);
-        }
+        extractOptionalFields(resultItem, StreamInfoItem.Field.class,
+                field -> extractField(resultItem, extractor, field));
 
         return resultItem;
     }
 
+    private static void extractField(@Nonnull final StreamInfoItem item,
+                                     @Nonnull final StreamInfoItemExtractor extractor,
+                                     @Nonnull final StreamInfoItem.Field field)
+            throws ParsingException {
+        switch (field) {
+            case DURATION:
+                item.setDuration(extractor.getDuration());
+                break;
+            case UPLOADER_NAME:
+                item.setUploaderName(extractor.getUploaderName());
+                break;
+            case TEXTUAL_UPLOAD_DATE:
+                item.setTextualUploadDate(extractor.getTextualUploadDate());
+                break;
+            case UPLOAD_DATE:
+                item.setUploadDate(extractor.getUploadDate());
+                break;
+            case VIEW_COUNT:
+                item.setViewCount(extractor.getViewCount());
+                break;
+            case THUMBNAILS:
+                item.setThumbnails(extractor.getThumbnails());
+                break;
+            case UPLOADER_URL:
+                item.setUploaderUrl(extractor.getUploaderUrl());
+                break;
+            case UPLOADER_AVATARS:
+                item.setUploaderAvatars(extractor.getUploaderAvatars());
+                break;
+            case UPLOADER_VERIFIED:
+                item.setUploaderVerified(extractor.isUploaderVerified());
+                break;
+            case SHORT_DESCRIPTION:
+                item.setShortDescription(extractor.getShortDescription());
+                break;
+            case SHORT_FORM_CONTENT:
+                item.setShortFormContent(extractor.isShortFormContent());
+                break;
+            case CONTENT_AVAILABILITY:
+                item.setContentAvailability(extractor.getContentAvailability());
+                break;
+        }
+    }
+
+    @Override
+    protected boolean isErrorOfOptionalField(@Nonnull final Enum<?> field,
+                                             @Nonnull final RuntimeException e) {
+        // Only parsing errors of the upload date are tolerated
+        return field != StreamInfoItem.Field.UPLOAD_DATE;
+    }
+
     @Override
-    public void commit(final StreamInfoItemExtractor extractor) {
+    protected void collect(final StreamInfoItemExtractor extractor) {
         try {
             addItem(extract(extractor));
         } catch (final FoundAdException ignored) {
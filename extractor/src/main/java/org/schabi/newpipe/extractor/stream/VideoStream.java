@@ -69,6 +69,8 @@ public final class VideoStream extends Stream {
         private String resolution;
         @Nullable
         private ItagItem itagItem;
+        @Nullable
+        private ContentResolver contentResolver;
 
         /**
          * Create a new {@link Builder} instance with its default values.
@@ -225,6 +227,23 @@ public final class VideoStream extends Stream {
             return this;
         }
 
+        /**
+         * Set the resolver of the content of the {@link VideoStream}, which is run when its
+         * content is first accessed.
+         *
+         * <p>
+         * The default value is {@code null}, which means that the content set with
+         * {@link #setContent(String, boolean)} is already resolved.
+         * </p>
+         *
+         * @param contentResolver the {@link ContentResolver} of the content, which can be null
+         * @return this {@link Builder} instance
+         */
+        public Builder setContentResolver(@Nullable final ContentResolver contentResolver) {
+            this.contentResolver = contentResolver;
+            return this;
+        }
+
         /**
          * Build a {@link VideoStream} using the builder's current values.
          *
@@ -271,8 +290,10 @@ public final class VideoStream extends Stream {
                                 + "get it).");
             }
 
-            return new VideoStream(id, content, isUrl, mediaFormat, deliveryMethod, resolution,
-                    isVideoOnly, manifestUrl, itagItem);
+            final VideoStream videoStream = new VideoStream(id, content, isUrl, mediaFormat,
+                    deliveryMethod, resolution, isVideoOnly, manifestUrl, itagItem);
+            videoStream.setContentResolver(contentResolver);
+            return videoStream;
         }
     }
 
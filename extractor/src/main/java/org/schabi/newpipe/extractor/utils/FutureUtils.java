@@ -0,0 +1,156 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Utility methods to run extraction work concurrently and get back its result with the
+ * exceptions thrown by blocking extraction methods.
+ */
+public final class FutureUtils {
+
+    private FutureUtils() {
+    }
+
+    /**
+     * Run a task which may throw checked exceptions on an {@link Executor}.
+     *
+     * <p>
+     * Contrary to {@link CompletableFuture#supplyAsync(java.util.function.Supplier, Executor)},
+     * the returned future is completed exceptionally with the exact exception thrown by the task,
+     * without wrapping it. Cancelling the future before the task has been started prevents it
+     * from being run.
+     * </p>
+     *
+     * @param task     the task to run
+     * @param executor the executor on which the task should be run
+     * @param <T>      the type of the result of the task
+     * @return a future completed with the result of the task
+     */
+    @Nonnull
+    public static <T> CompletableFuture<T> callAsync(@Nonnull final Callable<T> task,
+                                                     @Nonnull final Executor executor) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (final Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Wait for the completion of a future and get its result.
+     *
+     * <p>
+     * {@link IOException}s, {@link ExtractionException}s and unchecked exceptions which made the
+     * future fail are rethrown as-is, other exceptions are wrapped in an
+     * {@link ExtractionException}.
+     * </p>
+     *
+     * @param future the future to wait for
+     * @param <T>    the type of the result of the future
+     * @return the result of the future
+     * @throws IOException if the future failed with an {@link IOException}, has been cancelled
+     *                     or if the current thread has been interrupted while waiting
+     */
+    public static <T> T await(@Nonnull final Future<T> future)
+            throws IOException, ExtractionException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a result", e);
+        } catch (final CancellationException e) {
+            throw new IOException("The task has been cancelled", e);
+        } catch (final ExecutionException e) {
+            throw rethrowCause(e);
+        }
+    }
+
+    /**
+     * Wait at most the given time for the completion of a future and get its result, falling
+     * back to a default value if it failed or didn't complete in time.
+     *
+     * <p>
+     * The future is cancelled if it didn't complete in time. If the current thread is
+     * interrupted while waiting, the default value is returned and the interrupt status of the
+     * thread is restored.
+     * </p>
+     *
+     * @param future        the future to wait for
+     * @param timeoutMillis the maximum time to wait in milliseconds, or {@code 0} or less to wait
+     *                      until the future completes
+     * @param defaultValue  the value to return if the future failed or timed out
+     * @param <T>           the type of the result of the future
+     * @return the result of the future or {@code defaultValue}
+     */
+    public static <T> T getOrDefault(@Nonnull final Future<T> future,
+                                     final long timeoutMillis,
+                                     final T defaultValue) {
+        try {
+            return timeoutMillis > 0
+                    ? future.get(timeoutMillis, TimeUnit.MILLISECONDS)
+                    : future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            return defaultValue;
+        } catch (final TimeoutException e) {
+            future.cancel(false);
+            return defaultValue;
+        } catch (final CancellationException | ExecutionException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Cancel the given futures, without interrupting tasks which are already running.
+     *
+     * @param futures the futures to cancel
+     */
+    public static void cancelAll(@Nonnull final Future<?>... futures) {
+        for (final Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    @Nonnull
+    private static ExtractionException rethrowCause(@Nonnull final ExecutionException e)
+            throws IOException, ExtractionException {
+        final Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof ExtractionException) {
+            throw (ExtractionException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ExtractionException(cause);
+    }
+}
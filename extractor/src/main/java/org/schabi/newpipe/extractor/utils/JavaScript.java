@@ -1,35 +1,378 @@
 package org.schabi.newpipe.extractor.utils;
 
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.Function;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Utility class to compile and run JavaScript code with Rhino.
+ *
+ * <p>
+ * The standard objects are initialized once in a sealed scope shared by all functions, and each
+ * thread reuses its Rhino {@link Context}. Functions are run by Rhino's interpreter by default,
+ * its optimizing compiler can be enabled with {@link #setInterpretedMode(boolean)} where classes
+ * can be generated at runtime.
+ * </p>
+ */
 public final class JavaScript {
 
+    /**
+     * Whether Rhino's optimizing compiler cannot be used, as it generates JVM bytecode which
+     * Android's runtime cannot load.
+     */
+    private static final boolean INTERPRETED_MODE_REQUIRED =
+            "Dalvik".equals(System.getProperty("java.vm.name"));
+
+    /**
+     * The maximum number of compiled functions kept in {@link #COMPILED_FUNCTIONS}.
+     *
+     * <p>
+     * Only a few functions are run per player version, so this is enough to keep the functions
+     * of the current player and of a previous one while they are both in use.
+     * </p>
+     */
+    private static final int MAX_COMPILED_FUNCTIONS = 8;
+
+    /**
+     * Compiled functions, by their source code and name, in least recently used order.
+     */
+    private static final Map<FunctionKey, CompiledFunction> COMPILED_FUNCTIONS =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<FunctionKey, CompiledFunction> eldest) {
+                    return size() > MAX_COMPILED_FUNCTIONS;
+                }
+            };
+
+    /**
+     * The Rhino context of each thread, kept to be entered again by next calls on the thread.
+     */
+    private static final ThreadLocal<Context> CONTEXTS = new ThreadLocal<>();
+
+    private static final LongAdder COMPILATIONS = new LongAdder();
+    private static final LongAdder COMPILATION_NANOS = new LongAdder();
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAdder CALL_NANOS = new LongAdder();
+
+    private static volatile boolean interpretedMode = true;
+
+    /**
+     * The sealed scope containing the standard objects, shared by all compiled functions.
+     */
+    private static ScriptableObject sharedScope;
+
     private JavaScript() {
     }
 
-    public static void compileOrThrow(final String function) {
-        try (Context context = Context.enter()) {
-            context.setInterpretedMode(true);
+    /**
+     * Set whether functions are run by Rhino's interpreter or compiled to JVM bytecode by its
+     * optimizing compiler.
+     *
+     * <p>
+     * The compiler makes compilations slower and calls faster, which pays off for functions run
+     * many times. It is not available on Android, where this setting is ignored. The compiled
+     * functions cache is cleared when the mode changes.
+     * </p>
+     *
+     * @param interpreted whether functions should be interpreted, which is the default
+     */
+    public static void setInterpretedMode(final boolean interpreted) {
+        if (interpretedMode != interpreted) {
+            interpretedMode = interpreted;
+            clearCompiledFunctionsCache();
+        }
+    }
 
+    /**
+     * @return whether functions are run by Rhino's interpreter, which is always the case when
+     * the optimizing compiler is not available
+     */
+    public static boolean isInterpretedMode() {
+        return interpretedMode || INTERPRETED_MODE_REQUIRED;
+    }
+
+    public static void compileOrThrow(final String function) {
+        try (Context context = enterContext()) {
             // If it doesn't compile it throws an exception here
             context.compileString(function, null, 1, null);
         }
     }
 
+    /**
+     * Run a function defined in the given code.
+     *
+     * <p>
+     * The code is compiled only the first time a function of it is run, and the compiled code is
+     * cached and reused by next calls, from any thread. Each call evaluates the compiled code in
+     * its own top-level scope, so that the global variables the code defines or assigns are not
+     * shared with other calls.
+     * </p>
+     *
+     * <p>
+     * The cache can be cleared using {@link #clearCompiledFunctionsCache()}.
+     * </p>
+     *
+     * @param function     the code defining the function
+     * @param functionName the name of the function to run
+     * @param parameters   the parameters passed to the function
+     * @return the result of the function, converted to a string
+     */
     public static String run(final String function,
                              final String functionName,
                              final String... parameters) {
-        try (Context context = Context.enter()) {
-            context.setInterpretedMode(true);
-            final ScriptableObject scope = context.initSafeStandardObjects();
+        final CompiledFunction compiledFunction = getCompiledFunction(function, functionName);
+        try (Context context = enterContext()) {
+            final Scriptable scope = newScope(context, compiledFunction);
+            return call(context, scope, getFunction(scope, compiledFunction), parameters);
+        }
+    }
+
+    /**
+     * Run a function defined in the given code once for each of the given parameters.
+     *
+     * <p>
+     * Unlike calling {@link #run(String, String, String...)} for each parameter, the compiled
+     * code is evaluated only once, in a single Rhino {@link Context} and top-level scope, and the
+     * function it defines is then called for each parameter. The calls share this scope: global
+     * variables assigned by a call are seen by the next ones, which is not an issue for functions
+     * which don't depend on global state.
+     * </p>
+     *
+     * @param function     the code defining the function
+     * @param functionName the name of the function to run
+     * @param parameters   the parameters passed to the function, one per call
+     * @return the results of the function, converted to strings, in the order of the parameters
+     */
+    @Nonnull
+    public static List<String> runForEach(final String function,
+                                          final String functionName,
+                                          @Nonnull final List<String> parameters) {
+        final CompiledFunction compiledFunction = getCompiledFunction(function, functionName);
+        try (Context context = enterContext()) {
+            final Scriptable scope = newScope(context, compiledFunction);
+            final Function compiled = getFunction(scope, compiledFunction);
+            final List<String> results = new ArrayList<>(parameters.size());
+            for (final String parameter : parameters) {
+                results.add(call(context, scope, compiled, parameter));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Get the current number of compiled functions cached by {@link #run(String, String,
+     * String...)}.
+     *
+     * @return the current number of cached compiled functions
+     */
+    public static int getCompiledFunctionsCacheSize() {
+        synchronized (COMPILED_FUNCTIONS) {
+            return COMPILED_FUNCTIONS.size();
+        }
+    }
+
+    /**
+     * Clear the compiled functions cached by {@link #run(String, String, String...)}.
+     */
+    public static void clearCompiledFunctionsCache() {
+        synchronized (COMPILED_FUNCTIONS) {
+            COMPILED_FUNCTIONS.clear();
+        }
+    }
+
+    /**
+     * @return the number of functions compiled since the start or the last reset of metrics
+     */
+    public static long getCompilationCount() {
+        return COMPILATIONS.sum();
+    }
+
+    /**
+     * @return the total time spent compiling functions, in nanoseconds
+     */
+    public static long getCompilationTimeNanos() {
+        return COMPILATION_NANOS.sum();
+    }
+
+    /**
+     * @return the number of function calls since the start or the last reset of metrics
+     */
+    public static long getCallCount() {
+        return CALLS.sum();
+    }
 
-            context.evaluateString(scope, function, functionName, 1, null);
-            final Function jsFunction = (Function) scope.get(functionName, scope);
-            final Object result = jsFunction.call(context, scope, scope, parameters);
-            return result.toString();
+    /**
+     * @return the total time spent in function calls, including the evaluation of the code
+     * defining the functions, in nanoseconds
+     */
+    public static long getCallTimeNanos() {
+        return CALL_NANOS.sum();
+    }
+
+    /**
+     * Reset the compilation and call metrics.
+     */
+    public static void resetMetrics() {
+        COMPILATIONS.reset();
+        COMPILATION_NANOS.reset();
+        CALLS.reset();
+        CALL_NANOS.reset();
+    }
+
+    /**
+     * Enter the Rhino context of the current thread, creating it on the first call.
+     *
+     * @return the entered context, which must be exited by closing it
+     */
+    @Nonnull
+    private static Context enterContext() {
+        final Context reusableContext = CONTEXTS.get();
+        final Context context = ContextFactory.getGlobal().enterContext(reusableContext);
+        if (reusableContext == null) {
+            CONTEXTS.set(context);
+        }
+        context.setInterpretedMode(isInterpretedMode());
+        return context;
+    }
+
+    @Nonnull
+    private static synchronized ScriptableObject getSharedScope(@Nonnull final Context context) {
+        if (sharedScope == null) {
+            sharedScope = context.initSafeStandardObjects(null, true);
+        }
+        return sharedScope;
+    }
+
+    /**
+     * Evaluate compiled code in a new top-level scope, which inherits the sealed standard
+     * objects.
+     *
+     * <p>
+     * A function's parent scope is the one in which it has been defined, where assignments to
+     * undeclared variables go, so functions defined in different scopes don't share their global
+     * variables.
+     * </p>
+     *
+     * @return the scope, in which the functions of the code are defined
+     */
+    @Nonnull
+    private static Scriptable newScope(@Nonnull final Context context,
+                                       @Nonnull final CompiledFunction compiledFunction) {
+        final long start = System.nanoTime();
+        final ScriptableObject sharedStandardScope = getSharedScope(context);
+        final Scriptable scope = context.newObject(sharedStandardScope);
+        scope.setPrototype(sharedStandardScope);
+        scope.setParentScope(null);
+        compiledFunction.script.exec(context, scope);
+        CALL_NANOS.add(System.nanoTime() - start);
+        return scope;
+    }
+
+    @Nonnull
+    private static Function getFunction(@Nonnull final Scriptable scope,
+                                        @Nonnull final CompiledFunction compiledFunction) {
+        return (Function) scope.get(compiledFunction.functionName, scope);
+    }
+
+    @Nonnull
+    private static String call(@Nonnull final Context context,
+                               @Nonnull final Scriptable scope,
+                               @Nonnull final Function function,
+                               final Object... parameters) {
+        final long start = System.nanoTime();
+        final Object result = function.call(context, scope, scope, parameters);
+        CALLS.increment();
+        CALL_NANOS.add(System.nanoTime() - start);
+        return result.toString();
+    }
+
+    @Nonnull
+    private static CompiledFunction getCompiledFunction(@Nonnull final String function,
+                                                        @Nonnull final String functionName) {
+        final FunctionKey key = new FunctionKey(function, functionName);
+        synchronized (COMPILED_FUNCTIONS) {
+            final CompiledFunction compiledFunction = COMPILED_FUNCTIONS.get(key);
+            if (compiledFunction != null) {
+                return compiledFunction;
+            }
+        }
+
+        // Compile outside the lock, so that a slow compilation doesn't block calls of other
+        // functions; concurrent first calls of the same function may compile it more than once
+        final CompiledFunction compiledFunction = compile(function, functionName);
+        synchronized (COMPILED_FUNCTIONS) {
+            final CompiledFunction existingFunction =
+                    COMPILED_FUNCTIONS.putIfAbsent(key, compiledFunction);
+            return existingFunction == null ? compiledFunction : existingFunction;
+        }
+    }
+
+    @Nonnull
+    private static CompiledFunction compile(@Nonnull final String function,
+                                            @Nonnull final String functionName) {
+        final long start = System.nanoTime();
+        try (Context context = enterContext()) {
+            final Script script = context.compileString(function, functionName, 1, null);
+            COMPILATIONS.increment();
+            COMPILATION_NANOS.add(System.nanoTime() - start);
+            return new CompiledFunction(script, functionName);
+        }
+    }
+
+    private static final class FunctionKey {
+        @Nonnull
+        private final String function;
+        @Nonnull
+        private final String functionName;
+
+        FunctionKey(@Nonnull final String function, @Nonnull final String functionName) {
+            this.function = function;
+            this.functionName = functionName;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FunctionKey)) {
+                return false;
+            }
+            final FunctionKey other = (FunctionKey) o;
+            return functionName.equals(other.functionName) && function.equals(other.function);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(function, functionName);
         }
     }
 
+    private static final class CompiledFunction {
+        /**
+         * The compiled code defining the function, which can be run by several threads at once.
+         */
+        @Nonnull
+        private final Script script;
+        @Nonnull
+        private final String functionName;
+
+        CompiledFunction(@Nonnull final Script script, @Nonnull final String functionName) {
+            this.script = script;
+            this.functionName = functionName;
+        }
+    }
 }
@@ -0,0 +1,197 @@
+package org.schabi.newpipe.extractor.utils;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A path to a value in a JSON object, parsed once so that it can be followed many times.
+ *
+ * <p>
+ * Paths are made of keys separated by dots, like the ones of
+ * {@link JsonUtils#getValue(JsonObject, String)}. A key can be followed by array indices in
+ * brackets: {@code contents[0].title.runs[1].text} is the text of the second run of the title of
+ * the first item of {@code contents}.
+ * </p>
+ *
+ * <p>
+ * Paths used for every item of a list should be compiled once and stored in constants:
+ * </p>
+ * <pre>{@code
+ * private static final JsonPath TITLE = JsonPath.compile("title.runs[0].text");
+ * ...
+ * final String title = TITLE.getString(item);
+ * }</pre>
+ */
+public final class JsonPath {
+    @Nonnull
+    private final String path;
+    /**
+     * The keys of the steps of the path, or {@code null} for the steps which are array indices.
+     */
+    @Nonnull
+    private final String[] keys;
+    /**
+     * The array indices of the steps of the path, for the steps which are not keys.
+     */
+    @Nonnull
+    private final int[] indices;
+
+    private JsonPath(@Nonnull final String path,
+                     @Nonnull final String[] keys,
+                     @Nonnull final int[] indices) {
+        this.path = path;
+        this.keys = keys;
+        this.indices = indices;
+    }
+
+    /**
+     * Parse a path.
+     *
+     * @param path keys separated by dots, each one optionally followed by array indices in
+     *             brackets
+     * @return the compiled path
+     * @throws IllegalArgumentException if an array index is not a non-negative integer between
+     * brackets
+     */
+    @Nonnull
+    public static JsonPath compile(@Nonnull final String path) {
+        final String[] segments = path.split("\\.");
+
+        int stepCount = segments.length;
+        for (final String segment : segments) {
+            for (int i = 0; i < segment.length(); i++) {
+                if (segment.charAt(i) == '[') {
+                    stepCount++;
+                }
+            }
+        }
+
+        final String[] keys = new String[stepCount];
+        final int[] indices = new int[stepCount];
+        int step = 0;
+        for (final String segment : segments) {
+            final int bracket = segment.indexOf('[');
+            keys[step++] = bracket < 0 ? segment : segment.substring(0, bracket);
+            if (bracket < 0) {
+                continue;
+            }
+
+            int start = bracket;
+            while (start < segment.length()) {
+                final int end = segment.indexOf(']', start);
+                if (segment.charAt(start) != '[' || end < 0) {
+                    throw new IllegalArgumentException("Invalid array index in path " + path);
+                }
+                indices[step++] = parseIndex(segment.substring(start + 1, end), path);
+                start = end + 1;
+            }
+        }
+
+        return new JsonPath(path, keys, indices);
+    }
+
+    private static int parseIndex(@Nonnull final String index, @Nonnull final String path) {
+        try {
+            final int parsedIndex = Integer.parseInt(index);
+            if (parsedIndex >= 0) {
+                return parsedIndex;
+            }
+        } catch (final NumberFormatException ignored) {
+            // Handled below
+        }
+        throw new IllegalArgumentException("Invalid array index in path " + path);
+    }
+
+    /**
+     * Follow the path from a JSON object.
+     *
+     * @param object the object from which the path starts
+     * @return the value at the end of the path, or {@code null} if the path doesn't exist in the
+     * object or leads to a {@code null} value
+     */
+    @Nullable
+    public Object find(@Nonnull final JsonObject object) {
+        Object current = object;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (!(current instanceof JsonObject)) {
+                    return null;
+                }
+                current = ((JsonObject) current).get(keys[i]);
+            } else {
+                if (!(current instanceof JsonArray)) {
+                    return null;
+                }
+                final JsonArray array = (JsonArray) current;
+                if (indices[i] >= array.size()) {
+                    return null;
+                }
+                current = array.get(indices[i]);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the value at the end of the path.
+     *
+     * @param object the object from which the path starts
+     * @return the value at the end of the path
+     * @throws ParsingException if the path doesn't exist in the object or leads to a
+     * {@code null} value
+     */
+    @Nonnull
+    public Object getValue(@Nonnull final JsonObject object) throws ParsingException {
+        final Object result = find(object);
+        if (result == null) {
+            throw new ParsingException("Unable to get " + path);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private <T> T getInstanceOf(@Nonnull final JsonObject object,
+                                @Nonnull final Class<T> klass) throws ParsingException {
+        final Object value = getValue(object);
+        if (klass.isInstance(value)) {
+            return klass.cast(value);
+        } else {
+            throw new ParsingException("Wrong data type at path " + path);
+        }
+    }
+
+    @Nonnull
+    public String getString(@Nonnull final JsonObject object) throws ParsingException {
+        return getInstanceOf(object, String.class);
+    }
+
+    @Nonnull
+    public Boolean getBoolean(@Nonnull final JsonObject object) throws ParsingException {
+        return getInstanceOf(object, Boolean.class);
+    }
+
+    @Nonnull
+    public Number getNumber(@Nonnull final JsonObject object) throws ParsingException {
+        return getInstanceOf(object, Number.class);
+    }
+
+    @Nonnull
+    public JsonObject getObject(@Nonnull final JsonObject object) throws ParsingException {
+        return getInstanceOf(object, JsonObject.class);
+    }
+
+    @Nonnull
+    public JsonArray getArray(@Nonnull final JsonObject object) throws ParsingException {
+        return getInstanceOf(object, JsonArray.class);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -7,100 +7,107 @@ import com.grack.nanojson.JsonParserException;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 
 public final class JsonUtils {
+    /**
+     * The maximum number of paths given as strings which are kept compiled.
+     */
+    private static final int MAX_COMPILED_PATHS = 1000;
+    private static final Map<String, JsonPath> COMPILED_PATHS = new ConcurrentHashMap<>();
+
     private JsonUtils() {
     }
 
+    /**
+     * Get the compiled version of a path given as a string.
+     *
+     * <p>
+     * Paths are compiled the first time they are used and kept afterwards. As they are
+     * normally constants, only a few of them are expected: once {@link #MAX_COMPILED_PATHS}
+     * paths are kept, other paths are compiled each time they are used.
+     * </p>
+     */
     @Nonnull
-    public static Object getValue(@Nonnull final JsonObject object,
-                                  @Nonnull final String path) throws ParsingException {
-
-        final List<String> keys = Arrays.asList(path.split("\\."));
-        final JsonObject parentObject = getObject(object, keys.subList(0, keys.size() - 1));
-        if (parentObject == null) {
-            throw new ParsingException("Unable to get " + path);
+    private static JsonPath compile(@Nonnull final String path) {
+        final JsonPath compiledPath = COMPILED_PATHS.get(path);
+        if (compiledPath != null) {
+            return compiledPath;
         }
 
-        final Object result = parentObject.get(keys.get(keys.size() - 1));
-        if (result == null) {
-            throw new ParsingException("Unable to get " + path);
+        final JsonPath newCompiledPath = JsonPath.compile(path);
+        if (COMPILED_PATHS.size() < MAX_COMPILED_PATHS) {
+            COMPILED_PATHS.putIfAbsent(path, newCompiledPath);
         }
-        return result;
+        return newCompiledPath;
     }
 
-    private static <T> T getInstanceOf(@Nonnull final JsonObject object,
-                                       @Nonnull final String path,
-                                       @Nonnull final Class<T> klass) throws ParsingException {
-        final Object value = getValue(object, path);
-        if (klass.isInstance(value)) {
-            return klass.cast(value);
-        } else {
-            throw new ParsingException("Wrong data type at path " + path);
-        }
+    /**
+     * Get the value at a path of a JSON object.
+     *
+     * @param object the object
+     * @param path   the path of the value, see {@link JsonPath}
+     * @return the value at the given path
+     * @throws ParsingException if there is no value at the given path
+     * @see JsonPath#getValue(JsonObject)
+     */
+    @Nonnull
+    public static Object getValue(@Nonnull final JsonObject object,
+                                  @Nonnull final String path) throws ParsingException {
+        return compile(path).getValue(object);
     }
 
     @Nonnull
     public static String getString(@Nonnull final JsonObject object, @Nonnull final String path)
             throws ParsingException {
-        return getInstanceOf(object, path, String.class);
+        return compile(path).getString(object);
     }
 
     @Nonnull
     public static Boolean getBoolean(@Nonnull final JsonObject object,
                                      @Nonnull final String path) throws ParsingException {
-        return getInstanceOf(object, path, Boolean.class);
+        return compile(path).getBoolean(object);
     }
 
     @Nonnull
     public static Number getNumber(@Nonnull final JsonObject object,
                                    @Nonnull final String path)
             throws ParsingException {
-        return getInstanceOf(object, path, Number.class);
+        return compile(path).getNumber(object);
     }
 
     @Nonnull
     public static JsonObject getObject(@Nonnull final JsonObject object,
                                        @Nonnull final String path) throws ParsingException {
-        return getInstanceOf(object, path, JsonObject.class);
+        return compile(path).getObject(object);
     }
 
     @Nonnull
     public static JsonArray getArray(@Nonnull final JsonObject object, @Nonnull final String path)
             throws ParsingException {
-        return getInstanceOf(object, path, JsonArray.class);
+        return compile(path).getArray(object);
     }
 
     @Nonnull
     public static List<Object> getValues(@Nonnull final JsonArray array, @Nonnull final String path)
             throws ParsingException {
-
+        final JsonPath compiledPath = compile(path);
         final List<Object> result = new ArrayList<>();
         for (int i = 0; i < array.size(); i++) {
             final JsonObject obj = array.getObject(i);
-            result.add(getValue(obj, path));
-        }
-        return result;
-    }
-
-    @Nullable
-    private static JsonObject getObject(@Nonnull final JsonObject object,
-                                        @Nonnull final List<String> keys) {
-        JsonObject result = object;
-        for (final String key : keys) {
-            result = result.getObject(key);
-            if (result == null) {
-                break;
-            }
+            result.add(compiledPath.getValue(obj));
         }
         return result;
     }
@@ -121,6 +128,99 @@ public final class JsonUtils {
         }
     }
 
+    /**
+     * Parse the body of a response as a JSON array, directly from its bytes if possible.
+     *
+     * @param response the response
+     * @return the parsed array
+     * @throws ParsingException if the body isn't a valid JSON array
+     * @see #toJsonObject(Response)
+     */
+    public static JsonArray toJsonArray(@Nonnull final Response response)
+            throws ParsingException {
+        if (!canParseRawBody(response)) {
+            return toJsonArray(response.responseBody());
+        }
+        try {
+            return JsonParser.array().from(response.responseBodyStream());
+        } catch (final JsonParserException e) {
+            throw new ParsingException("Could not parse JSON", e);
+        }
+    }
+
+    /**
+     * Parse the body of a response as a JSON object.
+     *
+     * <p>
+     * If the body of the response has been given as UTF-8 bytes, it is parsed from them without
+     * decoding it to a string first.
+     * </p>
+     *
+     * @param response the response
+     * @return the parsed object
+     * @throws ParsingException if the body isn't a valid JSON object
+     */
+    public static JsonObject toJsonObject(@Nonnull final Response response)
+            throws ParsingException {
+        if (!canParseRawBody(response)) {
+            return toJsonObject(response.responseBody());
+        }
+        try {
+            return JsonParser.object().from(response.responseBodyStream());
+        } catch (final JsonParserException e) {
+            throw new ParsingException("Could not parse JSON", e);
+        }
+    }
+
+    /**
+     * Parse a JSON object, keeping only the values at the given paths.
+     *
+     * <p>
+     * Everything else is skipped without being built, which is much cheaper for large objects
+     * of which only a few values are used.
+     * </p>
+     *
+     * @param responseBody the JSON object
+     * @param paths        the paths of the values to keep, made of keys separated by dots like
+     *                     the ones of {@link #getValue(JsonObject, String)}
+     * @return an object with the same structure as the full one, containing only the objects
+     * leading to the values at the given paths and these values
+     * @throws ParsingException if the JSON isn't a valid object
+     */
+    @Nonnull
+    public static JsonObject toJsonObject(@Nonnull final String responseBody,
+                                          @Nonnull final Collection<String> paths)
+            throws ParsingException {
+        return SelectiveJsonParser.parse(responseBody, paths);
+    }
+
+    /**
+     * Parse the body of a response as a JSON object, keeping only the values at the given paths,
+     * directly from its bytes if possible.
+     *
+     * @param response the response
+     * @param paths    the paths of the values to keep
+     * @return an object containing only the values at the given paths
+     * @throws ParsingException if the body isn't a valid JSON object
+     * @see #toJsonObject(String, Collection)
+     */
+    @Nonnull
+    public static JsonObject toJsonObject(@Nonnull final Response response,
+                                          @Nonnull final Collection<String> paths)
+            throws ParsingException {
+        if (!canParseRawBody(response)) {
+            return toJsonObject(response.responseBody(), paths);
+        }
+        return SelectiveJsonParser.parse(response.responseBodyBytes(), paths);
+    }
+
+    private static boolean canParseRawBody(@Nonnull final Response response) {
+        final Charset charset = response.responseBodyCharset();
+        return response.hasRawResponseBody()
+                && (charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII));
+    }
+
     /**
      * <p>Get an attribute of a web page as JSON
      *
@@ -0,0 +1,379 @@
+package org.schabi.newpipe.extractor.utils;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A JSON parser which only parses the values at some paths of a JSON object and skips
+ * everything else without building it.
+ *
+ * <p>
+ * Paths are keys separated by dots, like the ones of {@link JsonUtils#getValue(JsonObject,
+ * String)}. The parsed object has the same structure as the full one, with only the objects
+ * leading to the selected values and the selected values themselves. If a path is a prefix of
+ * another one, the whole value at the shorter path is kept.
+ * </p>
+ *
+ * <p>
+ * Skipped values are only scanned to find their end, and selected values are parsed with
+ * nanojson. The JSON can be given as a string or as UTF-8 bytes: as every byte of a multi-byte
+ * UTF-8 character is outside the ASCII range, it can be scanned without decoding it.
+ * </p>
+ */
+final class SelectiveJsonParser {
+
+    /**
+     * A node of the tree of selected paths.
+     */
+    private static final class PathNode {
+        final Map<String, PathNode> children = new HashMap<>();
+        /**
+         * Whether the whole value at this path is selected.
+         */
+        boolean selected;
+    }
+
+    /**
+     * The JSON being parsed, as a string or as UTF-8 bytes.
+     */
+    private abstract static class Source {
+        abstract int length();
+
+        abstract int charAt(int index);
+
+        @Nonnull
+        abstract String string(int start, int end);
+
+        abstract Object parse(int start, int end) throws JsonParserException;
+    }
+
+    private static final class StringSource extends Source {
+        private final String json;
+
+        StringSource(@Nonnull final String json) {
+            this.json = json;
+        }
+
+        @Override
+        int length() {
+            return json.length();
+        }
+
+        @Override
+        int charAt(final int index) {
+            return json.charAt(index);
+        }
+
+        @Nonnull
+        @Override
+        String string(final int start, final int end) {
+            return json.substring(start, end);
+        }
+
+        @Override
+        Object parse(final int start, final int end) throws JsonParserException {
+            return JsonParser.any().from(json.substring(start, end));
+        }
+    }
+
+    private static final class Utf8Source extends Source {
+        private final byte[] json;
+
+        Utf8Source(@Nonnull final byte[] json) {
+            this.json = json;
+        }
+
+        @Override
+        int length() {
+            return json.length;
+        }
+
+        @Override
+        int charAt(final int index) {
+            return json[index] & 0xFF;
+        }
+
+        @Nonnull
+        @Override
+        String string(final int start, final int end) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        Object parse(final int start, final int end) throws JsonParserException {
+            return JsonParser.any().from(new ByteArrayInputStream(json, start, end - start));
+        }
+    }
+
+    @Nonnull
+    private final Source source;
+    private int position;
+
+    private SelectiveJsonParser(@Nonnull final Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Parse the values at the given paths of a JSON object.
+     *
+     * @param json  the JSON object
+     * @param paths the paths of the values to parse
+     * @return an object containing only the values at the given paths
+     * @throws ParsingException if the JSON isn't a valid object
+     */
+    @Nonnull
+    static JsonObject parse(@Nonnull final String json,
+                            @Nonnull final Collection<String> paths) throws ParsingException {
+        return new SelectiveJsonParser(new StringSource(json)).parse(paths);
+    }
+
+    /**
+     * Parse the values at the given paths of a JSON object encoded in UTF-8.
+     *
+     * @param json  the JSON object, encoded in UTF-8
+     * @param paths the paths of the values to parse
+     * @return an object containing only the values at the given paths
+     * @throws ParsingException if the JSON isn't a valid object
+     */
+    @Nonnull
+    static JsonObject parse(@Nonnull final byte[] json,
+                            @Nonnull final Collection<String> paths) throws ParsingException {
+        return new SelectiveJsonParser(new Utf8Source(json)).parse(paths);
+    }
+
+    @Nonnull
+    private JsonObject parse(@Nonnull final Collection<String> paths) throws ParsingException {
+        final PathNode root = new PathNode();
+        for (final String path : paths) {
+            PathNode node = root;
+            for (final String key : path.split("\\.")) {
+                node = node.children.computeIfAbsent(key, k -> new PathNode());
+            }
+            node.selected = true;
+        }
+
+        try {
+            final JsonObject result = new JsonObject();
+            skipWhitespace();
+            parseObject(root, result);
+            skipWhitespace();
+            if (position != source.length()) {
+                throw error("Unexpected content after the JSON object");
+            }
+            return result;
+        } catch (final JsonParserException e) {
+            throw new ParsingException("Could not parse JSON", e);
+        }
+    }
+
+    /**
+     * Parse the object at the current position, putting the selected values of its keys in the
+     * given object.
+     */
+    private void parseObject(@Nonnull final PathNode node, @Nonnull final JsonObject result)
+            throws ParsingException, JsonParserException {
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            final String key = readKey();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            final PathNode child = node.children.get(key);
+            if (child == null) {
+                skipValue();
+            } else if (child.selected) {
+                final int start = position;
+                skipValue();
+                result.put(key, source.parse(start, position));
+            } else if (peek() == '{') {
+                final JsonObject childResult = new JsonObject();
+                parseObject(child, childResult);
+                result.put(key, childResult);
+            } else {
+                // Selected paths can only go through objects
+                skipValue();
+            }
+
+            skipWhitespace();
+            final int c = next();
+            if (c == '}') {
+                return;
+            } else if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    @Nonnull
+    private String readKey() throws ParsingException {
+        final int start = position;
+        final boolean escaped = skipString();
+        // The key without its quotes
+        final String key = source.string(start + 1, position - 1);
+        return escaped ? unescape(key) : key;
+    }
+
+    /**
+     * Skip the value at the current position.
+     */
+    private void skipValue() throws ParsingException {
+        final int c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else {
+            // Number, boolean or null, which are validated when they are parsed
+            final int start = position;
+            while (position < source.length() && !isDelimiter(source.charAt(position))) {
+                position++;
+            }
+            if (position == start) {
+                throw error("Expected a value");
+            }
+        }
+    }
+
+    /**
+     * Skip the object or the array at the current position.
+     */
+    private void skipContainer() throws ParsingException {
+        int depth = 0;
+        while (position < source.length()) {
+            final int c = source.charAt(position);
+            if (c == '"') {
+                skipString();
+                continue;
+            }
+            position++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return;
+                }
+            }
+        }
+        throw error("Unterminated object or array");
+    }
+
+    /**
+     * Skip the string at the current position.
+     *
+     * @return whether the string contains escape sequences
+     */
+    private boolean skipString() throws ParsingException {
+        expect('"');
+        boolean escaped = false;
+        while (position < source.length()) {
+            final int c = source.charAt(position++);
+            if (c == '"') {
+                return escaped;
+            } else if (c == '\\') {
+                escaped = true;
+                position++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    @Nonnull
+    private static String unescape(@Nonnull final String string) {
+        final StringBuilder builder = new StringBuilder(string.length());
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if (c != '\\' || i + 1 == string.length()) {
+                builder.append(c);
+                continue;
+            }
+            final char escapedChar = string.charAt(++i);
+            switch (escapedChar) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 < string.length()) {
+                        builder.append((char) Integer.parseInt(
+                                string.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    break;
+                default:
+                    // Quotes, backslashes and slashes
+                    builder.append(escapedChar);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isDelimiter(final int c) {
+        return c == ',' || c == '}' || c == ']' || isWhitespace(c);
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private void skipWhitespace() {
+        while (position < source.length() && isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private int peek() throws ParsingException {
+        if (position >= source.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        return source.charAt(position);
+    }
+
+    private int next() throws ParsingException {
+        final int c = peek();
+        position++;
+        return c;
+    }
+
+    private void expect(final char expected) throws ParsingException {
+        if (next() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    @Nonnull
+    private ParsingException error(@Nonnull final String message) {
+        return new ParsingException("Could not parse JSON: " + message + " at " + position);
+    }
+}
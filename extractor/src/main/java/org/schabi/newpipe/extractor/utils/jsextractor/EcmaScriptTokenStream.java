@@ -39,10 +39,11 @@ class EcmaScriptTokenStream {
     private static final char BYTE_ORDER_MARK = '\uFEFF';
     private static final char NUMERIC_SEPARATOR = '_';
 
-    EcmaScriptTokenStream(final String sourceString, final int lineno, final boolean strictMode) {
+    EcmaScriptTokenStream(final String sourceString, final int start, final int lineno,
+                          final boolean strictMode) {
         this.sourceString = sourceString;
-        this.sourceCursor = 0;
-        this.cursor = 0;
+        this.sourceCursor = start;
+        this.cursor = start;
 
         this.lineno = lineno;
         this.strictMode = strictMode;
@@ -8,6 +8,17 @@ import javax.annotation.Nonnull;
  * Utility class for extracting functions from JavaScript code.
  */
 public final class JavaScriptExtractor {
+    /**
+     * Keywords after which a slash starts a regular expression literal.
+     */
+    private static final String[] KEYWORDS_BEFORE_EXPRESSION = {"case", "delete", "do", "else",
+            "in", "instanceof", "new", "return", "throw", "typeof", "void", "yield"};
+
+    /**
+     * Returned by the character scanner when the code cannot be scanned without tokenizing it.
+     */
+    private static final int NEEDS_LEXER = -1;
+
     private JavaScriptExtractor() {
 
     }
@@ -29,9 +40,36 @@ public final class JavaScriptExtractor {
             throw new ParsingException("Start not found");
         }
         startIndex += start.length();
-        final String js = jsCode.substring(startIndex);
+        return jsCode.substring(startIndex, findClosingBrace(jsCode, startIndex));
+    }
+
+    /**
+     * Find the end of the code starting at the given offset and ending with the brace closing
+     * the first opened brace, such as a function's parameters and body.
+     *
+     * <p>
+     * The code is scanned character by character, skipping strings and comments, and is only
+     * tokenized with the {@link Lexer} if it contains a slash which may start a regular
+     * expression literal or a template literal.
+     * </p>
+     *
+     * @param jsCode JavaScript code
+     * @param startIndex offset at which the search starts
+     * @return the offset after the closing brace
+     * @throws ParsingException if no matching braces could be found
+     */
+    public static int findClosingBrace(@Nonnull final String jsCode, final int startIndex)
+            throws ParsingException {
+        final int end = scanToClosingBrace(jsCode, startIndex);
+        if (end != NEEDS_LEXER) {
+            return end;
+        }
+        return lexToClosingBrace(jsCode, startIndex);
+    }
 
-        final Lexer lexer = new Lexer(js);
+    private static int lexToClosingBrace(@Nonnull final String jsCode, final int startIndex)
+            throws ParsingException {
+        final Lexer lexer = new Lexer(jsCode, startIndex);
         boolean visitedOpenBrace = false;
 
         while (true) {
@@ -41,10 +79,166 @@ public final class JavaScriptExtractor {
             if (t == Token.LC) {
                 visitedOpenBrace = true;
             } else if (visitedOpenBrace && lexer.isBalanced()) {
-                return js.substring(0, parsedToken.end);
+                return parsedToken.end;
             } else if (t == Token.EOF) {
                 throw new ParsingException("Could not find matching braces");
             }
         }
     }
+
+    /**
+     * Scan the code character by character to find the closing brace, like
+     * {@link #lexToClosingBrace(String, int)}.
+     *
+     * @return the offset after the closing brace, or {@link #NEEDS_LEXER} if a slash or a
+     * backtick whose meaning depends on the tokens before them has been found
+     */
+    private static int scanToClosingBrace(@Nonnull final String jsCode, final int startIndex)
+            throws ParsingException {
+        final int length = jsCode.length();
+        // The depth of parentheses, brackets and braces
+        int depth = 0;
+        boolean visitedOpenBrace = false;
+        // The last character which is not whitespace or part of a comment
+        char last = 0;
+        int lastIndex = -1;
+
+        int i = startIndex;
+        while (i < length) {
+            final char c = jsCode.charAt(i);
+            switch (c) {
+                case '{':
+                    visitedOpenBrace = true;
+                    depth++;
+                    break;
+                case '(':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ')':
+                case ']':
+                    depth--;
+                    if (depth < 0) {
+                        throw new ParsingException("unmatched closing bracket at " + i);
+                    }
+                    if (visitedOpenBrace && depth == 0) {
+                        return i + 1;
+                    }
+                    break;
+                case '"':
+                case '\'':
+                    i = skipString(jsCode, i, c);
+                    break;
+                case '`':
+                    return NEEDS_LEXER;
+                case '/':
+                    if (i + 1 < length && jsCode.charAt(i + 1) == '/') {
+                        i = skipLineComment(jsCode, i);
+                        continue;
+                    } else if (i + 1 < length && jsCode.charAt(i + 1) == '*') {
+                        i = skipBlockComment(jsCode, i);
+                        continue;
+                    } else if (last == ')' || last == '}') {
+                        // Depends on whether the parenthesis or brace closes an expression
+                        return NEEDS_LEXER;
+                    } else if (isRegexStart(jsCode, last, lastIndex)) {
+                        i = skipRegex(jsCode, i);
+                    }
+                    break;
+                default:
+                    if (Character.isWhitespace(c)) {
+                        i++;
+                        continue;
+                    }
+                    break;
+            }
+            last = c;
+            lastIndex = i;
+            i++;
+        }
+        throw new ParsingException("Could not find matching braces");
+    }
+
+    private static boolean isRegexStart(@Nonnull final String jsCode,
+                                        final char last,
+                                        final int lastIndex) {
+        if (last == 0) {
+            return true;
+        }
+        if (last == ']' || last == '"' || last == '\'' || last == '/') {
+            // End of a member access, string or regular expression
+            return false;
+        }
+        if (!Character.isJavaIdentifierPart(last)) {
+            // Punctuator other than a closing bracket
+            return true;
+        }
+
+        int wordStart = lastIndex;
+        while (wordStart > 0 && Character.isJavaIdentifierPart(jsCode.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        if (wordStart > 0 && jsCode.charAt(wordStart - 1) == '.') {
+            // Property access
+            return false;
+        }
+        final String word = jsCode.substring(wordStart, lastIndex + 1);
+        for (final String keyword : KEYWORDS_BEFORE_EXPRESSION) {
+            if (keyword.equals(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipString(@Nonnull final String jsCode,
+                                  final int start,
+                                  final char quote) throws ParsingException {
+        for (int i = start + 1; i < jsCode.length(); i++) {
+            final char c = jsCode.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i;
+            } else if (c == '\n') {
+                break;
+            }
+        }
+        throw new ParsingException("unterminated string literal at " + start);
+    }
+
+    private static int skipRegex(@Nonnull final String jsCode, final int start)
+            throws ParsingException {
+        boolean inClass = false;
+        for (int i = start + 1; i < jsCode.length(); i++) {
+            final char c = jsCode.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                return i;
+            } else if (c == '\n') {
+                break;
+            }
+        }
+        throw new ParsingException("unterminated regular expression literal at " + start);
+    }
+
+    private static int skipLineComment(@Nonnull final String jsCode, final int start) {
+        final int end = jsCode.indexOf('\n', start);
+        return end < 0 ? jsCode.length() : end;
+    }
+
+    private static int skipBlockComment(@Nonnull final String jsCode, final int start)
+            throws ParsingException {
+        final int end = jsCode.indexOf("*/", start + 2);
+        if (end < 0) {
+            throw new ParsingException("unterminated comment at " + start);
+        }
+        return end + 2;
+    }
 }
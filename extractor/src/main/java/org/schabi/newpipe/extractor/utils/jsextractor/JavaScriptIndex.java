@@ -0,0 +1,239 @@
+package org.schabi.newpipe.extractor.utils.jsextractor;
+
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An index of the functions, object literals and array literals assigned to names in JavaScript
+ * code, built in a single pass with the {@link Lexer}.
+ *
+ * <p>
+ * Indexed definitions are:
+ * </p>
+ * <ul>
+ *     <li>functions: {@code name=function(...){...}} and {@code function name(...){...}};</li>
+ *     <li>object literals: {@code name={...}};</li>
+ *     <li>array literals: {@code name=[...]}.</li>
+ * </ul>
+ *
+ * <p>
+ * Assignments to properties, such as {@code a.name=function(...){...}}, are not indexed. When a
+ * name is defined several times, only its first definition is kept, like when searching it with
+ * {@link String#indexOf(String)}.
+ * </p>
+ */
+public final class JavaScriptIndex {
+
+    private enum Kind {
+        FUNCTION,
+        OBJECT,
+        ARRAY
+    }
+
+    /**
+     * A definition whose end has not been reached yet.
+     */
+    private static final class OpenDefinition {
+        final String name;
+        final Kind kind;
+        final int start;
+        final int depth;
+
+        OpenDefinition(final String name, final Kind kind, final int start, final int depth) {
+            this.name = name;
+            this.kind = kind;
+            this.start = start;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * A function whose body has not been reached yet.
+     */
+    private static final class PendingFunction {
+        final String name;
+        final int depth;
+        int parametersStart = -1;
+
+        PendingFunction(final String name, final int depth) {
+            this.name = name;
+            this.depth = depth;
+        }
+    }
+
+    @Nonnull
+    private final String code;
+    /**
+     * The start and end offsets of definitions, by kind and name. The start of a function is the
+     * start of its parameters.
+     */
+    private final Map<Kind, Map<String, int[]>> definitions = new HashMap<>();
+
+    private JavaScriptIndex(@Nonnull final String code) {
+        this.code = code;
+        for (final Kind kind : Kind.values()) {
+            definitions.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Index the given JavaScript code.
+     *
+     * @param code JavaScript code
+     * @return the index of the code
+     * @throws ParsingException if the code could not be tokenized or has unbalanced brackets
+     */
+    @Nonnull
+    public static JavaScriptIndex build(@Nonnull final String code) throws ParsingException {
+        final JavaScriptIndex index = new JavaScriptIndex(code);
+        final Lexer lexer = new Lexer(code);
+        final Deque<OpenDefinition> openDefinitions = new ArrayDeque<>();
+        PendingFunction pendingFunction = null;
+        boolean expectingFunctionName = false;
+
+        // The last two tokens and the last name, ignoring comments
+        Token previous = null;
+        Token beforePrevious = null;
+        String lastName = null;
+        // The name to which a value is assigned, if the last token is an assignment to a name
+        String assignedName = null;
+        int depth = 0;
+
+        while (true) {
+            final Lexer.ParsedToken parsedToken = lexer.getNextToken();
+            final Token token = parsedToken.token;
+            if (token == Token.EOF) {
+                break;
+            }
+            if (token == Token.COMMENT) {
+                continue;
+            }
+
+            if (expectingFunctionName) {
+                expectingFunctionName = false;
+                if (token == Token.NAME) {
+                    pendingFunction = new PendingFunction(
+                            code.substring(parsedToken.start, parsedToken.end), depth);
+                }
+            }
+
+            switch (token) {
+                case FUNCTION:
+                    if (assignedName != null) {
+                        pendingFunction = new PendingFunction(assignedName, depth);
+                    } else if (pendingFunction == null) {
+                        expectingFunctionName = true;
+                    }
+                    break;
+                case LP:
+                case LB:
+                case LC:
+                    if (pendingFunction != null && pendingFunction.depth == depth) {
+                        if (token == Token.LP && pendingFunction.parametersStart < 0) {
+                            pendingFunction.parametersStart = parsedToken.start;
+                        } else if (token == Token.LC && pendingFunction.parametersStart >= 0) {
+                            openDefinitions.push(new OpenDefinition(pendingFunction.name,
+                                    Kind.FUNCTION, pendingFunction.parametersStart, depth));
+                            pendingFunction = null;
+                        }
+                    } else if (assignedName != null && token != Token.LP) {
+                        openDefinitions.push(new OpenDefinition(assignedName,
+                                token == Token.LC ? Kind.OBJECT : Kind.ARRAY,
+                                parsedToken.start, depth));
+                    }
+                    depth++;
+                    break;
+                case RP:
+                case RB:
+                case RC:
+                    depth--;
+                    if (!openDefinitions.isEmpty() && openDefinitions.peek().depth == depth) {
+                        index.add(openDefinitions.pop(), parsedToken.end);
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            // Assignments to properties are ignored
+            assignedName = token == Token.ASSIGN && previous == Token.NAME
+                    && beforePrevious != Token.DOT ? lastName : null;
+            if (token == Token.NAME) {
+                lastName = code.substring(parsedToken.start, parsedToken.end);
+            }
+            beforePrevious = previous;
+            previous = token;
+        }
+
+        return index;
+    }
+
+    private void add(@Nonnull final OpenDefinition definition, final int end) {
+        // Definitions are added when they end, so an inner definition may be added before an
+        // outer one starting before it
+        definitions.get(definition.kind).merge(definition.name,
+                new int[] {definition.start, end},
+                (existing, added) -> existing[0] <= added[0] ? existing : added);
+    }
+
+    @Nullable
+    private String get(@Nonnull final Kind kind, @Nonnull final String name) {
+        final int[] offsets = definitions.get(kind).get(name);
+        return offsets == null ? null : code.substring(offsets[0], offsets[1]);
+    }
+
+    /**
+     * Get the code of a function.
+     *
+     * @param name the name of the function
+     * @return the anonymous code of the function ({@code function(...){...}}), or {@code null}
+     * if no function with this name has been found
+     */
+    @Nullable
+    public String getFunction(@Nonnull final String name) {
+        final String parametersAndBody = get(Kind.FUNCTION, name);
+        return parametersAndBody == null ? null : "function" + parametersAndBody;
+    }
+
+    /**
+     * Get the code of an object literal assigned to a name.
+     *
+     * @param name the name to which the object is assigned
+     * @return the code of the object, braces included, or {@code null} if no object literal is
+     * assigned to this name
+     */
+    @Nullable
+    public String getObject(@Nonnull final String name) {
+        return get(Kind.OBJECT, name);
+    }
+
+    /**
+     * Get the code of an array literal assigned to a name.
+     *
+     * @param name the name to which the array is assigned
+     * @return the code of the array, brackets included, or {@code null} if no array literal is
+     * assigned to this name
+     */
+    @Nullable
+    public String getArray(@Nonnull final String name) {
+        return get(Kind.ARRAY, name);
+    }
+
+    /**
+     * @return the number of indexed definitions
+     */
+    public int size() {
+        int size = 0;
+        for (final Map<String, int[]> definitionsOfKind : definitions.values()) {
+            size += definitionsOfKind.size();
+        }
+        return size;
+    }
+}
@@ -129,7 +129,21 @@ public class Lexer {
      * @param js JavaScript code
      */
     public Lexer(final String js) {
-        stream = new EcmaScriptTokenStream(js, 0, false);
+        this(js, 0);
+    }
+
+    /**
+     * Create a new JavaScript lexer with the given source code, starting at the given offset
+     *
+     * <p>
+     * The positions of the parsed tokens are offsets in the whole source code.
+     * </p>
+     *
+     * @param js JavaScript code
+     * @param start offset at which the lexer starts
+     */
+    public Lexer(final String js, final int start) {
+        stream = new EcmaScriptTokenStream(js, start, 0, false);
         lastThree = new LookBehind();
         braceStack = new Stack<>();
         parenStack = new Stack<>();
@@ -7,6 +7,7 @@ import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -15,6 +16,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import okhttp3.ConnectionSpec;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
@@ -88,10 +90,15 @@ public final class DownloaderTestImpl extends Downloader {
                 throw new ReCaptchaException("reCaptcha Challenge requested", url);
             }
 
-            String responseBodyToReturn = null;
+            byte[] responseBodyToReturn = null;
+            Charset responseBodyCharset = null;
             try (ResponseBody body = response.body()) {
                 if (body != null) {
-                    responseBodyToReturn = body.string();
+                    responseBodyToReturn = body.bytes();
+                    final MediaType contentType = body.contentType();
+                    if (contentType != null) {
+                        responseBodyCharset = contentType.charset();
+                    }
                 }
             }
 
@@ -100,6 +107,7 @@ public final class DownloaderTestImpl extends Downloader {
                 response.message(),
                 response.headers().toMultimap(),
                 responseBodyToReturn,
+                responseBodyCharset,
                 response.request().url().toString());
         }
     }
@@ -0,0 +1,373 @@
+package org.schabi.newpipe.extractor;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.channel.ChannelInfoItemExtractor;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.localization.DateWrapper;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfoItemExtractor;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamInfoItemExtractor;
+import org.schabi.newpipe.extractor.stream.StreamInfoItemsCollector;
+import org.schabi.newpipe.extractor.stream.StreamType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelInfoItemsCollectorTest {
+    private static final int ITEM_COUNT = 200;
+
+    private static ExecutorService executor;
+
+    /**
+     * The name of every seventh item can't be extracted, so these items are not collected.
+     */
+    private abstract static class NumberedExtractor implements InfoItemExtractor {
+        final int number;
+        private final Set<String> threads;
+
+        NumberedExtractor(final int number, final Set<String> threads) {
+            this.number = number;
+            this.threads = threads;
+        }
+
+        @Override
+        public String getName() throws ParsingException {
+            threads.add(Thread.currentThread().getName());
+            if (number % 7 == 0) {
+                throw new ParsingException("No name for " + number);
+            }
+            return String.valueOf(number);
+        }
+
+        @Override
+        public String getUrl() {
+            return "https://example.com/" + number;
+        }
+
+        @Override
+        public List<Image> getThumbnails() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Every third stream is an ad, and the view count of every fifth stream can't be extracted.
+     */
+    private static class NumberedStreamExtractor extends NumberedExtractor
+            implements StreamInfoItemExtractor {
+
+        NumberedStreamExtractor(final int number, final Set<String> threads) {
+            super(number, threads);
+        }
+
+        @Override
+        public StreamType getStreamType() {
+            return StreamType.VIDEO_STREAM;
+        }
+
+        @Override
+        public boolean isAd() {
+            return number % 3 == 0;
+        }
+
+        @Override
+        public long getDuration() {
+            return number;
+        }
+
+        @Override
+        public long getViewCount() throws ParsingException {
+            if (number % 5 == 0) {
+                throw new ParsingException("No view count for " + number);
+            }
+            return number;
+        }
+
+        @Override
+        public String getUploaderName() {
+            return null;
+        }
+
+        @Override
+        public String getUploaderUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isUploaderVerified() {
+            return false;
+        }
+
+        @Override
+        public String getTextualUploadDate() {
+            return null;
+        }
+
+        @Override
+        public DateWrapper getUploadDate() {
+            return null;
+        }
+    }
+
+    /**
+     * The subscriber count of channels can't be extracted.
+     */
+    private static final class NumberedChannelExtractor extends NumberedExtractor
+            implements ChannelInfoItemExtractor {
+
+        NumberedChannelExtractor(final int number, final Set<String> threads) {
+            super(number, threads);
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public long getSubscriberCount() throws ParsingException {
+            throw new ParsingException("No subscriber count for " + number);
+        }
+
+        @Override
+        public long getStreamCount() {
+            return number;
+        }
+
+        @Override
+        public boolean isVerified() {
+            return false;
+        }
+    }
+
+    /**
+     * The stream count of playlists can't be extracted.
+     */
+    private static final class NumberedPlaylistExtractor extends NumberedExtractor
+            implements PlaylistInfoItemExtractor {
+
+        NumberedPlaylistExtractor(final int number, final Set<String> threads) {
+            super(number, threads);
+        }
+
+        @Override
+        public String getUploaderName() {
+            return null;
+        }
+
+        @Override
+        public String getUploaderUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean isUploaderVerified() {
+            return false;
+        }
+
+        @Override
+        public long getStreamCount() throws ParsingException {
+            throw new ParsingException("No stream count for " + number);
+        }
+    }
+
+    /**
+     * A stream whose uploader name is the number of items and errors of another collector, to
+     * which it commits a stream when extracting it.
+     */
+    private static final class CollectingStreamExtractor extends NumberedStreamExtractor {
+
+        CollectingStreamExtractor(final int number, final Set<String> threads) {
+            super(number, threads);
+        }
+
+        @Override
+        public String getUploaderName() {
+            final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+            collector.commit(new NumberedStreamExtractor(5, ConcurrentHashMap.newKeySet()));
+            return collector.getItems().size() + "/" + collector.getErrors().size();
+        }
+    }
+
+    /**
+     * A stream whose name can only be extracted once the names of a given number of streams are
+     * extracted at the same time.
+     */
+    private static final class WaitingStreamExtractor extends NumberedStreamExtractor {
+        private final CountDownLatch extractingStreams;
+
+        WaitingStreamExtractor(final int number, final CountDownLatch extractingStreams) {
+            super(number, ConcurrentHashMap.newKeySet());
+            this.extractingStreams = extractingStreams;
+        }
+
+        @Override
+        public String getName() throws ParsingException {
+            extractingStreams.countDown();
+            try {
+                if (!extractingStreams.await(10, TimeUnit.SECONDS)) {
+                    throw new ParsingException("Streams are not extracted in parallel");
+                }
+            } catch (final InterruptedException e) {
+                throw new ParsingException("Interrupted", e);
+            }
+            return String.valueOf(number);
+        }
+    }
+
+    @BeforeAll
+    static void createExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @AfterEach
+    void disableParallelExtraction() {
+        InfoItemsCollector.setParallelExtraction(null, 0);
+    }
+
+    private static MultiInfoItemsCollector collect(final boolean allowParallelExtraction,
+                                                   final Set<String> threads) {
+        final MultiInfoItemsCollector collector = new MultiInfoItemsCollector(0);
+        if (allowParallelExtraction) {
+            collector.allowParallelExtraction();
+        }
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            if (i % 4 == 1) {
+                collector.commit(new NumberedChannelExtractor(i, threads));
+            } else if (i % 4 == 2) {
+                collector.commit(new NumberedPlaylistExtractor(i, threads));
+            } else {
+                collector.commit(new NumberedStreamExtractor(i, threads));
+            }
+        }
+        return collector;
+    }
+
+    private static List<String> names(final InfoItemsCollector<?, ?> collector) {
+        return collector.getItems().stream()
+                .map(InfoItem::getName)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> errorMessages(final InfoItemsCollector<?, ?> collector) {
+        return collector.getErrors().stream()
+                .map(Throwable::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void itemsAndErrorsKeepTheirOrder() {
+        final MultiInfoItemsCollector sequential = collect(false, ConcurrentHashMap.newKeySet());
+
+        InfoItemsCollector.setParallelExtraction(executor, 10);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final MultiInfoItemsCollector parallel = collect(true, threads);
+
+        assertEquals(names(sequential), names(parallel));
+        assertEquals(errorMessages(sequential), errorMessages(parallel));
+
+        // The errors of the items which can't be collected come first, followed by the errors of
+        // the streams, the channels and the playlists
+        final List<String> errorMessages = errorMessages(parallel);
+        final int nameErrorCount = (int) errorMessages.stream()
+                .filter(message -> message.startsWith("No name for "))
+                .count();
+        assertEquals("No name for 7", errorMessages.get(0));
+        assertEquals("No view count for 20", errorMessages.get(nameErrorCount));
+        assertEquals("No stream count for 198", errorMessages.get(errorMessages.size() - 1));
+        assertEquals(-1, ((StreamInfoItem) parallel.getItems().stream()
+                .filter(item -> item.getName().equals("20"))
+                .findFirst()
+                .orElseThrow())
+                .getViewCount());
+    }
+
+    @Test
+    void otherCollectorsUsedWhileExtractingAreNotAffected() {
+        InfoItemsCollector.setParallelExtraction(executor, 10);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        collector.allowParallelExtraction();
+        for (int i = 1; i <= 20; i++) {
+            collector.commit(new CollectingStreamExtractor(i, threads));
+        }
+
+        assertTrue(collector.getItems().stream()
+                .map(StreamInfoItem::getUploaderName)
+                .allMatch("1/1"::equals));
+    }
+
+    @Test
+    void itemsAreExtractedInParallel() {
+        InfoItemsCollector.setParallelExtraction(executor, 2);
+        // Each stream waits for the other one, so they must be extracted by different threads
+        final CountDownLatch extractingStreams = new CountDownLatch(2);
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        collector.allowParallelExtraction();
+        collector.commit(new WaitingStreamExtractor(1, extractingStreams));
+        collector.commit(new WaitingStreamExtractor(2, extractingStreams));
+
+        assertEquals(List.of("1", "2"), names(collector));
+        assertTrue(collector.getErrors().isEmpty());
+    }
+
+    @Test
+    void itemsCanBeRequestedOnAThreadOfTheExecutor() throws Exception {
+        // Use a daemon thread, which doesn't prevent exiting if it is blocked
+        final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            InfoItemsCollector.setParallelExtraction(singleThreadExecutor, 10);
+            final Set<String> threads = ConcurrentHashMap.newKeySet();
+            final Future<List<String>> names = singleThreadExecutor.submit(() ->
+                    names(collect(true, threads)));
+
+            // The tasks extracting the items can't run while the executor's only thread waits
+            // for them, so this thread must extract them
+            assertEquals(names(collect(false, ConcurrentHashMap.newKeySet())),
+                    names.get(10, TimeUnit.SECONDS));
+            assertEquals(1, threads.size());
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void smallPagesAreExtractedOnTheCommittingThread() {
+        InfoItemsCollector.setParallelExtraction(executor, ITEM_COUNT + 1);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        collect(true, threads).getItems();
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    void collectorsNotAllowingItAreNotParallel() {
+        InfoItemsCollector.setParallelExtraction(executor, 10);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        collect(false, threads);
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+}
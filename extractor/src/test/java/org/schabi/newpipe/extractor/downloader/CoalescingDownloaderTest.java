@@ -0,0 +1,126 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingDownloaderTest {
+
+    /**
+     * A downloader blocking every request until {@link #release} is counted down.
+     */
+    private static final class BlockingDownloader extends Downloader {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public Response execute(@Nonnull final Request request) throws IOException {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (request.url().endsWith("/fail")) {
+                throw new IOException("Request failed");
+            }
+            return new Response(200, "OK", null, request.url(), request.url());
+        }
+    }
+
+    @Test
+    void concurrentIdenticalRequestsAreExecutedOnce() throws Exception {
+        final BlockingDownloader blockingDownloader = new BlockingDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(blockingDownloader);
+
+        final List<CompletableFuture<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(downloader.getAsync("https://example.com/video"));
+        }
+        waitForInFlightRequests(downloader, 1);
+        blockingDownloader.release.countDown();
+
+        for (final CompletableFuture<Response> response : responses) {
+            assertSame(responses.get(0).get(), response.get());
+        }
+        assertEquals(1, blockingDownloader.executions.get());
+        assertEquals(0, downloader.getInFlightRequestCount());
+    }
+
+    @Test
+    void differentRequestsAreNotCoalesced() throws Exception {
+        final BlockingDownloader blockingDownloader = new BlockingDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(blockingDownloader);
+
+        final CompletableFuture<Response> first = downloader.getAsync("https://example.com/a");
+        final CompletableFuture<Response> second = downloader.getAsync("https://example.com/b");
+        waitForInFlightRequests(downloader, 2);
+        blockingDownloader.release.countDown();
+
+        assertEquals("https://example.com/a", first.get().responseBody());
+        assertEquals("https://example.com/b", second.get().responseBody());
+        assertEquals(2, blockingDownloader.executions.get());
+    }
+
+    @Test
+    void failureIsSharedWithAllWaiters() throws Exception {
+        final BlockingDownloader blockingDownloader = new BlockingDownloader();
+        final CoalescingDownloader downloader = new CoalescingDownloader(blockingDownloader);
+
+        final CompletableFuture<Response> first = downloader.getAsync("https://example.com/fail");
+        final CompletableFuture<Response> second = downloader.getAsync("https://example.com/fail");
+        waitForInFlightRequests(downloader, 1);
+        blockingDownloader.release.countDown();
+
+        assertThrows(IOException.class, () -> Downloader.awaitResponse(first));
+        assertThrows(IOException.class, () -> Downloader.awaitResponse(second));
+        assertEquals(1, blockingDownloader.executions.get());
+    }
+
+    @Test
+    void filteredRequestsAreAlwaysExecuted() throws Exception {
+        final BlockingDownloader blockingDownloader = new BlockingDownloader();
+        blockingDownloader.release.countDown();
+        final CoalescingDownloader downloader = new CoalescingDownloader(blockingDownloader,
+                request -> !"POST".equals(request.httpMethod()));
+
+        downloader.post("https://example.com/vote", null, new byte[0]);
+        downloader.post("https://example.com/vote", null, new byte[0]);
+        assertEquals(2, blockingDownloader.executions.get());
+    }
+
+    @Test
+    void completedRequestsAreNotReused() throws Exception {
+        final BlockingDownloader blockingDownloader = new BlockingDownloader();
+        blockingDownloader.release.countDown();
+        final CoalescingDownloader downloader = new CoalescingDownloader(blockingDownloader);
+
+        downloader.get("https://example.com/video");
+        downloader.get("https://example.com/video");
+        assertEquals(2, blockingDownloader.executions.get());
+    }
+
+    private static void waitForInFlightRequests(final CoalescingDownloader downloader,
+                                                final int expectedCount)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (downloader.getInFlightRequestCount() < expectedCount
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(downloader.getInFlightRequestCount() >= expectedCount);
+    }
+}
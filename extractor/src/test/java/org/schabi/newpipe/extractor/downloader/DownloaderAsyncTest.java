@@ -0,0 +1,82 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DownloaderAsyncTest {
+
+    private static final class FakeDownloader extends Downloader {
+        @Override
+        public Response execute(@Nonnull final Request request)
+                throws IOException, ReCaptchaException {
+            if (request.url().endsWith("/io")) {
+                throw new IOException("I/O failure");
+            } else if (request.url().endsWith("/captcha")) {
+                throw new ReCaptchaException("reCAPTCHA challenge requested", request.url());
+            }
+            return new Response(200, "OK", null, request.httpMethod() + " " + request.url(),
+                    request.url());
+        }
+    }
+
+    @Test
+    void executeAsyncReturnsResponseOfExecute() throws Exception {
+        final Downloader downloader = new FakeDownloader();
+        final Response response = Downloader.awaitResponse(
+                downloader.getAsync("https://example.com/ok"));
+        assertEquals("GET https://example.com/ok", response.responseBody());
+    }
+
+    @Test
+    void awaitResponseRethrowsOriginalExceptions() {
+        final Downloader downloader = new FakeDownloader();
+        assertThrows(IOException.class, () -> Downloader.awaitResponse(
+                downloader.postWithContentTypeJsonAsync("https://example.com/io", null, null)));
+        assertThrows(ReCaptchaException.class, () -> Downloader.awaitResponse(
+                downloader.headAsync("https://example.com/captcha")));
+    }
+
+    @Test
+    void executeAsyncUsesConfiguredExecutor() throws Exception {
+        final Downloader downloader = new FakeDownloader();
+        final AtomicInteger executedTasks = new AtomicInteger();
+        downloader.setAsyncExecutor(runnable -> {
+            executedTasks.incrementAndGet();
+            runnable.run();
+        });
+
+        final CompletableFuture<Response> future = downloader.getAsync("https://example.com/ok");
+        assertEquals(1, executedTasks.get());
+        assertEquals(200, future.get().responseCode());
+    }
+
+    @Test
+    void cancelledRequestIsNotExecuted() {
+        final AtomicInteger executions = new AtomicInteger();
+        final Downloader downloader = new Downloader() {
+            @Override
+            public Response execute(@Nonnull final Request request) {
+                executions.incrementAndGet();
+                return new Response(200, "OK", null, null, request.url());
+            }
+        };
+        final Runnable[] pendingTask = new Runnable[1];
+        downloader.setAsyncExecutor(runnable -> pendingTask[0] = runnable);
+
+        final CompletableFuture<Response> future = downloader.getAsync("https://example.com/ok");
+        future.cancel(false);
+        pendingTask[0].run();
+
+        assertEquals(0, executions.get());
+        assertThrows(IOException.class, () -> Downloader.awaitResponse(future));
+    }
+}
@@ -0,0 +1,172 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingDownloaderTest {
+    private static final String PLAYER_URL =
+            "https://youtubei.googleapis.com/youtubei/v1/player?prettyPrint=false";
+    private static final String NEXT_URL =
+            "https://www.youtube.com/youtubei/v1/next?prettyPrint=false";
+
+    /**
+     * A downloader answering each request after the next configured delay, or failing if the
+     * delay is negative.
+     */
+    private static final class DelayedDownloader extends Downloader {
+        final List<Integer> delaysMillis = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public Response execute(@Nonnull final Request request) throws IOException {
+            final int execution = executions.incrementAndGet();
+            final int delayMillis = delaysMillis.isEmpty() ? 0 : delaysMillis.remove(0);
+            try {
+                Thread.sleep(Math.abs(delayMillis));
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (delayMillis < 0) {
+                throw new IOException("Request " + execution + " failed");
+            }
+            return new Response(200, "OK", null, "response " + execution, request.url());
+        }
+    }
+
+    private final DelayedDownloader delayedDownloader = new DelayedDownloader();
+
+    @Test
+    void slowRequestsAreHedged() throws Exception {
+        delayedDownloader.delaysMillis.add(2000);
+        delayedDownloader.delaysMillis.add(10);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(50), 20)
+                .build();
+
+        final long start = System.nanoTime();
+        final Response response = downloader.post(PLAYER_URL, null, new byte[0]);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("response 2", response.responseBody());
+        assertTrue(elapsedMillis < 1000, "The hedged request was not used: " + elapsedMillis);
+        assertEquals(1, downloader.getHedgedRequestCount());
+    }
+
+    @Test
+    void fastRequestsAreNotHedged() throws Exception {
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(500), 20)
+                .build();
+
+        assertEquals("response 1", downloader.post(PLAYER_URL, null, new byte[0])
+                .responseBody());
+        assertEquals(1, delayedDownloader.executions.get());
+        assertEquals(0, downloader.getHedgedRequestCount());
+    }
+
+    @Test
+    void onlyMatchingRequestsAreHedged() throws Exception {
+        delayedDownloader.delaysMillis.add(200);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(10), 20)
+                .build();
+
+        assertEquals("response 1", downloader.post(NEXT_URL, null, new byte[0])
+                .responseBody());
+        assertEquals(1, delayedDownloader.executions.get());
+        assertEquals(0, downloader.getHedgeableRequestCount());
+    }
+
+    @Test
+    void failedRequestIsCoveredByHedge() throws Exception {
+        delayedDownloader.delaysMillis.add(-500);
+        delayedDownloader.delaysMillis.add(200);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(20), 20)
+                .build();
+
+        assertEquals("response 2", downloader.post(PLAYER_URL, null, new byte[0])
+                .responseBody());
+    }
+
+    @Test
+    void hedgeIsUsedIfPrimaryFailsBeforeIt() throws Exception {
+        // The primary request fails after the hedge was sent, which succeeds later
+        delayedDownloader.delaysMillis.add(-100);
+        delayedDownloader.delaysMillis.add(300);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(20), 20)
+                .build();
+
+        assertEquals("response 2", downloader.post(PLAYER_URL, null, new byte[0])
+                .responseBody());
+    }
+
+    @Test
+    void primaryIsUsedIfHedgeFailsBeforeIt() throws Exception {
+        delayedDownloader.delaysMillis.add(300);
+        delayedDownloader.delaysMillis.add(-50);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(20), 20)
+                .build();
+
+        assertEquals("response 1", downloader.post(PLAYER_URL, null, new byte[0])
+                .responseBody());
+    }
+
+    @Test
+    void primaryExceptionIsThrownIfHedgeFailsFirst() {
+        delayedDownloader.delaysMillis.add(-300);
+        delayedDownloader.delaysMillis.add(-50);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(20), 20)
+                .build();
+
+        final IOException e = assertThrows(IOException.class,
+                () -> downloader.post(PLAYER_URL, null, new byte[0]));
+        assertEquals("Request 1 failed", e.getMessage());
+    }
+
+    @Test
+    void primaryExceptionIsThrownIfBothRequestsFail() {
+        delayedDownloader.delaysMillis.add(-100);
+        delayedDownloader.delaysMillis.add(-200);
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ofMillis(20), 20)
+                .build();
+
+        final IOException e = assertThrows(IOException.class,
+                () -> downloader.post(PLAYER_URL, null, new byte[0]));
+        assertEquals("Request 1 failed", e.getMessage());
+    }
+
+    @Test
+    void hedgedRequestsAreBoundedByRatio() throws Exception {
+        final HedgingDownloader downloader = HedgingDownloader.newBuilder(delayedDownloader)
+                .initialDelay(Duration.ZERO, 1000)
+                .maxHedgeRatio(0.2)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            delayedDownloader.delaysMillis.add(20);
+            delayedDownloader.delaysMillis.add(20);
+            downloader.post(PLAYER_URL, null, new byte[0]);
+        }
+
+        assertEquals(10, downloader.getHedgeableRequestCount());
+        assertTrue(downloader.getHedgedRequestCount() <= 3,
+                "Too many hedged requests: " + downloader.getHedgedRequestCount());
+    }
+}
@@ -0,0 +1,75 @@
+package org.schabi.newpipe.extractor.downloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseTest {
+    private static final String URL = "https://example.com";
+
+    @Test
+    void rawBodyIsDecodedLazily() {
+        final byte[] body = "Ça va ?".getBytes(StandardCharsets.UTF_8);
+        final Response response = new Response(200, "OK", null, body, null, URL);
+
+        assertTrue(response.hasRawResponseBody());
+        assertSame(body, response.responseBodyBytes());
+        assertEquals(body.length, response.responseBodyLength());
+        assertEquals(StandardCharsets.UTF_8, response.responseBodyCharset());
+        assertEquals("Ça va ?", response.responseBody());
+        assertSame(response.responseBody(), response.responseBody());
+    }
+
+    @Test
+    void rawBodyUsesContentTypeCharset() {
+        final Map<String, List<String>> headers = Collections.singletonMap("content-type",
+                Collections.singletonList("text/html; charset=\"ISO-8859-1\""));
+        final byte[] body = "Ça va ?".getBytes(StandardCharsets.ISO_8859_1);
+        final Response response = new Response(200, "OK", headers, body, null, URL);
+
+        assertEquals(StandardCharsets.ISO_8859_1, response.responseBodyCharset());
+        assertEquals("Ça va ?", response.responseBody());
+    }
+
+    @Test
+    void explicitCharsetOverridesContentType() {
+        final Map<String, List<String>> headers = Collections.singletonMap("Content-Type",
+                Collections.singletonList("text/plain; charset=unknown-charset"));
+        final byte[] body = "Ça va ?".getBytes(StandardCharsets.UTF_16BE);
+
+        assertEquals(StandardCharsets.UTF_8,
+                new Response(200, "OK", headers, new byte[0], null, URL).responseBodyCharset());
+        assertEquals("Ça va ?", new Response(200, "OK", headers, body,
+                StandardCharsets.UTF_16BE, URL).responseBody());
+    }
+
+    @Test
+    void stringBodyCanBeReadAsBytes() throws IOException {
+        final Response response = new Response(200, "OK", null, "Ça va ?", URL);
+        final byte[] expectedBytes = "Ça va ?".getBytes(StandardCharsets.UTF_8);
+
+        assertFalse(response.hasRawResponseBody());
+        assertArrayEquals(expectedBytes, response.responseBodyBytes());
+        assertEquals(expectedBytes.length, response.responseBodyBuffer().remaining());
+        try (InputStream stream = response.responseBodyStream()) {
+            assertEquals(expectedBytes[0] & 0xFF, stream.read());
+        }
+    }
+
+    @Test
+    void nullBodiesAreEmpty() {
+        assertEquals("", new Response(200, "OK", null, (byte[]) null, null, URL).responseBody());
+        assertEquals("", new Response(200, "OK", null, (String) null, URL).responseBody());
+    }
+}
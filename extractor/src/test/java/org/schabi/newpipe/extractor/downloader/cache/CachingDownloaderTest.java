@@ -0,0 +1,231 @@
+package org.schabi.newpipe.extractor.downloader.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingDownloaderTest {
+    private static final String URL = "https://example.com/resource";
+
+    /**
+     * A downloader answering every request with the configured headers, which records the
+     * requests it received.
+     */
+    private static final class RecordingDownloader extends Downloader {
+        final List<Request> requests = new ArrayList<>();
+        final Map<String, List<String>> responseHeaders = new HashMap<>();
+        int responseCode = 200;
+
+        @Override
+        public Response execute(@Nonnull final Request request) {
+            requests.add(request);
+            return new Response(responseCode, "", responseHeaders,
+                    "body " + requests.size(), request.url());
+        }
+
+        void setHeader(final String name, final String value) {
+            responseHeaders.put(name, Collections.singletonList(value));
+        }
+    }
+
+    private final RecordingDownloader recordingDownloader = new RecordingDownloader();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private Path cacheDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("downloader-cache");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void freshResponsesAreReused() throws Exception {
+        recordingDownloader.setHeader("Cache-Control", "public, max-age=60");
+        final CachingDownloader downloader = newBuilder().build();
+
+        assertEquals("body 1", downloader.get(URL).responseBody());
+        now.addAndGet(59_000);
+        assertEquals("body 1", downloader.get(URL).responseBody());
+        assertEquals(1, recordingDownloader.requests.size());
+
+        now.addAndGet(1_000);
+        assertEquals("body 2", downloader.get(URL).responseBody());
+        assertEquals(2, recordingDownloader.requests.size());
+    }
+
+    @Test
+    void cachedResponsesCannotBeModified() throws Exception {
+        recordingDownloader.setHeader("Cache-Control", "public, max-age=60");
+        final CachingDownloader downloader = newBuilder().build();
+
+        downloader.get(URL).responseBodyBytes()[0] = 'x';
+        downloader.get(URL).responseBodyBytes()[0] = 'x';
+        assertEquals("body 1", downloader.get(URL).responseBody());
+        assertEquals(1, recordingDownloader.requests.size());
+    }
+
+    @Test
+    void uncacheableResponsesAreNotStored() throws Exception {
+        final CachingDownloader downloader = newBuilder().build();
+
+        // No cache headers
+        downloader.get(URL);
+        downloader.get(URL);
+
+        recordingDownloader.setHeader("Cache-Control", "no-store, max-age=60");
+        downloader.get(URL);
+        downloader.get(URL);
+
+        // Errors
+        recordingDownloader.setHeader("Cache-Control", "max-age=60");
+        recordingDownloader.responseCode = 500;
+        downloader.get(URL);
+        downloader.get(URL);
+
+        // POST requests without override
+        recordingDownloader.responseCode = 200;
+        downloader.post(URL, null, new byte[]{1});
+        downloader.post(URL, null, new byte[]{1});
+
+        assertEquals(8, recordingDownloader.requests.size());
+    }
+
+    @Test
+    void staleResponsesAreRevalidated() throws Exception {
+        recordingDownloader.setHeader("Cache-Control", "max-age=10");
+        recordingDownloader.setHeader("ETag", "\"v1\"");
+        final CachingDownloader downloader = newBuilder().build();
+
+        assertEquals("body 1", downloader.get(URL).responseBody());
+        now.addAndGet(20_000);
+
+        recordingDownloader.responseCode = 304;
+        final Response response = downloader.get(URL);
+        assertEquals(200, response.responseCode());
+        assertEquals("body 1", response.responseBody());
+        assertEquals(Collections.singletonList("\"v1\""),
+                recordingDownloader.requests.get(1).headers().get("If-None-Match"));
+
+        // The revalidated response is fresh again
+        assertEquals("body 1", downloader.get(URL).responseBody());
+        assertEquals(2, recordingDownloader.requests.size());
+        assertNull(recordingDownloader.requests.get(0).headers().get("If-None-Match"));
+    }
+
+    @Test
+    void ttlOverridesApplyToPostRequests() throws Exception {
+        final CachingDownloader downloader = newBuilder()
+                .ttlOverride("POST", Pattern.compile("/resource$"), Duration.ofMinutes(1))
+                .build();
+        final byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("body 1", downloader.post(URL, null, body).responseBody());
+        assertEquals("body 1", downloader.post(URL, null, body).responseBody());
+        // A different body is a different request
+        assertEquals("body 2", downloader.post(URL, null, new byte[0]).responseBody());
+
+        now.addAndGet(60_000);
+        assertEquals("body 3", downloader.post(URL, null, body).responseBody());
+    }
+
+    @Test
+    void diskCacheIsPersistent() throws Exception {
+        recordingDownloader.setHeader("Cache-Control", "max-age=60");
+        try (CachingDownloader downloader = newBuilder()
+                .diskCache(cacheDirectory, 1024 * 1024, 64)
+                .build()) {
+            assertEquals("body 1", downloader.get(URL).responseBody());
+        }
+
+        try (CachingDownloader downloader = newBuilder()
+                .diskCache(cacheDirectory, 1024 * 1024, 64)
+                .build()) {
+            final Response response = downloader.get(URL);
+            assertEquals("body 1", response.responseBody());
+            assertEquals("max-age=60", response.getHeader("Cache-Control"));
+        }
+        assertEquals(1, recordingDownloader.requests.size());
+
+        // Changing the capacity clears the cache
+        try (CachingDownloader downloader = newBuilder()
+                .diskCache(cacheDirectory, 1024 * 1024, 32)
+                .build()) {
+            assertEquals("body 2", downloader.get(URL).responseBody());
+        }
+    }
+
+    @Test
+    void diskCacheEvictsLeastRecentlyUsedEntries() throws Exception {
+        try (DiskCache diskCache = new DiskCache(cacheDirectory, 16, 1024 * 1024)) {
+            for (int i = 0; i < 100; i++) {
+                final Request request = Request.newBuilder().get(URL + i).build();
+                final Response response = new Response(200, "", Collections.emptyMap(),
+                        "body " + i, URL + i);
+                diskCache.put(CacheKey.of(request), new CacheEntry(response, i, i + 1000), i);
+            }
+            assertTrue(diskCache.size() <= 12);
+
+            final Request lastRequest = Request.newBuilder().get(URL + 99).build();
+            assertEquals("body 99",
+                    diskCache.get(CacheKey.of(lastRequest), 100).toResponse().responseBody());
+            final Request firstRequest = Request.newBuilder().get(URL + 0).build();
+            assertNull(diskCache.get(CacheKey.of(firstRequest), 100));
+        }
+    }
+
+    @Test
+    void memoryCacheEvictsLeastRecentlyUsedEntries() {
+        final MemoryCache memoryCache = new MemoryCache(3000);
+        final List<CacheKey> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Request request = Request.newBuilder().get(URL + i).build();
+            final Response response = new Response(200, "", Collections.emptyMap(),
+                    new String(new char[400]), URL + i);
+            keys.add(CacheKey.of(request));
+            memoryCache.put(keys.get(i), new CacheEntry(response, 0, 1000));
+            // Keep the first entry in use
+            memoryCache.get(keys.get(0));
+        }
+
+        assertTrue(memoryCache.getWeight() <= 3000);
+        assertNotNull(memoryCache.get(keys.get(0)));
+        assertNotNull(memoryCache.get(keys.get(9)));
+        assertNull(memoryCache.get(keys.get(1)));
+    }
+
+    @Nonnull
+    private CachingDownloader.Builder newBuilder() {
+        return CachingDownloader.newBuilder(recordingDownloader).clock(now::get);
+    }
+}
@@ -0,0 +1,163 @@
+package org.schabi.newpipe.extractor.downloader.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstrumentedDownloaderTest {
+    private static final String PLAYER_URL =
+            "https://youtubei.googleapis.com/youtubei/v1/player?prettyPrint=false";
+    private static final String NEXT_URL =
+            "https://www.youtube.com/youtubei/v1/next?prettyPrint=false";
+
+    /**
+     * A downloader which fails for URLs ending with {@code /fail}.
+     */
+    private static final class TestDownloader extends Downloader {
+        @Override
+        public Response execute(@Nonnull final Request request) throws IOException {
+            if (request.url().endsWith("/fail")) {
+                throw new IOException("Request failed");
+            }
+            final int responseCode = request.url().contains("missing") ? 404 : 200;
+            return new Response(responseCode, "", Collections.emptyMap(), "réponse",
+                    request.url());
+        }
+    }
+
+    @Test
+    void listenerIsNotifiedAroundRequests() throws Exception {
+        final List<String> calls = new ArrayList<>();
+        final RequestListener listener = new RequestListener() {
+            @Override
+            public void onRequestStart(@Nonnull final RequestEvent event) {
+                calls.add("start " + event.getEndpoint());
+            }
+
+            @Override
+            public void onRequestEnd(@Nonnull final RequestEvent event) {
+                assertEquals(200, event.getResponseCode());
+                assertEquals(8, event.getResponseBytes());
+                assertEquals(2, event.getRequestBytes());
+                assertTrue(event.getDurationNanos() >= 0);
+                calls.add("end");
+            }
+        };
+        final Downloader downloader = new InstrumentedDownloader(new TestDownloader(), listener);
+
+        downloader.post(PLAYER_URL, null, new byte[]{'{', '}'});
+
+        assertEquals(List.of("start YouTube/player", "end"), calls);
+    }
+
+    @Test
+    void failuresAreReportedAndRethrown() {
+        final List<RequestEvent> failures = new ArrayList<>();
+        final Downloader downloader = new InstrumentedDownloader(new TestDownloader(),
+                new RequestListener() {
+                    @Override
+                    public void onRequestFailed(@Nonnull final RequestEvent event) {
+                        failures.add(event);
+                    }
+                });
+
+        final IOException e = assertThrows(IOException.class,
+                () -> downloader.get("https://api-v2.soundcloud.com/fail"));
+
+        assertEquals(1, failures.size());
+        assertSame(e, failures.get(0).getException());
+        assertEquals(new Endpoint("SoundCloud", "fail"), failures.get(0).getEndpoint());
+    }
+
+    @Test
+    void faultyListenersDoNotBreakRequests() throws Exception {
+        final Downloader downloader = new InstrumentedDownloader(new TestDownloader(),
+                new RequestListener() {
+                    @Override
+                    public void onRequestEnd(@Nonnull final RequestEvent event) {
+                        throw new IllegalStateException("Faulty listener");
+                    }
+                });
+
+        assertEquals(200, downloader.get(NEXT_URL).responseCode());
+    }
+
+    @Test
+    void metricsAreAggregatedPerEndpoint() throws Exception {
+        final RequestMetrics metrics = new RequestMetrics();
+        final Downloader downloader = new InstrumentedDownloader(new TestDownloader(), metrics);
+
+        downloader.post(PLAYER_URL, null, new byte[0]);
+        downloader.post(PLAYER_URL, null, new byte[0]);
+        downloader.post(NEXT_URL, null, new byte[0]);
+        downloader.get("https://api-v2.soundcloud.com/tracks/123/missing");
+        assertThrows(IOException.class, () -> downloader.get("https://example.com/a/fail"));
+
+        final EndpointMetrics player = metrics.getEndpointMetrics(
+                new Endpoint("YouTube", "player"));
+        assertNotNull(player);
+        assertEquals(2, player.getCompletedRequestCount());
+        assertEquals(2, player.getLatency().getCount());
+        assertEquals(16, player.getResponseBytes());
+        assertEquals(0, player.getInFlightRequestCount());
+
+        final EndpointMetrics tracks = metrics.getEndpointMetrics(
+                new Endpoint("SoundCloud", "tracks"));
+        assertNotNull(tracks);
+        assertEquals(1, tracks.getErrorResponseCount());
+
+        final EndpointMetrics failed = metrics.getEndpointMetrics(
+                new Endpoint("example.com", "a"));
+        assertNotNull(failed);
+        assertEquals(1, failed.getFailedRequestCount());
+
+        assertEquals(2, metrics.getServiceEndpointMetrics("YouTube").size());
+        assertEquals(4, metrics.getAllEndpointMetrics().size());
+        assertNull(metrics.getEndpointMetrics(new Endpoint("YouTube", "browse")));
+
+        metrics.reset();
+        assertEquals(0, player.getCompletedRequestCount());
+    }
+
+    @Test
+    void histogramPercentilesAreApproximated() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500.0, histogram.getMean());
+        final long p50 = histogram.getValueAtPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.25, "p50 = " + p50);
+        final long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 = " + p99);
+    }
+
+    @Test
+    void histogramBucketsCoverAllValues() {
+        for (final long value : new long[]{0, 1, 3, 4, 5, 7, 8, 1000, 123_456_789,
+                Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value);
+        }
+    }
+}
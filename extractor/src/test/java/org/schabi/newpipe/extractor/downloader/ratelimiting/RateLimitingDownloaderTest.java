@@ -0,0 +1,158 @@
+package org.schabi.newpipe.extractor.downloader.ratelimiting;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.exceptions.ReCaptchaException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitingDownloaderTest {
+    private static final String URL = "https://www.youtube.com/watch?v=dQw4w9WgXcQ";
+
+    /**
+     * A downloader taking some time to answer, which records the number of requests in flight.
+     */
+    private static final class SlowDownloader extends Downloader {
+        final AtomicInteger executions = new AtomicInteger();
+        final AtomicInteger inFlightRequests = new AtomicInteger();
+        final AtomicInteger maxInFlightRequests = new AtomicInteger();
+        final List<Integer> responseCodes = Collections.synchronizedList(new ArrayList<>());
+        int delayMillis;
+
+        @Override
+        public Response execute(@Nonnull final Request request)
+                throws IOException, ReCaptchaException {
+            executions.incrementAndGet();
+            maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis);
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlightRequests.decrementAndGet();
+            }
+
+            final int responseCode = responseCodes.isEmpty() ? 200 : responseCodes.remove(0);
+            if (responseCode == 0) {
+                throw new ReCaptchaException("reCaptcha challenge requested", request.url());
+            }
+            return new Response(responseCode, "", Collections.emptyMap(), "", request.url());
+        }
+    }
+
+    private final SlowDownloader slowDownloader = new SlowDownloader();
+
+    @Test
+    void requestRateIsLimited() throws Exception {
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .hostLimits("youtube.com", new HostLimits(20, 1, 4))
+                .build();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            downloader.get(URL);
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The first request is started immediately, then one every 50ms
+        assertTrue(elapsedMillis >= 230, "Requests were not rate limited: " + elapsedMillis);
+        assertEquals(6, slowDownloader.executions.get());
+    }
+
+    @Test
+    void concurrentRequestsAreLimited() throws Exception {
+        slowDownloader.delayMillis = 30;
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .defaultLimits(new HostLimits(1000, 100, 2))
+                .build();
+
+        final List<CompletableFuture<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(downloader.getAsync(URL));
+        }
+        for (final CompletableFuture<Response> response : responses) {
+            assertEquals(200, response.get().responseCode());
+        }
+
+        assertEquals(2, slowDownloader.maxInFlightRequests.get());
+    }
+
+    @Test
+    void hostsAreLimitedIndependently() throws Exception {
+        slowDownloader.delayMillis = 50;
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .defaultLimits(new HostLimits(1000, 100, 1))
+                .build();
+
+        final CompletableFuture<Response> first = downloader.getAsync(URL);
+        final CompletableFuture<Response> second =
+                downloader.getAsync("https://soundcloud.com/");
+        first.get();
+        second.get();
+
+        assertEquals(2, slowDownloader.maxInFlightRequests.get());
+    }
+
+    @Test
+    void tooManyRequestsResponsesAreRetriedAfterBackoff() throws Exception {
+        slowDownloader.responseCodes.add(429);
+        slowDownloader.responseCodes.add(429);
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .defaultLimits(new HostLimits(1000, 100, 4))
+                .backoff(Duration.ofMillis(40), Duration.ofSeconds(1))
+                .build();
+
+        final long start = System.nanoTime();
+        assertEquals(200, downloader.get(URL).responseCode());
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Backoff delays of 40ms then 80ms
+        assertTrue(elapsedMillis >= 110, "Retries did not back off: " + elapsedMillis);
+        assertEquals(3, slowDownloader.executions.get());
+    }
+
+    @Test
+    void tooManyRequestsResponseIsReturnedAfterMaxRetries() throws Exception {
+        slowDownloader.responseCodes.add(429);
+        slowDownloader.responseCodes.add(429);
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .maxRetries(1)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(1))
+                .build();
+
+        assertEquals(429, downloader.get(URL).responseCode());
+        assertEquals(2, slowDownloader.executions.get());
+    }
+
+    @Test
+    void reCaptchaBlocksHostDuringBackoff() throws Exception {
+        slowDownloader.responseCodes.add(0);
+        final RateLimitingDownloader downloader = RateLimitingDownloader.newBuilder(slowDownloader)
+                .defaultLimits(new HostLimits(1000, 100, 4))
+                .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                .build();
+
+        assertThrows(ReCaptchaException.class, () -> downloader.get(URL));
+        assertEquals(1, slowDownloader.executions.get());
+
+        final long start = System.nanoTime();
+        assertEquals(200, downloader.get(URL).responseCode());
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 90, "Host was not blocked: " + elapsedMillis);
+    }
+}
@@ -2,10 +2,13 @@ package org.schabi.newpipe.extractor.localization;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.schabi.newpipe.extractor.localization.TimeAgoParserTest.ParseTimeAgoTestData.greaterThanDay;
 import static org.schabi.newpipe.extractor.localization.TimeAgoParserTest.ParseTimeAgoTestData.lessThanDay;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -55,6 +58,30 @@ class TimeAgoParserTest {
         );
     }
 
+    @Test
+    void parseSpecialCasesAndLanguagesWithoutSeparators() throws ParsingException {
+        final var now = LocalDateTime.of(2020, Month.JANUARY, 1, 1, 1, 1);
+
+        final var hebrewParser =
+                TimeAgoPatternsManager.getTimeAgoParserFor(new Localization("iw"), now);
+        assertEquals(now.minusDays(2).truncatedTo(ChronoUnit.DAYS),
+                hebrewParser.parse("לפני יומיים").getLocalDateTime());
+        assertEquals(now.minusDays(3).truncatedTo(ChronoUnit.DAYS),
+                hebrewParser.parse("לפני 3 ימים").getLocalDateTime());
+
+        final var japaneseParser =
+                TimeAgoPatternsManager.getTimeAgoParserFor(new Localization("ja"), now);
+        assertEquals(now.minusHours(5), japaneseParser.parse("5 時間前").getLocalDateTime());
+        assertEquals(now.minusWeeks(2).truncatedTo(ChronoUnit.DAYS),
+                japaneseParser.parse("2週間前").getLocalDateTime());
+
+        final var englishParser = TimeAgoPatternsManager.getTimeAgoParserFor(
+                Localization.DEFAULT, now);
+        assertEquals(now.minusMinutes(4), englishParser.parse("4\u00A0MINUTES AGO")
+                .getLocalDateTime());
+        assertThrows(ParsingException.class, () -> englishParser.parse("yesterday"));
+    }
+
     static class ParseTimeAgoTestData {
         public static final String AGO_SUFFIX = " ago";
         private final Function<LocalDateTime, LocalDateTime> expectedApplyToNow;
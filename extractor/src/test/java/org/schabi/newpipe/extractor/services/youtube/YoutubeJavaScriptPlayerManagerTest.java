@@ -0,0 +1,84 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YoutubeJavaScriptPlayerManagerTest {
+
+    /**
+     * A downloader serving the IFrame resource with the current player hash, and players whose
+     * signature timestamp is their hash.
+     */
+    private static final class PlayerDownloader extends Downloader {
+        final List<String> requestedUrls = Collections.synchronizedList(new ArrayList<>());
+        volatile String playerHash = "00000001";
+
+        @Override
+        public Response execute(@Nonnull final Request request) throws IOException {
+            final String url = request.url();
+            requestedUrls.add(url);
+            final String body;
+            if (url.equals("https://www.youtube.com/iframe_api")) {
+                body = "var scriptUrl = 'https:\\/\\/www.youtube.com\\/s\\/player\\/" + playerHash
+                        + "\\/www-widgetapi.vflset\\/www-widgetapi.js';";
+            } else if (url.endsWith("/base.js")) {
+                final String hash = url.split("/")[5];
+                body = "var a={signatureTimestamp:" + Integer.parseInt(hash) + "};";
+            } else {
+                throw new IOException("Unexpected request to " + url);
+            }
+            return new Response(200, "OK", null, body, url);
+        }
+    }
+
+    private final PlayerDownloader downloader = new PlayerDownloader();
+
+    @BeforeEach
+    void setUp() {
+        NewPipe.init(downloader);
+        YoutubeJavaScriptPlayerManager.clearAllCaches();
+    }
+
+    @AfterEach
+    void tearDown() {
+        YoutubeJavaScriptPlayerManager.clearAllCaches();
+    }
+
+    @Test
+    void refreshSwapsPlayerVersions() throws Exception {
+        assertEquals(1, YoutubeJavaScriptPlayerManager.getSignatureTimestamp("").intValue());
+
+        assertFalse(YoutubeJavaScriptPlayerManager.refreshPlayer(""));
+        assertEquals(1, downloader.requestedUrls.stream()
+                .filter(url -> url.endsWith("/base.js")).count());
+
+        downloader.playerHash = "00000002";
+        // The previous player is used until the new one is refreshed
+        assertEquals(1, YoutubeJavaScriptPlayerManager.getSignatureTimestamp("").intValue());
+        assertTrue(YoutubeJavaScriptPlayerManager.refreshPlayer(""));
+        assertEquals(2, YoutubeJavaScriptPlayerManager.getSignatureTimestamp("").intValue());
+
+        // Previous versions are still cached
+        downloader.playerHash = "00000001";
+        assertTrue(YoutubeJavaScriptPlayerManager.refreshPlayer(""));
+        assertEquals(1, YoutubeJavaScriptPlayerManager.getSignatureTimestamp("").intValue());
+        assertEquals(2, downloader.requestedUrls.stream()
+                .filter(url -> url.endsWith("/base.js")).count());
+    }
+}
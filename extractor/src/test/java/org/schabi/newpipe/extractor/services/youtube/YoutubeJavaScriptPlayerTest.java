@@ -0,0 +1,90 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YoutubeJavaScriptPlayerTest {
+    private static final String URL =
+            "https://www.youtube.com/s/player/12345678/player_ias.vflset/en_GB/base.js";
+
+    @Test
+    void signatureTimestampIsExtracted() throws ParsingException {
+        final YoutubeJavaScriptPlayer player = new YoutubeJavaScriptPlayer(URL,
+                "var a={signatureTimestamp:19834,b:1};", null);
+
+        assertEquals(19834, player.getSignatureTimestamp().intValue());
+        assertSame(player.getSignatureTimestamp(), player.getSignatureTimestamp());
+    }
+
+    @Test
+    void extractionFailuresAreCached() {
+        final YoutubeJavaScriptPlayer player = new YoutubeJavaScriptPlayer(URL, "var a={};", null);
+
+        final ParsingException e = assertThrows(ParsingException.class,
+                player::getSignatureTimestamp);
+        assertSame(e, assertThrows(ParsingException.class, player::getSignatureTimestamp));
+
+        final ParsingException deobfuscationException = assertThrows(ParsingException.class,
+                () -> player.deobfuscateSignature("abc"));
+        assertSame(deobfuscationException, assertThrows(ParsingException.class,
+                () -> player.deobfuscateSignature("abc")));
+    }
+
+    @Test
+    void codeIsReleasedOnceAllDataIsExtracted() throws ParsingException {
+        final YoutubeJavaScriptPlayer player = new YoutubeJavaScriptPlayer(URL,
+                "var a={signatureTimestamp:19834,b:1};", null);
+
+        assertEquals(19834, player.getSignatureTimestamp().intValue());
+        assertTrue(player.isCodeKept());
+
+        // The deobfuscation functions can't be extracted, so the code is not needed anymore
+        player.prepare();
+        assertFalse(player.isCodeKept());
+        assertEquals(19834, player.getSignatureTimestamp().intValue());
+        assertThrows(ParsingException.class, () -> player.deobfuscateSignature("abc"));
+    }
+
+    @Test
+    void extractedDataIsStored() throws Exception {
+        final Path directory = Files.createTempDirectory("player-store");
+        try {
+            final YoutubeJavaScriptPlayerStore store = new YoutubeJavaScriptPlayerStore(directory);
+            assertNull(store.load(URL));
+
+            final YoutubeJavaScriptPlayer player = new YoutubeJavaScriptPlayer(URL,
+                    "var a={signatureTimestamp:19834,b:1};", store);
+            assertEquals(19834, player.getSignatureTimestamp().intValue());
+            assertEquals(
+                    directory.resolve("12345678_player_ias.vflset_en_GB_base.js-v1.properties"),
+                    store.getFile(URL));
+            assertTrue(Files.exists(store.getFile(URL)));
+
+            // The loaded player has no code, so it would fail if the timestamp wasn't stored
+            final YoutubeJavaScriptPlayer loadedPlayer = store.load(URL);
+            assertNotNull(loadedPlayer);
+            assertEquals(URL, loadedPlayer.getUrl());
+            assertEquals(19834, loadedPlayer.getSignatureTimestamp().intValue());
+
+            Files.writeString(store.getFile(URL), "\\u12");
+            assertNull(store.load(URL));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+}
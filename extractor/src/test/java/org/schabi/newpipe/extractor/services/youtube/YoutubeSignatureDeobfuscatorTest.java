@@ -0,0 +1,56 @@
+package org.schabi.newpipe.extractor.services.youtube;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class YoutubeSignatureDeobfuscatorTest {
+    private static final String HELPER_OBJECT = "var Xy={AB:function(a){a.reverse()},"
+            + "cd:function(a,b){a.splice(0,b)},"
+            + "ef:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}};";
+    private static final String CALLER_FUNCTION = "function deobfuscate(a){return Abc(a);}";
+
+    @Test
+    void helperObjectOperationsAreCompiled() {
+        final YoutubeSignatureDeobfuscator deobfuscator = YoutubeSignatureDeobfuscator.compile(
+                "var z=\"x;y\".split(\";\");" + HELPER_OBJECT
+                        + "Abc=function(a){a=a.split(\"\");Xy.cd(a,3);Xy.AB(a,45);Xy.ef(a,12);"
+                        + "return a.join(\"\")};" + CALLER_FUNCTION);
+
+        assertNotNull(deobfuscator);
+        assertEquals(3, deobfuscator.getOperationCount());
+        // Remove "abc", reverse, then swap "p" with "d"
+        assertEquals("donmlkjihgfep", deobfuscator.deobfuscate("abcdefghijklmnop"));
+    }
+
+    @Test
+    void globalArraysAndConstantParametersAreResolved() {
+        final YoutubeSignatureDeobfuscator deobfuscator = YoutubeSignatureDeobfuscator.compile(
+                "var z=\"reverse;splice;length;split;join;cd\".split(\";\");"
+                        + "var Xy={AB:function(a){a[z[0]]()},cd:function(a,b){a[z[1]](0,b)},"
+                        + "ef:function(a,b){var c=a[0];a[0]=a[b%a[z[2]]];a[b%a[z[2]]]=c}};"
+                        + "Abc=function(x,a){a=a[z[3]](\"\");Xy[z[5]](a,x);Xy.AB(a,45);"
+                        + "Xy.ef(a,12);return a[z[4]](\"\")};"
+                        + "function deobfuscate(a){return Abc(3,a);}");
+
+        assertNotNull(deobfuscator);
+        assertEquals("donmlkjihgfep", deobfuscator.deobfuscate("abcdefghijklmnop"));
+    }
+
+    @Test
+    void unknownShapesAreNotCompiled() {
+        // Unknown statement
+        assertNull(YoutubeSignatureDeobfuscator.compile(HELPER_OBJECT
+                + "Abc=function(a){a=a.split(\"\");a=a.slice(1);Xy.AB(a,45);"
+                + "return a.join(\"\")};" + CALLER_FUNCTION));
+        // Unknown helper method
+        assertNull(YoutubeSignatureDeobfuscator.compile(
+                "var Xy={AB:function(a,b){a.splice(b,1)}};"
+                        + "Abc=function(a){a=a.split(\"\");Xy.AB(a,45);return a.join(\"\")};"
+                        + CALLER_FUNCTION));
+        // Missing function
+        assertNull(YoutubeSignatureDeobfuscator.compile(HELPER_OBJECT + CALLER_FUNCTION));
+    }
+}
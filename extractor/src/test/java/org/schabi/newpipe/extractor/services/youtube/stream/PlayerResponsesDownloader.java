@@ -0,0 +1,121 @@
+package org.schabi.newpipe.extractor.services.youtube.stream;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonWriter;
+
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A downloader answering the requests of the YouTube stream extractor with given {@code ANDROID}
+ * and {@code IOS} player responses.
+ *
+ * <p>
+ * The {@code WEB} metadata player response and the JavaScript base player can't be fetched, so
+ * that stream URLs with a signature can't be deobfuscated.
+ * </p>
+ */
+final class PlayerResponsesDownloader extends Downloader {
+    static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    final List<String> requestedUrls = Collections.synchronizedList(new ArrayList<>());
+    volatile boolean androidPlayerRequestFailing;
+    @Nonnull
+    private final JsonObject androidPlayerResponse;
+    @Nonnull
+    private final JsonObject iosPlayerResponse;
+
+    PlayerResponsesDownloader(@Nonnull final JsonArray androidAdaptiveFormats,
+                              @Nonnull final JsonArray iosAdaptiveFormats) {
+        this.androidPlayerResponse = playerResponse(androidAdaptiveFormats);
+        this.iosPlayerResponse = playerResponse(iosAdaptiveFormats);
+    }
+
+    @Nonnull
+    private static JsonObject playerResponse(@Nonnull final JsonArray adaptiveFormats) {
+        return JsonObject.builder()
+                .object("playabilityStatus")
+                    .value("status", "OK")
+                .end()
+                .object("videoDetails")
+                    .value("videoId", VIDEO_ID)
+                    .value("lengthSeconds", "60")
+                .end()
+                .object("streamingData")
+                    .value("adaptiveFormats", adaptiveFormats)
+                .end()
+                .done();
+    }
+
+    /**
+     * Create the JSON object of an audio format of a player response.
+     *
+     * @param itag   the itag of an M4A audio stream
+     * @param url    the URL of the format
+     * @param signed whether the URL must be signed with a signature to deobfuscate
+     * @return the JSON object of the format
+     */
+    @Nonnull
+    static JsonObject audioFormat(final int itag, @Nonnull final String url, final boolean signed) {
+        final JsonObject format = JsonObject.builder()
+                .value("itag", itag)
+                .value("mimeType", "audio/mp4; codecs=\"mp4a.40.2\"")
+                .value("bitrate", 130_000)
+                .value("audioSampleRate", "44100")
+                .value("audioChannels", 2)
+                .value("contentLength", "1000000")
+                .value("approxDurationMs", "60000")
+                .done();
+        if (signed) {
+            format.put("signatureCipher", "s=obfuscated&sp=sig&url="
+                    + url.replace(":", "%3A").replace("/", "%2F").replace("?", "%3F")
+                            .replace("=", "%3D").replace("&", "%26"));
+        } else {
+            format.put("url", url);
+        }
+        return format;
+    }
+
+    /**
+     * Get the response to a request.
+     *
+     * @param url the URL of the request
+     * @return the body of the response
+     * @throws IOException if the request is not one which can be answered
+     */
+    @Nonnull
+    String respond(@Nonnull final String url) throws IOException {
+        if (url.contains("/visitor_id?")) {
+            return "{\"responseContext\":{\"visitorData\":\"CgtWaXNpdG9yRGF0YQ%3D%3D\"}}";
+        } else if (url.equals("https://www.youtube.com/sw.js")) {
+            return "var a={\"INNERTUBE_CONTEXT_CLIENT_VERSION\":\"2.20240101.00.00\"};";
+        } else if (url.contains("/reel/reel_item_watch?")) {
+            if (androidPlayerRequestFailing) {
+                throw new IOException("Could not get the ANDROID player response");
+            }
+            return JsonWriter.string(JsonObject.builder()
+                    .value("playerResponse", androidPlayerResponse)
+                    .done());
+        } else if (url.startsWith("https://youtubei.googleapis.com/youtubei/v1/player?")) {
+            return JsonWriter.string(iosPlayerResponse);
+        } else if (url.startsWith("https://www.youtube.com/youtubei/v1/next?")) {
+            return "{\"contents\":{\"twoColumnWatchNextResults\":{}},\"responseContext\":{}}";
+        }
+        throw new IOException("Unexpected request to " + url);
+    }
+
+    @Override
+    public Response execute(@Nonnull final Request request) throws IOException {
+        requestedUrls.add(request.url());
+        return new Response(200, "OK", null, respond(request.url()), request.url());
+    }
+}
@@ -0,0 +1,108 @@
+package org.schabi.newpipe.extractor.services.youtube.stream;
+
+import com.grack.nanojson.JsonArray;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeTestsUtils;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamExtractor;
+import org.schabi.newpipe.extractor.stream.Stream;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+import static org.schabi.newpipe.extractor.services.youtube.stream.PlayerResponsesDownloader.VIDEO_ID;
+import static org.schabi.newpipe.extractor.services.youtube.stream.PlayerResponsesDownloader.audioFormat;
+
+class YoutubeStreamExtractorConcurrentFetchTest {
+    private static final String URL = YoutubeStreamExtractorDefaultTest.BASE_URL + VIDEO_ID;
+
+    @BeforeEach
+    void setUp() {
+        YoutubeTestsUtils.ensureStateless();
+        YoutubeStreamExtractor.setFetchIosClient(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        YoutubeStreamExtractor.setFetchIosClient(false);
+        YoutubeStreamExtractor.setFetchConcurrently(false);
+        YoutubeTestsUtils.ensureStateless();
+    }
+
+    @Nonnull
+    private static PlayerResponsesDownloader createDownloader() {
+        return new PlayerResponsesDownloader(
+                JsonArray.from(audioFormat(140, "https://android.example/140", false)),
+                JsonArray.from(audioFormat(140, "https://ios.example/140", false),
+                        audioFormat(139, "https://ios.example/139", false)));
+    }
+
+    @Nonnull
+    private static List<String> fetchAudioStreamUrls(final boolean fetchConcurrently,
+                                                     @Nonnull final List<String> requestedUrls)
+            throws Exception {
+        YoutubeTestsUtils.ensureStateless();
+        YoutubeStreamExtractor.setFetchConcurrently(fetchConcurrently);
+        final PlayerResponsesDownloader downloader = createDownloader();
+        NewPipe.init(downloader);
+
+        final StreamExtractor extractor = YouTube.getStreamExtractor(URL);
+        extractor.fetchPage();
+        // The random parameters are not generated in the same order
+        downloader.requestedUrls.stream()
+                .map(url -> url.replaceAll("&t=[^&]*", ""))
+                .forEach(requestedUrls::add);
+        return extractor.getAudioStreams().stream()
+                .map(Stream::getContent)
+                .map(url -> url.replaceAll("&cpn=[^&]*", ""))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void concurrentFetchGivesTheSameStreams() throws Exception {
+        final List<String> sequentialUrls = new ArrayList<>();
+        final List<String> concurrentUrls = new ArrayList<>();
+
+        assertEquals(List.of("https://android.example/140", "https://ios.example/139"),
+                fetchAudioStreamUrls(false, sequentialUrls));
+        assertEquals(List.of("https://android.example/140", "https://ios.example/139"),
+                fetchAudioStreamUrls(true, concurrentUrls));
+
+        Collections.sort(sequentialUrls);
+        Collections.sort(concurrentUrls);
+        assertEquals(sequentialUrls, concurrentUrls);
+    }
+
+    @Test
+    void androidClientFailureCancelsOtherRequests() throws Exception {
+        YoutubeStreamExtractor.setFetchConcurrently(true);
+        final PlayerResponsesDownloader downloader = createDownloader();
+        downloader.androidPlayerRequestFailing = true;
+        // Queue the requests sent concurrently with the ANDROID player request
+        final List<Runnable> queuedRequests = Collections.synchronizedList(new ArrayList<>());
+        downloader.setAsyncExecutor(queuedRequests::add);
+        NewPipe.init(downloader);
+
+        final StreamExtractor extractor = YouTube.getStreamExtractor(URL);
+        assertThrows(IOException.class, extractor::fetchPage);
+
+        // The WEB metadata, IOS player and next requests have been cancelled
+        assertEquals(3, queuedRequests.size());
+        queuedRequests.forEach(Runnable::run);
+        assertTrue(downloader.requestedUrls.stream()
+                .noneMatch(url -> url.contains("/player?") || url.contains("/next?")));
+    }
+}
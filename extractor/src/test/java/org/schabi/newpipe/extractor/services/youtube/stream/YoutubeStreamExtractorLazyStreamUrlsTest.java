@@ -0,0 +1,111 @@
+package org.schabi.newpipe.extractor.services.youtube.stream;
+
+import com.grack.nanojson.JsonArray;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.services.youtube.YoutubeTestsUtils;
+import org.schabi.newpipe.extractor.services.youtube.extractors.YoutubeStreamExtractor;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.Stream;
+import org.schabi.newpipe.extractor.stream.StreamExtractor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+import static org.schabi.newpipe.extractor.services.youtube.stream.PlayerResponsesDownloader.VIDEO_ID;
+import static org.schabi.newpipe.extractor.services.youtube.stream.PlayerResponsesDownloader.audioFormat;
+
+class YoutubeStreamExtractorLazyStreamUrlsTest {
+    private static final String ANDROID_URL = "https://android.example/videoplayback?itag=140";
+    private static final String IOS_URL = "https://ios.example/videoplayback?itag=140";
+    private static final String OTHER_URL = "https://android.example/videoplayback?itag=139";
+
+    @BeforeEach
+    void setUp() {
+        YoutubeStreamExtractor.setFetchIosClient(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        YoutubeStreamExtractor.setFetchIosClient(false);
+        YoutubeStreamExtractor.setResolveStreamUrlsLazily(false);
+        YoutubeTestsUtils.ensureStateless();
+    }
+
+    private static List<AudioStream> getAudioStreams(final boolean resolveStreamUrlsLazily,
+                                                     final boolean androidUrlSigned)
+            throws Exception {
+        YoutubeTestsUtils.ensureStateless();
+        YoutubeStreamExtractor.setResolveStreamUrlsLazily(resolveStreamUrlsLazily);
+        NewPipe.init(new PlayerResponsesDownloader(
+                JsonArray.from(audioFormat(140, ANDROID_URL, androidUrlSigned),
+                        audioFormat(139, OTHER_URL, false)),
+                JsonArray.from(audioFormat(140, IOS_URL, false))));
+
+        final StreamExtractor extractor = YouTube.getStreamExtractor(
+                YoutubeStreamExtractorDefaultTest.BASE_URL + VIDEO_ID);
+        extractor.fetchPage();
+        return extractor.getAudioStreams();
+    }
+
+    private static List<String> contents(final List<? extends Stream> streams) {
+        return streams.stream()
+                .map(Stream::getContent)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void urlsAreResolvedWhenAccessed() throws Exception {
+        final List<AudioStream> eagerStreams = getAudioStreams(false, false);
+        final List<AudioStream> lazyStreams = getAudioStreams(true, false);
+
+        assertEquals(2, lazyStreams.size());
+        assertTrue(lazyStreams.stream().noneMatch(Stream::isContentResolved));
+        assertEquals(contents(eagerStreams), contents(lazyStreams));
+        assertTrue(contents(lazyStreams).get(0).startsWith(ANDROID_URL + "&cpn="));
+    }
+
+    @Test
+    void similarStreamsOfOtherClientsAreUsedIfUrlsCannotBeDeobfuscated() throws Exception {
+        final List<AudioStream> eagerStreams = getAudioStreams(false, true);
+        final List<AudioStream> lazyStreams = getAudioStreams(true, true);
+
+        // The ANDROID stream is listed first in lazy mode, as its URL is not deobfuscated yet,
+        // but resolving it gives the IOS stream's URL
+        assertEquals(List.of("140", "139"), lazyStreams.stream()
+                .map(Stream::getId)
+                .collect(Collectors.toList()));
+        assertTrue(lazyStreams.get(0).getContent().startsWith(IOS_URL + "&cpn="));
+
+        assertEquals(List.of("139", "140"), eagerStreams.stream()
+                .map(Stream::getId)
+                .collect(Collectors.toList()));
+        assertEquals(eagerStreams.get(1).getContent(), lazyStreams.get(0).getContent());
+    }
+
+    @Test
+    void streamsWithoutAlternativesAreNotResolvedIfUrlsCannotBeDeobfuscated() throws Exception {
+        YoutubeTestsUtils.ensureStateless();
+        YoutubeStreamExtractor.setResolveStreamUrlsLazily(true);
+        NewPipe.init(new PlayerResponsesDownloader(
+                JsonArray.from(audioFormat(140, ANDROID_URL, true)), new JsonArray()));
+
+        final StreamExtractor extractor = YouTube.getStreamExtractor(
+                YoutubeStreamExtractorDefaultTest.BASE_URL + VIDEO_ID);
+        extractor.fetchPage();
+        final List<AudioStream> streams = extractor.getAudioStreams();
+
+        assertEquals(1, streams.size());
+        assertThrows(IllegalStateException.class, streams.get(0)::getContent);
+        assertFalse(streams.get(0).isContentResolved());
+        assertTrue(Stream.resolveContents(streams).isEmpty());
+    }
+}
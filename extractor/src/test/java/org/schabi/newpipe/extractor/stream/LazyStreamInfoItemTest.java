@@ -0,0 +1,213 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.Image;
+import org.schabi.newpipe.extractor.InfoItemsCollector;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.localization.DateWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyStreamInfoItemTest {
+
+    /**
+     * An extractor recording the getters called on it, whose view count can't be extracted.
+     */
+    private static class RecordingExtractor implements StreamInfoItemExtractor {
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public String getName() {
+            return "name";
+        }
+
+        @Override
+        public String getUrl() {
+            return "https://example.com/watch";
+        }
+
+        @Override
+        public StreamType getStreamType() {
+            return StreamType.VIDEO_STREAM;
+        }
+
+        @Override
+        public boolean isAd() {
+            return false;
+        }
+
+        @Override
+        public long getDuration() {
+            calls.add("duration");
+            return 60;
+        }
+
+        @Override
+        public long getViewCount() throws ParsingException {
+            calls.add("viewCount");
+            throw new ParsingException("No view count");
+        }
+
+        @Override
+        public String getUploaderName() {
+            calls.add("uploaderName");
+            return "uploader";
+        }
+
+        @Override
+        public String getUploaderUrl() {
+            calls.add("uploaderUrl");
+            return "https://example.com/uploader";
+        }
+
+        @Override
+        public boolean isUploaderVerified() {
+            calls.add("uploaderVerified");
+            return true;
+        }
+
+        @Override
+        public String getTextualUploadDate() {
+            calls.add("textualUploadDate");
+            return "2020-01-01";
+        }
+
+        @Override
+        public DateWrapper getUploadDate() {
+            calls.add("uploadDate");
+            return new DateWrapper(OffsetDateTime.parse("2020-01-01T00:00:00Z"));
+        }
+
+        @Override
+        public List<Image> getThumbnails() {
+            calls.add("thumbnails");
+            return List.of();
+        }
+    }
+
+    @AfterEach
+    void resetCollectorOptions() {
+        InfoItemsCollector.setLazyExtraction(false);
+        InfoItemsCollector.setPrefetchedFields(StreamInfoItem.Field.class,
+                EnumSet.noneOf(StreamInfoItem.Field.class));
+    }
+
+    private static StreamInfoItem collect(final StreamInfoItemsCollector collector,
+                                          final RecordingExtractor extractor) {
+        collector.commit(extractor);
+        assertEquals(1, collector.getItems().size());
+        return collector.getItems().get(0);
+    }
+
+    @Test
+    void fieldsAreExtractedWhenCollectingByDefault() {
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        final RecordingExtractor extractor = new RecordingExtractor();
+        collect(collector, extractor);
+
+        assertEquals(List.of("duration", "uploaderName", "textualUploadDate", "uploadDate",
+                "viewCount", "thumbnails", "uploaderUrl", "uploaderVerified"), extractor.calls);
+        assertEquals(1, collector.getErrors().size());
+    }
+
+    @Test
+    void runtimeErrorsOfTheUploadDateAreNotIgnoredByDefault() {
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        collector.commit(new RecordingExtractor() {
+            @Override
+            public DateWrapper getUploadDate() {
+                throw new IllegalStateException("Invalid upload date");
+            }
+        });
+
+        assertTrue(collector.getItems().isEmpty());
+        assertEquals(1, collector.getErrors().size());
+        assertInstanceOf(IllegalStateException.class, collector.getErrors().get(0));
+    }
+
+    @Test
+    void fieldsAreExtractedOnFirstAccessInLazyMode() {
+        InfoItemsCollector.setLazyExtraction(true);
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        final RecordingExtractor extractor = new RecordingExtractor();
+        final StreamInfoItem item = collect(collector, extractor);
+
+        assertEquals("name", item.getName());
+        assertEquals("https://example.com/watch", item.getUrl());
+        assertTrue(extractor.calls.isEmpty());
+
+        assertEquals("uploader", item.getUploaderName());
+        assertEquals("uploader", item.getUploaderName());
+        assertEquals(List.of("uploaderName"), extractor.calls);
+
+        // Lazy extraction errors are not reported and leave the default value
+        assertEquals(-1, item.getViewCount());
+        assertEquals(-1, item.getViewCount());
+        assertEquals(List.of("uploaderName", "viewCount"), extractor.calls);
+        assertTrue(collector.getErrors().isEmpty());
+    }
+
+    @Test
+    void prefetchedFieldsAreExtractedWhenCollecting() {
+        InfoItemsCollector.setLazyExtraction(true);
+        InfoItemsCollector.setPrefetchedFields(StreamInfoItem.Field.class,
+                EnumSet.of(StreamInfoItem.Field.UPLOAD_DATE, StreamInfoItem.Field.VIEW_COUNT));
+        final StreamInfoItemsCollector collector = new StreamInfoItemsCollector(0);
+        final RecordingExtractor extractor = new RecordingExtractor();
+        final StreamInfoItem item = collect(collector, extractor);
+
+        assertEquals(List.of("uploadDate", "viewCount"), extractor.calls);
+        assertEquals(1, collector.getErrors().size());
+
+        assertNotNull(item.getUploadDate());
+        assertEquals(List.of("uploadDate", "viewCount"), extractor.calls);
+    }
+
+    @Test
+    void setFieldsAreNotExtracted() {
+        InfoItemsCollector.setLazyExtraction(true);
+        final RecordingExtractor extractor = new RecordingExtractor();
+        final StreamInfoItem item = collect(new StreamInfoItemsCollector(0), extractor);
+
+        item.setUploaderName(null);
+        assertNull(item.getUploaderName());
+        assertTrue(extractor.calls.isEmpty());
+    }
+
+    @Test
+    void pendingFieldsAreExtractedBeforeSerializing() throws Exception {
+        InfoItemsCollector.setLazyExtraction(true);
+        final RecordingExtractor extractor = new RecordingExtractor();
+        final StreamInfoItem item = collect(new StreamInfoItemsCollector(0), extractor);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(item);
+        }
+        assertEquals(8, extractor.calls.size());
+
+        final StreamInfoItem deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (StreamInfoItem) in.readObject();
+        }
+        assertEquals("uploader", deserialized.getUploaderName());
+        assertEquals(60, deserialized.getDuration());
+        assertTrue(deserialized.isUploaderVerified());
+        assertEquals(8, extractor.calls.size());
+    }
+}
@@ -0,0 +1,103 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamContentResolutionTest {
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    private AudioStream buildAudioStream(final String id, final ContentResolver resolver) {
+        return new AudioStream.Builder()
+                .setId(id)
+                .setContent("https://example.com/" + id + "?s=obfuscated", true)
+                .setMediaFormat(MediaFormat.M4A)
+                .setContentResolver(resolver)
+                .build();
+    }
+
+    private ContentResolver deobfuscatingResolver() {
+        return content -> {
+            resolutions.incrementAndGet();
+            return content.replace("obfuscated", "deobfuscated");
+        };
+    }
+
+    @Test
+    void contentIsResolvedOnFirstAccess() {
+        final AudioStream stream = buildAudioStream("140", deobfuscatingResolver());
+        assertFalse(stream.isContentResolved());
+        assertEquals(0, resolutions.get());
+
+        assertEquals("https://example.com/140?s=deobfuscated", stream.getContent());
+        assertEquals("https://example.com/140?s=deobfuscated", stream.getContent());
+        assertTrue(stream.isContentResolved());
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    void streamsWithoutResolverAreResolved() {
+        final VideoStream stream = new VideoStream.Builder()
+                .setId("18")
+                .setContent("https://example.com/18", true)
+                .setIsVideoOnly(false)
+                .setResolution("360p")
+                .build();
+
+        assertTrue(stream.isContentResolved());
+        assertEquals("https://example.com/18", stream.getContent());
+    }
+
+    @Test
+    void failedResolutionsAreReported() {
+        final AudioStream stream = buildAudioStream("251", content -> {
+            throw new ParsingException("Could not deobfuscate");
+        });
+
+        assertThrows(ParsingException.class, stream::resolveContent);
+        assertThrows(IllegalStateException.class, stream::getContent);
+        assertFalse(stream.isContentResolved());
+    }
+
+    @Test
+    void unresolvableStreamsAreNotReturnedByBatchResolution() {
+        final AudioStream resolvable = buildAudioStream("140", deobfuscatingResolver());
+        final AudioStream unresolvable = buildAudioStream("251", content -> {
+            throw new ParsingException("Could not deobfuscate");
+        });
+
+        assertEquals(List.of(resolvable),
+                Stream.resolveContents(List.of(unresolvable, resolvable)));
+        assertTrue(resolvable.isContentResolved());
+    }
+
+    @Test
+    void contentIsResolvedBeforeSerialization() throws Exception {
+        final AudioStream stream = buildAudioStream("140", deobfuscatingResolver());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(stream);
+        }
+        final AudioStream deserializedStream;
+        try (ObjectInputStream inputStream =
+                     new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserializedStream = (AudioStream) inputStream.readObject();
+        }
+
+        assertTrue(deserializedStream.isContentResolved());
+        assertEquals("https://example.com/140?s=deobfuscated", deserializedStream.getContent());
+    }
+}
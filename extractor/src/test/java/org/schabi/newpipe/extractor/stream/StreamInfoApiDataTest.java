@@ -0,0 +1,276 @@
+package org.schabi.newpipe.extractor.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.Image;
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.downloader.Downloader;
+import org.schabi.newpipe.extractor.downloader.Request;
+import org.schabi.newpipe.extractor.downloader.Response;
+import org.schabi.newpipe.extractor.linkhandler.LinkHandler;
+import org.schabi.newpipe.extractor.returnyoutubedislike.ReturnYouTubeDislikeApiSettings;
+import org.schabi.newpipe.extractor.sponsorblock.SponsorBlockApiSettings;
+import org.schabi.newpipe.extractor.sponsorblock.SponsorBlockSegment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.schabi.newpipe.extractor.ServiceList.YouTube;
+
+class StreamInfoApiDataTest {
+    private static final String ID = "aaaaaaaaaaa";
+    private static final String CHANGED_ID = "bbbbbbbbbbb";
+    private static final String BASE_URL = "https://www.youtube.com/watch?v=";
+
+    /**
+     * A downloader answering SponsorBlock and Return YouTube Dislike API requests, whose
+     * responses can be held back.
+     */
+    private static final class ApiDownloader extends Downloader {
+        final List<String> requestedUrls = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch responsesReleased = new CountDownLatch(1);
+
+        ApiDownloader(final boolean responsesHeldBack) {
+            if (!responsesHeldBack) {
+                responsesReleased.countDown();
+            }
+        }
+
+        @Override
+        public Response execute(@Nonnull final Request request) throws IOException {
+            final String url = request.url();
+            requestedUrls.add(url);
+            try {
+                responsesReleased.await();
+            } catch (final InterruptedException e) {
+                throw new IOException("Interrupted", e);
+            }
+
+            final String body;
+            if (url.startsWith("https://sponsor.example/skipSegments/")) {
+                // Segments are returned for all the videos whose ID hash has the same prefix
+                body = "[" + segmentsResponse(ID, 1) + "," + segmentsResponse(CHANGED_ID, 2) + "]";
+            } else if (url.startsWith("https://ryd.example/votes?videoId=")) {
+                final String videoId = url.substring(url.indexOf('=') + 1);
+                body = "{\"likes\":" + (videoId.equals(ID) ? 10 : 20) + ",\"dislikes\":1}";
+            } else {
+                throw new IOException("Unexpected request to " + url);
+            }
+            return new Response(200, "OK", null, body, url);
+        }
+
+        @Nonnull
+        private static String segmentsResponse(@Nonnull final String videoId,
+                                               final int startTime) {
+            return "{\"videoID\":\"" + videoId + "\",\"segments\":[{\"segment\":["
+                    + startTime + ",10],\"UUID\":\"" + videoId + "\",\"category\":\"sponsor\","
+                    + "\"actionType\":\"skip\"}]}";
+        }
+    }
+
+    /**
+     * A stream extractor with a single audio stream, which may fail to fetch its page or change
+     * the ID of the stream.
+     */
+    private static class FakeStreamExtractor extends StreamExtractor {
+        private final boolean fetchFailing;
+        private final String id;
+
+        FakeStreamExtractor(final boolean fetchFailing, @Nonnull final String id) {
+            super(YouTube, new LinkHandler(BASE_URL + ID, BASE_URL + ID, ID));
+            this.fetchFailing = fetchFailing;
+            this.id = id;
+        }
+
+        @Override
+        public void onFetchPage(@Nonnull final Downloader downloader) throws IOException {
+            if (fetchFailing) {
+                throw new IOException("Could not fetch the page");
+            }
+        }
+
+        @Nonnull
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Nonnull
+        @Override
+        public String getUrl() {
+            return BASE_URL + id;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return "name";
+        }
+
+        @Nonnull
+        @Override
+        public List<Image> getThumbnails() {
+            return List.of();
+        }
+
+        @Nonnull
+        @Override
+        public String getUploaderUrl() {
+            return "";
+        }
+
+        @Nonnull
+        @Override
+        public String getUploaderName() {
+            return "";
+        }
+
+        @Override
+        public List<AudioStream> getAudioStreams() {
+            return List.of(new AudioStream.Builder()
+                    .setId("audio")
+                    .setContent("https://example.com/audio", true)
+                    .setMediaFormat(MediaFormat.M4A)
+                    .setAverageBitrate(128)
+                    .build());
+        }
+
+        @Override
+        public List<VideoStream> getVideoStreams() {
+            return List.of();
+        }
+
+        @Override
+        public List<VideoStream> getVideoOnlyStreams() {
+            return List.of();
+        }
+
+        @Override
+        public StreamType getStreamType() {
+            return StreamType.VIDEO_STREAM;
+        }
+    }
+
+    private ApiDownloader downloader;
+
+    @AfterEach
+    void releaseResponses() {
+        downloader.responsesReleased.countDown();
+    }
+
+    @Nonnull
+    private static SponsorBlockApiSettings sponsorBlockApiSettings(final long timeoutMillis) {
+        final SponsorBlockApiSettings settings = new SponsorBlockApiSettings();
+        settings.apiUrl = "https://sponsor.example/";
+        settings.includeSponsorCategory = true;
+        settings.timeoutMillis = timeoutMillis;
+        return settings;
+    }
+
+    @Nonnull
+    private static ReturnYouTubeDislikeApiSettings rydApiSettings(final long timeoutMillis) {
+        final ReturnYouTubeDislikeApiSettings settings = new ReturnYouTubeDislikeApiSettings();
+        settings.apiUrl = "https://ryd.example/";
+        settings.timeoutMillis = timeoutMillis;
+        return settings;
+    }
+
+    @Test
+    void apiDataIsFetchedWithTheStream() throws Exception {
+        downloader = new ApiDownloader(false);
+        NewPipe.init(downloader);
+
+        final StreamInfo info = StreamInfo.getInfo(new FakeStreamExtractor(false, ID),
+                sponsorBlockApiSettings(0), rydApiSettings(0));
+
+        final SponsorBlockSegment[] segments = info.getSponsorBlockSegments();
+        assertEquals(1, segments.length);
+        assertEquals(ID, segments[0].uuid);
+        assertEquals(10, info.getRydInfo().likes);
+    }
+
+    @Test
+    void defaultsAreUsedIfApiDataIsNotAvailableInTime() throws Exception {
+        downloader = new ApiDownloader(true);
+        NewPipe.init(downloader);
+
+        final StreamInfo info = StreamInfo.getInfo(new FakeStreamExtractor(false, ID),
+                sponsorBlockApiSettings(50), rydApiSettings(50));
+
+        assertEquals(0, info.getSponsorBlockSegments().length);
+        assertNull(info.getRydInfo());
+        assertEquals(1, info.getAudioStreams().size());
+    }
+
+    @Test
+    void apiRequestsAreCancelledIfTheStreamCannotBeFetched() {
+        downloader = new ApiDownloader(false);
+        // Queue the API requests, so that they are only sent if they have not been cancelled
+        final List<Runnable> queuedRequests = Collections.synchronizedList(new ArrayList<>());
+        downloader.setAsyncExecutor(queuedRequests::add);
+        NewPipe.init(downloader);
+
+        assertThrows(IOException.class, () -> StreamInfo.getInfo(
+                new FakeStreamExtractor(true, ID), sponsorBlockApiSettings(0), rydApiSettings(0)));
+
+        assertEquals(2, queuedRequests.size());
+        queuedRequests.forEach(Runnable::run);
+        assertTrue(downloader.requestedUrls.isEmpty());
+    }
+
+    @Test
+    void apiRequestsAreCancelledIfTheExtractionThrowsARuntimeException() {
+        downloader = new ApiDownloader(false);
+        final List<Runnable> queuedRequests = Collections.synchronizedList(new ArrayList<>());
+        downloader.setAsyncExecutor(queuedRequests::add);
+        NewPipe.init(downloader);
+
+        assertThrows(IllegalStateException.class, () -> StreamInfo.getInfo(
+                new FakeStreamExtractor(false, ID) {
+                    @Nonnull
+                    @Override
+                    public String getName() {
+                        throw new IllegalStateException("Unexpected page structure");
+                    }
+                }, sponsorBlockApiSettings(0), rydApiSettings(0)));
+
+        assertEquals(2, queuedRequests.size());
+        queuedRequests.forEach(Runnable::run);
+        assertTrue(downloader.requestedUrls.isEmpty());
+    }
+
+    @Test
+    void apiDataIsFetchedAgainIfTheIdChanged() throws Exception {
+        downloader = new ApiDownloader(false);
+        final List<Runnable> queuedRequests = Collections.synchronizedList(new ArrayList<>());
+        downloader.setAsyncExecutor(queuedRequests::add);
+        NewPipe.init(downloader);
+
+        final StreamInfo info = StreamInfo.getInfo(new FakeStreamExtractor(false, CHANGED_ID),
+                sponsorBlockApiSettings(0), rydApiSettings(0));
+
+        final SponsorBlockSegment[] segments = info.getSponsorBlockSegments();
+        assertEquals(1, segments.length);
+        assertEquals(CHANGED_ID, segments[0].uuid);
+        assertEquals(20, info.getRydInfo().likes);
+
+        // The requests started with the previous ID have been cancelled
+        queuedRequests.forEach(Runnable::run);
+        assertEquals(List.of("https://ryd.example/votes?videoId=" + CHANGED_ID),
+                downloader.requestedUrls.stream()
+                        .filter(url -> url.startsWith("https://ryd.example/"))
+                        .collect(Collectors.toList()));
+        assertEquals(2, downloader.requestedUrls.size());
+    }
+}
@@ -0,0 +1,122 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FutureUtilsTest {
+
+    @Test
+    void callAsyncFailsWithTheExceptionOfTheTask() {
+        final IOException exception = new IOException("Request failed");
+        final CompletableFuture<String> future = FutureUtils.callAsync(() -> {
+            throw exception;
+        }, Runnable::run);
+
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertSame(exception, e.getCause());
+    }
+
+    @Test
+    void callAsyncDoesNotRunCancelledTasks() throws Exception {
+        final List<Runnable> queuedTasks = new ArrayList<>();
+        final AtomicBoolean called = new AtomicBoolean();
+        final CompletableFuture<String> future = FutureUtils.callAsync(() -> {
+            called.set(true);
+            return "result";
+        }, queuedTasks::add);
+
+        future.cancel(false);
+        queuedTasks.forEach(Runnable::run);
+
+        assertFalse(called.get());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void callAsyncFailsIfTheTaskIsRejected() {
+        final CompletableFuture<String> future = FutureUtils.callAsync(() -> "result", task -> {
+            throw new RejectedExecutionException("Shut down");
+        });
+
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    @Test
+    void awaitRethrowsExtractionExceptionsAsIs() {
+        final IOException ioException = new IOException("Request failed");
+        final ParsingException parsingException = new ParsingException("Invalid response");
+        final IllegalStateException runtimeException = new IllegalStateException("Bug");
+
+        assertSame(ioException, assertThrows(IOException.class,
+                () -> FutureUtils.await(CompletableFuture.failedFuture(ioException))));
+        assertSame(parsingException, assertThrows(ParsingException.class,
+                () -> FutureUtils.await(CompletableFuture.failedFuture(parsingException))));
+        assertSame(runtimeException, assertThrows(IllegalStateException.class,
+                () -> FutureUtils.await(CompletableFuture.failedFuture(runtimeException))));
+    }
+
+    @Test
+    void awaitWrapsOtherCheckedExceptions() {
+        final Exception exception = new Exception("Unexpected");
+
+        final ExtractionException e = assertThrows(ExtractionException.class,
+                () -> FutureUtils.await(CompletableFuture.failedFuture(exception)));
+        assertSame(exception, e.getCause());
+    }
+
+    @Test
+    void awaitThrowsIOExceptionsIfCancelled() {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        future.cancel(false);
+
+        final IOException e = assertThrows(IOException.class, () -> FutureUtils.await(future));
+        assertInstanceOf(CancellationException.class, e.getCause());
+    }
+
+    @Test
+    void getOrDefaultCancelsFuturesNotCompletedInTime() {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        assertEquals("default", FutureUtils.getOrDefault(future, 10, "default"));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void getOrDefaultReturnsTheDefaultValueOfFailedFutures() {
+        assertEquals("default", FutureUtils.getOrDefault(
+                CompletableFuture.failedFuture(new IOException("Request failed")), 10, "default"));
+        assertEquals("result", FutureUtils.getOrDefault(
+                CompletableFuture.completedFuture("result"), 10, "default"));
+    }
+
+    @Test
+    void cancelAllIgnoresNullFutures() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> completed = CompletableFuture.completedFuture("result");
+        final CompletableFuture<String> last = new CompletableFuture<>();
+
+        FutureUtils.cancelAll(first, null, completed, null, last);
+
+        assertTrue(first.isCancelled());
+        assertFalse(completed.isCancelled());
+        assertTrue(last.isCancelled());
+    }
+}
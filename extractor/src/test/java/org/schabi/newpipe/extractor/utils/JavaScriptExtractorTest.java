@@ -23,6 +23,28 @@ class JavaScriptExtractorTest
         assertEquals("(d){var x = [/,,/,913,/(,)}/g,\"abcdef}\\\"\",];var y = 10/2/1;return x[1][y];}", result);
     }
 
+    @Test
+    void testJsExtractorWithoutRegexLiterals() throws ParsingException {
+        final String src = "var a={};Wka=function(d){/* } */var x=[\"}\",'{'];// }\n"
+                + "return x[d/2]+a;}random-padding;";
+        final String result = JavaScriptExtractor.matchToClosingBrace(src, "Wka=function");
+        assertEquals("(d){/* } */var x=[\"}\",'{'];// }\nreturn x[d/2]+a;}", result);
+    }
+
+    @Test
+    void testJsExtractorWithAmbiguousSlashes() throws ParsingException {
+        final String src = "Wka=function(d){if(d)/}/.test(d);var y={}/1;return`}${d}`;}//}";
+        final String result = JavaScriptExtractor.matchToClosingBrace(src, "Wka=function");
+        assertEquals("(d){if(d)/}/.test(d);var y={}/1;return`}${d}`;}", result);
+    }
+
+    @Test
+    void testFindClosingBrace() throws ParsingException {
+        final String src = "a=function(){return 1};b=function(c){return{c:c}};";
+        final int start = src.indexOf("b=function") + "b=function".length();
+        assertEquals(src.length() - 1, JavaScriptExtractor.findClosingBrace(src, start));
+    }
+
     @Test
     void testEverythingJs() throws ParsingException, IOException {
         final File jsFile = resolveTestResource("es5.js");
@@ -0,0 +1,48 @@
+package org.schabi.newpipe.extractor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+import org.schabi.newpipe.extractor.utils.jsextractor.JavaScriptIndex;
+
+class JavaScriptIndexTest {
+    private static final String CODE = "var _yt_player={};(function(g){var window=this;"
+            + "var z=\"a;b\".split(\";\"),Xy={AB:function(a){a.reverse()},cd:function(a,b){"
+            + "a.splice(0,b)}};g.Wka=function(){return 0};"
+            + "Wka=function(d){var x=[/,,/,913,/(,)}/g,\"abcdef}\\\"\",];"
+            + "var Xy={};return x[1][d/2/1];};"
+            + "function nfa(a,b){return{a:a,b:b}}var arr=[Wka,nfa],h=function named(a){};"
+            + "/* Xy={} */})(_yt_player);";
+
+    @Test
+    void functionsAreIndexed() throws ParsingException {
+        final JavaScriptIndex index = JavaScriptIndex.build(CODE);
+
+        assertEquals("function(d){var x=[/,,/,913,/(,)}/g,\"abcdef}\\\"\",];var Xy={};"
+                + "return x[1][d/2/1];}", index.getFunction("Wka"));
+        assertEquals("function(a,b){return{a:a,b:b}}", index.getFunction("nfa"));
+        assertEquals("function(a){}", index.getFunction("h"));
+        assertNull(index.getFunction("named"));
+        assertNull(index.getFunction("Xy"));
+    }
+
+    @Test
+    void literalsAreIndexed() throws ParsingException {
+        final JavaScriptIndex index = JavaScriptIndex.build(CODE);
+
+        // Only the first definition is kept
+        assertEquals("{AB:function(a){a.reverse()},cd:function(a,b){a.splice(0,b)}}",
+                index.getObject("Xy"));
+        assertEquals("[Wka,nfa]", index.getArray("arr"));
+        assertEquals("{}", index.getObject("_yt_player"));
+        assertNull(index.getArray("Xy"));
+    }
+
+    @Test
+    void unbalancedCodeIsRejected() {
+        assertThrows(ParsingException.class, () -> JavaScriptIndex.build("a=function(){}}"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.schabi.newpipe.extractor.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaScriptTest {
+    private static final String FUNCTION = "var h={r:function(a){return a.reverse()}};"
+            + "function f(a){a=a.split(\"\");h.r(a);return a.join(\"\")}";
+
+    @BeforeEach
+    void clearCache() {
+        JavaScript.clearCompiledFunctionsCache();
+        JavaScript.resetMetrics();
+    }
+
+    @Test
+    void compiledFunctionsAreReused() {
+        assertEquals("cba", JavaScript.run(FUNCTION, "f", "abc"));
+        assertEquals("fed", JavaScript.run(FUNCTION, "f", "def"));
+        assertEquals(1, JavaScript.getCompiledFunctionsCacheSize());
+
+        assertEquals("ab", JavaScript.run("function g(a,b){return a+b}", "g", "a", "b"));
+        assertEquals(2, JavaScript.getCompiledFunctionsCacheSize());
+    }
+
+    @Test
+    void functionIsRunForEachParameter() {
+        assertEquals(List.of("cba", "fed", ""),
+                JavaScript.runForEach(FUNCTION, "f", List.of("abc", "def", "")));
+        assertEquals(1, JavaScript.getCompiledFunctionsCacheSize());
+    }
+
+    @Test
+    void globalAssignmentsAreNotShared() {
+        final String function = "function f(a){if(typeof c===\"undefined\"){c=a}return c}";
+
+        assertEquals("a", JavaScript.run(function, "f", "a"));
+        assertEquals("b", JavaScript.run(function, "f", "b"));
+    }
+
+    @Test
+    void declaredGlobalsAreNotShared() {
+        final String function = "var n=0;function f(a){n++;return a+n}";
+
+        assertEquals("a1", JavaScript.run(function, "f", "a"));
+        assertEquals("b1", JavaScript.run(function, "f", "b"));
+        assertEquals(1, JavaScript.getCompiledFunctionsCacheSize());
+    }
+
+    @Test
+    void globalsAreOnlySharedByTheCallsOfARunForEach() {
+        final String function = "var n=0;function f(a){n++;return a+n}";
+
+        // The code is evaluated once per batch, and the function is called for each parameter
+        assertEquals(List.of("a1", "b2"), JavaScript.runForEach(function, "f", List.of("a", "b")));
+        assertEquals(List.of("c1"), JavaScript.runForEach(function, "f", List.of("c")));
+        assertEquals("d1", JavaScript.run(function, "f", "d"));
+    }
+
+    @Test
+    void standardObjectsAreAvailable() {
+        assertEquals("3", JavaScript.run("function f(a){return Math.max(a.length,"
+                + "JSON.parse(\"[1,2]\").length)}", "f", "abc"));
+    }
+
+    @Test
+    void compilationsAndCallsAreMeasured() {
+        JavaScript.run(FUNCTION, "f", "abc");
+        JavaScript.runForEach(FUNCTION, "f", List.of("abc", "def"));
+
+        assertEquals(1, JavaScript.getCompilationCount());
+        assertEquals(3, JavaScript.getCallCount());
+        assertTrue(JavaScript.getCompilationTimeNanos() > 0);
+        assertTrue(JavaScript.getCallTimeNanos() > 0);
+    }
+
+    @Test
+    void functionsCanBeCompiledToBytecode() {
+        try {
+            JavaScript.setInterpretedMode(false);
+            assertEquals(0, JavaScript.getCompiledFunctionsCacheSize());
+            assertEquals("cba", JavaScript.run(FUNCTION, "f", "abc"));
+        } finally {
+            JavaScript.setInterpretedMode(true);
+        }
+        assertEquals(0, JavaScript.getCompiledFunctionsCacheSize());
+        assertEquals("cba", JavaScript.run(FUNCTION, "f", "abc"));
+    }
+}
@@ -0,0 +1,61 @@
+package org.schabi.newpipe.extractor.utils;
+
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.exceptions.ParsingException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonPathTest {
+    private static JsonObject object;
+
+    @BeforeAll
+    static void setUp() throws JsonParserException {
+        object = JsonParser.object().from("{\"title\":{\"runs\":[{\"text\":\"a\"},"
+                + "{\"text\":\"b\"}]},\"matrix\":[[1,2],[3,4]],\"empty\":null,"
+                + "\"flag\":true}");
+    }
+
+    @Test
+    void keysAndArrayIndicesAreFollowed() throws ParsingException {
+        assertEquals("b", JsonPath.compile("title.runs[1].text").getString(object));
+        assertEquals(3, JsonPath.compile("matrix[1][0]").getNumber(object).intValue());
+        assertEquals(true, JsonPath.compile("flag").getBoolean(object));
+        assertEquals(2, JsonPath.compile("title.runs").getArray(object).size());
+        assertEquals("a", JsonPath.compile("title.runs[0]").getObject(object).getString("text"));
+    }
+
+    @Test
+    void missingValuesAreNotFound() {
+        assertNull(JsonPath.compile("title.runs[2].text").find(object));
+        assertNull(JsonPath.compile("title[0]").find(object));
+        assertNull(JsonPath.compile("matrix.size").find(object));
+        assertNull(JsonPath.compile("empty").find(object));
+        assertNull(JsonPath.compile("flag.value").find(object));
+
+        assertThrows(ParsingException.class,
+                () -> JsonPath.compile("title.runs[2].text").getValue(object));
+        assertThrows(ParsingException.class,
+                () -> JsonPath.compile("title.runs[0].text").getNumber(object));
+    }
+
+    @Test
+    void invalidIndicesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("runs[a]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("runs[-1]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("runs[0"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("runs[0]x"));
+    }
+
+    @Test
+    void stringPathsSupportArrayIndices() throws ParsingException {
+        assertEquals("a", JsonUtils.getString(object, "title.runs[0].text"));
+        assertEquals(4, JsonUtils.getNumber(object, "matrix[1][1]").intValue());
+    }
+}
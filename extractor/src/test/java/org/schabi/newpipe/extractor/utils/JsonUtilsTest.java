@@ -6,14 +6,27 @@ import com.grack.nanojson.JsonObject;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParserException;
 import org.junit.jupiter.api.Test;
+import org.schabi.newpipe.extractor.downloader.Response;
 import org.schabi.newpipe.extractor.exceptions.ParsingException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class JsonUtilsTest {
+    private static final String RESPONSE_WITH_UNUSED_VALUES =
+            "{\"ads\":[{\"a\":\"}]\\\"{\"}],"
+            + "\"streamingData\":{\"formats\":[1,2]},"
+            + "\"videoDetails\":{\"videoId\":\"abc\",\"title\":\"Café\",\"views\":{\"n\":1}},"
+            + "\"tracking\":null, \"captions\" : true , \"k\\u0065y\":\"escaped\"}";
+    private static final List<String> PATHS = List.of("streamingData", "videoDetails.videoId",
+            "captions", "key", "tracking.params", "missing.path");
 
     @Test
     public void testGetValueFlat() throws JsonParserException, ParsingException {
@@ -43,4 +56,51 @@ public class JsonUtilsTest {
 
     }
 
+    @Test
+    public void testToJsonObjectFromRawResponse() throws ParsingException {
+        final byte[] body = "{\"title\":\"Café\",\"views\":42}"
+                .getBytes(StandardCharsets.UTF_8);
+        final JsonObject obj = JsonUtils.toJsonObject(
+                new Response(200, "OK", null, body, null, "https://example.com"));
+        assertEquals("Café", obj.getString("title"));
+        assertEquals(42, obj.getInt("views"));
+
+        final JsonArray arr = JsonUtils.toJsonArray(new Response(200, "OK", null,
+                "[1,2,3]".getBytes(StandardCharsets.UTF_8), null, "https://example.com"));
+        assertEquals(3, arr.size());
+    }
+
+    @Test
+    public void testToJsonObjectWithPaths() throws ParsingException {
+        final JsonObject obj = JsonUtils.toJsonObject(RESPONSE_WITH_UNUSED_VALUES, PATHS);
+        assertEquals(List.of("streamingData", "videoDetails", "captions", "key"),
+                List.copyOf(obj.keySet()));
+        assertSelectedValues(obj);
+    }
+
+    @Test
+    public void testToJsonObjectWithPathsFromRawResponse() throws ParsingException {
+        assertSelectedValues(JsonUtils.toJsonObject(new Response(200, "OK", null,
+                RESPONSE_WITH_UNUSED_VALUES.getBytes(StandardCharsets.UTF_8), null,
+                "https://example.com"), PATHS));
+    }
+
+    @Test
+    public void testToJsonObjectWithPathsInvalid() {
+        assertThrows(ParsingException.class,
+                () -> JsonUtils.toJsonObject("{\"ads\":[{\"a\":1}", PATHS));
+        assertThrows(ParsingException.class,
+                () -> JsonUtils.toJsonObject("[\"streamingData\"]", PATHS));
+        assertThrows(ParsingException.class,
+                () -> JsonUtils.toJsonObject("{\"captions\":}", PATHS));
+    }
+
+    private static void assertSelectedValues(final JsonObject obj) {
+        assertEquals(List.of(1, 2), obj.getObject("streamingData").getArray("formats"));
+        assertEquals(Map.of("videoId", "abc"), obj.getObject("videoDetails"));
+        assertTrue(obj.getBoolean("captions"));
+        assertEquals("escaped", obj.getString("key"));
+        assertFalse(obj.has("ads"));
+        assertFalse(obj.has("tracking"));
+    }
 }
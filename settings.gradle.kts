@@ -18,5 +18,5 @@ dependencyResolutionManagement {
         maven(url = "https://jitpack.io")
     }
 }
-include("extractor", "timeago-generator")
+include("extractor", "timeago-generator", "benchmarks")
 rootProject.name = "NewPipeExtractor"